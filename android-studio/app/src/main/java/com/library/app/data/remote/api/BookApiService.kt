@@ -1,6 +1,7 @@
 package com.library.app.data.remote.api
 
 import com.library.app.data.remote.dto.*
+import okhttp3.ResponseBody
 import retrofit2.Response
 import retrofit2.http.*
 
@@ -64,6 +65,10 @@ interface BookApiService {
     @GET("api/books/all")
     suspend fun getAllBooksWithoutPagination(): Response<List<BookResponseDTO>>
 
+    @Streaming
+    @GET("api/books/changes")
+    suspend fun getBookChanges(@Query("since") since: String? = null): Response<ResponseBody>
+
     @POST("api/books/sync")
     suspend fun syncBooks(@Body books: List<BookSyncDTO>): Response<BookSyncResponseDTO>
 
@@ -70,7 +70,10 @@ data class SeedResponse(
     @SerializedName("inserted") val inserted: Int,
     @SerializedName("alreadyExists") val alreadyExists: Int,
     @SerializedName("errors") val errors: Int,
-    @SerializedName("message") val message: String
+    @SerializedName("message") val message: String,
+    @SerializedName("elapsedMillis") val elapsedMillis: Long? = null,
+    @SerializedName("rowsPerSecond") val rowsPerSecond: Double? = null,
+    @SerializedName("errorMessages") val errorMessages: List<String>? = null
 )
     @SerializedName("reservedBooks") val reservedBooks: Long,
     @SerializedName("totalCopies") val totalCopies: Long,
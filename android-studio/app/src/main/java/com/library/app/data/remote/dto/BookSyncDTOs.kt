@@ -30,4 +30,21 @@ data class BookSyncResponseDTO(
     @SerializedName("errorMessages") val errorMessages: List<String>
 )
 
-
+// Evento del feed de cambios (GET api/books/changes, una línea JSON por evento)
+data class BookChangeDTO(
+    @SerializedName("type") val type: String,
+    @SerializedName("book") val book: BookResponseDTO? = null,
+    @SerializedName("bookId") val bookId: Long? = null,
+    @SerializedName("isbn") val isbn: String? = null,
+    @SerializedName("deletedAt") val deletedAt: String? = null,
+    @SerializedName("syncToken") val syncToken: String? = null,
+    @SerializedName("upserts") val upserts: Long? = null,
+    @SerializedName("deletes") val deletes: Long? = null
+) {
+    companion object {
+        const val TYPE_RESET = "RESET"
+        const val TYPE_UPSERT = "UPSERT"
+        const val TYPE_DELETE = "DELETE"
+        const val TYPE_END = "END"
+    }
+}
@@ -1,8 +1,12 @@
 package com.library.app.data.repository
 
+import com.google.gson.Gson
 import com.library.app.data.remote.api.BookApiService
 import com.library.app.data.remote.dto.*
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
 import retrofit2.Response
+import java.io.IOException
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -11,7 +15,8 @@ import javax.inject.Singleton
  */
 @Singleton
 class BookSyncRepository @Inject constructor(
-    private val bookApiService: BookApiService
+    private val bookApiService: BookApiService,
+    private val gson: Gson
 ) {
 
     /**
@@ -22,6 +27,39 @@ class BookSyncRepository @Inject constructor(
         return bookApiService.getAllBooksWithoutPagination()
     }
 
+    /**
+     * Descargar solo los cambios desde la última sincronización.
+     * Los eventos se leen línea por línea a medida que llegan, sin cargar el catálogo completo en memoria.
+     * Con [sinceToken] null se recibe el catálogo completo; un evento RESET indica que la copia local debe descartarse.
+     * @return token a guardar para la próxima sincronización
+     */
+    suspend fun getBookChangesFromServer(
+        sinceToken: String?,
+        onChange: suspend (BookChangeDTO) -> Unit
+    ): String = withContext(Dispatchers.IO) {
+        val response = bookApiService.getBookChanges(sinceToken)
+        val body = response.body()
+        if (!response.isSuccessful || body == null) {
+            throw IOException("Error al obtener cambios: ${response.code()} ${response.message()}")
+        }
+
+        var syncToken: String? = null
+        body.use { responseBody ->
+            responseBody.charStream().buffered().useLines { lines ->
+                for (line in lines) {
+                    if (line.isBlank()) continue
+                    val change = gson.fromJson(line, BookChangeDTO::class.java)
+                    if (change.type == BookChangeDTO.TYPE_END) {
+                        syncToken = change.syncToken
+                    } else {
+                        onChange(change)
+                    }
+                }
+            }
+        }
+        syncToken ?: throw IOException("El feed de cambios terminó sin token de sincronización")
+    }
+
     /**
      * Sincronizar libros desde Android al servidor
      * Crea nuevos o actualiza existentes basándose en ISBN o título+autor
@@ -0,0 +1,24 @@
+package com.library.books.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la caché de disponibilidad de libros
+ */
+@Configuration
+@ConfigurationProperties(prefix = "books.availability-cache")
+@Data
+public class BookAvailabilityCacheConfig {
+
+    /**
+     * Máximo de libros en caché; al superarlo se descarta el menos usado
+     */
+    private Integer maxSize = 10000;
+
+    /**
+     * Vida máxima de una entrada, como resguardo frente a cambios hechos por otras instancias
+     */
+    private Long ttlSeconds = 300L;
+}
@@ -0,0 +1,30 @@
+package com.library.books.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las escrituras masivas (sincronización, carga de libros y ajustes de copias en lote)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "books.batch")
+@Data
+public class BookBatchConfig {
+
+    /**
+     * Filas por lote JDBC al insertar libros
+     */
+    private Integer chunkSize = 500;
+
+    /**
+     * Máximo de valores por cláusula IN al precargar libros existentes
+     */
+    private Integer inClauseSize = 1000;
+
+    /**
+     * Días que se conservan los IDs de eventos de ajustes de copias ya aplicados; deben cubrir
+     * los reintentos del emisor
+     */
+    private Integer appliedAdjustmentRetentionDays = 7;
+}
@@ -0,0 +1,31 @@
+package com.library.books.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del feed de cambios para la sincronización incremental
+ */
+@Configuration
+@ConfigurationProperties(prefix = "books.changes")
+@Data
+public class BookChangeFeedConfig {
+
+    /**
+     * Filas leídas por consulta mientras se transmite el feed
+     */
+    private Integer pageSize = 500;
+
+    /**
+     * Margen para no entregar cambios cuya transacción podría no haberse confirmado aún.
+     * Además, el feed no pasa de la primera marca de las transacciones abiertas (ver BookChangeClock).
+     */
+    private Long safetyLagMs = 2000L;
+
+    /**
+     * Días que se conservan los registros de libros eliminados.
+     * Un token más antiguo obliga al cliente a una sincronización completa.
+     */
+    private Integer tombstoneRetentionDays = 30;
+}
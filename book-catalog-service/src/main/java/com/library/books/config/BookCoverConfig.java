@@ -0,0 +1,43 @@
+package com.library.books.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración del almacenamiento de portadas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "books.covers")
+@Data
+public class BookCoverConfig {
+
+    /**
+     * Directorio donde se guardan las imágenes, nombradas por su hash SHA-256
+     */
+    private String storageDir = "data/covers";
+
+    /**
+     * Miniaturas generadas al subir una portada: nombre del tamaño y ancho máximo en píxeles
+     */
+    private Map<String, Integer> thumbnailWidths = new LinkedHashMap<>(Map.of("small", 160, "medium", 480));
+
+    /**
+     * Máximo de píxeles (ancho x alto) de una portada. Se verifica con la cabecera de la imagen antes
+     * de decodificarla: un archivo comprimido pequeño puede declarar dimensiones enormes.
+     */
+    private Long maxPixels = 25_000_000L;
+
+    /**
+     * Calidad JPEG de las miniaturas (0 a 1)
+     */
+    private Float jpegQuality = 0.85f;
+
+    /**
+     * Tiempo que los clientes pueden usar una portada sin revalidarla
+     */
+    private Long cacheMaxAgeSeconds = 3600L;
+}
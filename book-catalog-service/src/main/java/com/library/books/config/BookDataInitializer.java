@@ -1,5 +1,6 @@
 package com.library.books.config;
 
+import com.library.books.dto.SeedResponseDTO;
 import com.library.books.repository.BookRepository;
 import com.library.books.service.BookSeedService;
 import lombok.RequiredArgsConstructor;
@@ -8,10 +9,13 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
+
 /**
  * CommandLineRunner para cargar datos iniciales automáticamente
  * Solo se ejecuta si la propiedad 'books.load-initial-data' está en 'true'
- * y la base de datos está vacía
+ * y la base de datos está vacía. Si 'books.seed.initial-file' está definido,
+ * carga ese archivo en lugar de los libros precargados.
  */
 @Component
 @RequiredArgsConstructor
@@ -21,14 +25,21 @@ public class BookDataInitializer implements CommandLineRunner {
 
     private final BookSeedService bookSeedService;
     private final BookRepository bookRepository;
+    private final BookSeedConfig seedConfig;
 
     @Override
     public void run(String... args) throws Exception {
         long bookCount = bookRepository.count();
         
         if (bookCount == 0) {
-            log.info("Base de datos vacía. Cargando libros precargados...");
-            var result = bookSeedService.loadInitialBooks(false);
+            SeedResponseDTO result;
+            if (seedConfig.getInitialFile() != null && !seedConfig.getInitialFile().isBlank()) {
+                log.info("Base de datos vacía. Cargando libros desde {}...", seedConfig.getInitialFile());
+                result = bookSeedService.loadBooksFromFile(Paths.get(seedConfig.getInitialFile()));
+            } else {
+                log.info("Base de datos vacía. Cargando libros precargados...");
+                result = bookSeedService.loadInitialBooks(false);
+            }
             log.info("Carga inicial completada: {}", result.getMessage());
         } else {
             log.info("Base de datos ya contiene {} libros. No se cargarán datos iniciales.", bookCount);
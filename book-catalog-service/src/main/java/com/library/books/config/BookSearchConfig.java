@@ -0,0 +1,30 @@
+package com.library.books.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del índice de búsqueda en memoria del catálogo
+ */
+@Configuration
+@ConfigurationProperties(prefix = "books.search")
+@Data
+public class BookSearchConfig {
+
+    /**
+     * Construir el índice al iniciar la aplicación
+     */
+    private boolean buildOnStartup = true;
+
+    /**
+     * Cantidad de libros leídos por consulta durante la reconstrucción
+     */
+    private Integer rebuildBatchSize = 500;
+
+    /**
+     * Parámetros de ranking BM25
+     */
+    private Double k1 = 1.2;
+    private Double b = 0.75;
+}
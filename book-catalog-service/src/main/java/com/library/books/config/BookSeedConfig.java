@@ -0,0 +1,29 @@
+package com.library.books.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la carga de libros desde archivos JSON o CSV
+ */
+@Configuration
+@ConfigurationProperties(prefix = "books.seed")
+@Data
+public class BookSeedConfig {
+
+    /**
+     * Directorio desde el que el endpoint de carga puede leer archivos
+     */
+    private String importDir = "data/seed";
+
+    /**
+     * Filas leídas, deduplicadas e insertadas por transacción al cargar un archivo
+     */
+    private Integer fileChunkSize = 5000;
+
+    /**
+     * Archivo a cargar al iniciar con la base de datos vacía, en lugar de los libros precargados
+     */
+    private String initialFile;
+}
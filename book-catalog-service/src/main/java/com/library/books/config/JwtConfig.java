@@ -1,7 +1,9 @@
 package com.library.books.config;
 
+import com.library.security.jwt.JwtVerifier;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
@@ -9,6 +11,14 @@ import org.springframework.context.annotation.Configuration;
 @Data
 public class JwtConfig {
     private String secret = "library-secret-key-2024-very-secure-jwt-token-key-change-in-production";
-}
 
+    /**
+     * Cantidad máxima de tokens verificados que se conservan hasta su expiración (0 = sin caché)
+     */
+    private int cacheSize = JwtVerifier.DEFAULT_CACHE_SIZE;
 
+    @Bean
+    public JwtVerifier jwtVerifier() {
+        return new JwtVerifier(secret, cacheSize);
+    }
+}
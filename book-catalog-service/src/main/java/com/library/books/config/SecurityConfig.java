@@ -4,6 +4,7 @@ import com.library.books.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -25,7 +26,10 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**", "/actuator/**").permitAll()
-                        .requestMatchers("/api/books/seed").hasAuthority("ROLE_ADMINISTRADOR")
+                        .requestMatchers("/api/books/seed", "/api/books/seed/file").hasAuthority("ROLE_ADMINISTRADOR")
+                        .requestMatchers("/api/books/search/index/**").hasAuthority("ROLE_ADMINISTRADOR")
+                        .requestMatchers(HttpMethod.PUT, "/api/books/*/cover").hasAuthority("ROLE_ADMINISTRADOR")
+                        .requestMatchers(HttpMethod.DELETE, "/api/books/*/cover").hasAuthority("ROLE_ADMINISTRADOR")
                         .requestMatchers("/api/books/bulk").permitAll() // Permitir carga masiva desde Android
                         .requestMatchers("/api/books/**").permitAll() // Permitir acceso público a libros
                         .anyRequest().authenticated()
@@ -1,22 +1,39 @@
 package com.library.books.controller;
 
+import com.library.books.config.BookCoverConfig;
 import com.library.books.dto.*;
+import com.library.books.model.BookCover;
+import com.library.books.service.BookChangeFeedService;
+import com.library.books.service.BookCoverService;
+import com.library.books.service.BookSearchService;
 import com.library.books.service.BookService;
 import com.library.books.service.BookSeedService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/books")
@@ -24,8 +41,17 @@ import java.util.List;
 @Tag(name = "Book Catalog", description = "API para gestión del catálogo de libros")
 public class BookController {
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final BookService bookService;
     private final BookSeedService bookSeedService;
+    private final BookSearchService bookSearchService;
+    private final BookChangeFeedService bookChangeFeedService;
+    private final BookCoverService bookCoverService;
+    private final BookCoverConfig coverConfig;
 
     @PostMapping
     @Operation(
@@ -68,7 +94,8 @@ public class BookController {
         summary = "Listar libros", 
         description = "Obtiene una lista paginada de todos los libros en el catálogo. " +
                      "Soporta paginación y ordenamiento por cualquier campo. " +
-                     "Solo retorna libros que existen en la base de datos (id > 0).",
+                     "Solo retorna libros que existen en la base de datos (id > 0). " +
+                     "Para recorrer catálogos grandes se recomienda GET /api/books/scroll.",
         responses = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                 responseCode = "200", 
@@ -87,11 +114,27 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "Listar libros por cursor",
+        description = "Obtiene los libros página por página usando el cursor de la página anterior, sin calcular el total. " +
+                     "El tiempo de respuesta no depende de la profundidad de la página. " +
+                     "Solo permite ordenar por title, author, year, createdAt o id, y el cursor debe usarse con el mismo ordenamiento."
+    )
+    public ResponseEntity<BookSliceDTO> scrollBooks(
+            @Parameter(description = "Cantidad de elementos por página (1 a 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo de ordenamiento: title, author, year, createdAt o id", example = "title") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento", example = "ASC", schema = @io.swagger.v3.oas.annotations.media.Schema(allowableValues = {"ASC", "DESC"})) @RequestParam(defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Cursor devuelto en nextCursor por la página anterior; vacío para la primera página") @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(bookService.scrollAllBooks(sortBy, sortDir, size, cursor));
+    }
+
     @GetMapping("/search")
     @Operation(
         summary = "Buscar libros", 
-        description = "Busca libros en el catálogo por título, autor o ISBN. " +
-                     "La búsqueda es case-insensitive y busca coincidencias parciales. " +
+        description = "Busca libros en el catálogo por título, autor, ISBN, categoría o editorial. " +
+                     "La búsqueda ignora mayúsculas y acentos, acepta prefijos en el último término " +
+                     "y ordena los resultados por relevancia. " +
                      "Solo retorna libros que existen en la base de datos.",
         responses = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -101,7 +144,7 @@ public class BookController {
         }
     )
     public ResponseEntity<Page<BookResponseDTO>> searchBooks(
-            @Parameter(description = "Término de búsqueda (se busca en título, autor e ISBN)", example = "Orwell", required = true) @RequestParam String q,
+            @Parameter(description = "Término de búsqueda (se busca en título, autor, ISBN, categoría y editorial)", example = "Orwell", required = true) @RequestParam String q,
             @Parameter(description = "Número de página (inicia en 0)", example = "0") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Cantidad de elementos por página", example = "10") @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
@@ -109,6 +152,22 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @PostMapping("/search/index/rebuild")
+    @Operation(summary = "Reconstruir índice de búsqueda",
+               description = "Reconstruye en segundo plano el índice de búsqueda desde la base de datos. " +
+                            "Las búsquedas siguen respondiendo con el índice actual hasta que termina. Requiere rol de administrador.")
+    public ResponseEntity<SearchIndexStatusDTO> rebuildSearchIndex() {
+        SearchIndexStatusDTO status = bookSearchService.startRebuild();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/search/index/status")
+    @Operation(summary = "Estado del índice de búsqueda",
+               description = "Obtiene el estado del índice de búsqueda y el progreso de la reconstrucción. Requiere rol de administrador.")
+    public ResponseEntity<SearchIndexStatusDTO> getSearchIndexStatus() {
+        return ResponseEntity.ok(bookSearchService.getStatus());
+    }
+
     @PutMapping("/{bookId}")
     @Operation(summary = "Actualizar libro", description = "Actualiza la información de un libro")
     public ResponseEntity<BookResponseDTO> updateBook(
@@ -126,6 +185,15 @@ public class BookController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Verificar disponibilidad en lote",
+               description = "Devuelve la disponibilidad de varios libros (máximo 500) en una sola llamada, en el orden pedido. " +
+                            "Los libros inexistentes se devuelven como no disponibles.")
+    public ResponseEntity<List<BookAvailabilityDTO>> checkAvailabilityBatch(
+            @Parameter(description = "IDs de los libros, separados por coma", example = "1,2,3") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(bookService.checkAvailabilityBatch(ids));
+    }
+
     @GetMapping("/{bookId}/availability")
     @Operation(summary = "Verificar disponibilidad", description = "Verifica la disponibilidad de un libro")
     public ResponseEntity<BookAvailabilityDTO> checkAvailability(
@@ -134,8 +202,62 @@ public class BookController {
         return ResponseEntity.ok(availability);
     }
 
+    @PutMapping(value = "/{bookId}/cover", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Subir portada",
+               description = "Guarda la imagen de portada de un libro (JPEG, PNG, GIF o BMP) y genera sus miniaturas. " +
+                            "Reemplaza la portada anterior. Requiere rol de administrador.")
+    public ResponseEntity<Map<String, Object>> uploadCover(
+            @Parameter(description = "ID del libro") @PathVariable Long bookId,
+            @Parameter(description = "Imagen de portada") @RequestParam("file") MultipartFile file) throws IOException {
+        List<BookCover> covers = bookCoverService.uploadCover(bookId, file.getBytes());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("bookId", bookId);
+        response.put("sizes", covers.stream().map(BookCover::getVariant).toList());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{bookId}/cover")
+    @Operation(summary = "Obtener portada",
+               description = "Devuelve la imagen de portada en el tamaño pedido (original, medium o small). " +
+                            "Incluye un ETag fuerte; con If-None-Match responde 304 si la imagen no cambió.")
+    public ResponseEntity<Resource> getCover(
+            @Parameter(description = "ID del libro") @PathVariable Long bookId,
+            @Parameter(description = "Tamaño de la imagen", example = "medium") @RequestParam(defaultValue = "original") String size,
+            WebRequest webRequest,
+            HttpServletRequest request) {
+        BookCoverService.CoverContent cover = bookCoverService.getCover(bookId, size);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(coverConfig.getCacheMaxAgeSeconds())).cachePublic();
+        if (webRequest.checkNotModified(cover.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cover.etag()).cacheControl(cacheControl).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(cover.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(cover.contentType()))
+                .contentLength(cover.length());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envía el archivo con sendfile al terminar la petición, sin copiarlo por la JVM
+            request.setAttribute(SENDFILE_FILENAME, cover.path().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, cover.length());
+            return response.build();
+        }
+        return response.body(new FileSystemResource(cover.path()));
+    }
+
+    @DeleteMapping("/{bookId}/cover")
+    @Operation(summary = "Eliminar portada", description = "Elimina la portada de un libro y sus miniaturas. Requiere rol de administrador.")
+    public ResponseEntity<Void> deleteCover(
+            @Parameter(description = "ID del libro") @PathVariable Long bookId) {
+        bookCoverService.deleteCover(bookId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/{bookId}/copies")
-    @Operation(summary = "Actualizar copias", description = "Actualiza el número de copias disponibles de un libro")
+    @Operation(summary = "Actualizar copias",
+               description = "Suma o resta copias disponibles de un libro de forma atómica. " +
+                            "Responde 409 si el resultado quedaría por debajo de 0 o por encima del total de copias.")
     public ResponseEntity<BookResponseDTO> updateCopies(
             @Parameter(description = "ID del libro") @PathVariable Long bookId,
             @RequestParam Integer change) {
@@ -143,6 +265,16 @@ public class BookController {
         return ResponseEntity.ok(book);
     }
 
+    @PatchMapping("/copies")
+    @Operation(summary = "Actualizar copias en lote",
+               description = "Aplica varios ajustes de copias en un solo viaje a la base de datos y devuelve el resultado de cada uno. " +
+                            "Con allOrNothing=true, si algún ajuste no es válido no se aplica ninguno y se responde 409.")
+    public ResponseEntity<List<CopyAdjustmentResultDTO>> updateCopiesBatch(
+            @Parameter(description = "Ajustes a aplicar, en orden") @RequestBody List<CopyAdjustmentDTO> adjustments,
+            @Parameter(description = "Revertir todo el lote si algún ajuste es rechazado") @RequestParam(defaultValue = "false") boolean allOrNothing) {
+        return ResponseEntity.ok(bookService.updateCopiesBatch(adjustments, allOrNothing));
+    }
+
     @GetMapping("/category/{category}")
     @Operation(summary = "Libros por categoría", description = "Obtiene libros filtrados por categoría")
     public ResponseEntity<Page<BookResponseDTO>> getBooksByCategory(
@@ -154,6 +286,18 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/category/{category}/scroll")
+    @Operation(summary = "Libros por categoría por cursor",
+               description = "Obtiene libros de una categoría página por página usando el cursor de la página anterior, sin calcular el total")
+    public ResponseEntity<BookSliceDTO> scrollBooksByCategory(
+            @Parameter(description = "Categoría") @PathVariable String category,
+            @Parameter(description = "Cantidad de elementos por página (1 a 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo de ordenamiento: title, author, year, createdAt o id", example = "title") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento", example = "ASC", schema = @io.swagger.v3.oas.annotations.media.Schema(allowableValues = {"ASC", "DESC"})) @RequestParam(defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Cursor devuelto en nextCursor por la página anterior; vacío para la primera página") @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(bookService.scrollBooksByCategory(category, sortBy, sortDir, size, cursor));
+    }
+
     @GetMapping("/featured")
     @Operation(summary = "Libros destacados", description = "Obtiene la lista de libros destacados")
     public ResponseEntity<Page<BookResponseDTO>> getFeaturedBooks(
@@ -164,6 +308,17 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/featured/scroll")
+    @Operation(summary = "Libros destacados por cursor",
+               description = "Obtiene los libros destacados página por página usando el cursor de la página anterior, sin calcular el total")
+    public ResponseEntity<BookSliceDTO> scrollFeaturedBooks(
+            @Parameter(description = "Cantidad de elementos por página (1 a 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo de ordenamiento: title, author, year, createdAt o id", example = "title") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento", example = "ASC", schema = @io.swagger.v3.oas.annotations.media.Schema(allowableValues = {"ASC", "DESC"})) @RequestParam(defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Cursor devuelto en nextCursor por la página anterior; vacío para la primera página") @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(bookService.scrollFeaturedBooks(sortBy, sortDir, size, cursor));
+    }
+
     @GetMapping("/statistics")
     @Operation(summary = "Estadísticas de libros", description = "Obtiene estadísticas generales del catálogo de libros")
     public ResponseEntity<BookStatisticsDTO> getBookStatistics() {
@@ -171,9 +326,25 @@ public class BookController {
         return ResponseEntity.ok(statistics);
     }
 
+    @GetMapping(value = "/changes", produces = "application/x-ndjson")
+    @Operation(summary = "Feed de cambios del catálogo",
+               description = "Transmite en formato NDJSON (un evento JSON por línea) los libros creados o modificados y " +
+                            "los libros eliminados desde el token indicado. Sin token se envía el catálogo completo. " +
+                            "El último evento (END) contiene el token para la próxima sincronización. " +
+                            "Si el token expiró, el primer evento es RESET y el cliente debe descartar su copia local.")
+    public ResponseEntity<StreamingResponseBody> getBookChanges(
+            @Parameter(description = "Token de la última sincronización (opcional)") @RequestParam(required = false) String since) {
+        BookChangeFeedService.SyncCursor cursor = bookChangeFeedService.parseToken(since);
+        StreamingResponseBody body = out -> bookChangeFeedService.streamChanges(cursor, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/all")
     @Operation(summary = "Obtener todos los libros", 
-               description = "Obtiene todos los libros sin paginación. Útil para sincronización inicial desde Android.")
+               description = "Obtiene todos los libros sin paginación. Útil para sincronización inicial desde Android. " +
+                            "Para catálogos grandes se recomienda GET /api/books/changes, que transmite solo los cambios.")
     public ResponseEntity<List<BookResponseDTO>> getAllBooksWithoutPagination() {
         List<BookResponseDTO> books = bookService.getAllBooksWithoutPagination();
         return ResponseEntity.ok(books);
@@ -207,6 +378,18 @@ public class BookController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/seed/file")
+    @Operation(summary = "Cargar libros desde un archivo",
+               description = "Carga un archivo JSON (arreglo de libros) o CSV con encabezados ubicado en el directorio de importación " +
+                           "del servidor (books.seed.import-dir). Acepta archivos comprimidos .gz. Omite los libros existentes e informa " +
+                           "el throughput en filas por segundo. Requiere autenticación de administrador.")
+    public ResponseEntity<SeedResponseDTO> loadBooksFromFile(
+            @Parameter(description = "Nombre del archivo dentro del directorio de importación", required = true, example = "libros.csv")
+            @RequestParam String fileName) {
+        SeedResponseDTO response = bookSeedService.loadBooksFromImportDir(fileName);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/bulk")
     @Operation(summary = "Cargar libros en lote", 
                description = "Carga múltiples libros desde un JSON. Si un libro ya existe (por ISBN o título+autor), se omite. " +
@@ -0,0 +1,52 @@
+package com.library.books.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Línea del feed de cambios del catálogo (una por línea en formato NDJSON)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Evento del feed de cambios del catálogo. Se envía un evento JSON por línea (NDJSON).")
+public class BookChangeDTO {
+
+    public enum Type {
+        RESET, UPSERT, DELETE, END
+    }
+
+    @Schema(description = "Tipo de evento: RESET (descartar la copia local), UPSERT (crear o reemplazar), " +
+                          "DELETE (eliminar) o END (fin del feed con el nuevo token)",
+            example = "UPSERT", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Type type;
+
+    @Schema(description = "Libro creado o modificado (solo en UPSERT)")
+    private BookResponseDTO book;
+
+    @Schema(description = "ID del libro eliminado (solo en DELETE)", example = "12")
+    private Long bookId;
+
+    @Schema(description = "ISBN del libro eliminado (solo en DELETE)", example = "9788497593793")
+    private String isbn;
+
+    @Schema(description = "Fecha y hora de eliminación (solo en DELETE)", example = "2024-01-20T14:45:00")
+    private LocalDateTime deletedAt;
+
+    @Schema(description = "Token a enviar en la próxima sincronización (solo en END)")
+    private String syncToken;
+
+    @Schema(description = "Cantidad de libros enviados (solo en END)", example = "120")
+    private Long upserts;
+
+    @Schema(description = "Cantidad de eliminaciones enviadas (solo en END)", example = "3")
+    private Long deletes;
+}
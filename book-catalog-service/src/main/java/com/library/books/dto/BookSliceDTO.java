@@ -0,0 +1,29 @@
+package com.library.books.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de libros obtenida por cursor, sin total de elementos")
+public class BookSliceDTO {
+
+    @Schema(description = "Libros de la página")
+    private List<BookResponseDTO> content;
+
+    @Schema(description = "Cantidad de libros en la página", example = "20")
+    private Integer size;
+
+    @Schema(description = "Indica si hay más libros después de esta página", example = "true")
+    private Boolean hasNext;
+
+    @Schema(description = "Cursor opaco para pedir la página siguiente; null si no hay más libros")
+    private String nextCursor;
+}
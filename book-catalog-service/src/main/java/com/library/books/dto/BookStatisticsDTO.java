@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +32,12 @@ public class BookStatisticsDTO {
 
     @Schema(description = "Total de copias disponibles para préstamo", example = "200", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
     private Long availableCopies;
+
+    @Schema(description = "Cantidad de libros por estado", example = "{\"AVAILABLE\": 28, \"LOANED\": 5, \"RESERVED\": 1}")
+    private Map<String, Long> booksByStatus;
+
+    @Schema(description = "Cantidad de libros por categoría", example = "{\"Ciencia Ficción\": 6, \"Novela\": 12}")
+    private Map<String, Long> booksByCategory;
 }
 
 
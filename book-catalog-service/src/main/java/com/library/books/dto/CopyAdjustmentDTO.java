@@ -0,0 +1,34 @@
+package com.library.books.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Ajuste de copias disponibles de un libro")
+public class CopyAdjustmentDTO {
+
+    @NotNull(message = "El ID del libro es obligatorio")
+    @Schema(description = "ID del libro", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long bookId;
+
+    @NotNull(message = "El cambio de copias es obligatorio")
+    @Schema(description = "Copias a sumar (positivo, devolución) o restar (negativo, préstamo)", example = "-1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer change;
+
+    @Schema(description = "IDs de los eventos de origen que combina el ajuste. Si se indican, un reenvío " +
+            "de eventos ya aplicados no vuelve a cambiar las copias", example = "[101, 102]")
+    private List<Long> eventIds;
+
+    public CopyAdjustmentDTO(Long bookId, Integer change) {
+        this(bookId, change, null);
+    }
+}
@@ -0,0 +1,33 @@
+package com.library.books.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado del ajuste de copias de un libro")
+public class CopyAdjustmentResultDTO {
+
+    @Schema(description = "ID del libro", example = "1")
+    private Long bookId;
+
+    @Schema(description = "Cambio solicitado", example = "-1")
+    private Integer change;
+
+    @Schema(description = "Indica si el ajuste se aplicó", example = "true")
+    private Boolean success;
+
+    @Schema(description = "Copias disponibles después de procesar el lote", example = "2")
+    private Integer availableCopies;
+
+    @Schema(description = "Copias totales del libro", example = "5")
+    private Integer totalCopies;
+
+    @Schema(description = "Motivo si el ajuste no se aplicó", example = "No hay copias suficientes")
+    private String message;
+}
@@ -0,0 +1,44 @@
+package com.library.books.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "DTO con el estado del índice de búsqueda y el progreso de su reconstrucción")
+public class SearchIndexStatusDTO {
+
+    @Schema(description = "Indica si las búsquedas se responden desde el índice en memoria", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Boolean ready;
+
+    @Schema(description = "Estado de la última reconstrucción", example = "COMPLETED", allowableValues = {"IDLE", "RUNNING", "COMPLETED", "FAILED"}, requiredMode = Schema.RequiredMode.REQUIRED)
+    private String rebuildStatus;
+
+    @Schema(description = "Libros actualmente indexados", example = "34", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
+    private Integer indexedBooks;
+
+    @Schema(description = "Libros procesados en la reconstrucción en curso o la última", example = "34", minimum = "0")
+    private Long processed;
+
+    @Schema(description = "Total de libros a procesar en la reconstrucción", example = "34", minimum = "0")
+    private Long total;
+
+    @Schema(description = "Porcentaje de avance de la reconstrucción", example = "100.0", minimum = "0", maximum = "100")
+    private Double progressPercent;
+
+    @Schema(description = "Fecha y hora de inicio de la reconstrucción", example = "2024-01-15T10:30:00")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Fecha y hora de término de la reconstrucción", example = "2024-01-15T10:30:02")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Mensaje de error si la reconstrucción falló")
+    private String errorMessage;
+}
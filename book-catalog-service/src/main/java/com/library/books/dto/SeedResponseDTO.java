@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +29,15 @@ public class SeedResponseDTO {
     
     @Schema(description = "Mensaje descriptivo del resultado", example = "Se insertaron 30 libros nuevos. 4 ya existían. 0 errores.", requiredMode = Schema.RequiredMode.REQUIRED)
     private String message;
+
+    @Schema(description = "Duración de la carga en milisegundos", example = "120", minimum = "0")
+    private Long elapsedMillis;
+
+    @Schema(description = "Throughput de la carga en filas por segundo", example = "2833.3", minimum = "0")
+    private Double rowsPerSecond;
+
+    @Schema(description = "Detalle de las filas con errores (máximo 100)")
+    private List<String> errorMessages;
 }
 
 
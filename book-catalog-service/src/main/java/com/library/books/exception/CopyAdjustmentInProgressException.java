@@ -0,0 +1,11 @@
+package com.library.books.exception;
+
+/**
+ * Otra petición está aplicando los mismos eventos de ajuste de copias; el emisor debe reintentar
+ */
+public class CopyAdjustmentInProgressException extends RuntimeException {
+
+    public CopyAdjustmentInProgressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.books.exception;
+
+/**
+ * El ajuste de copias dejaría las disponibles por debajo de 0 o por encima del total
+ */
+public class CopyCountConflictException extends RuntimeException {
+
+    public CopyCountConflictException(String message) {
+        super(message);
+    }
+}
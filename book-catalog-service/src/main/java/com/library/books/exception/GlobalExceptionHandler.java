@@ -29,7 +29,7 @@ public class GlobalExceptionHandler {
         HttpStatus status = HttpStatus.BAD_REQUEST;
         String errorType = "Bad Request";
         
-        if (ex.getMessage() != null && ex.getMessage().contains("no encontrado")) {
+        if (ex.getMessage() != null && (ex.getMessage().contains("no encontrado") || ex.getMessage().contains("no encontrada"))) {
             status = HttpStatus.NOT_FOUND;
             errorType = "Not Found";
         } else if (ex.getMessage() != null && ex.getMessage().contains("no está disponible")) {
@@ -48,6 +48,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(error);
     }
 
+    @ExceptionHandler(CopyCountConflictException.class)
+    public ResponseEntity<ErrorResponseDTO> handleCopyCountConflict(
+            CopyCountConflictException ex, WebRequest request) {
+        log.warn("Ajuste de copias rechazado: {}", ex.getMessage());
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(CopyAdjustmentInProgressException.class)
+    public ResponseEntity<ErrorResponseDTO> handleCopyAdjustmentInProgress(
+            CopyAdjustmentInProgressException ex, WebRequest request) {
+        log.warn("Ajuste de copias concurrente: {}", ex.getMessage());
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDTO> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -0,0 +1,35 @@
+package com.library.books.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de origen de un ajuste de copias ya aplicado (outbox de loan-management-service).
+ * Se registra en la misma transacción que el ajuste: si el evento llega de nuevo, porque
+ * el emisor no recibió la respuesta, no se vuelve a aplicar.
+ */
+@Entity
+@Table(name = "applied_copy_adjustments", indexes = {
+        @Index(name = "idx_applied_copy_adjustments_applied_at", columnList = "applied_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppliedCopyAdjustment {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -13,7 +13,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_updated_at_id", columnList = "updated_at, id"),
+        // Listado por cursor (ver BookSortKey)
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_author_id", columnList = "author, id"),
+        @Index(name = "idx_books_year_id", columnList = "publication_year, id"),
+        @Index(name = "idx_books_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_books_category_title_id", columnList = "category, title, id"),
+        @Index(name = "idx_books_category_author_id", columnList = "category, author, id"),
+        @Index(name = "idx_books_category_year_id", columnList = "category, publication_year, id"),
+        @Index(name = "idx_books_category_created_at_id", columnList = "category, created_at, id"),
+        @Index(name = "idx_books_category_id", columnList = "category, id"),
+        @Index(name = "idx_books_featured_title_id", columnList = "featured, title, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,10 +62,6 @@ public class Book {
     @Column(name = "cover_url", length = 500)
     private String coverUrl;
 
-    @Lob
-    @Column(name = "cover_image", columnDefinition = "LONGBLOB")
-    private byte[] coverImage;
-
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     @Builder.Default
@@ -0,0 +1,56 @@
+package com.library.books.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Portada de un libro en uno de sus tamaños. Los bytes se guardan en
+ * BookCoverStore bajo su hash SHA-256, que también se usa como ETag.
+ */
+@Entity
+@Table(name = "book_covers",
+       uniqueConstraints = @UniqueConstraint(name = "uk_book_covers_book_variant", columnNames = {"book_id", "variant"}),
+       indexes = @Index(name = "idx_book_covers_sha256", columnList = "sha256"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class BookCover {
+
+    public static final String ORIGINAL = "original";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false, length = 20)
+    private String variant;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    private Integer width;
+
+    private Integer height;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.library.books.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un libro eliminado, para que los clientes que sincronizan
+ * de forma incremental puedan borrarlo de su copia local
+ */
+@Entity
+@Table(name = "book_tombstones", indexes = {
+        @Index(name = "idx_book_tombstones_deleted_at_id", columnList = "deleted_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(length = 20)
+    private String isbn;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
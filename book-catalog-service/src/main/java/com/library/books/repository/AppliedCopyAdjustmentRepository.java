@@ -0,0 +1,23 @@
+package com.library.books.repository;
+
+import com.library.books.model.AppliedCopyAdjustment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppliedCopyAdjustmentRepository extends JpaRepository<AppliedCopyAdjustment, Long> {
+
+    @Query("SELECT a.eventId FROM AppliedCopyAdjustment a WHERE a.eventId IN :eventIds")
+    List<Long> findAppliedEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM AppliedCopyAdjustment a WHERE a.appliedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,17 @@
+package com.library.books.repository;
+
+import com.library.books.model.Book;
+
+/**
+ * Proyección con los campos de disponibilidad de un libro
+ */
+public interface BookAvailabilityView {
+
+    Long getId();
+
+    Integer getAvailableCopies();
+
+    Integer getTotalCopies();
+
+    Book.Status getStatus();
+}
@@ -0,0 +1,161 @@
+package com.library.books.repository;
+
+import com.library.books.dto.CopyAdjustmentDTO;
+import com.library.books.model.AppliedCopyAdjustment;
+import com.library.books.model.Book;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserciones masivas de libros con lotes JDBC.
+ * Book usa IDENTITY, por lo que Hibernate no puede agrupar los INSERT; aquí se
+ * envían en lotes y se recuperan las claves generadas de cada uno.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO books (title, author, isbn, category, publisher, publication_year, description, " +
+            "cover_url, status, total_copies, available_copies, price, featured, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ADJUST_COPIES_SQL =
+            "UPDATE books SET " +
+            "status = CASE WHEN available_copies + ? > 0 THEN 'AVAILABLE' ELSE 'LOANED' END, " +
+            "available_copies = available_copies + ?, updated_at = ? " +
+            "WHERE id = ? AND available_copies + ? BETWEEN 0 AND total_copies";
+
+    private static final String INSERT_APPLIED_ADJUSTMENT_SQL =
+            "INSERT INTO applied_copy_adjustments (event_id, book_id, applied_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insertar los libros en lotes de {@code chunkSize} filas.
+     * Asigna a cada libro su ID generado y {@code now} como fecha de creación y actualización.
+     */
+    public void insertAll(List<Book> books, int chunkSize, LocalDateTime now) {
+        if (books.isEmpty()) {
+            return;
+        }
+        for (Book book : books) {
+            book.setCreatedAt(now);
+            book.setUpdatedAt(now);
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < books.size(); start += chunkSize) {
+                    List<Book> chunk = books.subList(start, Math.min(start + chunkSize, books.size()));
+                    for (Book book : chunk) {
+                        bind(ps, book);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    assignGeneratedKeys(ps, chunk);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Aplicar los ajustes de copias en un solo lote JDBC, con la misma condición que
+     * BookRepository.adjustAvailableCopies. Con rewriteBatchedStatements el lote viaja
+     * como una sola petición y el driver devuelve el conteo de cada sentencia.
+     * @return filas actualizadas por ajuste (1 aplicado, 0 rechazado)
+     */
+    public int[] adjustAvailableCopies(List<CopyAdjustmentDTO> adjustments, LocalDateTime now) {
+        if (adjustments.isEmpty()) {
+            return new int[0];
+        }
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        return jdbcTemplate.batchUpdate(ADJUST_COPIES_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CopyAdjustmentDTO adjustment = adjustments.get(i);
+                ps.setInt(1, adjustment.getChange());
+                ps.setInt(2, adjustment.getChange());
+                ps.setTimestamp(3, updatedAt);
+                ps.setLong(4, adjustment.getBookId());
+                ps.setInt(5, adjustment.getChange());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return adjustments.size();
+            }
+        });
+    }
+
+    /**
+     * Registrar los eventos de ajustes aplicados en un solo lote JDBC. Si otra transacción ya
+     * registró (o está registrando) alguno, la clave primaria lo rechaza con DuplicateKeyException.
+     */
+    public void insertAppliedAdjustments(List<AppliedCopyAdjustment> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_APPLIED_ADJUSTMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AppliedCopyAdjustment adjustment = applied.get(i);
+                ps.setLong(1, adjustment.getEventId());
+                ps.setLong(2, adjustment.getBookId());
+                ps.setTimestamp(3, Timestamp.valueOf(adjustment.getAppliedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return applied.size();
+            }
+        });
+    }
+
+    private void bind(PreparedStatement ps, Book book) throws SQLException {
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getAuthor());
+        ps.setString(3, book.getIsbn());
+        ps.setString(4, book.getCategory());
+        ps.setString(5, book.getPublisher());
+        if (book.getYear() != null) {
+            ps.setInt(6, book.getYear());
+        } else {
+            ps.setNull(6, Types.INTEGER);
+        }
+        ps.setString(7, book.getDescription());
+        ps.setString(8, book.getCoverUrl());
+        ps.setString(9, book.getStatus().name());
+        ps.setInt(10, book.getTotalCopies());
+        ps.setInt(11, book.getAvailableCopies());
+        ps.setBigDecimal(12, book.getPrice());
+        ps.setBoolean(13, Boolean.TRUE.equals(book.getFeatured()));
+        ps.setTimestamp(14, Timestamp.valueOf(book.getCreatedAt()));
+        ps.setTimestamp(15, Timestamp.valueOf(book.getUpdatedAt()));
+    }
+
+    private void assignGeneratedKeys(PreparedStatement ps, List<Book> chunk) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            int i = 0;
+            while (keys.next() && i < chunk.size()) {
+                chunk.get(i++).setId(keys.getLong(1));
+            }
+            if (i != chunk.size()) {
+                throw new SQLException("No se recibieron las claves generadas de todos los libros insertados");
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.library.books.repository;
+
+import com.library.books.model.BookCover;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookCoverRepository extends JpaRepository<BookCover, Long> {
+
+    Optional<BookCover> findByBookIdAndVariant(Long bookId, String variant);
+
+    List<BookCover> findByBookId(Long bookId);
+
+    boolean existsBySha256(String sha256);
+
+    @Query("SELECT DISTINCT c.sha256 FROM BookCover c")
+    List<String> findAllHashes();
+
+    @Modifying
+    @Query("DELETE FROM BookCover c WHERE c.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("DELETE FROM BookCover c")
+    int deleteAllCovers();
+}
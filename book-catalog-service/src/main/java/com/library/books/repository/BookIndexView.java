@@ -0,0 +1,19 @@
+package com.library.books.repository;
+
+/**
+ * Proyección con los campos indexados para búsqueda (sin descripción ni portada)
+ */
+public interface BookIndexView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+
+    String getCategory();
+
+    String getPublisher();
+}
@@ -0,0 +1,102 @@
+package com.library.books.repository;
+
+import com.library.books.dto.BookResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Listado de libros por cursor (keyset): cada página continúa después de la última
+ * fila de la anterior con {@code (clave, id) > (valor, últimoId)}, de modo que la
+ * base de datos recorre el índice (clave, id) sin OFFSET ni COUNT.
+ * Los NULL se ordenan primero en ASC y al final en DESC, igual que en MySQL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookKeysetRepository {
+
+    private static final String SELECT_DTO =
+            "SELECT new com.library.books.dto.BookResponseDTO(b.id, b.title, b.author, b.isbn, b.category, " +
+            "b.publisher, b.year, b.description, b.coverUrl, b.status, b.totalCopies, b.availableCopies, " +
+            "b.price, b.featured, b.createdAt, b.updatedAt) FROM Book b WHERE 1 = 1";
+
+    private final EntityManager entityManager;
+
+    /**
+     * Filtro de libros del listado
+     */
+    public record Filter(String category, boolean featuredOnly) {
+
+        public static Filter all() {
+            return new Filter(null, false);
+        }
+
+        public static Filter byCategory(String category) {
+            return new Filter(category, false);
+        }
+
+        public static Filter featured() {
+            return new Filter(null, true);
+        }
+    }
+
+    /**
+     * Obtener hasta {@code limit} libros posteriores a la posición ({@code lastValue}, {@code lastId}).
+     * Con {@code lastId} null se devuelve la primera página.
+     */
+    public List<BookResponseDTO> findPage(Filter filter, BookSortKey sortKey, boolean descending,
+                                          Object lastValue, Long lastId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_DTO);
+        if (filter.category() != null) {
+            jpql.append(" AND b.category = :category");
+        }
+        if (filter.featuredOnly()) {
+            jpql.append(" AND b.featured = true");
+        }
+        if (lastId != null) {
+            jpql.append(" AND (").append(seekPredicate(sortKey, descending, lastValue)).append(")");
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ");
+        if (sortKey != BookSortKey.ID) {
+            jpql.append("b.").append(sortKey.getAttribute()).append(direction).append(", ");
+        }
+        jpql.append("b.id").append(direction);
+
+        TypedQuery<BookResponseDTO> query = entityManager.createQuery(jpql.toString(), BookResponseDTO.class);
+        if (filter.category() != null) {
+            query.setParameter("category", filter.category());
+        }
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+            if (sortKey != BookSortKey.ID && lastValue != null) {
+                query.setParameter("lastValue", lastValue);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String seekPredicate(BookSortKey sortKey, boolean descending, Object lastValue) {
+        String after = descending ? "<" : ">";
+        if (sortKey == BookSortKey.ID) {
+            return "b.id " + after + " :lastId";
+        }
+
+        String column = "b." + sortKey.getAttribute();
+        if (lastValue == null) {
+            // La página anterior terminó dentro de los NULL
+            return descending
+                    ? column + " IS NULL AND b.id < :lastId"
+                    : "(" + column + " IS NULL AND b.id > :lastId) OR " + column + " IS NOT NULL";
+        }
+        String predicate = column + " " + after + " :lastValue OR (" + column + " = :lastValue AND b.id " + after + " :lastId)";
+        if (sortKey.isNullable() && descending) {
+            predicate += " OR " + column + " IS NULL";
+        }
+        return predicate;
+    }
+}
@@ -1,13 +1,18 @@
 package com.library.books.repository;
 
+import com.library.books.dto.BookResponseDTO;
 import com.library.books.model.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,6 +20,11 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     Optional<Book> findByIsbn(String isbn);
 
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    @Query("SELECT b FROM Book b WHERE LOWER(b.title) IN :titles ORDER BY b.id")
+    List<Book> findByLowerTitleIn(@Param("titles") Collection<String> titles);
+
     Page<Book> findByCategory(String category, Pageable pageable);
 
     Page<Book> findByAuthorContainingIgnoreCase(String author, Pageable pageable);
@@ -32,9 +42,61 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     @Query("SELECT b FROM Book b WHERE b.availableCopies > 0")
     Page<Book> findAvailableBooks(Pageable pageable);
 
+    /**
+     * Sumar {@code delta} a las copias disponibles solo si el resultado queda entre 0 y el total.
+     * El estado se asigna primero porque MySQL evalúa el SET de izquierda a derecha.
+     * @return 1 si se aplicó, 0 si el libro no existe o el ajuste no es válido
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE books SET " +
+                   "status = CASE WHEN available_copies + :delta > 0 THEN 'AVAILABLE' ELSE 'LOANED' END, " +
+                   "available_copies = available_copies + :delta, " +
+                   "updated_at = :now " +
+                   "WHERE id = :id AND available_copies + :delta BETWEEN 0 AND total_copies",
+           nativeQuery = true)
+    int adjustAvailableCopies(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
     long countByStatus(Book.Status status);
 
     long countByAvailableCopiesGreaterThan(int copies);
+
+    @Query("SELECT b.id AS id, b.availableCopies AS availableCopies, b.totalCopies AS totalCopies, " +
+           "b.status AS status FROM Book b WHERE b.id = :id")
+    Optional<BookAvailabilityView> findAvailabilityById(@Param("id") Long id);
+
+    @Query("SELECT b.id AS id, b.availableCopies AS availableCopies, b.totalCopies AS totalCopies, " +
+           "b.status AS status FROM Book b WHERE b.id IN :ids")
+    List<BookAvailabilityView> findAvailabilityByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id AS id, b.title AS title, b.author AS author, b.isbn AS isbn, " +
+           "b.category AS category, b.publisher AS publisher " +
+           "FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<BookIndexView> findIndexViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.library.books.dto.BookResponseDTO(b.id, b.title, b.author, b.isbn, b.category, " +
+           "b.publisher, b.year, b.description, b.coverUrl, b.status, b.totalCopies, b.availableCopies, " +
+           "b.price, b.featured, b.createdAt, b.updatedAt) " +
+           "FROM Book b " +
+           "WHERE (b.updatedAt > :updatedAt OR (b.updatedAt = :updatedAt AND b.id > :id)) " +
+           "AND b.updatedAt <= :until " +
+           "ORDER BY b.updatedAt, b.id")
+    List<BookResponseDTO> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                           @Param("id") Long id,
+                                           @Param("until") LocalDateTime until,
+                                           Pageable pageable);
+
+    @Query("SELECT COUNT(b) AS totalBooks, " +
+           "COALESCE(SUM(CASE WHEN b.availableCopies > 0 THEN 1 ELSE 0 END), 0) AS availableBooks, " +
+           "COALESCE(SUM(b.totalCopies), 0) AS totalCopies, " +
+           "COALESCE(SUM(b.availableCopies), 0) AS availableCopies " +
+           "FROM Book b")
+    BookTotalsView aggregateTotals();
+
+    @Query("SELECT b.status AS groupKey, COUNT(b) AS count FROM Book b GROUP BY b.status")
+    List<GroupCountView> countGroupedByStatus();
+
+    @Query("SELECT b.category AS groupKey, COUNT(b) AS count FROM Book b GROUP BY b.category")
+    List<GroupCountView> countGroupedByCategory();
 }
 
 
@@ -0,0 +1,61 @@
+package com.library.books.repository;
+
+import com.library.books.dto.BookResponseDTO;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Claves de ordenamiento permitidas en el listado por cursor.
+ * Cada una tiene un índice compuesto (clave, id) en la tabla books.
+ */
+public enum BookSortKey {
+
+    TITLE("title", false, BookResponseDTO::getTitle, value -> value),
+    AUTHOR("author", false, BookResponseDTO::getAuthor, value -> value),
+    YEAR("year", true, BookResponseDTO::getYear, Integer::valueOf),
+    CREATED_AT("createdAt", false, BookResponseDTO::getCreatedAt, LocalDateTime::parse),
+    ID("id", false, BookResponseDTO::getId, Long::valueOf);
+
+    private final String attribute;
+    private final boolean nullable;
+    private final Function<BookResponseDTO, Object> extractor;
+    private final Function<String, Object> parser;
+
+    BookSortKey(String attribute, boolean nullable,
+                Function<BookResponseDTO, Object> extractor, Function<String, Object> parser) {
+        this.attribute = attribute;
+        this.nullable = nullable;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    /**
+     * Nombre del atributo de Book, usado también como valor del parámetro sortBy
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public Object valueOf(BookResponseDTO book) {
+        return extractor.apply(book);
+    }
+
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    public static BookSortKey fromParam(String sortBy) {
+        for (BookSortKey key : values()) {
+            if (key.attribute.equalsIgnoreCase(sortBy)) {
+                return key;
+            }
+        }
+        throw new RuntimeException("Campo de ordenamiento no permitido: " + sortBy +
+                ". Valores permitidos: title, author, year, createdAt, id");
+    }
+}
@@ -0,0 +1,34 @@
+package com.library.books.repository;
+
+import com.library.books.model.BookTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookTombstoneRepository extends JpaRepository<BookTombstone, Long> {
+
+    @Query("SELECT t FROM BookTombstone t " +
+           "WHERE (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.id > :id)) " +
+           "AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt, t.id")
+    List<BookTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                         @Param("id") Long id,
+                                         @Param("until") LocalDateTime until,
+                                         Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO book_tombstones (book_id, isbn, deleted_at) SELECT id, isbn, :deletedAt FROM books",
+           nativeQuery = true)
+    int insertForAllBooks(@Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("DELETE FROM BookTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
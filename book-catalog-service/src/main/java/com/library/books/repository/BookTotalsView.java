@@ -0,0 +1,15 @@
+package com.library.books.repository;
+
+/**
+ * Proyección con los totales agregados del catálogo
+ */
+public interface BookTotalsView {
+
+    Long getTotalBooks();
+
+    Long getAvailableBooks();
+
+    Long getTotalCopies();
+
+    Long getAvailableCopies();
+}
@@ -0,0 +1,11 @@
+package com.library.books.repository;
+
+/**
+ * Proyección de un conteo agrupado (por estado o categoría)
+ */
+public interface GroupCountView {
+
+    Object getGroupKey();
+
+    Long getCount();
+}
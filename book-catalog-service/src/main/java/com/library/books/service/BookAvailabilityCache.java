@@ -0,0 +1,181 @@
+package com.library.books.service;
+
+import com.library.books.config.BookAvailabilityCacheConfig;
+import com.library.books.model.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada (LRU) de la disponibilidad de cada libro.
+ * Las escrituras de BookService la actualizan al confirmar la transacción. Para no
+ * guardar un valor viejo, un libro solo se escribe en caché si ninguna otra escritura
+ * sobre él se superpuso en el tiempo; en caso contrario se invalida y la próxima
+ * lectura lo carga de la base de datos.
+ */
+@Component
+class BookAvailabilityCache {
+
+    /**
+     * Disponibilidad de un libro
+     */
+    record Availability(int availableCopies, int totalCopies, Book.Status status, long cachedAtNanos) {
+
+        static Availability of(Integer availableCopies, Integer totalCopies, Book.Status status) {
+            return new Availability(availableCopies != null ? availableCopies : 0,
+                    totalCopies != null ? totalCopies : 0, status, System.nanoTime());
+        }
+    }
+
+    /**
+     * Escrituras en curso sobre un libro
+     */
+    private static final class PendingWrites {
+        private int count;
+        private boolean overlapped;
+    }
+
+    private final long ttlNanos;
+    private final Map<Long, Availability> entries;
+    private final Map<Long, PendingWrites> pendingWrites = new HashMap<>();
+    // Se incrementa con cada escritura iniciada; una carga desde la base solo se guarda si no cambió
+    private long writeEpoch = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    BookAvailabilityCache(BookAvailabilityCacheConfig cacheConfig) {
+        int maxSize = cacheConfig.getMaxSize();
+        this.ttlNanos = cacheConfig.getTtlSeconds() * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Availability> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized Optional<Availability> get(Long bookId) {
+        Availability availability = entries.get(bookId);
+        if (availability != null && System.nanoTime() - availability.cachedAtNanos() > ttlNanos) {
+            entries.remove(bookId);
+            evictions.incrementAndGet();
+            availability = null;
+        }
+        if (availability == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(availability);
+    }
+
+    /**
+     * Marca a tomar antes de leer de la base de datos, para {@link #putLoaded}
+     */
+    synchronized long loadStamp() {
+        return writeEpoch;
+    }
+
+    /**
+     * Guardar un valor leído de la base de datos, salvo que alguna escritura haya empezado desde la marca
+     */
+    synchronized void putLoaded(Long bookId, Availability availability, long stamp) {
+        if (writeEpoch == stamp && !pendingWrites.containsKey(bookId)) {
+            put(bookId, availability);
+        }
+    }
+
+    /**
+     * Registrar el nuevo estado de un libro modificado en la transacción actual.
+     * Debe llamarse después de escribir en la base de datos.
+     */
+    void writeThrough(Book book) {
+        Long bookId = book.getId();
+        Availability availability = Availability.of(book.getAvailableCopies(), book.getTotalCopies(), book.getStatus());
+        beginWrite(bookId);
+        TransactionCallbacks.afterCompletion(committed -> completeWrite(bookId, committed ? availability : null));
+    }
+
+    /**
+     * Quitar un libro eliminado en la transacción actual
+     */
+    void evictThrough(Long bookId) {
+        beginWrite(bookId);
+        TransactionCallbacks.afterCompletion(committed -> completeWrite(bookId, null));
+    }
+
+    /**
+     * Vaciar la caché al confirmar la transacción actual (recarga forzada del catálogo)
+     */
+    void clearThrough() {
+        synchronized (this) {
+            writeEpoch++;
+        }
+        TransactionCallbacks.afterCompletion(committed -> {
+            synchronized (this) {
+                writeEpoch++;
+                entries.clear();
+            }
+        });
+    }
+
+    synchronized long size() {
+        return entries.size();
+    }
+
+    long hitCount() {
+        return hits.get();
+    }
+
+    long missCount() {
+        return misses.get();
+    }
+
+    long putCount() {
+        return puts.get();
+    }
+
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    private synchronized void beginWrite(Long bookId) {
+        writeEpoch++;
+        PendingWrites pending = pendingWrites.computeIfAbsent(bookId, id -> new PendingWrites());
+        if (pending.count > 0) {
+            pending.overlapped = true;
+        }
+        pending.count++;
+    }
+
+    private synchronized void completeWrite(Long bookId, Availability committedValue) {
+        PendingWrites pending = pendingWrites.get(bookId);
+        pending.count--;
+        boolean overlapped = pending.overlapped;
+        if (pending.count == 0) {
+            pendingWrites.remove(bookId);
+        }
+        // Con escrituras superpuestas no se sabe cuál se confirmó último
+        if (committedValue != null && !overlapped) {
+            put(bookId, committedValue);
+        } else {
+            entries.remove(bookId);
+        }
+    }
+
+    private void put(Long bookId, Availability availability) {
+        entries.put(bookId, availability);
+        puts.incrementAndGet();
+    }
+}
@@ -0,0 +1,52 @@
+package com.library.books.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de la caché de disponibilidad en actuator:
+ * cache.gets (result=hit|miss), cache.puts, cache.evictions y cache.size con cache=book-availability
+ */
+@Component
+class BookAvailabilityCacheMetrics extends CacheMeterBinder<BookAvailabilityCache> {
+
+    BookAvailabilityCacheMetrics(BookAvailabilityCache cache) {
+        super(cache, "book-availability", Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        BookAvailabilityCache cache = getCache();
+        return cache != null ? cache.size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        BookAvailabilityCache cache = getCache();
+        return cache != null ? cache.hitCount() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        BookAvailabilityCache cache = getCache();
+        return cache != null ? cache.missCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        BookAvailabilityCache cache = getCache();
+        return cache != null ? cache.evictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        BookAvailabilityCache cache = getCache();
+        return cache != null ? cache.putCount() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.library.books.service;
+
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reloj de las marcas que recorre el feed de cambios: updated_at de los libros (también vía
+ * auditoría de JPA) y deleted_at de las eliminaciones.
+ * La marca se asigna antes del commit, así que una transacción larga (sincronización o carga
+ * masiva) puede confirmar filas con marcas que el feed ya dejó atrás. Por eso el reloj recuerda
+ * la primera marca de cada transacción abierta y el feed nunca avanza más allá de la más antigua
+ * (ver {@link #visibleUntil}): una transacción larga retrasa el feed, pero sus filas no se pierden.
+ * Solo conoce las transacciones de esta instancia; el catálogo se escribe únicamente desde
+ * book-catalog-service.
+ */
+@Component("bookChangeClock")
+class BookChangeClock implements DateTimeProvider {
+
+    private record Pending(LocalDateTime stamp, long sequence) implements Comparable<Pending> {
+
+        @Override
+        public int compareTo(Pending other) {
+            int compare = stamp.compareTo(other.stamp);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final ConcurrentSkipListSet<Pending> inFlight = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Marca para una fila que verá el feed. Se trunca a microsegundos, la precisión de la columna.
+     */
+    LocalDateTime now() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            Pending pending = new Pending(now, sequence.incrementAndGet());
+            inFlight.add(pending);
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(pending);
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BookChangeClock.this);
+                }
+            });
+        }
+        return now;
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    /**
+     * Límite hasta el que el feed puede entregar: {@code limit}, o justo antes de la primera
+     * marca de la transacción abierta más antigua si es anterior
+     */
+    LocalDateTime visibleUntil(LocalDateTime limit) {
+        Iterator<Pending> pending = inFlight.iterator();
+        if (!pending.hasNext()) {
+            return limit;
+        }
+        Pending oldest = pending.next();
+        LocalDateTime beforeOldest = oldest.stamp().minus(1, ChronoUnit.MICROS);
+        return beforeOldest.isBefore(limit) ? beforeOldest : limit;
+    }
+}
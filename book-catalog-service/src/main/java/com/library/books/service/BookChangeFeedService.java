@@ -0,0 +1,211 @@
+package com.library.books.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.books.config.BookChangeFeedConfig;
+import com.library.books.dto.BookChangeDTO;
+import com.library.books.dto.BookResponseDTO;
+import com.library.books.model.Book;
+import com.library.books.model.BookTombstone;
+import com.library.books.repository.BookRepository;
+import com.library.books.repository.BookTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Feed de cambios del catálogo para la sincronización incremental desde Android.
+ * Recorre los libros modificados y eliminados desde el cursor del cliente
+ * (fecha de actualización + ID) por páginas y los escribe como NDJSON, sin
+ * mantener el catálogo completo en memoria.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookChangeFeedService {
+
+    private static final String TOKEN_VERSION = "v1";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private final BookRepository bookRepository;
+    private final BookTombstoneRepository bookTombstoneRepository;
+    private final BookChangeFeedConfig feedConfig;
+    private final ObjectMapper objectMapper;
+    private final BookChangeClock bookChangeClock;
+
+    /**
+     * Posición del cliente en el feed: último libro y última eliminación recibidos
+     */
+    public record SyncCursor(LocalDateTime bookUpdatedAt, long bookId,
+                             LocalDateTime deletedAt, long tombstoneId,
+                             LocalDateTime issuedAt) {
+
+        static SyncCursor initial() {
+            return new SyncCursor(EPOCH, 0L, EPOCH, 0L, null);
+        }
+
+        boolean isInitial() {
+            return issuedAt == null;
+        }
+    }
+
+    /**
+     * Registrar la eliminación de un libro en la misma transacción que el borrado
+     */
+    public void recordDeletion(Book book) {
+        bookTombstoneRepository.save(BookTombstone.builder()
+                .bookId(book.getId())
+                .isbn(book.getIsbn())
+                .deletedAt(bookChangeClock.now())
+                .build());
+    }
+
+    /**
+     * Registrar la eliminación de todo el catálogo (recarga forzada)
+     */
+    public void recordDeletionOfAll() {
+        int recorded = bookTombstoneRepository.insertForAllBooks(bookChangeClock.now());
+        log.info("Registradas {} eliminaciones para la sincronización incremental", recorded);
+    }
+
+    /**
+     * Validar y decodificar el token de sincronización. Sin token se envía el catálogo completo.
+     */
+    public SyncCursor parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return SyncCursor.initial();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|");
+            if (parts.length != 6 || !TOKEN_VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("formato desconocido");
+            }
+            return new SyncCursor(
+                    LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]),
+                    LocalDateTime.parse(parts[3]), Long.parseLong(parts[4]),
+                    LocalDateTime.parse(parts[5]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Token de sincronización inválido: " + e.getMessage());
+        }
+    }
+
+    String encodeToken(SyncCursor cursor) {
+        String raw = String.join("|", TOKEN_VERSION,
+                cursor.bookUpdatedAt().toString(), Long.toString(cursor.bookId()),
+                cursor.deletedAt().toString(), Long.toString(cursor.tombstoneId()),
+                cursor.issuedAt().toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Escribir en {@code out} los cambios posteriores al cursor, un evento JSON por línea,
+     * terminando con un evento END que contiene el nuevo token
+     */
+    public void streamChanges(SyncCursor since, OutputStream out) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        // Sin pasar de la primera marca de una transacción aún abierta (ver BookChangeClock)
+        LocalDateTime until = bookChangeClock.visibleUntil(now.minusNanos(feedConfig.getSafetyLagMs() * 1_000_000));
+        int pageSize = feedConfig.getPageSize();
+
+        SyncCursor cursor = since;
+        boolean fullSnapshot = since.isInitial();
+        if (!fullSnapshot && since.issuedAt().isBefore(now.minusDays(feedConfig.getTombstoneRetentionDays()))) {
+            // Las eliminaciones de ese período ya se depuraron: el cliente debe rehacer su copia
+            log.info("Token de sincronización emitido el {} expirado; se envía el catálogo completo", since.issuedAt());
+            writeLine(out, BookChangeDTO.builder().type(BookChangeDTO.Type.RESET).build());
+            cursor = SyncCursor.initial();
+            fullSnapshot = true;
+        }
+
+        LocalDateTime bookUpdatedAt = cursor.bookUpdatedAt();
+        long bookId = cursor.bookId();
+        long upserts = 0;
+        while (true) {
+            List<BookResponseDTO> page = bookRepository.findChangedAfter(
+                    bookUpdatedAt, bookId, until, PageRequest.of(0, pageSize));
+            for (BookResponseDTO book : page) {
+                writeLine(out, BookChangeDTO.builder().type(BookChangeDTO.Type.UPSERT).book(book).build());
+            }
+            out.flush();
+            upserts += page.size();
+            if (!page.isEmpty()) {
+                BookResponseDTO last = page.get(page.size() - 1);
+                bookUpdatedAt = last.getUpdatedAt();
+                bookId = last.getId();
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        LocalDateTime deletedAt = cursor.deletedAt();
+        long tombstoneId = cursor.tombstoneId();
+        long deletes = 0;
+        if (fullSnapshot) {
+            // Un cliente sin copia local no necesita eliminaciones anteriores
+            deletedAt = until;
+            tombstoneId = Long.MAX_VALUE;
+        } else {
+            while (true) {
+                List<BookTombstone> page = bookTombstoneRepository.findDeletedAfter(
+                        deletedAt, tombstoneId, until, PageRequest.of(0, pageSize));
+                for (BookTombstone tombstone : page) {
+                    writeLine(out, BookChangeDTO.builder()
+                            .type(BookChangeDTO.Type.DELETE)
+                            .bookId(tombstone.getBookId())
+                            .isbn(tombstone.getIsbn())
+                            .deletedAt(tombstone.getDeletedAt())
+                            .build());
+                }
+                out.flush();
+                deletes += page.size();
+                if (!page.isEmpty()) {
+                    BookTombstone last = page.get(page.size() - 1);
+                    deletedAt = last.getDeletedAt();
+                    tombstoneId = last.getId();
+                }
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+        }
+
+        SyncCursor next = new SyncCursor(bookUpdatedAt, bookId, deletedAt, tombstoneId, now);
+        writeLine(out, BookChangeDTO.builder()
+                .type(BookChangeDTO.Type.END)
+                .syncToken(encodeToken(next))
+                .upserts(upserts)
+                .deletes(deletes)
+                .build());
+        out.flush();
+        log.debug("Feed de cambios enviado: {} libros, {} eliminaciones", upserts, deletes);
+    }
+
+    /**
+     * Depurar registros de eliminación más antiguos que el período de retención
+     */
+    @Scheduled(cron = "0 30 3 * * ?") // Diario a las 3:30 AM
+    @Transactional
+    public void purgeExpiredTombstones() {
+        LocalDateTime before = LocalDateTime.now().minusDays(feedConfig.getTombstoneRetentionDays());
+        int deleted = bookTombstoneRepository.deleteOlderThan(before);
+        log.info("Depurados {} registros de libros eliminados anteriores a {}", deleted, before);
+    }
+
+    private void writeLine(OutputStream out, BookChangeDTO event) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(event));
+        out.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,299 @@
+package com.library.books.service;
+
+import com.library.books.config.BookCoverConfig;
+import com.library.books.model.BookCover;
+import com.library.books.repository.BookCoverRepository;
+import com.library.books.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Portadas de libros fuera de la tabla books.
+ * Al subir una portada se guarda el original y una miniatura JPEG por cada tamaño
+ * configurado; las consultas del catálogo nunca leen bytes de imágenes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookCoverService {
+
+    private static final int MIGRATION_BATCH_SIZE = 20;
+
+    private final BookRepository bookRepository;
+    private final BookCoverRepository bookCoverRepository;
+    private final BookCoverStore bookCoverStore;
+    private final BookCoverConfig coverConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Imagen lista para enviar: archivo en disco y metadatos para las cabeceras HTTP
+     */
+    public record CoverContent(Path path, String etag, String contentType, long length) {
+    }
+
+    /**
+     * Guardar la portada de un libro y sus miniaturas, reemplazando la anterior
+     */
+    @Transactional
+    public List<BookCover> uploadCover(Long bookId, byte[] content) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new RuntimeException("Libro no encontrado");
+        }
+        if (content == null || content.length == 0) {
+            throw new RuntimeException("La imagen de portada está vacía");
+        }
+        return replaceCover(bookId, content);
+    }
+
+    /**
+     * Obtener la portada en el tamaño pedido ("original" o uno de los tamaños de miniatura)
+     */
+    public CoverContent getCover(Long bookId, String size) {
+        String variant = size == null || size.isBlank() ? BookCover.ORIGINAL : size.toLowerCase();
+        if (!BookCover.ORIGINAL.equals(variant) && !coverConfig.getThumbnailWidths().containsKey(variant)) {
+            throw new RuntimeException("Tamaño de portada no válido: " + size + ". Valores permitidos: " +
+                    BookCover.ORIGINAL + ", " + String.join(", ", coverConfig.getThumbnailWidths().keySet()));
+        }
+        BookCover cover = bookCoverRepository.findByBookIdAndVariant(bookId, variant)
+                .orElseThrow(() -> new RuntimeException("Portada no encontrada"));
+        return new CoverContent(bookCoverStore.resolve(cover.getSha256()), "\"" + cover.getSha256() + "\"",
+                cover.getContentType(), cover.getSizeBytes());
+    }
+
+    /**
+     * Eliminar la portada de un libro (también se usa al eliminar el libro)
+     */
+    @Transactional
+    public void deleteCover(Long bookId) {
+        List<String> hashes = bookCoverRepository.findByBookId(bookId).stream().map(BookCover::getSha256).toList();
+        if (hashes.isEmpty()) {
+            return;
+        }
+        bookCoverRepository.deleteByBookId(bookId);
+        TransactionCallbacks.afterCommit(() -> deleteUnreferenced(hashes));
+    }
+
+    /**
+     * Eliminar todas las portadas (recarga forzada del catálogo)
+     */
+    @Transactional
+    public void deleteAllCovers() {
+        int deleted = bookCoverRepository.deleteAllCovers();
+        if (deleted > 0) {
+            TransactionCallbacks.afterCommit(this::sweepOrphanFiles);
+        }
+    }
+
+    /**
+     * Mover a BookCoverStore las portadas que quedaron en la antigua columna books.cover_image.
+     * Pasan por la misma validación que una subida: las que superan maxPixels se dejan sin migrar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyCovers() {
+        int migrated = 0;
+        long lastId = 0L;
+        try {
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                        "SELECT id, cover_image FROM books WHERE id > ? AND cover_image IS NOT NULL ORDER BY id LIMIT ?",
+                        lastId, MIGRATION_BATCH_SIZE);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Map<String, Object> row : rows) {
+                    Long bookId = ((Number) row.get("id")).longValue();
+                    byte[] content = (byte[]) row.get("cover_image");
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            replaceCover(bookId, content);
+                            jdbcTemplate.update("UPDATE books SET cover_image = NULL WHERE id = ?", bookId);
+                        });
+                        migrated++;
+                    } catch (RuntimeException e) {
+                        log.error("No se pudo migrar la portada del libro {}: {}", bookId, e.getMessage());
+                    }
+                    lastId = bookId;
+                }
+            }
+        } catch (DataAccessException e) {
+            // La columna no existe en instalaciones nuevas
+            log.debug("Sin portadas para migrar desde books.cover_image: {}", e.getMessage());
+            return;
+        }
+        if (migrated > 0) {
+            log.info("Migradas {} portadas desde books.cover_image al almacén de portadas", migrated);
+        }
+    }
+
+    private List<BookCover> replaceCover(Long bookId, byte[] content) {
+        BufferedImage image = readImage(content);
+        String originalType = detectContentType(content);
+
+        List<BookCover> covers = new ArrayList<>();
+        covers.add(BookCover.builder()
+                .bookId(bookId)
+                .variant(BookCover.ORIGINAL)
+                .sha256(bookCoverStore.put(content))
+                .contentType(originalType)
+                .sizeBytes((long) content.length)
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .build());
+
+        coverConfig.getThumbnailWidths().forEach((variant, maxWidth) -> {
+            BufferedImage thumbnail = resize(image, maxWidth);
+            byte[] bytes = encodeJpeg(thumbnail);
+            covers.add(BookCover.builder()
+                    .bookId(bookId)
+                    .variant(variant)
+                    .sha256(bookCoverStore.put(bytes))
+                    .contentType("image/jpeg")
+                    .sizeBytes((long) bytes.length)
+                    .width(thumbnail.getWidth())
+                    .height(thumbnail.getHeight())
+                    .build());
+        });
+
+        List<String> previousHashes = bookCoverRepository.findByBookId(bookId).stream().map(BookCover::getSha256).toList();
+        bookCoverRepository.deleteByBookId(bookId);
+        List<BookCover> saved = bookCoverRepository.saveAll(covers);
+        if (!previousHashes.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> deleteUnreferenced(previousHashes));
+        }
+        log.info("Portada del libro {} guardada ({} bytes, {}x{})", bookId, content.length, image.getWidth(), image.getHeight());
+        return saved;
+    }
+
+    private void deleteUnreferenced(List<String> hashes) {
+        for (String sha256 : new HashSet<>(hashes)) {
+            if (!bookCoverRepository.existsBySha256(sha256)) {
+                bookCoverStore.delete(sha256);
+            }
+        }
+    }
+
+    private void sweepOrphanFiles() {
+        Set<String> referenced = new HashSet<>(bookCoverRepository.findAllHashes());
+        try (Stream<String> stored = bookCoverStore.listHashes()) {
+            stored.filter(sha256 -> !referenced.contains(sha256)).forEach(bookCoverStore::delete);
+        } catch (IOException e) {
+            log.warn("No se pudieron limpiar las imágenes sin portada asociada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Decodificar la imagen, rechazando antes de reservar memoria las que superan maxPixels
+     * (las dimensiones se leen de la cabecera)
+     */
+    private BufferedImage readImage(byte[] content) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new RuntimeException("Formato de imagen no soportado (se aceptan JPEG, PNG, GIF y BMP)");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > coverConfig.getMaxPixels()) {
+                    throw new RuntimeException(String.format(
+                            "La imagen de portada es demasiado grande: %dx%d píxeles (máximo %d píxeles)",
+                            width, height, coverConfig.getMaxPixels()));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer la imagen de portada: " + e.getMessage());
+        }
+    }
+
+    private static String detectContentType(byte[] content) {
+        if (content.length >= 3 && (content[0] & 0xFF) == 0xFF && (content[1] & 0xFF) == 0xD8) {
+            return "image/jpeg";
+        }
+        if (content.length >= 4 && (content[0] & 0xFF) == 0x89 && content[1] == 'P' && content[2] == 'N' && content[3] == 'G') {
+            return "image/png";
+        }
+        if (content.length >= 3 && content[0] == 'G' && content[1] == 'I' && content[2] == 'F') {
+            return "image/gif";
+        }
+        if (content.length >= 2 && content[0] == 'B' && content[1] == 'M') {
+            return "image/bmp";
+        }
+        return "application/octet-stream";
+    }
+
+    /**
+     * Reducir al ancho máximo manteniendo la proporción, sobre fondo blanco (JPEG no tiene transparencia)
+     */
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(coverConfig.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error generando la miniatura de portada", e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package com.library.books.service;
+
+import com.library.books.config.BookCoverConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de imágenes en disco direccionado por contenido: cada archivo se
+ * nombra con el SHA-256 de sus bytes, así una misma imagen se guarda una sola vez
+ * y el nombre sirve como ETag fuerte.
+ */
+@Component
+@Slf4j
+class BookCoverStore {
+
+    private final Path root;
+
+    BookCoverStore(BookCoverConfig coverConfig) {
+        this.root = Paths.get(coverConfig.getStorageDir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Guardar los bytes y devolver su hash. Si el archivo ya existe no se vuelve a escribir.
+     */
+    String put(byte[] content) {
+        String sha256 = sha256(content);
+        Path target = resolve(sha256);
+        if (Files.exists(target)) {
+            return sha256;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // Escribir en un temporal y renombrar, para no servir nunca un archivo a medio escribir
+            Path temp = Files.createTempFile(target.getParent(), sha256, ".tmp");
+            try {
+                Files.write(temp, content);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error guardando la imagen de portada", e);
+        }
+        return sha256;
+    }
+
+    Path resolve(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    void delete(String sha256) {
+        try {
+            Files.deleteIfExists(resolve(sha256));
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar la imagen {}: {}", sha256, e.getMessage());
+        }
+    }
+
+    /**
+     * Hashes de todas las imágenes guardadas
+     */
+    Stream<String> listHashes() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Stream.empty();
+        }
+        return Files.walk(root, 2)
+                .filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.length() == 64);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
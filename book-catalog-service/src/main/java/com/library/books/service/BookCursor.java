@@ -0,0 +1,53 @@
+package com.library.books.service;
+
+import com.library.books.dto.BookResponseDTO;
+import com.library.books.repository.BookSortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco del listado de libros: clave y dirección de ordenamiento más la
+ * posición (valor de la clave, id) del último libro entregado.
+ */
+record BookCursor(BookSortKey sortKey, boolean descending, Object lastValue, long lastId) {
+
+    private static final String VERSION = "c1";
+    private static final String NULL_VALUE = "N";
+    private static final String VALUE_PREFIX = "V";
+
+    static BookCursor after(BookSortKey sortKey, boolean descending, BookResponseDTO lastBook) {
+        return new BookCursor(sortKey, descending, sortKey.valueOf(lastBook), lastBook.getId());
+    }
+
+    String encode() {
+        String value = lastValue == null ? NULL_VALUE : VALUE_PREFIX + lastValue;
+        String raw = String.join("|", VERSION, sortKey.name(), descending ? "D" : "A", Long.toString(lastId), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar un cursor, verificando que corresponda al mismo ordenamiento de la petición
+     */
+    static BookCursor decode(String token, BookSortKey sortKey, boolean descending) {
+        BookCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            // El valor va al final y puede contener '|'
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("formato desconocido");
+            }
+            BookSortKey key = BookSortKey.valueOf(parts[1]);
+            Object value = parts[4].equals(NULL_VALUE) ? null : key.parse(parts[4].substring(VALUE_PREFIX.length()));
+            cursor = new BookCursor(key, "D".equals(parts[2]), value, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Cursor de paginación inválido: " + e.getMessage());
+        }
+        if (cursor.sortKey() != sortKey || cursor.descending() != descending) {
+            throw new RuntimeException("El cursor de paginación corresponde a otro ordenamiento");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.books.service;
+
+import com.library.books.model.Book;
+import com.library.books.repository.BookRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice hash de libros por ISBN y por título+autor normalizados.
+ * Se llena con una precarga y se actualiza a medida que se crean o modifican
+ * libros dentro del mismo lote.
+ */
+class BookKeyIndex {
+
+    private final Map<String, Book> byIsbn = new HashMap<>();
+    private final Map<String, Book> byTitleAndAuthor = new HashMap<>();
+
+    /**
+     * Precargar los libros existentes que coinciden con los ISBN o títulos dados,
+     * usando consultas IN de como máximo {@code inClauseSize} valores
+     */
+    static BookKeyIndex prefetch(BookRepository bookRepository, Collection<String> isbns,
+                                 Collection<String> titles, int inClauseSize) {
+        Set<String> isbnKeys = new LinkedHashSet<>();
+        for (String isbn : isbns) {
+            String normalized = normalizeIsbn(isbn);
+            if (normalized != null) {
+                isbnKeys.add(normalized);
+            }
+        }
+        Set<String> titleKeys = new LinkedHashSet<>();
+        for (String title : titles) {
+            if (title != null && !title.trim().isEmpty()) {
+                titleKeys.add(normalizeText(title));
+            }
+        }
+
+        Map<Long, Book> found = new HashMap<>();
+        for (List<String> chunk : chunks(isbnKeys, inClauseSize)) {
+            bookRepository.findByIsbnIn(chunk).forEach(book -> found.put(book.getId(), book));
+        }
+        for (List<String> chunk : chunks(titleKeys, inClauseSize)) {
+            bookRepository.findByLowerTitleIn(chunk).forEach(book -> found.put(book.getId(), book));
+        }
+
+        // Ante claves repetidas gana el libro más antiguo, como en la búsqueda secuencial anterior
+        BookKeyIndex index = new BookKeyIndex();
+        found.values().stream()
+                .sorted(Comparator.comparing(Book::getId))
+                .forEach(index::add);
+        return index;
+    }
+
+    static <T> List<List<T>> chunks(Collection<T> values, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(size, values.size()));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == size) {
+                chunks.add(current);
+                current = new ArrayList<>(size);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    static String normalizeIsbn(String isbn) {
+        return isbn == null || isbn.trim().isEmpty() ? null : isbn.trim();
+    }
+
+    static String normalizeText(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String titleAndAuthorKey(String title, String author) {
+        return normalizeText(title) + '\u0000' + normalizeText(author);
+    }
+
+    /**
+     * Registrar un libro. Si ya hay otro con la misma clave, se conserva el primero.
+     */
+    void add(Book book) {
+        String isbn = normalizeIsbn(book.getIsbn());
+        if (isbn != null) {
+            byIsbn.putIfAbsent(isbn, book);
+        }
+        byTitleAndAuthor.putIfAbsent(titleAndAuthorKey(book.getTitle(), book.getAuthor()), book);
+    }
+
+    /**
+     * Buscar por ISBN y, si no hay coincidencia, por título+autor
+     */
+    Book find(String isbn, String title, String author) {
+        String normalizedIsbn = normalizeIsbn(isbn);
+        if (normalizedIsbn != null) {
+            Book book = byIsbn.get(normalizedIsbn);
+            if (book != null) {
+                return book;
+            }
+        }
+        return byTitleAndAuthor.get(titleAndAuthorKey(title, author));
+    }
+
+    boolean containsIsbn(String isbn) {
+        String normalizedIsbn = normalizeIsbn(isbn);
+        return normalizedIsbn != null && byIsbn.containsKey(normalizedIsbn);
+    }
+
+    /**
+     * Actualizar las claves de un libro cuyo ISBN, título o autor cambiaron
+     */
+    void rekey(Book book, String previousIsbn, String previousTitle, String previousAuthor) {
+        String oldIsbn = normalizeIsbn(previousIsbn);
+        if (oldIsbn != null && byIsbn.get(oldIsbn) == book) {
+            byIsbn.remove(oldIsbn);
+        }
+        String oldKey = titleAndAuthorKey(previousTitle, previousAuthor);
+        if (byTitleAndAuthor.get(oldKey) == book) {
+            byTitleAndAuthor.remove(oldKey);
+        }
+        add(book);
+    }
+}
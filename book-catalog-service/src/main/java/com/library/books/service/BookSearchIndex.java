@@ -0,0 +1,268 @@
+package com.library.books.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre título, autor, ISBN, categoría y editorial.
+ * Los términos se normalizan (minúsculas, sin acentos) y los resultados se
+ * ordenan con BM25, ponderando cada campo según su relevancia.
+ */
+public class BookSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ISBN_LIKE = Pattern.compile("[0-9]+x?");
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int ISBN_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 1;
+    private static final int PUBLISHER_WEIGHT = 1;
+
+    /**
+     * Factor aplicado cuando un término solo coincide como prefijo (búsqueda mientras se escribe)
+     */
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final double k1;
+    private final double b;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private long totalLength = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookSearchIndex(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Indexar (o reindexar) un libro
+     */
+    public void index(Long id, String title, String author, String isbn, String category, String publisher) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTokens(terms, title, TITLE_WEIGHT);
+        addTokens(terms, author, AUTHOR_WEIGHT);
+        addIsbn(terms, isbn);
+        addTokens(terms, category, CATEGORY_WEIGHT);
+        addTokens(terms, publisher, PUBLISHER_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (terms.isEmpty()) {
+                return;
+            }
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(id, terms);
+            documentLengths.put(id, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Eliminar un libro del índice
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vaciar el índice
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            documentLengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Buscar libros que contengan todos los términos de la consulta.
+     * El último término también se compara como prefijo.
+     *
+     * @return IDs de la página solicitada ordenados por relevancia y el total de coincidencias
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.size() > 1) {
+            // "978-84-9759" se busca como un único ISBN compacto
+            String compact = String.join("", queryTerms);
+            if (ISBN_LIKE.matcher(compact).matches()) {
+                queryTerms = List.of(compact);
+            }
+        }
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(Collections.emptyList(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new SearchResult(Collections.emptyList(), 0);
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                boolean allowPrefix = i == queryTerms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(term, allowPrefix, documentCount, averageLength);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> intersection = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            intersection.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = intersection;
+                }
+                if (scores.isEmpty()) {
+                    return new SearchResult(Collections.emptyList(), 0);
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < ranked.size() && ids.size() < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return new SearchResult(ids, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizar y dividir un texto en términos
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private Map<Long, Double> scoreTerm(String term, boolean allowPrefix, int documentCount, double averageLength) {
+        Map<Long, Double> termScores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matches = allowPrefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Collections.emptyMap();
+
+        for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+            Map<Long, Integer> postingList = match.getValue();
+            double idf = Math.log(1 + (documentCount - postingList.size() + 0.5) / (postingList.size() + 0.5));
+            double factor = match.getKey().equals(term) ? 1.0 : PREFIX_MATCH_FACTOR;
+
+            for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+                int frequency = posting.getValue();
+                double lengthRatio = documentLengths.get(posting.getKey()) / averageLength;
+                double score = factor * idf * (frequency * (k1 + 1)) / (frequency + k1 * (1 - b + b * lengthRatio));
+                termScores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return termScores;
+    }
+
+    private void removeInternal(Long id) {
+        Map<String, Integer> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(id);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Integer length = documentLengths.remove(id);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+
+    private static void addTokens(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static void addIsbn(Map<String, Integer> terms, String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            return;
+        }
+        // El ISBN se indexa como un único término sin guiones ni espacios
+        String compact = SEPARATORS.matcher(normalize(isbn)).replaceAll("");
+        if (!compact.isEmpty()) {
+            terms.merge(compact, ISBN_WEIGHT, Integer::sum);
+        }
+    }
+
+    /**
+     * Página de resultados de una búsqueda
+     */
+    public record SearchResult(List<Long> ids, long total) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.library.books.service;
+
+import com.library.books.config.BookSearchConfig;
+import com.library.books.dto.SearchIndexStatusDTO;
+import com.library.books.model.Book;
+import com.library.books.repository.BookIndexView;
+import com.library.books.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio que mantiene el índice de búsqueda del catálogo.
+ * Se construye al iniciar, se actualiza tras cada commit de BookService y
+ * puede reconstruirse en segundo plano sin dejar de responder búsquedas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchService {
+
+    public enum RebuildStatus {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private final BookRepository bookRepository;
+    private final BookSearchConfig searchConfig;
+    private final TaskExecutor taskExecutor;
+
+    private volatile BookSearchIndex activeIndex;
+    private volatile boolean ready = false;
+
+    // Estado de la reconstrucción en curso
+    private final Object rebuildMonitor = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile BookSearchIndex pendingIndex;
+    private volatile RebuildStatus rebuildStatus = RebuildStatus.IDLE;
+    private final AtomicLong processed = new AtomicLong();
+    private volatile long total;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String errorMessage;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (searchConfig.isBuildOnStartup()) {
+            log.info("Construyendo índice de búsqueda del catálogo...");
+            startRebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Buscar en el índice y devolver la página de IDs ordenada por relevancia
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        BookSearchIndex.SearchResult result = activeIndex.search(
+                query, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(result.ids(), pageable, result.total());
+    }
+
+    /**
+     * Indexar un libro creado o actualizado, una vez confirmada la transacción
+     */
+    public void indexBook(Book book) {
+        Long id = book.getId();
+        String title = book.getTitle();
+        String author = book.getAuthor();
+        String isbn = book.getIsbn();
+        String category = book.getCategory();
+        String publisher = book.getPublisher();
+
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (rebuildMonitor) {
+                if (activeIndex != null) {
+                    activeIndex.index(id, title, author, isbn, category, publisher);
+                }
+                if (pendingIndex != null) {
+                    touchedDuringRebuild.add(id);
+                    pendingIndex.index(id, title, author, isbn, category, publisher);
+                }
+            }
+        });
+    }
+
+    /**
+     * Quitar un libro eliminado del índice, una vez confirmada la transacción
+     */
+    public void removeBook(Long bookId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (rebuildMonitor) {
+                if (activeIndex != null) {
+                    activeIndex.remove(bookId);
+                }
+                if (pendingIndex != null) {
+                    touchedDuringRebuild.add(bookId);
+                    pendingIndex.remove(bookId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Vaciar el índice (recarga forzada del catálogo)
+     */
+    public void clear() {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (rebuildMonitor) {
+                if (activeIndex != null) {
+                    activeIndex.clear();
+                }
+                if (pendingIndex != null) {
+                    pendingIndex.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Iniciar la reconstrucción del índice en segundo plano.
+     * Si ya hay una en curso, solo se devuelve su estado.
+     */
+    public SearchIndexStatusDTO startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("Ya hay una reconstrucción del índice en curso");
+            return getStatus();
+        }
+
+        synchronized (rebuildMonitor) {
+            pendingIndex = new BookSearchIndex(searchConfig.getK1(), searchConfig.getB());
+            touchedDuringRebuild.clear();
+        }
+        processed.set(0);
+        total = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        errorMessage = null;
+        rebuildStatus = RebuildStatus.RUNNING;
+
+        try {
+            taskExecutor.execute(this::rebuild);
+        } catch (RuntimeException e) {
+            finishRebuild(e);
+            throw e;
+        }
+        return getStatus();
+    }
+
+    public SearchIndexStatusDTO getStatus() {
+        long processedNow = processed.get();
+        long totalNow = total;
+        BookSearchIndex index = activeIndex;
+
+        return SearchIndexStatusDTO.builder()
+                .ready(ready)
+                .rebuildStatus(rebuildStatus.name())
+                .indexedBooks(index != null ? index.size() : 0)
+                .processed(processedNow)
+                .total(totalNow)
+                .progressPercent(totalNow > 0 ? Math.min(100.0, processedNow * 100.0 / totalNow) : 0.0)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    private void rebuild() {
+        try {
+            total = bookRepository.count();
+            int batchSize = searchConfig.getRebuildBatchSize();
+            long lastId = 0L;
+
+            while (true) {
+                List<BookIndexView> batch = bookRepository.findIndexViewsAfter(lastId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                synchronized (rebuildMonitor) {
+                    for (BookIndexView view : batch) {
+                        // Los cambios recibidos durante la reconstrucción son más recientes que esta lectura
+                        if (!touchedDuringRebuild.contains(view.getId())) {
+                            pendingIndex.index(view.getId(), view.getTitle(), view.getAuthor(),
+                                    view.getIsbn(), view.getCategory(), view.getPublisher());
+                        }
+                    }
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+                processed.addAndGet(batch.size());
+            }
+
+            synchronized (rebuildMonitor) {
+                activeIndex = pendingIndex;
+            }
+            ready = true;
+            finishRebuild(null);
+            log.info("Índice de búsqueda reconstruido: {} libros indexados", activeIndex.size());
+        } catch (Exception e) {
+            log.error("Error reconstruyendo el índice de búsqueda: {}", e.getMessage(), e);
+            finishRebuild(e);
+        }
+    }
+
+    private void finishRebuild(Exception error) {
+        synchronized (rebuildMonitor) {
+            pendingIndex = null;
+            touchedDuringRebuild.clear();
+        }
+        finishedAt = LocalDateTime.now();
+        if (error != null) {
+            errorMessage = error.getMessage();
+            rebuildStatus = RebuildStatus.FAILED;
+        } else {
+            rebuildStatus = RebuildStatus.COMPLETED;
+        }
+        rebuilding.set(false);
+    }
+}
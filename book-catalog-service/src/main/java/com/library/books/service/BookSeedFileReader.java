@@ -0,0 +1,314 @@
+package com.library.books.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.books.dto.BookCreateDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lectura en streaming de archivos de carga de libros.
+ * Soporta un arreglo JSON de libros o un CSV con encabezados (separado por
+ * coma o punto y coma), opcionalmente comprimidos con gzip (.json.gz, .csv.gz).
+ * Entrega las filas en bloques, sin mantener el archivo completo en memoria.
+ */
+@Component
+@RequiredArgsConstructor
+class BookSeedFileReader {
+
+    private static final Map<String, String> CSV_COLUMNS = Map.ofEntries(
+            Map.entry("title", "title"), Map.entry("titulo", "title"),
+            Map.entry("author", "author"), Map.entry("autor", "author"),
+            Map.entry("isbn", "isbn"),
+            Map.entry("category", "category"), Map.entry("categoria", "category"),
+            Map.entry("publisher", "publisher"), Map.entry("editorial", "publisher"),
+            Map.entry("year", "year"), Map.entry("anio", "year"),
+            Map.entry("description", "description"), Map.entry("descripcion", "description"),
+            Map.entry("coverurl", "coverUrl"), Map.entry("cover_url", "coverUrl"),
+            Map.entry("totalcopies", "totalCopies"), Map.entry("total_copies", "totalCopies"),
+            Map.entry("price", "price"), Map.entry("precio", "price"),
+            Map.entry("featured", "featured"), Map.entry("destacado", "featured"));
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Fila leída del archivo: el libro o el motivo por el que no se pudo interpretar
+     */
+    record SeedRow(long rowNumber, BookCreateDTO book, String error) {
+
+        static SeedRow of(long rowNumber, BookCreateDTO book) {
+            return new SeedRow(rowNumber, book, null);
+        }
+
+        static SeedRow failed(long rowNumber, String error) {
+            return new SeedRow(rowNumber, null, "Fila " + rowNumber + ": " + error);
+        }
+    }
+
+    enum Format { JSON, CSV }
+
+    static Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".json")) {
+            return Format.JSON;
+        }
+        if (name.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        throw new RuntimeException("Formato de archivo no soportado (use .json o .csv): " + file.getFileName());
+    }
+
+    /**
+     * Leer el archivo y entregar sus filas en bloques de {@code chunkSize}
+     */
+    void read(Path file, int chunkSize, Consumer<List<SeedRow>> chunkConsumer) throws IOException {
+        Format format = formatOf(file);
+        try (InputStream in = open(file)) {
+            ChunkBuffer buffer = new ChunkBuffer(chunkSize, chunkConsumer);
+            if (format == Format.JSON) {
+                readJson(in, buffer);
+            } else {
+                readCsv(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), buffer);
+            }
+            buffer.flush();
+        }
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        return in;
+    }
+
+    private void readJson(InputStream in, ChunkBuffer buffer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("El archivo JSON debe contener un arreglo de libros");
+            }
+            long rowNumber = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                rowNumber++;
+                // Leer cada elemento como árbol para que un libro con tipos inválidos no detenga la carga
+                JsonNode node = objectMapper.readTree(parser);
+                if (node == null || !node.isObject()) {
+                    buffer.add(SeedRow.failed(rowNumber, "se esperaba un objeto JSON"));
+                    continue;
+                }
+                try {
+                    buffer.add(SeedRow.of(rowNumber, objectMapper.treeToValue(node, BookCreateDTO.class)));
+                } catch (JsonProcessingException e) {
+                    buffer.add(SeedRow.failed(rowNumber, e.getOriginalMessage()));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Archivo JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private void readCsv(Reader reader, ChunkBuffer buffer) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        String headerLine = csv.peekHeaderLine();
+        if (headerLine == null) {
+            return;
+        }
+        char separator = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+        List<String> header = csv.nextRecord(separator);
+
+        String[] fields = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            fields[i] = CSV_COLUMNS.get(name);
+        }
+        List<String> mapped = Arrays.asList(fields);
+        if (!mapped.contains("title") || !mapped.contains("author")) {
+            throw new RuntimeException("El archivo CSV debe incluir las columnas title y author");
+        }
+
+        long rowNumber = 0;
+        List<String> values;
+        while ((values = csv.nextRecord(separator)) != null) {
+            rowNumber++;
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < fields.length && i < values.size(); i++) {
+                if (fields[i] != null && !values.get(i).isBlank()) {
+                    row.put(fields[i], values.get(i));
+                }
+            }
+            try {
+                buffer.add(SeedRow.of(rowNumber, toBook(row)));
+            } catch (IllegalArgumentException e) {
+                buffer.add(SeedRow.failed(rowNumber, e.getMessage()));
+            }
+        }
+    }
+
+    private static BookCreateDTO toBook(Map<String, String> row) {
+        return BookCreateDTO.builder()
+                .title(row.get("title"))
+                .author(row.get("author"))
+                .isbn(row.get("isbn"))
+                .category(row.get("category"))
+                .publisher(row.get("publisher"))
+                .year(parseInteger(row, "year"))
+                .description(row.get("description"))
+                .coverUrl(row.get("coverUrl"))
+                .totalCopies(parseInteger(row, "totalCopies"))
+                .price(parseDecimal(row, "price"))
+                .featured(parseBoolean(row.get("featured")))
+                .build();
+    }
+
+    private static Integer parseInteger(Map<String, String> row, String field) {
+        String value = row.get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido para " + field + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(Map<String, String> row, String field) {
+        String value = row.get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido para " + field + ": " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "si", "sí", "yes", "x" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Acumula filas y las entrega al consumidor cada {@code chunkSize}
+     */
+    private static final class ChunkBuffer {
+
+        private final int chunkSize;
+        private final Consumer<List<SeedRow>> consumer;
+        private List<SeedRow> rows;
+
+        ChunkBuffer(int chunkSize, Consumer<List<SeedRow>> consumer) {
+            this.chunkSize = chunkSize;
+            this.consumer = consumer;
+            this.rows = new ArrayList<>(chunkSize);
+        }
+
+        void add(SeedRow row) {
+            rows.add(row);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                consumer.accept(rows);
+                rows = new ArrayList<>(chunkSize);
+            }
+        }
+    }
+
+    /**
+     * Lector CSV (RFC 4180): campos entre comillas con separadores, saltos de línea y comillas dobles escapadas
+     */
+    private static final class CsvReader {
+
+        private final BufferedReader reader;
+
+        CsvReader(Reader reader) {
+            this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        }
+
+        String peekHeaderLine() throws IOException {
+            reader.mark(64 * 1024);
+            String header = reader.readLine();
+            reader.reset();
+            return header;
+        }
+
+        List<String> nextRecord(char separator) throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (ch == separator) {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    break;
+                } else if (ch != '\r') {
+                    field.append(ch);
+                }
+                c = reader.read();
+            }
+            values.add(field.toString());
+            return values;
+        }
+    }
+}
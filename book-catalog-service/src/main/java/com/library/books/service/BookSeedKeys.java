@@ -0,0 +1,96 @@
+package com.library.books.service;
+
+import com.library.books.model.Book;
+import com.library.books.repository.BookIndexView;
+import com.library.books.repository.BookRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Claves de deduplicación de una carga (ISBN y título+autor normalizados).
+ * Solo guarda las claves, no las entidades, para que el catálogo completo
+ * quepa en memoria durante la carga de un archivo grande.
+ */
+class BookSeedKeys {
+
+    private final Set<String> isbns = new HashSet<>();
+    private final Set<String> titlesAndAuthors = new HashSet<>();
+
+    /**
+     * Todas las claves del catálogo, leídas una sola vez por páginas de la proyección de índice
+     */
+    static BookSeedKeys loadAll(BookRepository bookRepository, int pageSize) {
+        BookSeedKeys keys = new BookSeedKeys();
+        long afterId = 0L;
+        while (true) {
+            List<BookIndexView> page = bookRepository.findIndexViewsAfter(afterId, PageRequest.of(0, pageSize));
+            for (BookIndexView view : page) {
+                keys.add(view.getIsbn(), view.getTitle(), view.getAuthor());
+            }
+            if (page.size() < pageSize) {
+                return keys;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Claves de los libros existentes que pueden coincidir con los candidatos,
+     * usando consultas IN de como máximo {@code inClauseSize} valores
+     */
+    static BookSeedKeys prefetch(BookRepository bookRepository, Collection<Book> candidates, int inClauseSize) {
+        Set<String> isbnKeys = new LinkedHashSet<>();
+        Set<String> titleKeys = new LinkedHashSet<>();
+        for (Book book : candidates) {
+            String isbn = BookKeyIndex.normalizeIsbn(book.getIsbn());
+            if (isbn != null) {
+                isbnKeys.add(isbn);
+            }
+            titleKeys.add(BookKeyIndex.normalizeText(book.getTitle()));
+        }
+
+        BookSeedKeys keys = new BookSeedKeys();
+        for (List<String> chunk : BookKeyIndex.chunks(isbnKeys, inClauseSize)) {
+            bookRepository.findByIsbnIn(chunk).forEach(keys::add);
+        }
+        for (List<String> chunk : BookKeyIndex.chunks(titleKeys, inClauseSize)) {
+            bookRepository.findByLowerTitleIn(chunk).forEach(keys::add);
+        }
+        return keys;
+    }
+
+    /**
+     * Registrar el libro si sus claves no existen.
+     * @return false si ya existía un libro con el mismo ISBN o el mismo título+autor
+     */
+    boolean addIfAbsent(Book book) {
+        String isbn = BookKeyIndex.normalizeIsbn(book.getIsbn());
+        String titleAndAuthor = BookKeyIndex.titleAndAuthorKey(book.getTitle(), book.getAuthor());
+        if ((isbn != null && isbns.contains(isbn)) || titlesAndAuthors.contains(titleAndAuthor)) {
+            return false;
+        }
+        add(book);
+        return true;
+    }
+
+    int size() {
+        return titlesAndAuthors.size();
+    }
+
+    private void add(Book book) {
+        add(book.getIsbn(), book.getTitle(), book.getAuthor());
+    }
+
+    private void add(String isbn, String title, String author) {
+        String normalizedIsbn = BookKeyIndex.normalizeIsbn(isbn);
+        if (normalizedIsbn != null) {
+            isbns.add(normalizedIsbn);
+        }
+        titlesAndAuthors.add(BookKeyIndex.titleAndAuthorKey(title, author));
+    }
+}
@@ -1,26 +1,56 @@
 package com.library.books.service;
 
+import com.library.books.config.BookBatchConfig;
+import com.library.books.config.BookSeedConfig;
 import com.library.books.dto.BookCreateDTO;
 import com.library.books.dto.SeedResponseDTO;
 import com.library.books.model.Book;
+import com.library.books.repository.BookBatchRepository;
 import com.library.books.repository.BookRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 /**
- * Servicio para cargar datos iniciales (seed) de libros
+ * Servicio para cargar datos iniciales (seed) de libros.
+ * Todas las cargas pasan por el mismo pipeline por etapas: leer, normalizar y
+ * validar, descartar los libros existentes contra un conjunto de claves
+ * precargado una sola vez, e insertar con lotes JDBC.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookSeedService {
 
+    private static final int MAX_ERROR_MESSAGES = 100;
+
     private final BookRepository bookRepository;
+    private final BookBatchRepository bookBatchRepository;
+    private final BookBatchConfig batchConfig;
+    private final BookSeedConfig seedConfig;
+    private final BookSeedFileReader bookSeedFileReader;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final BookSearchService bookSearchService;
+    private final BookStatisticsService bookStatisticsService;
+    private final BookChangeFeedService bookChangeFeedService;
+    private final BookCoverService bookCoverService;
+    private final BookAvailabilityCache bookAvailabilityCache;
+    private final BookChangeClock bookChangeClock;
 
     /**
      * Cargar los 34 libros precargados en la base de datos
@@ -33,79 +63,23 @@ public class BookSeedService {
         // Si se fuerza la recarga, eliminar todos los libros existentes
         if (forceReload) {
             long countBefore = bookRepository.count();
-            bookRepository.deleteAll();
+            bookChangeFeedService.recordDeletionOfAll();
+            bookCoverService.deleteAllCovers();
+            bookRepository.deleteAllInBatch();
+            bookSearchService.clear();
+            bookAvailabilityCache.clearThrough();
             log.info("Eliminados {} libros existentes para recarga forzada", countBefore);
         }
 
-        List<BookCreateDTO> initialBooks = getInitialBooks();
-        int totalProcessed = initialBooks.size();
-        int inserted = 0;
-        int alreadyExists = 0;
-        int errors = 0;
-
-        for (BookCreateDTO bookDTO : initialBooks) {
-            try {
-                // Verificar si existe por ISBN
-                boolean exists = false;
-                if (bookDTO.getIsbn() != null && !bookDTO.getIsbn().trim().isEmpty()) {
-                    exists = bookRepository.findByIsbn(bookDTO.getIsbn().trim()).isPresent();
-                }
-
-                // Si no existe por ISBN, verificar por título + autor
-                if (!exists) {
-                    exists = bookRepository.findAll().stream()
-                            .anyMatch(b -> b.getTitle().equalsIgnoreCase(bookDTO.getTitle().trim()) &&
-                                    b.getAuthor().equalsIgnoreCase(bookDTO.getAuthor().trim()));
-                }
-
-                if (exists) {
-                    alreadyExists++;
-                    log.debug("Libro ya existe: {} - {}", bookDTO.getTitle(), bookDTO.getAuthor());
-                } else {
-                    // Crear el libro
-                    int totalCopies = bookDTO.getTotalCopies() != null ? bookDTO.getTotalCopies() : 1;
-                    // Obtener availableCopies específico para este libro (algunos tienen valores diferentes)
-                    int availableCopies = getAvailableCopiesForBook(bookDTO.getTitle(), totalCopies);
-                    
-                    Book book = Book.builder()
-                            .title(bookDTO.getTitle().trim())
-                            .author(bookDTO.getAuthor().trim())
-                            .isbn(bookDTO.getIsbn() != null ? bookDTO.getIsbn().trim() : null)
-                            .category(bookDTO.getCategory() != null ? bookDTO.getCategory().trim() : null)
-                            .publisher(bookDTO.getPublisher() != null ? bookDTO.getPublisher().trim() : null)
-                            .year(bookDTO.getYear())
-                            .description(bookDTO.getDescription() != null ? bookDTO.getDescription().trim() : null)
-                            .coverUrl(bookDTO.getCoverUrl() != null && !bookDTO.getCoverUrl().trim().isEmpty() 
-                                    ? bookDTO.getCoverUrl().trim() : null)
-                            .totalCopies(totalCopies)
-                            .availableCopies(availableCopies)
-                            .price(bookDTO.getPrice())
-                            .featured(bookDTO.getFeatured() != null ? bookDTO.getFeatured() : false)
-                            .build();
-
-                    bookRepository.save(book);
-                    inserted++;
-                    log.debug("Libro insertado: {} - {} (Total: {}, Disponibles: {})", 
-                            book.getTitle(), book.getAuthor(), totalCopies, availableCopies);
-                }
-            } catch (Exception e) {
-                errors++;
-                log.error("Error insertando libro {} - {}: {}", bookDTO.getTitle(), bookDTO.getAuthor(), e.getMessage());
-            }
+        SeedRun run = new SeedRun();
+        // Algunos libros precargados tienen copias prestadas
+        loadList(getInitialBooks(), run,
+                bookDTO -> getAvailableCopiesForBook(bookDTO.getTitle(), copiesOf(bookDTO)));
+        if (forceReload) {
+            // Después de registrar las altas, para que la reconciliación reemplace los contadores y no se sumen dos veces
+            bookStatisticsService.reconcileAfterCommit();
         }
-
-        String message = String.format("Se insertaron %d libros nuevos. %d ya existían. %d errores.",
-                inserted, alreadyExists, errors);
-
-        log.info("Carga de libros completada: {}", message);
-
-        return SeedResponseDTO.builder()
-                .totalProcessed(totalProcessed)
-                .inserted(inserted)
-                .alreadyExists(alreadyExists)
-                .errors(errors)
-                .message(message)
-                .build();
+        return run.finish("Carga de libros completada");
     }
 
     /**
@@ -116,75 +90,202 @@ public class BookSeedService {
     public SeedResponseDTO loadBooksBulk(List<BookCreateDTO> books) {
         log.info("Iniciando carga masiva de {} libros desde JSON externo", books.size());
 
-        int totalProcessed = books.size();
-        int inserted = 0;
-        int alreadyExists = 0;
-        int errors = 0;
-
-        for (BookCreateDTO bookDTO : books) {
-            try {
-                // Verificar si existe por ISBN
-                boolean exists = false;
-                if (bookDTO.getIsbn() != null && !bookDTO.getIsbn().trim().isEmpty()) {
-                    exists = bookRepository.findByIsbn(bookDTO.getIsbn().trim()).isPresent();
-                }
-
-                // Si no existe por ISBN, verificar por título + autor
-                if (!exists) {
-                    exists = bookRepository.findAll().stream()
-                            .anyMatch(b -> b.getTitle().equalsIgnoreCase(bookDTO.getTitle().trim()) &&
-                                    b.getAuthor().equalsIgnoreCase(bookDTO.getAuthor().trim()));
-                }
-
-                if (exists) {
-                    alreadyExists++;
-                    log.debug("Libro ya existe: {} - {}", bookDTO.getTitle(), bookDTO.getAuthor());
-                } else {
-                    // Crear el libro
-                    int totalCopies = bookDTO.getTotalCopies() != null ? bookDTO.getTotalCopies() : 1;
-                    int availableCopies = totalCopies; // Por defecto, todas las copias están disponibles
-                    
-                    Book book = Book.builder()
-                            .title(bookDTO.getTitle().trim())
-                            .author(bookDTO.getAuthor().trim())
-                            .isbn(bookDTO.getIsbn() != null ? bookDTO.getIsbn().trim() : null)
-                            .category(bookDTO.getCategory() != null ? bookDTO.getCategory().trim() : null)
-                            .publisher(bookDTO.getPublisher() != null ? bookDTO.getPublisher().trim() : null)
-                            .year(bookDTO.getYear())
-                            .description(bookDTO.getDescription() != null ? bookDTO.getDescription().trim() : null)
-                            .coverUrl(bookDTO.getCoverUrl() != null && !bookDTO.getCoverUrl().trim().isEmpty() 
-                                    ? bookDTO.getCoverUrl().trim() : null)
-                            .totalCopies(totalCopies)
-                            .availableCopies(availableCopies)
-                            .price(bookDTO.getPrice())
-                            .featured(bookDTO.getFeatured() != null ? bookDTO.getFeatured() : false)
-                            .build();
-
-                    bookRepository.save(book);
-                    inserted++;
-                    log.debug("Libro insertado: {} - {} (Total: {}, Disponibles: {})", 
-                            book.getTitle(), book.getAuthor(), totalCopies, availableCopies);
-                }
-            } catch (Exception e) {
-                errors++;
-                log.error("Error insertando libro {} - {}: {}", bookDTO.getTitle(), bookDTO.getAuthor(), e.getMessage());
+        SeedRun run = new SeedRun();
+        // Por defecto, todas las copias están disponibles
+        loadList(books, run, BookSeedService::copiesOf);
+        return run.finish("Carga masiva de libros completada");
+    }
+
+    /**
+     * Cargar libros desde un archivo del directorio de importación (books.seed.import-dir)
+     * @param fileName Nombre del archivo .json o .csv (opcionalmente .gz)
+     */
+    public SeedResponseDTO loadBooksFromImportDir(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new RuntimeException("Debe indicar el nombre del archivo a cargar");
+        }
+        Path importDir = Paths.get(seedConfig.getImportDir()).toAbsolutePath().normalize();
+        Path file = importDir.resolve(fileName.trim()).normalize();
+        if (!file.startsWith(importDir)) {
+            throw new RuntimeException("El archivo debe estar dentro del directorio de importación");
+        }
+        return loadBooksFromFile(file);
+    }
+
+    /**
+     * Cargar libros desde un archivo JSON o CSV en disco.
+     * El archivo se procesa por bloques de books.seed.file-chunk-size filas, cada uno en
+     * su propia transacción, de modo que la memoria usada no depende del tamaño del archivo.
+     */
+    public SeedResponseDTO loadBooksFromFile(Path file) {
+        BookSeedFileReader.formatOf(file);
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Archivo de carga no encontrado: " + file.getFileName());
+        }
+        log.info("Iniciando carga de libros desde el archivo {}", file);
+
+        SeedRun run = new SeedRun();
+        // Claves de todo el catálogo en una sola lectura; cada bloque agrega las de los libros que inserta
+        BookSeedKeys keys = BookSeedKeys.loadAll(bookRepository, seedConfig.getFileChunkSize());
+        log.info("Claves de {} libros existentes precargadas para la deduplicación", keys.size());
+        try {
+            bookSeedFileReader.read(file, seedConfig.getFileChunkSize(), rows -> {
+                transactionTemplate.executeWithoutResult(status ->
+                        insert(deduplicate(normalize(rows, run, BookSeedService::copiesOf), keys, run), run));
+                log.info("Carga desde {}: {} filas procesadas, {} insertadas", file.getFileName(),
+                        run.totalProcessed, run.inserted);
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo el archivo de carga: " + e.getMessage());
+        }
+        return run.finish("Carga de libros desde " + file.getFileName() + " completada");
+    }
+
+    /**
+     * Pipeline completo para una lista en memoria, dentro de la transacción actual.
+     * Para pocas filas es más barato precargar solo las claves que pueden coincidir.
+     */
+    private void loadList(List<BookCreateDTO> books, SeedRun run, ToIntFunction<BookCreateDTO> availableCopies) {
+        List<Book> candidates = normalize(toRows(books), run, availableCopies);
+        BookSeedKeys keys = BookSeedKeys.prefetch(bookRepository, candidates, batchConfig.getInClauseSize());
+        insert(deduplicate(candidates, keys, run), run);
+    }
+
+    /**
+     * Etapa 1: normalizar y validar las filas leídas
+     */
+    private List<Book> normalize(List<BookSeedFileReader.SeedRow> rows, SeedRun run,
+                                 ToIntFunction<BookCreateDTO> availableCopies) {
+        run.totalProcessed += rows.size();
+        List<Book> candidates = new ArrayList<>(rows.size());
+        for (BookSeedFileReader.SeedRow row : rows) {
+            if (row.error() != null) {
+                run.error(row.error());
+                continue;
+            }
+            String violations = validate(row.book());
+            if (violations != null) {
+                run.error("Fila " + row.rowNumber() + ": " + violations);
+                continue;
+            }
+            candidates.add(toBook(row.book(), availableCopies.applyAsInt(row.book())));
+        }
+        return candidates;
+    }
+
+    /**
+     * Etapa 2: descartar los libros que ya existen (por ISBN o título+autor) o se repiten en la carga
+     */
+    private List<Book> deduplicate(List<Book> candidates, BookSeedKeys keys, SeedRun run) {
+        List<Book> toInsert = new ArrayList<>(candidates.size());
+        for (Book book : candidates) {
+            if (keys.addIfAbsent(book)) {
+                toInsert.add(book);
+            } else {
+                run.alreadyExists++;
+                log.debug("Libro ya existe: {} - {}", book.getTitle(), book.getAuthor());
             }
         }
+        return toInsert;
+    }
+
+    /**
+     * Etapa 3: insertar en lotes JDBC y publicar las altas al índice de búsqueda y las estadísticas
+     */
+    private void insert(List<Book> toInsert, SeedRun run) {
+        bookRepository.flush();
+        bookBatchRepository.insertAll(toInsert, batchConfig.getChunkSize(), bookChangeClock.now());
+        for (Book book : toInsert) {
+            bookSearchService.indexBook(book);
+            bookStatisticsService.recordCreated(book);
+        }
+        run.inserted += toInsert.size();
+    }
+
+    private String validate(BookCreateDTO bookDTO) {
+        Set<ConstraintViolation<BookCreateDTO>> violations = validator.validate(bookDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
 
-        String message = String.format("Se insertaron %d libros nuevos. %d ya existían. %d errores.",
-                inserted, alreadyExists, errors);
+    private static List<BookSeedFileReader.SeedRow> toRows(List<BookCreateDTO> books) {
+        List<BookSeedFileReader.SeedRow> rows = new ArrayList<>(books.size());
+        for (int i = 0; i < books.size(); i++) {
+            rows.add(BookSeedFileReader.SeedRow.of(i + 1, books.get(i)));
+        }
+        return rows;
+    }
 
-        log.info("Carga masiva de libros completada: {}", message);
+    private static int copiesOf(BookCreateDTO bookDTO) {
+        return bookDTO.getTotalCopies() != null ? bookDTO.getTotalCopies() : 1;
+    }
 
-        return SeedResponseDTO.builder()
-                .totalProcessed(totalProcessed)
-                .inserted(inserted)
-                .alreadyExists(alreadyExists)
-                .errors(errors)
-                .message(message)
+    private static Book toBook(BookCreateDTO bookDTO, int availableCopies) {
+        return Book.builder()
+                .title(bookDTO.getTitle().trim())
+                .author(bookDTO.getAuthor().trim())
+                .isbn(trimToNull(bookDTO.getIsbn()))
+                .category(trimToNull(bookDTO.getCategory()))
+                .publisher(trimToNull(bookDTO.getPublisher()))
+                .year(bookDTO.getYear())
+                .description(trimToNull(bookDTO.getDescription()))
+                .coverUrl(trimToNull(bookDTO.getCoverUrl()))
+                .totalCopies(copiesOf(bookDTO))
+                .availableCopies(availableCopies)
+                .price(bookDTO.getPrice())
+                .featured(bookDTO.getFeatured() != null ? bookDTO.getFeatured() : false)
                 .build();
     }
 
+    private static String trimToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * Resultados acumulados de una carga, que puede abarcar varios bloques
+     */
+    private static final class SeedRun {
+
+        private final long startNanos = System.nanoTime();
+        private int totalProcessed;
+        private int inserted;
+        private int alreadyExists;
+        private int errors;
+        private final List<String> errorMessages = new ArrayList<>();
+
+        void error(String message) {
+            errors++;
+            if (errorMessages.size() < MAX_ERROR_MESSAGES) {
+                errorMessages.add(message);
+            }
+        }
+
+        SeedResponseDTO finish(String logPrefix) {
+            long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+            double rowsPerSecond = Math.round(totalProcessed * 1e9 / elapsedNanos * 10) / 10.0;
+            String message = String.format("Se insertaron %d libros nuevos. %d ya existían. %d errores.",
+                    inserted, alreadyExists, errors);
+            log.info("{}: {} ({} filas en {} ms, {} filas/s)", logPrefix, message, totalProcessed,
+                    elapsedNanos / 1_000_000, rowsPerSecond);
+
+            return SeedResponseDTO.builder()
+                    .totalProcessed(totalProcessed)
+                    .inserted(inserted)
+                    .alreadyExists(alreadyExists)
+                    .errors(errors)
+                    .message(message)
+                    .elapsedMillis(elapsedNanos / 1_000_000)
+                    .rowsPerSecond(rowsPerSecond)
+                    .errorMessages(errorMessages)
+                    .build();
+        }
+    }
+
     /**
      * Obtener la lista de 34 libros precargados
      */
@@ -1,23 +1,59 @@
 package com.library.books.service;
 
+import com.library.books.config.BookBatchConfig;
 import com.library.books.dto.*;
+import com.library.books.exception.CopyAdjustmentInProgressException;
+import com.library.books.exception.CopyCountConflictException;
+import com.library.books.model.AppliedCopyAdjustment;
 import com.library.books.model.Book;
+import com.library.books.repository.AppliedCopyAdjustmentRepository;
+import com.library.books.repository.BookAvailabilityView;
+import com.library.books.repository.BookBatchRepository;
+import com.library.books.repository.BookKeysetRepository;
 import com.library.books.repository.BookRepository;
+import com.library.books.repository.BookSortKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_AVAILABILITY_BATCH = 500;
+
     private final BookRepository bookRepository;
+    private final BookSearchService bookSearchService;
+    private final BookStatisticsService bookStatisticsService;
+    private final BookSyncService bookSyncService;
+    private final BookChangeFeedService bookChangeFeedService;
+    private final BookKeysetRepository bookKeysetRepository;
+    private final BookCoverService bookCoverService;
+    private final BookBatchRepository bookBatchRepository;
+    private final BookAvailabilityCache bookAvailabilityCache;
+    private final BookChangeClock bookChangeClock;
+    private final AppliedCopyAdjustmentRepository appliedCopyAdjustmentRepository;
+    private final BookBatchConfig batchConfig;
 
     @Transactional
     public BookResponseDTO createBook(BookCreateDTO createDTO) {
@@ -61,6 +97,8 @@ public class BookService {
                 .build();
 
         book = bookRepository.save(book);
+        bookSearchService.indexBook(book);
+        bookStatisticsService.recordCreated(book);
         log.info("Libro creado exitosamente con ID: {} - Título: {}", book.getId(), book.getTitle());
 
         return BookResponseDTO.fromEntity(book);
@@ -77,9 +115,66 @@ public class BookService {
                 .map(BookResponseDTO::fromEntity);
     }
 
+    /**
+     * Listado por cursor: sin OFFSET ni COUNT, el costo de cada página no depende de su profundidad
+     */
+    public BookSliceDTO scrollAllBooks(String sortBy, String sortDir, int size, String cursor) {
+        return scrollBooks(BookKeysetRepository.Filter.all(), sortBy, sortDir, size, cursor);
+    }
+
+    public BookSliceDTO scrollBooksByCategory(String category, String sortBy, String sortDir, int size, String cursor) {
+        return scrollBooks(BookKeysetRepository.Filter.byCategory(category), sortBy, sortDir, size, cursor);
+    }
+
+    public BookSliceDTO scrollFeaturedBooks(String sortBy, String sortDir, int size, String cursor) {
+        return scrollBooks(BookKeysetRepository.Filter.featured(), sortBy, sortDir, size, cursor);
+    }
+
+    private BookSliceDTO scrollBooks(BookKeysetRepository.Filter filter, String sortBy, String sortDir,
+                                    int size, String cursor) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new RuntimeException("El tamaño de página debe estar entre 1 y " + MAX_SCROLL_SIZE);
+        }
+        BookSortKey sortKey = BookSortKey.fromParam(sortBy);
+        boolean descending = "DESC".equalsIgnoreCase(sortDir);
+        BookCursor position = cursor == null || cursor.isBlank()
+                ? null
+                : BookCursor.decode(cursor, sortKey, descending);
+
+        // Se pide una fila extra para saber si hay página siguiente
+        List<BookResponseDTO> rows = bookKeysetRepository.findPage(filter, sortKey, descending,
+                position != null ? position.lastValue() : null,
+                position != null ? position.lastId() : null,
+                size + 1);
+        boolean hasNext = rows.size() > size;
+        List<BookResponseDTO> content = hasNext ? rows.subList(0, size) : rows;
+
+        return BookSliceDTO.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext
+                        ? BookCursor.after(sortKey, descending, content.get(content.size() - 1)).encode()
+                        : null)
+                .build();
+    }
+
     public Page<BookResponseDTO> searchBooks(String query, Pageable pageable) {
-        return bookRepository.searchBooks(query, pageable)
-                .map(BookResponseDTO::fromEntity);
+        // Mientras el índice se construye por primera vez, se usa la búsqueda SQL
+        if (!bookSearchService.isReady()) {
+            return bookRepository.searchBooks(query, pageable)
+                    .map(BookResponseDTO::fromEntity);
+        }
+
+        Page<Long> ids = bookSearchService.search(query, pageable);
+        Map<Long, Book> booksById = bookRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BookResponseDTO> books = ids.getContent().stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .map(BookResponseDTO::fromEntity)
+                .toList();
+        return new PageImpl<>(books, pageable, ids.getTotalElements());
     }
 
     public Page<BookResponseDTO> getBooksByCategory(String category, Pageable pageable) {
@@ -98,6 +193,7 @@ public class BookService {
 
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
+        BookStatisticsService.BookCounts before = BookStatisticsService.BookCounts.of(book);
 
         if (updateDTO.getTitle() != null && !updateDTO.getTitle().trim().isEmpty()) {
             book.setTitle(updateDTO.getTitle().trim());
@@ -155,6 +251,9 @@ public class BookService {
         }
 
         book = bookRepository.save(book);
+        bookSearchService.indexBook(book);
+        bookStatisticsService.recordChange(before, BookStatisticsService.BookCounts.of(book));
+        bookAvailabilityCache.writeThrough(book);
         log.info("Libro {} actualizado exitosamente", bookId);
         return BookResponseDTO.fromEntity(book);
     }
@@ -176,87 +275,272 @@ public class BookService {
             );
         }
         
+        BookStatisticsService.BookCounts before = BookStatisticsService.BookCounts.of(book);
         bookRepository.delete(book);
+        bookChangeFeedService.recordDeletion(book);
+        bookCoverService.deleteCover(bookId);
+        bookSearchService.removeBook(bookId);
+        bookStatisticsService.recordDeleted(before);
+        bookAvailabilityCache.evictThrough(bookId);
         log.info("Libro {} eliminado exitosamente", bookId);
     }
 
     public BookAvailabilityDTO checkAvailability(Long bookId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
+        return toAvailabilityDTO(bookId, getAvailability(bookId));
+    }
 
-        boolean available = book.getAvailableCopies() > 0;
+    /**
+     * Disponibilidad de varios libros, en el orden pedido y sin repetidos. Los que no están en
+     * caché se leen con una sola consulta; los libros inexistentes se devuelven como no disponibles.
+     */
+    public List<BookAvailabilityDTO> checkAvailabilityBatch(List<Long> bookIds) {
+        List<Long> ids = bookIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_AVAILABILITY_BATCH) {
+            throw new RuntimeException("Se puede consultar la disponibilidad de como máximo " + MAX_AVAILABILITY_BATCH + " libros a la vez");
+        }
+
+        Map<Long, BookAvailabilityCache.Availability> availabilities = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long bookId : ids) {
+            bookAvailabilityCache.get(bookId).ifPresentOrElse(
+                    availability -> availabilities.put(bookId, availability), () -> missing.add(bookId));
+        }
+        if (!missing.isEmpty()) {
+            long stamp = bookAvailabilityCache.loadStamp();
+            for (BookAvailabilityView view : bookRepository.findAvailabilityByIdIn(missing)) {
+                BookAvailabilityCache.Availability availability = BookAvailabilityCache.Availability.of(
+                        view.getAvailableCopies(), view.getTotalCopies(), view.getStatus());
+                bookAvailabilityCache.putLoaded(view.getId(), availability, stamp);
+                availabilities.put(view.getId(), availability);
+            }
+        }
+
+        return ids.stream()
+                .map(bookId -> availabilities.containsKey(bookId)
+                        ? toAvailabilityDTO(bookId, availabilities.get(bookId))
+                        : BookAvailabilityDTO.builder()
+                                .bookId(bookId)
+                                .available(false)
+                                .availableCopies(0)
+                                .totalCopies(0)
+                                .message("Libro no encontrado")
+                                .build())
+                .toList();
+    }
+
+    private BookAvailabilityDTO toAvailabilityDTO(Long bookId, BookAvailabilityCache.Availability availability) {
+        boolean available = availability.availableCopies() > 0;
 
         return BookAvailabilityDTO.builder()
                 .bookId(bookId)
                 .available(available)
-                .availableCopies(book.getAvailableCopies())
-                .totalCopies(book.getTotalCopies())
+                .availableCopies(availability.availableCopies())
+                .totalCopies(availability.totalCopies())
                 .message(available
                         ? "El libro está disponible"
                         : "El libro no está disponible")
                 .build();
     }
 
+    /**
+     * Ajustar las copias disponibles con un UPDATE condicional, seguro frente a escrituras concurrentes.
+     * Si el resultado quedaría fuera de [0, total] no se modifica nada y se lanza CopyCountConflictException.
+     */
     @Transactional
     public BookResponseDTO updateCopies(Long bookId, Integer copiesChange) {
         log.info("Actualizando copias del libro {}: {}", bookId, copiesChange);
 
+        int updated = bookRepository.adjustAvailableCopies(bookId, copiesChange, bookChangeClock.now());
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
+        if (updated == 0) {
+            throw new CopyCountConflictException(String.format(
+                    "No se puede ajustar en %d las copias del libro %d: tiene %d de %d disponibles",
+                    copiesChange, bookId, book.getAvailableCopies(), book.getTotalCopies()));
+        }
 
-        int previousAvailableCopies = book.getAvailableCopies();
-        book.updateAvailableCopies(copiesChange);
-        book = bookRepository.save(book);
+        BookStatisticsService.BookCounts after = BookStatisticsService.BookCounts.of(book);
+        bookStatisticsService.recordChange(countsBeforeAdjustment(after, copiesChange), after);
+        bookAvailabilityCache.writeThrough(book);
 
         // Si el libro estaba sin copias disponibles y ahora tiene, podría notificar
         // (esto se manejaría desde el servicio de préstamos cuando se devuelve un libro)
-        if (previousAvailableCopies == 0 && book.getAvailableCopies() > 0) {
+        if (book.getAvailableCopies() - copiesChange == 0 && book.getAvailableCopies() > 0) {
             log.info("Libro {} ahora tiene {} copias disponibles", bookId, book.getAvailableCopies());
         }
 
         return BookResponseDTO.fromEntity(book);
     }
 
+    /**
+     * Aplicar varios ajustes de copias en un solo viaje a la base de datos.
+     * Cada ajuste se aplica o se rechaza por separado; con {@code allOrNothing} un solo
+     * rechazo revierte todo el lote.
+     * Los ajustes con eventIds son idempotentes: los IDs aplicados se registran en la misma
+     * transacción y un ajuste cuyos eventos ya se aplicaron responde éxito sin volver a cambiar
+     * las copias. Si solo se aplicó parte de sus eventos se rechaza, para que el emisor los
+     * envíe por separado.
+     */
+    @Transactional
+    public List<CopyAdjustmentResultDTO> updateCopiesBatch(List<CopyAdjustmentDTO> adjustments, boolean allOrNothing) {
+        log.info("Aplicando {} ajustes de copias (todo o nada: {})", adjustments.size(), allOrNothing);
+        if (adjustments.stream().anyMatch(a -> a.getBookId() == null || a.getChange() == null)) {
+            throw new RuntimeException("Cada ajuste de copias requiere bookId y change");
+        }
+        List<Long> eventIds = adjustments.stream()
+                .filter(a -> a.getEventIds() != null)
+                .flatMap(a -> a.getEventIds().stream())
+                .toList();
+        if (eventIds.contains(null) || eventIds.stream().distinct().count() < eventIds.size()) {
+            throw new RuntimeException("Los eventIds de los ajustes de copias no pueden ser nulos ni repetirse");
+        }
+        Set<Long> alreadyApplied = eventIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(appliedCopyAdjustmentRepository.findAppliedEventIds(eventIds));
+
+        // Solo se envían a la base de datos los ajustes con eventos sin aplicar
+        List<Integer> pending = new ArrayList<>();
+        int[] appliedEvents = new int[adjustments.size()];
+        for (int i = 0; i < adjustments.size(); i++) {
+            List<Long> ids = adjustments.get(i).getEventIds();
+            appliedEvents[i] = ids == null ? 0 : (int) ids.stream().filter(alreadyApplied::contains).count();
+            if (appliedEvents[i] == 0) {
+                pending.add(i);
+            }
+        }
+        LocalDateTime now = bookChangeClock.now();
+        int[] pendingUpdated = bookBatchRepository.adjustAvailableCopies(
+                pending.stream().map(adjustments::get).toList(), now);
+        int[] updated = new int[adjustments.size()];
+        for (int i = 0; i < pending.size(); i++) {
+            updated[pending.get(i)] = pendingUpdated[i];
+        }
+
+        Map<Long, Book> booksById = bookRepository.findAllById(
+                        adjustments.stream().map(CopyAdjustmentDTO::getBookId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<CopyAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        Map<Long, Integer> appliedDelta = new LinkedHashMap<>();
+        List<AppliedCopyAdjustment> newlyApplied = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < adjustments.size(); i++) {
+            CopyAdjustmentDTO adjustment = adjustments.get(i);
+            Book book = booksById.get(adjustment.getBookId());
+            boolean success;
+            String message = null;
+            if (appliedEvents[i] > 0) {
+                success = appliedEvents[i] == adjustment.getEventIds().size();
+                message = success
+                        ? "Ajuste ya aplicado"
+                        : "Parte de los eventos del ajuste ya se aplicó; envíelos por separado";
+            } else {
+                success = updated[i] > 0;
+                if (success) {
+                    appliedDelta.merge(adjustment.getBookId(), adjustment.getChange(), Integer::sum);
+                    if (adjustment.getEventIds() != null) {
+                        adjustment.getEventIds().forEach(eventId -> newlyApplied.add(
+                                new AppliedCopyAdjustment(eventId, adjustment.getBookId(), now)));
+                    }
+                } else {
+                    message = book == null
+                            ? "Libro no encontrado"
+                            : adjustment.getChange() < 0 ? "No hay copias disponibles suficientes" : "Se superaría el total de copias";
+                }
+            }
+            if (!success) {
+                rejected++;
+            }
+            results.add(CopyAdjustmentResultDTO.builder()
+                    .bookId(adjustment.getBookId())
+                    .change(adjustment.getChange())
+                    .success(success)
+                    .availableCopies(book != null ? book.getAvailableCopies() : null)
+                    .totalCopies(book != null ? book.getTotalCopies() : null)
+                    .message(message)
+                    .build());
+        }
+
+        if (allOrNothing && rejected > 0) {
+            throw new CopyCountConflictException(String.format(
+                    "Se rechazaron %d de %d ajustes de copias; no se aplicó ninguno", rejected, adjustments.size()));
+        }
+        try {
+            bookBatchRepository.insertAppliedAdjustments(newlyApplied);
+        } catch (DuplicateKeyException e) {
+            // Otra petición aplicó los mismos eventos a la vez: se revierte y el emisor reintenta
+            throw new CopyAdjustmentInProgressException(
+                    "Otra petición está aplicando los mismos eventos de ajuste de copias", e);
+        }
+
+        appliedDelta.forEach((bookId, delta) -> {
+            Book book = booksById.get(bookId);
+            BookStatisticsService.BookCounts after = BookStatisticsService.BookCounts.of(book);
+            bookStatisticsService.recordChange(countsBeforeAdjustment(after, delta), after);
+            bookAvailabilityCache.writeThrough(book);
+        });
+        return results;
+    }
+
+    /**
+     * Depurar los eventos de ajustes de copias aplicados más antiguos que el período de retención
+     */
+    @Scheduled(cron = "0 45 3 * * ?") // Diario a las 3:45 AM
+    @Transactional
+    public void purgeAppliedCopyAdjustments() {
+        LocalDateTime before = LocalDateTime.now().minusDays(batchConfig.getAppliedAdjustmentRetentionDays());
+        int deleted = appliedCopyAdjustmentRepository.deleteOlderThan(before);
+        log.info("Depurados {} eventos de ajustes de copias anteriores a {}", deleted, before);
+    }
+
+    /**
+     * Valores del libro antes de un ajuste de copias, reconstruidos desde el resultado
+     */
+    private static BookStatisticsService.BookCounts countsBeforeAdjustment(BookStatisticsService.BookCounts after, int delta) {
+        int availableBefore = after.availableCopies() - delta;
+        Book.Status statusBefore = availableBefore > 0 ? Book.Status.AVAILABLE : Book.Status.LOANED;
+        return new BookStatisticsService.BookCounts(statusBefore, after.category(), after.totalCopies(), availableBefore);
+    }
+
     /**
      * Validar que el libro existe y está disponible
      */
     public boolean isBookAvailable(Long bookId) {
         try {
-            Book book = bookRepository.findById(bookId)
-                    .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
-            return book.getAvailableCopies() > 0;
+            return getAvailability(bookId).availableCopies() > 0;
         } catch (Exception e) {
             log.error("Error verificando disponibilidad del libro {}: {}", bookId, e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Disponibilidad desde la caché; en un fallo se lee solo la proyección de disponibilidad
+     */
+    private BookAvailabilityCache.Availability getAvailability(Long bookId) {
+        Optional<BookAvailabilityCache.Availability> cached = bookAvailabilityCache.get(bookId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long stamp = bookAvailabilityCache.loadStamp();
+        BookAvailabilityView view = bookRepository.findAvailabilityById(bookId)
+                .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
+        BookAvailabilityCache.Availability availability = BookAvailabilityCache.Availability.of(
+                view.getAvailableCopies(), view.getTotalCopies(), view.getStatus());
+        bookAvailabilityCache.putLoaded(bookId, availability, stamp);
+        return availability;
+    }
+
     /**
      * Obtener estadísticas del catálogo de libros
      */
     public BookStatisticsDTO getBookStatistics() {
-        long totalBooks = bookRepository.count();
-        long availableBooks = bookRepository.countByAvailableCopiesGreaterThan(0);
-        long totalCopies = bookRepository.findAll().stream()
-                .mapToLong(Book::getTotalCopies)
-                .sum();
-        long availableCopies = bookRepository.findAll().stream()
-                .mapToLong(Book::getAvailableCopies)
-                .sum();
-        long loanedBooks = totalBooks - availableBooks;
-
-        return BookStatisticsDTO.builder()
-                .totalBooks(totalBooks)
-                .availableBooks(availableBooks)
-                .loanedBooks(loanedBooks)
-                .reservedBooks(0L) // Por ahora no hay reservas
-                .totalCopies(totalCopies)
-                .availableCopies(availableCopies)
-                .build();
+        return bookStatisticsService.getStatistics();
     }
 
     /**
-     * Obtener todos los libros sin paginación (para sincronización)
+     * Obtener todos los libros sin paginación (para sincronización).
+     * Para sincronización incremental usar BookChangeFeedService (GET /api/books/changes).
      */
     public List<BookResponseDTO> getAllBooksWithoutPagination() {
         return bookRepository.findAll().stream()
@@ -268,169 +552,8 @@ public class BookService {
      * Sincronización masiva de libros desde Android
      * Crea nuevos libros o actualiza existentes basándose en ISBN
      */
-    @Transactional
     public BookSyncResponseDTO syncBooks(List<BookSyncDTO> booksToSync) {
-        log.info("Iniciando sincronización de {} libros", booksToSync.size());
-
-        int created = 0;
-        int updated = 0;
-        int skipped = 0;
-        int errors = 0;
-        List<BookResponseDTO> createdBooks = new java.util.ArrayList<>();
-        List<BookResponseDTO> updatedBooks = new java.util.ArrayList<>();
-        List<String> errorMessages = new java.util.ArrayList<>();
-
-        for (BookSyncDTO syncDTO : booksToSync) {
-            try {
-                // Validar campos obligatorios
-                if (syncDTO.getTitle() == null || syncDTO.getTitle().trim().isEmpty()) {
-                    skipped++;
-                    errorMessages.add("Libro sin título - ISBN: " + syncDTO.getIsbn());
-                    continue;
-                }
-                if (syncDTO.getAuthor() == null || syncDTO.getAuthor().trim().isEmpty()) {
-                    skipped++;
-                    errorMessages.add("Libro sin autor - Título: " + syncDTO.getTitle());
-                    continue;
-                }
-
-                Book existingBook = null;
-
-                // Buscar por ISBN si está disponible
-                if (syncDTO.getIsbn() != null && !syncDTO.getIsbn().trim().isEmpty()) {
-                    existingBook = bookRepository.findByIsbn(syncDTO.getIsbn().trim())
-                            .orElse(null);
-                }
-
-                // Si no se encontró por ISBN, buscar por título y autor
-                if (existingBook == null) {
-                    existingBook = bookRepository.findAll().stream()
-                            .filter(b -> b.getTitle().equalsIgnoreCase(syncDTO.getTitle().trim()) &&
-                                    b.getAuthor().equalsIgnoreCase(syncDTO.getAuthor().trim()))
-                            .findFirst()
-                            .orElse(null);
-                }
-
-                if (existingBook != null) {
-                    // Actualizar libro existente
-                    updateBookFromSync(existingBook, syncDTO);
-                    existingBook = bookRepository.save(existingBook);
-                    updated++;
-                    updatedBooks.add(BookResponseDTO.fromEntity(existingBook));
-                    log.debug("Libro actualizado: {} - {}", existingBook.getId(), existingBook.getTitle());
-                } else {
-                    // Crear nuevo libro
-                    Book newBook = createBookFromSync(syncDTO);
-                    newBook = bookRepository.save(newBook);
-                    created++;
-                    createdBooks.add(BookResponseDTO.fromEntity(newBook));
-                    log.debug("Libro creado: {} - {}", newBook.getId(), newBook.getTitle());
-                }
-            } catch (Exception e) {
-                errors++;
-                String errorMsg = String.format("Error procesando libro '%s' por %s: %s",
-                        syncDTO.getTitle(), syncDTO.getAuthor(), e.getMessage());
-                errorMessages.add(errorMsg);
-                log.error(errorMsg, e);
-            }
-        }
-
-        log.info("Sincronización completada: {} creados, {} actualizados, {} omitidos, {} errores",
-                created, updated, skipped, errors);
-
-        return BookSyncResponseDTO.builder()
-                .totalProcessed(booksToSync.size())
-                .created(created)
-                .updated(updated)
-                .skipped(skipped)
-                .errors(errors)
-                .createdBooks(createdBooks)
-                .updatedBooks(updatedBooks)
-                .errorMessages(errorMessages)
-                .build();
-    }
-
-    /**
-     * Crear libro desde DTO de sincronización
-     */
-    private Book createBookFromSync(BookSyncDTO syncDTO) {
-        int totalCopies = syncDTO.getTotalCopies() != null ? syncDTO.getTotalCopies() : 1;
-        int availableCopies = syncDTO.getAvailableCopies() != null 
-                ? syncDTO.getAvailableCopies() 
-                : totalCopies;
-
-        return Book.builder()
-                .title(syncDTO.getTitle().trim())
-                .author(syncDTO.getAuthor().trim())
-                .isbn(syncDTO.getIsbn() != null ? syncDTO.getIsbn().trim() : null)
-                .category(syncDTO.getCategory() != null ? syncDTO.getCategory().trim() : null)
-                .publisher(syncDTO.getPublisher() != null ? syncDTO.getPublisher().trim() : null)
-                .year(syncDTO.getYear())
-                .description(syncDTO.getDescription() != null ? syncDTO.getDescription().trim() : null)
-                .coverUrl(syncDTO.getCoverUrl() != null ? syncDTO.getCoverUrl().trim() : null)
-                .totalCopies(totalCopies)
-                .availableCopies(availableCopies)
-                .price(syncDTO.getPrice())
-                .featured(syncDTO.getFeatured() != null ? syncDTO.getFeatured() : false)
-                .build();
-    }
-
-    /**
-     * Actualizar libro existente desde DTO de sincronización
-     */
-    private void updateBookFromSync(Book existingBook, BookSyncDTO syncDTO) {
-        if (syncDTO.getTitle() != null && !syncDTO.getTitle().trim().isEmpty()) {
-            existingBook.setTitle(syncDTO.getTitle().trim());
-        }
-        if (syncDTO.getAuthor() != null && !syncDTO.getAuthor().trim().isEmpty()) {
-            existingBook.setAuthor(syncDTO.getAuthor().trim());
-        }
-        if (syncDTO.getIsbn() != null && !syncDTO.getIsbn().trim().isEmpty()) {
-            // Solo actualizar ISBN si no está duplicado
-            String newIsbn = syncDTO.getIsbn().trim();
-            if (!newIsbn.equals(existingBook.getIsbn())) {
-                bookRepository.findByIsbn(newIsbn)
-                        .ifPresentOrElse(
-                                b -> log.warn("ISBN {} ya existe, no se actualizará", newIsbn),
-                                () -> existingBook.setIsbn(newIsbn)
-                        );
-            }
-        }
-        if (syncDTO.getCategory() != null) {
-            existingBook.setCategory(syncDTO.getCategory().trim());
-        }
-        if (syncDTO.getPublisher() != null) {
-            existingBook.setPublisher(syncDTO.getPublisher().trim());
-        }
-        if (syncDTO.getYear() != null) {
-            existingBook.setYear(syncDTO.getYear());
-        }
-        if (syncDTO.getDescription() != null) {
-            existingBook.setDescription(syncDTO.getDescription().trim());
-        }
-        if (syncDTO.getCoverUrl() != null) {
-            existingBook.setCoverUrl(syncDTO.getCoverUrl().trim());
-        }
-        if (syncDTO.getTotalCopies() != null) {
-            int newTotalCopies = syncDTO.getTotalCopies();
-            int difference = newTotalCopies - existingBook.getTotalCopies();
-            existingBook.setTotalCopies(newTotalCopies);
-            // Ajustar copias disponibles
-            if (syncDTO.getAvailableCopies() != null) {
-                existingBook.setAvailableCopies(syncDTO.getAvailableCopies());
-            } else {
-                int newAvailableCopies = existingBook.getAvailableCopies() + difference;
-                existingBook.setAvailableCopies(Math.max(0, newAvailableCopies));
-            }
-        } else if (syncDTO.getAvailableCopies() != null) {
-            existingBook.setAvailableCopies(syncDTO.getAvailableCopies());
-        }
-        if (syncDTO.getPrice() != null) {
-            existingBook.setPrice(syncDTO.getPrice());
-        }
-        if (syncDTO.getFeatured() != null) {
-            existingBook.setFeatured(syncDTO.getFeatured());
-        }
+        return bookSyncService.syncBooks(booksToSync);
     }
 
     /**
@@ -0,0 +1,217 @@
+package com.library.books.service;
+
+import com.library.books.dto.BookStatisticsDTO;
+import com.library.books.model.Book;
+import com.library.books.repository.BookRepository;
+import com.library.books.repository.BookTotalsView;
+import com.library.books.repository.GroupCountView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Contadores del catálogo mantenidos en memoria.
+ * BookService informa cada alta, cambio y baja después del commit, y una tarea
+ * periódica los reconcilia con una consulta agregada sobre la tabla books.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookStatisticsService {
+
+    static final String UNCATEGORIZED = "Sin categoría";
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final BookRepository bookRepository;
+
+    private volatile boolean initialized = false;
+    private long version = 0;
+    private long totalBooks;
+    private long availableBooks;
+    private long totalCopies;
+    private long availableCopies;
+    private final Map<Book.Status, Long> booksByStatus = new EnumMap<>(Book.Status.class);
+    private final Map<String, Long> booksByCategory = new HashMap<>();
+
+    /**
+     * Valores de un libro que afectan a las estadísticas
+     */
+    public record BookCounts(Book.Status status, String category, int totalCopies, int availableCopies) {
+
+        public static BookCounts of(Book book) {
+            return new BookCounts(book.getStatus(), book.getCategory(),
+                    book.getTotalCopies() != null ? book.getTotalCopies() : 0,
+                    book.getAvailableCopies() != null ? book.getAvailableCopies() : 0);
+        }
+    }
+
+    /**
+     * Registrar un cambio en un libro, una vez confirmada la transacción.
+     * {@code before} es null para altas y {@code after} es null para bajas.
+     */
+    public void recordChange(BookCounts before, BookCounts after) {
+        TransactionCallbacks.afterCommit(() -> apply(before, after));
+    }
+
+    public void recordCreated(Book book) {
+        recordChange(null, BookCounts.of(book));
+    }
+
+    public void recordDeleted(BookCounts before) {
+        recordChange(before, null);
+    }
+
+    /**
+     * Estadísticas actuales del catálogo, sin consultar la base de datos
+     */
+    public BookStatisticsDTO getStatistics() {
+        if (!initialized) {
+            reconcile();
+        }
+        synchronized (this) {
+            if (!initialized) {
+                replaceWith(loadSnapshot());
+            }
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (Book.Status status : Book.Status.values()) {
+                byStatus.put(status.name(), booksByStatus.getOrDefault(status, 0L));
+            }
+
+            return BookStatisticsDTO.builder()
+                    .totalBooks(totalBooks)
+                    .availableBooks(availableBooks)
+                    .loanedBooks(totalBooks - availableBooks)
+                    .reservedBooks(booksByStatus.getOrDefault(Book.Status.RESERVED, 0L))
+                    .totalCopies(totalCopies)
+                    .availableCopies(availableCopies)
+                    .booksByStatus(byStatus)
+                    .booksByCategory(new TreeMap<>(booksByCategory))
+                    .build();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Solicitar una reconciliación después del commit (por ejemplo, tras borrar todo el catálogo)
+     */
+    public void reconcileAfterCommit() {
+        TransactionCallbacks.afterCommit(this::reconcile);
+    }
+
+    /**
+     * Reconciliar los contadores con la base de datos.
+     * Si entre la consulta y el reemplazo llegó algún cambio, se reintenta para no perderlo.
+     */
+    @Scheduled(initialDelayString = "${books.statistics.reconcile-interval-ms:300000}",
+               fixedDelayString = "${books.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long versionBefore;
+            synchronized (this) {
+                versionBefore = version;
+            }
+            Snapshot snapshot = loadSnapshot();
+            synchronized (this) {
+                if (version == versionBefore) {
+                    replaceWith(snapshot);
+                    return;
+                }
+            }
+            log.debug("Estadísticas modificadas durante la reconciliación (intento {}), se reintenta", attempt);
+        }
+        log.debug("No se pudo reconciliar las estadísticas por escrituras concurrentes; se reintentará en la próxima ejecución");
+    }
+
+    private synchronized void apply(BookCounts before, BookCounts after) {
+        version++;
+        if (!initialized) {
+            // Aún no hay valores base; la reconciliación en curso se reintentará e incluirá este cambio
+            return;
+        }
+        if (before != null) {
+            add(before, -1);
+        }
+        if (after != null) {
+            add(after, 1);
+        }
+    }
+
+    private void add(BookCounts counts, int sign) {
+        totalBooks += sign;
+        if (counts.availableCopies() > 0) {
+            availableBooks += sign;
+        }
+        totalCopies += (long) sign * counts.totalCopies();
+        availableCopies += (long) sign * counts.availableCopies();
+        if (counts.status() != null) {
+            booksByStatus.merge(counts.status(), (long) sign, Long::sum);
+        }
+        String category = categoryKey(counts.category());
+        long remaining = booksByCategory.merge(category, (long) sign, Long::sum);
+        if (remaining <= 0) {
+            booksByCategory.remove(category);
+        }
+    }
+
+    private Snapshot loadSnapshot() {
+        BookTotalsView totals = bookRepository.aggregateTotals();
+        List<GroupCountView> statusCounts = bookRepository.countGroupedByStatus();
+        List<GroupCountView> categoryCounts = bookRepository.countGroupedByCategory();
+        return new Snapshot(totals, statusCounts, categoryCounts);
+    }
+
+    private void replaceWith(Snapshot snapshot) {
+        BookTotalsView totals = snapshot.totals();
+        long previousTotalBooks = totalBooks;
+        long previousAvailableCopies = availableCopies;
+
+        totalBooks = valueOf(totals.getTotalBooks());
+        availableBooks = valueOf(totals.getAvailableBooks());
+        totalCopies = valueOf(totals.getTotalCopies());
+        availableCopies = valueOf(totals.getAvailableCopies());
+
+        booksByStatus.clear();
+        for (GroupCountView row : snapshot.statusCounts()) {
+            booksByStatus.put(Book.Status.valueOf(row.getGroupKey().toString()), valueOf(row.getCount()));
+        }
+        booksByCategory.clear();
+        for (GroupCountView row : snapshot.categoryCounts()) {
+            String category = categoryKey(row.getGroupKey() != null ? row.getGroupKey().toString() : null);
+            booksByCategory.merge(category, valueOf(row.getCount()), Long::sum);
+        }
+
+        if (initialized && (previousTotalBooks != totalBooks || previousAvailableCopies != availableCopies)) {
+            log.warn("Estadísticas corregidas en la reconciliación: libros {} -> {}, copias disponibles {} -> {}",
+                    previousTotalBooks, totalBooks, previousAvailableCopies, availableCopies);
+        }
+        initialized = true;
+        version++;
+    }
+
+    private static String categoryKey(String category) {
+        return category == null || category.isBlank() ? UNCATEGORIZED : category;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private record Snapshot(BookTotalsView totals, List<GroupCountView> statusCounts,
+                            List<GroupCountView> categoryCounts) {
+    }
+}
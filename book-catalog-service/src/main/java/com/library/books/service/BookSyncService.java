@@ -0,0 +1,263 @@
+package com.library.books.service;
+
+import com.library.books.config.BookBatchConfig;
+import com.library.books.dto.BookResponseDTO;
+import com.library.books.dto.BookSyncDTO;
+import com.library.books.dto.BookSyncResponseDTO;
+import com.library.books.model.Book;
+import com.library.books.repository.BookBatchRepository;
+import com.library.books.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Sincronización masiva de libros desde Android.
+ * Precarga en pocas consultas IN los libros que pueden coincidir, clasifica cada
+ * registro en memoria (crear, actualizar u omitir) y escribe con lotes JDBC.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookSyncService {
+
+    private final BookRepository bookRepository;
+    private final BookBatchRepository bookBatchRepository;
+    private final BookBatchConfig batchConfig;
+    private final BookSearchService bookSearchService;
+    private final BookStatisticsService bookStatisticsService;
+    private final BookAvailabilityCache bookAvailabilityCache;
+    private final BookChangeClock bookChangeClock;
+
+    @Transactional
+    public BookSyncResponseDTO syncBooks(List<BookSyncDTO> booksToSync) {
+        log.info("Iniciando sincronización de {} libros", booksToSync.size());
+        long start = System.nanoTime();
+
+        int updated = 0;
+        int skipped = 0;
+        int errors = 0;
+        List<String> errorMessages = new ArrayList<>();
+
+        // 1. Precargar los libros existentes que pueden coincidir
+        BookKeyIndex index = BookKeyIndex.prefetch(bookRepository,
+                booksToSync.stream().map(BookSyncDTO::getIsbn).toList(),
+                booksToSync.stream().map(BookSyncDTO::getTitle).toList(),
+                batchConfig.getInClauseSize());
+
+        // 2. Clasificar cada registro en memoria
+        List<Book> toInsert = new ArrayList<>();
+        Map<Book, Boolean> pendingInsert = new IdentityHashMap<>();
+        Map<Book, BookStatisticsService.BookCounts> countsBeforeUpdate = new IdentityHashMap<>();
+        List<Book> updatedBooks = new ArrayList<>();
+
+        for (BookSyncDTO syncDTO : booksToSync) {
+            // Validar campos obligatorios
+            if (syncDTO.getTitle() == null || syncDTO.getTitle().trim().isEmpty()) {
+                skipped++;
+                errorMessages.add("Libro sin título - ISBN: " + syncDTO.getIsbn());
+                continue;
+            }
+            if (syncDTO.getAuthor() == null || syncDTO.getAuthor().trim().isEmpty()) {
+                skipped++;
+                errorMessages.add("Libro sin autor - Título: " + syncDTO.getTitle());
+                continue;
+            }
+            String invalidField = findInvalidLength(syncDTO);
+            if (invalidField != null) {
+                errors++;
+                errorMessages.add(String.format("Error procesando libro '%s' por %s: %s excede el largo permitido",
+                        syncDTO.getTitle(), syncDTO.getAuthor(), invalidField));
+                continue;
+            }
+
+            Book existingBook = index.find(syncDTO.getIsbn(), syncDTO.getTitle(), syncDTO.getAuthor());
+
+            if (existingBook != null) {
+                BookStatisticsService.BookCounts before = BookStatisticsService.BookCounts.of(existingBook);
+                String previousIsbn = existingBook.getIsbn();
+                String previousTitle = existingBook.getTitle();
+                String previousAuthor = existingBook.getAuthor();
+
+                if (!updateBookFromSync(existingBook, syncDTO, index)) {
+                    skipped++;
+                    continue;
+                }
+                index.rekey(existingBook, previousIsbn, previousTitle, previousAuthor);
+                if (!pendingInsert.containsKey(existingBook)) {
+                    countsBeforeUpdate.putIfAbsent(existingBook, before);
+                }
+                updated++;
+                updatedBooks.add(existingBook);
+            } else {
+                Book newBook = createBookFromSync(syncDTO);
+                index.add(newBook);
+                pendingInsert.put(newBook, Boolean.TRUE);
+                toInsert.add(newBook);
+            }
+        }
+
+        // 3. Escribir: UPDATE agrupados por Hibernate y luego INSERT en lotes JDBC
+        bookRepository.flush();
+        bookBatchRepository.insertAll(toInsert, batchConfig.getChunkSize(), bookChangeClock.now());
+
+        for (Book book : toInsert) {
+            bookSearchService.indexBook(book);
+            bookStatisticsService.recordCreated(book);
+        }
+        countsBeforeUpdate.forEach((book, before) -> {
+            bookSearchService.indexBook(book);
+            bookStatisticsService.recordChange(before, BookStatisticsService.BookCounts.of(book));
+            bookAvailabilityCache.writeThrough(book);
+        });
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Sincronización completada en {} ms: {} creados, {} actualizados, {} omitidos, {} errores",
+                elapsedMillis, toInsert.size(), updated, skipped, errors);
+
+        return BookSyncResponseDTO.builder()
+                .totalProcessed(booksToSync.size())
+                .created(toInsert.size())
+                .updated(updated)
+                .skipped(skipped)
+                .errors(errors)
+                .createdBooks(toInsert.stream().map(BookResponseDTO::fromEntity).toList())
+                .updatedBooks(updatedBooks.stream().map(BookResponseDTO::fromEntity).toList())
+                .errorMessages(errorMessages)
+                .build();
+    }
+
+    /**
+     * Crear libro desde DTO de sincronización
+     */
+    private Book createBookFromSync(BookSyncDTO syncDTO) {
+        int totalCopies = syncDTO.getTotalCopies() != null ? syncDTO.getTotalCopies() : 1;
+        int availableCopies = syncDTO.getAvailableCopies() != null
+                ? syncDTO.getAvailableCopies()
+                : totalCopies;
+
+        return Book.builder()
+                .title(syncDTO.getTitle().trim())
+                .author(syncDTO.getAuthor().trim())
+                .isbn(syncDTO.getIsbn() != null ? syncDTO.getIsbn().trim() : null)
+                .category(syncDTO.getCategory() != null ? syncDTO.getCategory().trim() : null)
+                .publisher(syncDTO.getPublisher() != null ? syncDTO.getPublisher().trim() : null)
+                .year(syncDTO.getYear())
+                .description(syncDTO.getDescription() != null ? syncDTO.getDescription().trim() : null)
+                .coverUrl(syncDTO.getCoverUrl() != null ? syncDTO.getCoverUrl().trim() : null)
+                .totalCopies(totalCopies)
+                .availableCopies(availableCopies)
+                .price(syncDTO.getPrice())
+                .featured(syncDTO.getFeatured() != null ? syncDTO.getFeatured() : false)
+                .build();
+    }
+
+    /**
+     * Actualizar libro existente desde DTO de sincronización
+     * @return true si algún campo cambió
+     */
+    private boolean updateBookFromSync(Book existingBook, BookSyncDTO syncDTO, BookKeyIndex index) {
+        boolean changed = false;
+
+        if (syncDTO.getTitle() != null && !syncDTO.getTitle().trim().isEmpty()) {
+            changed |= set(existingBook.getTitle(), syncDTO.getTitle().trim(), existingBook::setTitle);
+        }
+        if (syncDTO.getAuthor() != null && !syncDTO.getAuthor().trim().isEmpty()) {
+            changed |= set(existingBook.getAuthor(), syncDTO.getAuthor().trim(), existingBook::setAuthor);
+        }
+        if (syncDTO.getIsbn() != null && !syncDTO.getIsbn().trim().isEmpty()) {
+            // Solo actualizar ISBN si no está duplicado
+            String newIsbn = syncDTO.getIsbn().trim();
+            if (!newIsbn.equals(existingBook.getIsbn())) {
+                if (index.containsIsbn(newIsbn)) {
+                    log.warn("ISBN {} ya existe, no se actualizará", newIsbn);
+                } else {
+                    existingBook.setIsbn(newIsbn);
+                    changed = true;
+                }
+            }
+        }
+        if (syncDTO.getCategory() != null) {
+            changed |= set(existingBook.getCategory(), syncDTO.getCategory().trim(), existingBook::setCategory);
+        }
+        if (syncDTO.getPublisher() != null) {
+            changed |= set(existingBook.getPublisher(), syncDTO.getPublisher().trim(), existingBook::setPublisher);
+        }
+        if (syncDTO.getYear() != null) {
+            changed |= set(existingBook.getYear(), syncDTO.getYear(), existingBook::setYear);
+        }
+        if (syncDTO.getDescription() != null) {
+            changed |= set(existingBook.getDescription(), syncDTO.getDescription().trim(), existingBook::setDescription);
+        }
+        if (syncDTO.getCoverUrl() != null) {
+            changed |= set(existingBook.getCoverUrl(), syncDTO.getCoverUrl().trim(), existingBook::setCoverUrl);
+        }
+        if (syncDTO.getTotalCopies() != null) {
+            int newTotalCopies = syncDTO.getTotalCopies();
+            int difference = newTotalCopies - existingBook.getTotalCopies();
+            changed |= set(existingBook.getTotalCopies(), newTotalCopies, existingBook::setTotalCopies);
+            // Ajustar copias disponibles
+            int newAvailableCopies = syncDTO.getAvailableCopies() != null
+                    ? syncDTO.getAvailableCopies()
+                    : Math.max(0, existingBook.getAvailableCopies() + difference);
+            changed |= set(existingBook.getAvailableCopies(), newAvailableCopies, existingBook::setAvailableCopies);
+        } else if (syncDTO.getAvailableCopies() != null) {
+            changed |= set(existingBook.getAvailableCopies(), syncDTO.getAvailableCopies(), existingBook::setAvailableCopies);
+        }
+        if (syncDTO.getPrice() != null) {
+            boolean samePrice = existingBook.getPrice() != null && existingBook.getPrice().compareTo(syncDTO.getPrice()) == 0;
+            if (!samePrice) {
+                existingBook.setPrice(syncDTO.getPrice());
+                changed = true;
+            }
+        }
+        if (syncDTO.getFeatured() != null) {
+            changed |= set(existingBook.getFeatured(), syncDTO.getFeatured(), existingBook::setFeatured);
+        }
+        return changed;
+    }
+
+    private static <T> boolean set(T current, T value, Consumer<T> setter) {
+        if (Objects.equals(current, value)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    /**
+     * Validar largos según las columnas de books, para que un registro inválido no haga fallar el lote completo
+     */
+    private static String findInvalidLength(BookSyncDTO syncDTO) {
+        if (syncDTO.getTitle().trim().length() > 200) {
+            return "El título";
+        }
+        if (syncDTO.getAuthor().trim().length() > 100) {
+            return "El autor";
+        }
+        if (syncDTO.getIsbn() != null && syncDTO.getIsbn().trim().length() > 20) {
+            return "El ISBN";
+        }
+        if (syncDTO.getCategory() != null && syncDTO.getCategory().trim().length() > 50) {
+            return "La categoría";
+        }
+        if (syncDTO.getPublisher() != null && syncDTO.getPublisher().trim().length() > 100) {
+            return "La editorial";
+        }
+        if (syncDTO.getDescription() != null && syncDTO.getDescription().trim().length() > 2000) {
+            return "La descripción";
+        }
+        if (syncDTO.getCoverUrl() != null && syncDTO.getCoverUrl().trim().length() > 500) {
+            return "La URL de la portada";
+        }
+        return null;
+    }
+}
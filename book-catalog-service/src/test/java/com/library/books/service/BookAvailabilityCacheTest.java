@@ -0,0 +1,110 @@
+package com.library.books.service;
+
+import com.library.books.config.BookAvailabilityCacheConfig;
+import com.library.books.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookAvailabilityCacheTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenFull() {
+        BookAvailabilityCache cache = newCache(2);
+        cache.putLoaded(1L, availability(1), cache.loadStamp());
+        cache.putLoaded(2L, availability(2), cache.loadStamp());
+        cache.get(1L);
+        cache.putLoaded(3L, availability(3), cache.loadStamp());
+
+        assertTrue(cache.get(1L).isPresent());
+        assertFalse(cache.get(2L).isPresent());
+        assertTrue(cache.get(3L).isPresent());
+        assertEquals(1, cache.evictionCount());
+        assertEquals(3, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testWriteThroughReplacesCachedValue() {
+        BookAvailabilityCache cache = newCache(10);
+        cache.putLoaded(1L, availability(5), cache.loadStamp());
+
+        cache.writeThrough(book(1L, 4));
+
+        assertEquals(4, cache.get(1L).orElseThrow().availableCopies());
+    }
+
+    @Test
+    void testLoadIsDiscardedWhenAWriteStartedMeanwhile() {
+        BookAvailabilityCache cache = newCache(10);
+        long stamp = cache.loadStamp();
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.writeThrough(book(1L, 4));
+        cache.putLoaded(1L, availability(5), stamp);
+        assertFalse(cache.get(1L).isPresent());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(4, cache.get(1L).orElseThrow().availableCopies());
+    }
+
+    @Test
+    void testOverlappingWritesInvalidateInsteadOfGuessingTheLastCommit() {
+        BookAvailabilityCache cache = newCache(10);
+        cache.putLoaded(1L, availability(5), cache.loadStamp());
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.writeThrough(book(1L, 4));
+        cache.writeThrough(book(1L, 3));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(cache.get(1L).isPresent());
+    }
+
+    @Test
+    void testRolledBackWriteDoesNotCacheItsValue() {
+        BookAvailabilityCache cache = newCache(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.writeThrough(book(1L, 0));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(cache.get(1L).isPresent());
+        cache.putLoaded(1L, availability(5), cache.loadStamp());
+        assertEquals(5, cache.get(1L).orElseThrow().availableCopies());
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static BookAvailabilityCache newCache(int maxSize) {
+        BookAvailabilityCacheConfig config = new BookAvailabilityCacheConfig();
+        config.setMaxSize(maxSize);
+        return new BookAvailabilityCache(config);
+    }
+
+    private static BookAvailabilityCache.Availability availability(int availableCopies) {
+        return BookAvailabilityCache.Availability.of(availableCopies, 5, Book.Status.AVAILABLE);
+    }
+
+    private static Book book(Long id, int availableCopies) {
+        return Book.builder().id(id).title("Libro").author("Autor").totalCopies(5).availableCopies(availableCopies).build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.library.books.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.books.config.BookChangeFeedConfig;
+import com.library.books.dto.BookChangeDTO;
+import com.library.books.dto.BookResponseDTO;
+import com.library.books.model.BookTombstone;
+import com.library.books.repository.BookRepository;
+import com.library.books.repository.BookTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookChangeFeedServiceTest {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookTombstoneRepository bookTombstoneRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BookChangeFeedService feedService;
+
+    @BeforeEach
+    void setUp() {
+        BookChangeFeedConfig config = new BookChangeFeedConfig();
+        config.setPageSize(2);
+        config.setSafetyLagMs(0L);
+        config.setTombstoneRetentionDays(30);
+        feedService = new BookChangeFeedService(bookRepository, bookTombstoneRepository, config,
+                objectMapper, new BookChangeClock());
+    }
+
+    @Test
+    void testToken_RoundTripsEveryCursorField() {
+        BookChangeFeedService.SyncCursor cursor = new BookChangeFeedService.SyncCursor(
+                LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000), 42L,
+                LocalDateTime.of(2024, 1, 14, 8, 0), 7L,
+                LocalDateTime.of(2024, 1, 15, 10, 31, 5));
+
+        String token = feedService.encodeToken(cursor);
+
+        assertEquals(cursor, feedService.parseToken(token));
+        assertEquals(cursor, feedService.parseToken("  " + token + " "));
+        assertTrue(feedService.parseToken(null).isInitial());
+        assertTrue(feedService.parseToken("").isInitial());
+    }
+
+    @Test
+    void testParseToken_RejectsMalformedTokens() {
+        List<String> malformed = List.of(
+                "no-es-base64!",
+                encode("v2|2024-01-15T10:30|1|2024-01-14T08:00|1|2024-01-15T10:31"),
+                encode("v1|2024-01-15T10:30|1|2024-01-14T08:00|1"),
+                encode("v1|ayer|1|2024-01-14T08:00|1|2024-01-15T10:31"),
+                encode("v1|2024-01-15T10:30|uno|2024-01-14T08:00|1|2024-01-15T10:31"));
+
+        for (String token : malformed) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> feedService.parseToken(token));
+            assertTrue(exception.getMessage().startsWith("Token de sincronización inválido"), token);
+        }
+    }
+
+    @Test
+    void testStreamChanges_ExpiredTokenResetsToFullSnapshot() throws Exception {
+        BookChangeFeedService.SyncCursor expired = new BookChangeFeedService.SyncCursor(
+                LocalDateTime.now().minusDays(40), 10L, LocalDateTime.now().minusDays(40), 3L,
+                LocalDateTime.now().minusDays(31));
+        when(bookRepository.findChangedAfter(eq(EPOCH), eq(0L), any(), any()))
+                .thenReturn(List.of(book(1L, LocalDateTime.now().minusDays(50))));
+
+        List<BookChangeDTO> events = stream(expired);
+
+        assertEquals(List.of(BookChangeDTO.Type.RESET, BookChangeDTO.Type.UPSERT, BookChangeDTO.Type.END),
+                events.stream().map(BookChangeDTO::getType).toList());
+        verifyNoInteractions(bookTombstoneRepository);
+
+        BookChangeDTO end = events.get(2);
+        assertEquals(1L, end.getUpserts());
+        assertEquals(0L, end.getDeletes());
+        BookChangeFeedService.SyncCursor next = feedService.parseToken(end.getSyncToken());
+        assertEquals(1L, next.bookId());
+        // Tras una copia completa no se entregan eliminaciones anteriores
+        assertEquals(Long.MAX_VALUE, next.tombstoneId());
+        assertFalse(next.deletedAt().isAfter(next.issuedAt()));
+    }
+
+    @Test
+    void testStreamChanges_PagesUpsertsThenDeletesAndAdvancesToken() throws Exception {
+        LocalDateTime since = LocalDateTime.now().minusHours(2);
+        BookChangeFeedService.SyncCursor cursor = new BookChangeFeedService.SyncCursor(
+                since, 5L, since, 20L, LocalDateTime.now().minusHours(2));
+        LocalDateTime t1 = since.plusMinutes(1);
+        LocalDateTime t2 = since.plusMinutes(2);
+        when(bookRepository.findChangedAfter(eq(since), eq(5L), any(), any()))
+                .thenReturn(List.of(book(8L, t1), book(3L, t2)));
+        when(bookRepository.findChangedAfter(eq(t2), eq(3L), any(), any()))
+                .thenReturn(List.of(book(4L, t2)));
+        when(bookTombstoneRepository.findDeletedAfter(eq(since), eq(20L), any(), any()))
+                .thenReturn(List.of(tombstone(21L, 9L, t1), tombstone(22L, 6L, t2)));
+        when(bookTombstoneRepository.findDeletedAfter(eq(t2), eq(22L), any(), any()))
+                .thenReturn(List.of());
+
+        List<BookChangeDTO> events = stream(cursor);
+
+        assertEquals(List.of(BookChangeDTO.Type.UPSERT, BookChangeDTO.Type.UPSERT, BookChangeDTO.Type.UPSERT,
+                        BookChangeDTO.Type.DELETE, BookChangeDTO.Type.DELETE, BookChangeDTO.Type.END),
+                events.stream().map(BookChangeDTO::getType).toList());
+        assertEquals(List.of(8L, 3L, 4L), events.subList(0, 3).stream().map(e -> e.getBook().getId()).toList());
+        assertEquals(List.of(9L, 6L), events.subList(3, 5).stream().map(BookChangeDTO::getBookId).toList());
+
+        BookChangeDTO end = events.get(5);
+        assertEquals(3L, end.getUpserts());
+        assertEquals(2L, end.getDeletes());
+        BookChangeFeedService.SyncCursor next = feedService.parseToken(end.getSyncToken());
+        assertEquals(t2, next.bookUpdatedAt());
+        assertEquals(4L, next.bookId());
+        assertEquals(t2, next.deletedAt());
+        assertEquals(22L, next.tombstoneId());
+        assertTrue(next.issuedAt().isAfter(cursor.issuedAt()));
+    }
+
+    @Test
+    void testStreamChanges_NoChangesKeepsPositionAndRenewsToken() throws Exception {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        BookChangeFeedService.SyncCursor cursor = new BookChangeFeedService.SyncCursor(
+                since, 5L, since.minusMinutes(10), 20L, LocalDateTime.now().minusDays(29));
+        when(bookRepository.findChangedAfter(any(), anyLong(), any(), any())).thenReturn(List.of());
+        when(bookTombstoneRepository.findDeletedAfter(any(), anyLong(), any(), any())).thenReturn(List.of());
+
+        List<BookChangeDTO> events = stream(cursor);
+
+        assertEquals(1, events.size());
+        BookChangeFeedService.SyncCursor next = feedService.parseToken(events.get(0).getSyncToken());
+        assertEquals(new BookChangeFeedService.SyncCursor(since, 5L, since.minusMinutes(10), 20L, next.issuedAt()), next);
+        // El token renovado no expira aunque no haya habido cambios
+        assertTrue(next.issuedAt().isAfter(LocalDateTime.now().minusMinutes(1)));
+    }
+
+    private List<BookChangeDTO> stream(BookChangeFeedService.SyncCursor cursor) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        feedService.streamChanges(cursor, out);
+        List<BookChangeDTO> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(objectMapper.readValue(line, BookChangeDTO.class));
+        }
+        return events;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BookResponseDTO book(Long id, LocalDateTime updatedAt) {
+        return BookResponseDTO.builder().id(id).title("Libro " + id).updatedAt(updatedAt).build();
+    }
+
+    private static BookTombstone tombstone(Long id, Long bookId, LocalDateTime deletedAt) {
+        return BookTombstone.builder().id(id).bookId(bookId).isbn("978000000000" + bookId).deletedAt(deletedAt).build();
+    }
+}
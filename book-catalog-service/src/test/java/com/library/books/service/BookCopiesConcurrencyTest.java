@@ -0,0 +1,236 @@
+package com.library.books.service;
+
+import com.library.books.dto.CopyAdjustmentDTO;
+import com.library.books.dto.CopyAdjustmentResultDTO;
+import com.library.books.exception.CopyAdjustmentInProgressException;
+import com.library.books.exception.CopyCountConflictException;
+import com.library.books.model.Book;
+import com.library.books.repository.AppliedCopyAdjustmentRepository;
+import com.library.books.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de estrés del ajuste de copias: 64 escritores concurrentes sobre el mismo
+ * libro no deben perder actualizaciones ni dejar las copias fuera de [0, total].
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:copies;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.file.name=",
+        "logging.level.com.library.books=INFO",
+        "books.load-initial-data=false",
+        "books.search.build-on-startup=false",
+        "books.covers.storage-dir=target/test-covers"
+})
+class BookCopiesConcurrencyTest {
+
+    private static final int WRITERS = 64;
+    private static final int OPERATIONS_PER_WRITER = 50;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AppliedCopyAdjustmentRepository appliedCopyAdjustmentRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        appliedCopyAdjustmentRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentLoansAndReturns_LoseNoUpdates() throws Exception {
+        Book book = saveBook(10_000, 5_000);
+        AtomicInteger applied = new AtomicInteger();
+
+        // Cada escritor alterna préstamos y devoluciones: el saldo neto debe ser cero
+        runConcurrently(writer -> {
+            for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                int change = (i + writer) % 2 == 0 ? -1 : 1;
+                bookService.updateCopies(book.getId(), change);
+                applied.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(WRITERS * OPERATIONS_PER_WRITER, applied.get());
+        assertEquals(5_000, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void concurrentLoans_NeverOversellLastCopies() throws Exception {
+        Book book = saveBook(10, 10);
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(writer -> {
+            try {
+                bookService.updateCopies(book.getId(), -1);
+                granted.incrementAndGet();
+            } catch (CopyCountConflictException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        Book result = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(10, granted.get());
+        assertEquals(WRITERS - 10, rejected.get());
+        assertEquals(0, result.getAvailableCopies());
+        assertEquals(Book.Status.LOANED, result.getStatus());
+    }
+
+    @Test
+    void concurrentBatches_LoseNoUpdates() throws Exception {
+        Book first = saveBook(10_000, 5_000);
+        Book second = saveBook(10_000, 5_000);
+
+        runConcurrently(writer -> {
+            for (int i = 0; i < OPERATIONS_PER_WRITER / 10; i++) {
+                List<CopyAdjustmentDTO> batch = List.of(
+                        new CopyAdjustmentDTO(first.getId(), -2),
+                        new CopyAdjustmentDTO(second.getId(), 1),
+                        new CopyAdjustmentDTO(first.getId(), 1));
+                bookService.updateCopiesBatch(batch, false);
+            }
+            return null;
+        });
+
+        int rounds = WRITERS * (OPERATIONS_PER_WRITER / 10);
+        assertEquals(5_000 - rounds, bookRepository.findById(first.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(5_000 + rounds, bookRepository.findById(second.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void updateCopies_ReportsRejectionInsteadOfClamping() {
+        Book book = saveBook(3, 3);
+
+        assertThrows(CopyCountConflictException.class, () -> bookService.updateCopies(book.getId(), 1));
+        assertThrows(CopyCountConflictException.class, () -> bookService.updateCopies(book.getId(), -4));
+        assertEquals(3, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+
+        List<CopyAdjustmentResultDTO> results = bookService.updateCopiesBatch(List.of(
+                new CopyAdjustmentDTO(book.getId(), -2),
+                new CopyAdjustmentDTO(book.getId(), -2),
+                new CopyAdjustmentDTO(-1L, 1)), false);
+
+        assertTrue(results.get(0).getSuccess());
+        assertFalse(results.get(1).getSuccess());
+        assertFalse(results.get(2).getSuccess());
+        assertEquals("Libro no encontrado", results.get(2).getMessage());
+        assertEquals(1, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+
+        assertThrows(CopyCountConflictException.class, () -> bookService.updateCopiesBatch(List.of(
+                new CopyAdjustmentDTO(book.getId(), -1),
+                new CopyAdjustmentDTO(book.getId(), -1)), true));
+        assertEquals(1, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void updateCopiesBatch_ReplayedEventsAreNotAppliedTwice() {
+        Book book = saveBook(10, 10);
+
+        // El emisor no recibió la respuesta (timeout) y reenvía el mismo ajuste combinado
+        List<CopyAdjustmentDTO> batch = List.of(new CopyAdjustmentDTO(book.getId(), -2, List.of(101L, 102L)));
+        assertTrue(bookService.updateCopiesBatch(batch, false).get(0).getSuccess());
+        CopyAdjustmentResultDTO replay = bookService.updateCopiesBatch(batch, false).get(0);
+
+        assertTrue(replay.getSuccess());
+        assertEquals("Ajuste ya aplicado", replay.getMessage());
+        assertEquals(8, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+
+        // Combinado con un evento nuevo: se rechaza y el emisor los envía por separado
+        assertFalse(bookService.updateCopiesBatch(List.of(
+                new CopyAdjustmentDTO(book.getId(), -2, List.of(102L, 103L))), false).get(0).getSuccess());
+        List<CopyAdjustmentResultDTO> individual = bookService.updateCopiesBatch(List.of(
+                new CopyAdjustmentDTO(book.getId(), -1, List.of(102L)),
+                new CopyAdjustmentDTO(book.getId(), -1, List.of(103L))), false);
+
+        assertTrue(individual.get(0).getSuccess());
+        assertTrue(individual.get(1).getSuccess());
+        assertEquals(7, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void concurrentDeliveriesOfSameEvent_ApplyOnce() throws Exception {
+        Book book = saveBook(100, 100);
+        AtomicInteger inProgress = new AtomicInteger();
+
+        runConcurrently(writer -> {
+            try {
+                CopyAdjustmentResultDTO result = bookService.updateCopiesBatch(List.of(
+                        new CopyAdjustmentDTO(book.getId(), -1, List.of(500L))), false).get(0);
+                assertTrue(result.getSuccess());
+            } catch (CopyAdjustmentInProgressException e) {
+                inProgress.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(99, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+        assertTrue(inProgress.get() < WRITERS);
+    }
+
+    private Book saveBook(int totalCopies, int availableCopies) {
+        return bookRepository.save(Book.builder()
+                .title("Libro concurrente " + System.nanoTime())
+                .author("Autor")
+                .totalCopies(totalCopies)
+                .availableCopies(availableCopies)
+                .build());
+    }
+
+    private interface Writer {
+        Void run(int writer) throws Exception;
+    }
+
+    private static void runConcurrently(Writer writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int writerId = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    return writer.run(writerId);
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
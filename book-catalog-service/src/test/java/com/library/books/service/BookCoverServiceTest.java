@@ -0,0 +1,84 @@
+package com.library.books.service;
+
+import com.library.books.config.BookCoverConfig;
+import com.library.books.repository.BookCoverRepository;
+import com.library.books.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookCoverServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookCoverRepository bookCoverRepository;
+
+    @Mock
+    private BookCoverStore bookCoverStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookCoverConfig coverConfig;
+    private BookCoverService coverService;
+
+    @BeforeEach
+    void setUp() {
+        coverConfig = new BookCoverConfig();
+        coverConfig.setThumbnailWidths(Map.of("small", 16));
+        coverService = new BookCoverService(bookRepository, bookCoverRepository, bookCoverStore, coverConfig,
+                jdbcTemplate, transactionTemplate);
+        when(bookRepository.existsById(1L)).thenReturn(true);
+    }
+
+    @Test
+    void testUploadCover_StoresOriginalAndThumbnail() throws IOException {
+        when(bookCoverStore.put(any())).thenReturn("hash");
+        when(bookCoverRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var covers = coverService.uploadCover(1L, png(40, 20));
+
+        assertEquals(2, covers.size());
+        assertEquals(40, covers.get(0).getWidth());
+        assertEquals(16, covers.get(1).getWidth());
+    }
+
+    @Test
+    void testUploadCover_RejectsOversizedImageBeforeDecoding() throws IOException {
+        coverConfig.setMaxPixels(799L);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> coverService.uploadCover(1L, png(40, 20)));
+
+        assertEquals("La imagen de portada es demasiado grande: 40x20 píxeles (máximo 799 píxeles)", error.getMessage());
+        verifyNoInteractions(bookCoverStore);
+        verify(bookCoverRepository, never()).saveAll(anyList());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.library.books.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(1.2, 0.75);
+        index.index(1L, "Cien años de soledad", "Gabriel García Márquez", "978-84-9759-246-2", "Novela", "Debolsillo");
+        index.index(2L, "1984", "George Orwell", "9788497593793", "Ciencia Ficción", "Debolsillo");
+        index.index(3L, "Rebelión en la granja", "George Orwell", "9788499890944", "Novela", "Destino");
+    }
+
+    @Test
+    void testSearch_IgnoresCaseAndAccents() {
+        BookSearchIndex.SearchResult result = index.search("GARCIA marquez", 0, 10);
+
+        assertEquals(List.of(1L), result.ids());
+        assertEquals(1, result.total());
+    }
+
+    @Test
+    void testSearch_RanksTitleAboveCategory() {
+        index.index(4L, "Novela de ajedrez", "Stefan Zweig", null, "Clásicos", "Acantilado");
+
+        BookSearchIndex.SearchResult result = index.search("novela", 0, 10);
+
+        assertEquals(3, result.total());
+        assertEquals(4L, result.ids().get(0));
+    }
+
+    @Test
+    void testSearch_PrefixAndIsbn() {
+        assertEquals(List.of(2L, 3L), index.search("orw", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("978-84-9759-2", 0, 10).ids());
+    }
+
+    @Test
+    void testSearch_PaginatesAndReindexes() {
+        assertEquals(List.of(3L), index.search("george orwell", 1, 1).ids());
+
+        index.index(2L, "Homenaje a Cataluña", "George Orwell", null, null, null);
+        index.remove(3L);
+
+        assertTrue(index.search("1984", 0, 10).ids().isEmpty());
+        assertEquals(List.of(2L), index.search("cataluna", 0, 10).ids());
+        assertEquals(2, index.size());
+    }
+}
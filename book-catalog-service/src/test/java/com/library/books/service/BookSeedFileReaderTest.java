@@ -0,0 +1,106 @@
+package com.library.books.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSeedFileReaderTest {
+
+    private final BookSeedFileReader reader = new BookSeedFileReader(new ObjectMapper());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadCsvWithQuotedFieldsAndInvalidRow() throws IOException {
+        Path file = write("libros.csv", """
+                title,author,isbn,year,totalCopies,price,featured,ignored
+                1984,George Orwell,9788497593793,1949,5,12.50,true,x
+                "Crimen y castigo, edición ""anotada\""","Fiódor Dostoyevski",,1866,3,,no,
+                Dune,Frank Herbert,9780441013593,año,4,,,
+                "Texto
+                multilínea",Autor,,,1,,,
+                """);
+
+        List<BookSeedFileReader.SeedRow> rows = readAll(file, 10);
+
+        assertEquals(4, rows.size());
+        assertEquals("George Orwell", rows.get(0).book().getAuthor());
+        assertEquals(1949, rows.get(0).book().getYear());
+        assertEquals(new BigDecimal("12.50"), rows.get(0).book().getPrice());
+        assertTrue(rows.get(0).book().getFeatured());
+        assertEquals("Crimen y castigo, edición \"anotada\"", rows.get(1).book().getTitle());
+        assertNull(rows.get(1).book().getIsbn());
+        assertEquals("Fila 3: valor inválido para year: año", rows.get(2).error());
+        assertEquals("Texto\nmultilínea", rows.get(3).book().getTitle());
+    }
+
+    @Test
+    void testReadSemicolonCsvWithSpanishHeaders() throws IOException {
+        Path file = write("libros.csv", "\uFEFFtitulo;autor;categoria\nRayuela;Julio Cortázar;Literatura\n");
+
+        List<BookSeedFileReader.SeedRow> rows = readAll(file, 10);
+
+        assertEquals(1, rows.size());
+        assertEquals("Rayuela", rows.get(0).book().getTitle());
+        assertEquals("Literatura", rows.get(0).book().getCategory());
+    }
+
+    @Test
+    void testReadGzippedJsonInChunks() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 25; i++) {
+            json.append(i > 0 ? "," : "")
+                    .append("{\"title\":\"Libro ").append(i).append("\",\"author\":\"Autor\",\"totalCopies\":2}");
+        }
+        json.append(",{\"title\":\"Año inválido\",\"author\":\"Autor\",\"year\":\"abc\"},\"texto\"]");
+        Path file = tempDir.resolve("libros.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<BookSeedFileReader.SeedRow> rows = new ArrayList<>();
+        reader.read(file, 10, chunk -> {
+            chunkSizes.add(chunk.size());
+            rows.addAll(chunk);
+        });
+
+        assertEquals(List.of(10, 10, 7), chunkSizes);
+        assertEquals("Libro 24", rows.get(24).book().getTitle());
+        assertTrue(rows.get(25).error().startsWith("Fila 26: "));
+        assertEquals("Fila 27: se esperaba un objeto JSON", rows.get(26).error());
+    }
+
+    @Test
+    void testRejectsUnsupportedFilesAndMissingColumns() throws IOException {
+        assertThrows(RuntimeException.class, () -> reader.read(write("libros.xml", "<libros/>"), 10, chunk -> { }));
+        assertThrows(RuntimeException.class, () -> reader.read(write("libros.csv", "isbn\n123\n"), 10, chunk -> { }));
+        assertThrows(RuntimeException.class, () -> reader.read(write("libros.json", "{\"title\":\"x\"}"), 10, chunk -> { }));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private List<BookSeedFileReader.SeedRow> readAll(Path file, int chunkSize) throws IOException {
+        List<BookSeedFileReader.SeedRow> rows = new ArrayList<>();
+        reader.read(file, chunkSize, rows::addAll);
+        return rows;
+    }
+}
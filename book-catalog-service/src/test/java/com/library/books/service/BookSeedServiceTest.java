@@ -0,0 +1,206 @@
+package com.library.books.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.books.config.BookBatchConfig;
+import com.library.books.config.BookSeedConfig;
+import com.library.books.dto.BookCreateDTO;
+import com.library.books.dto.SeedResponseDTO;
+import com.library.books.model.Book;
+import com.library.books.repository.BookBatchRepository;
+import com.library.books.repository.BookIndexView;
+import com.library.books.repository.BookRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSeedServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookBatchRepository bookBatchRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private BookStatisticsService bookStatisticsService;
+
+    @Mock
+    private BookChangeFeedService bookChangeFeedService;
+
+    @Mock
+    private BookCoverService bookCoverService;
+
+    @Mock
+    private BookAvailabilityCache bookAvailabilityCache;
+
+    @Captor
+    private ArgumentCaptor<List<Book>> insertedCaptor;
+
+    @TempDir
+    Path tempDir;
+
+    private final BookSeedConfig seedConfig = new BookSeedConfig();
+    private BookSeedService bookSeedService;
+
+    @BeforeEach
+    void setUp() {
+        seedConfig.setFileChunkSize(2);
+        bookSeedService = new BookSeedService(bookRepository, bookBatchRepository, new BookBatchConfig(), seedConfig,
+                new BookSeedFileReader(new ObjectMapper()), Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionTemplate, bookSearchService, bookStatisticsService, bookChangeFeedService,
+                bookCoverService, bookAvailabilityCache, new BookChangeClock());
+    }
+
+    @Test
+    void testLoadBooksBulk_SkipsDuplicatesAndKeepsLoadingAfterInvalidRows() {
+        Book existing = Book.builder().id(1L).title("1984").author("George Orwell").isbn("9788497593793").build();
+        when(bookRepository.findByIsbnIn(any())).thenReturn(List.of(existing));
+        when(bookRepository.findByLowerTitleIn(any())).thenReturn(List.of(existing));
+
+        SeedResponseDTO result = bookSeedService.loadBooksBulk(List.of(
+                book(" 1984 ", "GEORGE ORWELL", null, 3), // título+autor ya en el catálogo
+                book("Rebelión en la granja", "George Orwell", " 9788497593793 ", 2), // ISBN ya en el catálogo
+                book("Dune", "Frank Herbert", "9780441013593", 4),
+                book("  dune", "frank herbert ", null, 1), // título+autor repetido en la carga
+                book("Hijos de Dune", "Frank Herbert", "9780441013593", 1), // ISBN repetido en la carga
+                book("", "Autor", null, 1),
+                book("Ficciones", "Jorge Luis Borges", null, -1),
+                book("Rayuela", "Julio Cortázar", null, 2)));
+
+        assertEquals(8, result.getTotalProcessed());
+        assertEquals(2, result.getInserted());
+        assertEquals(4, result.getAlreadyExists());
+        assertEquals(2, result.getErrors());
+        assertEquals(List.of("Fila 6: El título es obligatorio", "Fila 7: El número de copias debe ser positivo"),
+                result.getErrorMessages());
+
+        verify(bookBatchRepository).insertAll(insertedCaptor.capture(), anyInt(), any());
+        assertEquals(List.of("Dune", "Rayuela"), insertedCaptor.getValue().stream().map(Book::getTitle).toList());
+        verify(bookSearchService, times(2)).indexBook(any(Book.class));
+        verify(bookStatisticsService, times(2)).recordCreated(any(Book.class));
+        assertNotNull(result.getElapsedMillis());
+        assertTrue(result.getElapsedMillis() >= 0);
+        assertTrue(result.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    void testLoadBooksFromFile_DeduplicatesAcrossChunksAndAgainstCatalog() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(bookRepository.findIndexViewsAfter(eq(0L), any()))
+                .thenReturn(List.of(indexView(1L, "Rayuela", "Julio Cortázar", "9788437604572")));
+        Path file = tempDir.resolve("libros.csv");
+        Files.writeString(file, """
+                title,author,isbn,year,totalCopies
+                RAYUELA,julio cortázar,,1963,2
+                Ficciones,Jorge Luis Borges,9788420633114,1944,3
+                Pedro Páramo,Juan Rulfo,,año,1
+                El Aleph,Jorge Luis Borges,9788420633114,1949,1
+                 ficciones ,JORGE LUIS BORGES,,1944,1
+                Pedro Páramo,Juan Rulfo,,1955,1
+                """, StandardCharsets.UTF_8);
+
+        SeedResponseDTO result = bookSeedService.loadBooksFromFile(file);
+
+        assertEquals(6, result.getTotalProcessed());
+        assertEquals(2, result.getInserted());
+        assertEquals(3, result.getAlreadyExists());
+        assertEquals(1, result.getErrors());
+        assertEquals(List.of("Fila 3: valor inválido para year: año"), result.getErrorMessages());
+        // Un bloque de 2 filas por transacción
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(bookRepository, times(1)).findIndexViewsAfter(any(), any());
+
+        verify(bookBatchRepository, times(3)).insertAll(insertedCaptor.capture(), anyInt(), any());
+        List<String> inserted = insertedCaptor.getAllValues().stream()
+                .flatMap(List::stream).map(Book::getTitle).toList();
+        assertEquals(List.of("Ficciones", "Pedro Páramo"), inserted);
+        assertTrue(result.getElapsedMillis() >= 0);
+        assertTrue(result.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    void testLoadBooksBulk_CountsEveryErrorButCapsMessages() {
+        List<BookCreateDTO> books = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            books.add(book("Libro " + i, "", null, 1));
+        }
+        books.add(book("Rayuela", "Julio Cortázar", null, 2));
+
+        SeedResponseDTO result = bookSeedService.loadBooksBulk(books);
+
+        assertEquals(151, result.getTotalProcessed());
+        assertEquals(150, result.getErrors());
+        assertEquals(100, result.getErrorMessages().size());
+        assertEquals("Fila 1: El autor es obligatorio", result.getErrorMessages().get(0));
+        assertEquals(1, result.getInserted());
+    }
+
+    private static BookCreateDTO book(String title, String author, String isbn, int totalCopies) {
+        return BookCreateDTO.builder().title(title).author(author).isbn(isbn).totalCopies(totalCopies).build();
+    }
+
+    private static BookIndexView indexView(Long id, String title, String author, String isbn) {
+        return new BookIndexView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getAuthor() {
+                return author;
+            }
+
+            @Override
+            public String getIsbn() {
+                return isbn;
+            }
+
+            @Override
+            public String getCategory() {
+                return null;
+            }
+
+            @Override
+            public String getPublisher() {
+                return null;
+            }
+        };
+    }
+}
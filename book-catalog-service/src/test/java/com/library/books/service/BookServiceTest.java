@@ -1,9 +1,15 @@
 package com.library.books.service;
 
+import com.library.books.dto.BookAvailabilityDTO;
 import com.library.books.dto.BookCreateDTO;
 import com.library.books.dto.BookResponseDTO;
 import com.library.books.model.Book;
+import com.library.books.dto.BookSliceDTO;
+import com.library.books.repository.BookAvailabilityView;
+import com.library.books.repository.BookBatchRepository;
+import com.library.books.repository.BookKeysetRepository;
 import com.library.books.repository.BookRepository;
+import com.library.books.repository.BookSortKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,11 +17,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +38,30 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private BookStatisticsService bookStatisticsService;
+
+    @Mock
+    private BookSyncService bookSyncService;
+
+    @Mock
+    private BookChangeFeedService bookChangeFeedService;
+
+    @Mock
+    private BookKeysetRepository bookKeysetRepository;
+
+    @Mock
+    private BookCoverService bookCoverService;
+
+    @Mock
+    private BookBatchRepository bookBatchRepository;
+
+    @Mock
+    private BookAvailabilityCache bookAvailabilityCache;
+
     @InjectMocks
     private BookService bookService;
 
@@ -63,6 +101,8 @@ class BookServiceTest {
         assertEquals(testBook.getTitle(), result.getTitle());
         assertEquals(testBook.getAuthor(), result.getAuthor());
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookSearchService).indexBook(testBook);
+        verify(bookStatisticsService).recordCreated(testBook);
     }
 
     @Test
@@ -89,6 +129,89 @@ class BookServiceTest {
 
         assertThrows(RuntimeException.class, () -> bookService.getBookById(1L));
     }
-}
 
+    @Test
+    void testSearchBooks_UsesIndexOrder() {
+        Book secondBook = Book.builder().id(2L).title("Another Book").author("Test Author").build();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(bookSearchService.isReady()).thenReturn(true);
+        when(bookSearchService.search("test", pageable)).thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 2));
+        when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testBook, secondBook));
+
+        Page<BookResponseDTO> result = bookService.searchBooks("test", pageable);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+        verify(bookRepository, never()).searchBooks(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testDeleteBook_RecordsTombstone() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        bookService.deleteBook(1L);
+
+        verify(bookRepository).delete(testBook);
+        verify(bookChangeFeedService).recordDeletion(testBook);
+        verify(bookCoverService).deleteCover(1L);
+        verify(bookSearchService).removeBook(1L);
+    }
+
+    @Test
+    void testScrollAllBooks_ContinuesAfterLastRow() {
+        BookResponseDTO first = BookResponseDTO.builder().id(7L).title("A|B").build();
+        BookResponseDTO second = BookResponseDTO.builder().id(3L).title("C").build();
+        when(bookKeysetRepository.findPage(any(), eq(BookSortKey.TITLE), eq(false), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(first, second));
+
+        BookSliceDTO page = bookService.scrollAllBooks("title", "ASC", 1, null);
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.getHasNext());
+        assertNotNull(page.getNextCursor());
+
+        when(bookKeysetRepository.findPage(any(), eq(BookSortKey.TITLE), eq(false), eq("A|B"), eq(7L), eq(2)))
+                .thenReturn(List.of(second));
+
+        BookSliceDTO next = bookService.scrollAllBooks("title", "ASC", 1, page.getNextCursor());
 
+        assertEquals(List.of(second), next.getContent());
+        assertFalse(next.getHasNext());
+        assertNull(next.getNextCursor());
+        verify(bookRepository, never()).count();
+    }
+
+    @Test
+    void testScrollAllBooks_RejectsUnknownSortAndForeignCursor() {
+        assertThrows(RuntimeException.class, () -> bookService.scrollAllBooks("coverImage", "ASC", 10, null));
+
+        when(bookKeysetRepository.findPage(any(), any(), anyBoolean(), any(), any(), anyInt()))
+                .thenReturn(List.of(BookResponseDTO.builder().id(1L).year(2001).build(),
+                        BookResponseDTO.builder().id(2L).build()));
+        String cursor = bookService.scrollAllBooks("year", "DESC", 1, null).getNextCursor();
+
+        assertThrows(RuntimeException.class, () -> bookService.scrollAllBooks("title", "DESC", 1, cursor));
+        assertThrows(RuntimeException.class, () -> bookService.scrollAllBooks("year", "DESC", 1, "no-es-un-cursor"));
+    }
+
+    @Test
+    void testCheckAvailabilityBatch_LoadsMissingBooksInOneQuery() {
+        when(bookAvailabilityCache.get(1L)).thenReturn(Optional.of(BookAvailabilityCache.Availability.of(2, 5, Book.Status.AVAILABLE)));
+        when(bookAvailabilityCache.get(2L)).thenReturn(Optional.empty());
+        when(bookAvailabilityCache.get(3L)).thenReturn(Optional.empty());
+        BookAvailabilityView view = mock(BookAvailabilityView.class);
+        when(view.getId()).thenReturn(2L);
+        when(view.getAvailableCopies()).thenReturn(0);
+        when(view.getTotalCopies()).thenReturn(1);
+        when(bookRepository.findAvailabilityByIdIn(List.of(2L, 3L))).thenReturn(List.of(view));
+
+        List<BookAvailabilityDTO> result = bookService.checkAvailabilityBatch(List.of(1L, 2L, 1L, 3L));
+
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(BookAvailabilityDTO::getBookId).toList());
+        assertTrue(result.get(0).getAvailable());
+        assertFalse(result.get(1).getAvailable());
+        assertEquals("Libro no encontrado", result.get(2).getMessage());
+        verify(bookRepository, never()).findAvailabilityById(any());
+    }
+}
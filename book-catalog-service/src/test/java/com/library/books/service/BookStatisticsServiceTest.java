@@ -0,0 +1,197 @@
+package com.library.books.service;
+
+import com.library.books.dto.BookStatisticsDTO;
+import com.library.books.model.Book;
+import com.library.books.repository.BookRepository;
+import com.library.books.repository.BookTotalsView;
+import com.library.books.repository.GroupCountView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookStatisticsServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookStatisticsService bookStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.aggregateTotals()).thenReturn(totals(0, 0, 0, 0));
+        when(bookRepository.countGroupedByStatus()).thenReturn(List.of());
+        when(bookRepository.countGroupedByCategory()).thenReturn(List.of());
+        bookStatisticsService.initialize();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecordChange_AppliesCreateUpdateAndDeleteDeltas() {
+        BookStatisticsService.BookCounts created = counts(Book.Status.AVAILABLE, "Ficción", 3, 3);
+        bookStatisticsService.recordChange(null, created);
+        bookStatisticsService.recordChange(null, counts(Book.Status.AVAILABLE, null, 2, 1));
+
+        BookStatisticsDTO afterCreate = bookStatisticsService.getStatistics();
+        assertEquals(2, afterCreate.getTotalBooks());
+        assertEquals(2, afterCreate.getAvailableBooks());
+        assertEquals(5, afterCreate.getTotalCopies());
+        assertEquals(4, afterCreate.getAvailableCopies());
+        assertEquals(2, afterCreate.getBooksByStatus().get("AVAILABLE"));
+        assertEquals(Map.of("Ficción", 1L, BookStatisticsService.UNCATEGORIZED, 1L), afterCreate.getBooksByCategory());
+
+        // Se prestan todas las copias y el libro cambia de categoría
+        BookStatisticsService.BookCounts updated = counts(Book.Status.LOANED, "Historia", 3, 0);
+        bookStatisticsService.recordChange(created, updated);
+
+        BookStatisticsDTO afterUpdate = bookStatisticsService.getStatistics();
+        assertEquals(2, afterUpdate.getTotalBooks());
+        assertEquals(1, afterUpdate.getAvailableBooks());
+        assertEquals(1, afterUpdate.getLoanedBooks());
+        assertEquals(1, afterUpdate.getAvailableCopies());
+        assertEquals(1, afterUpdate.getBooksByStatus().get("AVAILABLE"));
+        assertEquals(1, afterUpdate.getBooksByStatus().get("LOANED"));
+        assertEquals(Map.of("Historia", 1L, BookStatisticsService.UNCATEGORIZED, 1L), afterUpdate.getBooksByCategory());
+
+        bookStatisticsService.recordDeleted(updated);
+
+        BookStatisticsDTO afterDelete = bookStatisticsService.getStatistics();
+        assertEquals(1, afterDelete.getTotalBooks());
+        assertEquals(0, afterDelete.getLoanedBooks());
+        assertEquals(2, afterDelete.getTotalCopies());
+        assertEquals(0, afterDelete.getBooksByStatus().get("LOANED"));
+        assertEquals(Map.of(BookStatisticsService.UNCATEGORIZED, 1L), afterDelete.getBooksByCategory());
+    }
+
+    @Test
+    void testRecordChange_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        bookStatisticsService.recordCreated(book(Book.Status.AVAILABLE, "Ficción", 2, 2));
+
+        assertEquals(0, bookStatisticsService.getStatistics().getTotalBooks());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(1, bookStatisticsService.getStatistics().getTotalBooks());
+
+        // Una transacción revertida no llama a afterCommit: el cambio no se aplica
+        TransactionSynchronizationManager.initSynchronization();
+        bookStatisticsService.recordCreated(book(Book.Status.AVAILABLE, "Ficción", 2, 2));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        BookStatisticsDTO statistics = bookStatisticsService.getStatistics();
+        assertEquals(1, statistics.getTotalBooks());
+        assertEquals(2, statistics.getTotalCopies());
+    }
+
+    @Test
+    void testReconcile_RetriesWhenUpdateArrivesDuringQuery() {
+        // La primera consulta se lee antes de que se confirme un alta: su resultado ya no es válido
+        when(bookRepository.aggregateTotals())
+                .thenAnswer(invocation -> {
+                    bookStatisticsService.recordCreated(book(Book.Status.AVAILABLE, "Ficción", 1, 1));
+                    return totals(0, 0, 0, 0);
+                })
+                .thenReturn(totals(1, 1, 1, 1));
+        when(bookRepository.countGroupedByStatus()).thenReturn(List.of(group("AVAILABLE", 1)));
+        when(bookRepository.countGroupedByCategory()).thenReturn(List.of(group("Ficción", 1)));
+
+        bookStatisticsService.reconcile();
+
+        BookStatisticsDTO statistics = bookStatisticsService.getStatistics();
+        assertEquals(1, statistics.getTotalBooks());
+        assertEquals(Map.of("Ficción", 1L), statistics.getBooksByCategory());
+        verify(bookRepository, times(3)).aggregateTotals();
+    }
+
+    @Test
+    void testReconcile_KeepsIncrementalCountsWhenEveryAttemptIsStale() {
+        // Cada consulta se cruza con un alta: nunca se instala la instantánea (0 libros)
+        when(bookRepository.aggregateTotals()).thenAnswer(invocation -> {
+            bookStatisticsService.recordCreated(book(Book.Status.AVAILABLE, "Ficción", 1, 1));
+            return totals(0, 0, 0, 0);
+        });
+
+        bookStatisticsService.reconcile();
+
+        assertEquals(3, bookStatisticsService.getStatistics().getTotalBooks());
+        verify(bookRepository, times(4)).aggregateTotals();
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private static BookStatisticsService.BookCounts counts(Book.Status status, String category, int total, int available) {
+        return new BookStatisticsService.BookCounts(status, category, total, available);
+    }
+
+    private static Book book(Book.Status status, String category, int total, int available) {
+        return Book.builder()
+                .status(status)
+                .category(category)
+                .totalCopies(total)
+                .availableCopies(available)
+                .build();
+    }
+
+    private static BookTotalsView totals(long books, long availableBooks, long copies, long availableCopies) {
+        return new BookTotalsView() {
+            @Override
+            public Long getTotalBooks() {
+                return books;
+            }
+
+            @Override
+            public Long getAvailableBooks() {
+                return availableBooks;
+            }
+
+            @Override
+            public Long getTotalCopies() {
+                return copies;
+            }
+
+            @Override
+            public Long getAvailableCopies() {
+                return availableCopies;
+            }
+        };
+    }
+
+    private static GroupCountView group(Object key, long count) {
+        return new GroupCountView() {
+            @Override
+            public Object getGroupKey() {
+                return key;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.library.books.service;
+
+import com.library.books.dto.BookSyncDTO;
+import com.library.books.dto.BookSyncResponseDTO;
+import com.library.books.model.Book;
+import com.library.books.repository.BookBatchRepository;
+import com.library.books.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara contra una base de datos real (H2 en modo MySQL) la sincronización anterior
+ * (findByIsbn y findAll por cada libro no encontrado, y un save por fila) con el pipeline
+ * por lotes de BookSyncService. Las sentencias se cuentan en un proxy del DataSource:
+ * cada execute/executeQuery/executeUpdate y cada executeBatch cuenta como un viaje a la
+ * base de datos (con MySQL y rewriteBatchedStatements un lote viaja como una sola petición).
+ * El camino anterior se reproduce con las mismas llamadas al repositorio que hacía BookService.
+ *
+ * Ejecutar con: mvn test -Dtest=BookSyncBenchmarkTest -Dbenchmark=true (unos minutos con 100.000 registros)
+ * (el camino anterior solo se ejecuta con 1.000 registros; con -Dbenchmark.legacyAll=true
+ * también con 10.000, lo que tarda varios minutos)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sync-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.file.name=",
+        "logging.level.com.library.books=WARN",
+        "books.load-initial-data=false",
+        "books.search.build-on-startup=false",
+        "books.covers.storage-dir=target/test-covers"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookSyncBenchmarkTest {
+
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Autowired
+    private BookSyncService bookSyncService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookBatchRepository bookBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void compareLegacyAndBatchSync() {
+        System.out.printf("%-8s %-8s %12s %14s%n", "libros", "camino", "tiempo (ms)", "sentencias");
+        for (int size : new int[]{1_000, 10_000, 100_000}) {
+            List<BookSyncDTO> incoming = buildIncoming(size);
+
+            if (size <= 1_000 || (size <= 10_000 && Boolean.getBoolean("benchmark.legacyAll"))) {
+                seedCatalog(size);
+                STATEMENTS.set(0);
+                long start = System.nanoTime();
+                int legacyCreated = transactionTemplate.execute(status -> runLegacy(incoming));
+                long legacyMillis = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("%-8d %-8s %12d %14d%n", size, "anterior", legacyMillis, STATEMENTS.get());
+                assertEquals(size / 4, legacyCreated);
+            } else {
+                System.out.printf("%-8d %-8s %12s %14s%n", size, "anterior", "omitido", "-");
+            }
+
+            seedCatalog(size);
+            STATEMENTS.set(0);
+            long start = System.nanoTime();
+            BookSyncResponseDTO response = bookSyncService.syncBooks(incoming);
+            long batchMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%-8d %-8s %12d %14d%n", size, "lotes", batchMillis, STATEMENTS.get());
+            assertEquals(size / 4, response.getCreated());
+            assertEquals(size * 3 / 4, response.getUpdated());
+        }
+    }
+
+    /**
+     * Clasificación anterior: findByIsbn y, si no hay coincidencia,
+     * findAll().stream().filter(título/autor), seguido de un save por libro
+     */
+    private int runLegacy(List<BookSyncDTO> incoming) {
+        int created = 0;
+        for (BookSyncDTO syncDTO : incoming) {
+            Book existingBook = null;
+            if (syncDTO.getIsbn() != null) {
+                existingBook = bookRepository.findByIsbn(syncDTO.getIsbn()).orElse(null);
+            }
+            if (existingBook == null) {
+                existingBook = bookRepository.findAll().stream()
+                        .filter(b -> b.getTitle().equalsIgnoreCase(syncDTO.getTitle().trim()) &&
+                                b.getAuthor().equalsIgnoreCase(syncDTO.getAuthor().trim()))
+                        .findFirst()
+                        .orElse(null);
+            }
+            if (existingBook != null) {
+                existingBook.setAvailableCopies(existingBook.getAvailableCopies() + syncDTO.getTotalCopies() - existingBook.getTotalCopies());
+                existingBook.setTotalCopies(syncDTO.getTotalCopies());
+                bookRepository.save(existingBook);
+            } else {
+                bookRepository.save(Book.builder()
+                        .title(syncDTO.getTitle().trim())
+                        .author(syncDTO.getAuthor().trim())
+                        .totalCopies(syncDTO.getTotalCopies())
+                        .availableCopies(syncDTO.getTotalCopies())
+                        .build());
+                created++;
+            }
+        }
+        // Los UPDATE de las entidades modificadas se envían al hacer commit
+        bookRepository.flush();
+        return created;
+    }
+
+    private void seedCatalog(int size) {
+        jdbcTemplate.update("DELETE FROM books");
+        List<Book> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            catalog.add(Book.builder()
+                    .title("Libro " + i)
+                    .author("Autor " + (i % 500))
+                    .isbn("978" + String.format("%010d", i))
+                    .category("Categoría " + (i % 20))
+                    .totalCopies(5)
+                    .availableCopies(5)
+                    .build());
+        }
+        bookBatchRepository.insertAll(catalog, 1_000, LocalDateTime.now());
+    }
+
+    /**
+     * La mitad coincide por ISBN, un cuarto por título+autor y un cuarto es nuevo
+     */
+    private static List<BookSyncDTO> buildIncoming(int size) {
+        List<BookSyncDTO> incoming = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BookSyncDTO dto = new BookSyncDTO();
+            int bucket = i % 4;
+            if (bucket < 2) {
+                dto.setTitle("Libro " + i);
+                dto.setAuthor("Autor " + (i % 500));
+                dto.setIsbn("978" + String.format("%010d", i));
+            } else if (bucket == 2) {
+                dto.setTitle("LIBRO " + i);
+                dto.setAuthor("autor " + (i % 500));
+            } else {
+                dto.setTitle("Nuevo libro " + i);
+                dto.setAuthor("Autor nuevo");
+            }
+            dto.setTotalCopies(6);
+            incoming.add(dto);
+        }
+        return incoming;
+    }
+
+    /**
+     * Proxy que envuelve conexiones y sentencias y cuenta cada ejecución
+     */
+    private static <T> T counting(T target, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (target instanceof Statement && name.startsWith("execute")) {
+                STATEMENTS.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return counting(connection, Connection.class);
+            }
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return counting(statement, (Class<Statement>) method.getReturnType());
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(BookSyncBenchmarkTest.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
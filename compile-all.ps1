@@ -25,7 +25,11 @@ try {
 Write-Host ""
 
 # Lista de servicios
+# library-jwt y library-webclient se instalan primero: usuarios y catálogo dependen
+# del primero, préstamos y reportes del segundo
 $services = @(
+    "library-jwt",
+    "library-webclient",
     "user-management-service",
     "book-catalog-service",
     "loan-management-service",
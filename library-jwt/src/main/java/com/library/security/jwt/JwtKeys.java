@@ -0,0 +1,23 @@
+package com.library.security.jwt;
+
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Construcción de la clave HMAC compartida a partir del secreto configurado.
+ * Se llama una sola vez al crear el verificador o el firmador, nunca por petición.
+ */
+public final class JwtKeys {
+
+    private JwtKeys() {
+    }
+
+    public static SecretKey hmacKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("El secreto JWT no puede estar vacío");
+        }
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,41 @@
+package com.library.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Emisión de tokens con la clave HMAC construida una sola vez
+ */
+public class JwtSigner {
+
+    private final SecretKey signingKey;
+    private final Clock clock;
+
+    public JwtSigner(String secret) {
+        this(JwtKeys.hmacKey(secret), Clock.systemUTC());
+    }
+
+    public JwtSigner(SecretKey signingKey, Clock clock) {
+        this.signingKey = signingKey;
+        this.clock = clock;
+    }
+
+    /**
+     * Firmar un token con los claims indicados, válido durante {@code validity}
+     */
+    public String sign(Map<String, ?> claims, Duration validity) {
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .claims(claims)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(validity)))
+                .signWith(signingKey)
+                .compact();
+    }
+}
@@ -0,0 +1,150 @@
+package com.library.security.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verificación de tokens JWT compartida por los microservicios.
+ * El parser (con la clave HMAC) se construye una sola vez y cada token se
+ * verifica como máximo una vez mientras esté en la caché: los tokens válidos
+ * se guardan en un LRU acotado, indexado por el SHA-256 del token (el token en
+ * claro nunca queda en memoria), hasta su fecha de expiración.
+ * Los tokens inválidos no se guardan; se vuelven a rechazar en cada petición.
+ */
+public class JwtVerifier {
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final JwtParser parser;
+    private final Clock clock;
+    private final int maxCacheSize;
+    private final Map<String, VerifiedToken> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JwtVerifier(String secret) {
+        this(secret, DEFAULT_CACHE_SIZE);
+    }
+
+    public JwtVerifier(String secret, int maxCacheSize) {
+        this(JwtKeys.hmacKey(secret), maxCacheSize, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxCacheSize tokens verificados a conservar; 0 desactiva la caché
+     */
+    public JwtVerifier(SecretKey signingKey, int maxCacheSize, Clock clock) {
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("El tamaño de la caché JWT no puede ser negativo");
+        }
+        this.clock = clock;
+        this.maxCacheSize = maxCacheSize;
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > JwtVerifier.this.maxCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Verificar firma y expiración del token y devolver sus claims.
+     *
+     * @throws ExpiredJwtException si el token expiró
+     * @throws io.jsonwebtoken.JwtException si el token está mal formado o la firma no es válida
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new MalformedJwtException("Token JWT vacío");
+        }
+        if (maxCacheSize == 0) {
+            misses.increment();
+            return VerifiedToken.from(parser.parseSignedClaims(token).getPayload());
+        }
+
+        String key = hash(token);
+        VerifiedToken cached = lookup(key);
+        if (cached != null) {
+            Instant now = clock.instant();
+            if (!cached.isExpiredAt(now)) {
+                hits.increment();
+                return cached;
+            }
+            remove(key);
+            throw new ExpiredJwtException(null, cached.claims(),
+                    "Token JWT expirado el " + cached.expiresAt() + ", hora actual " + now);
+        }
+
+        misses.increment();
+        VerifiedToken verified = VerifiedToken.from(parser.parseSignedClaims(token).getPayload());
+        if (verified.expiresAt() != null) {
+            // Un token sin expiración no tiene un límite claro de validez en la caché
+            store(key, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * Descartar todos los tokens verificados (por ejemplo, al rotar el secreto)
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private synchronized VerifiedToken lookup(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void store(String key, VerifiedToken verified) {
+        cache.put(key, verified);
+    }
+
+    private synchronized void remove(String key) {
+        cache.remove(key);
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
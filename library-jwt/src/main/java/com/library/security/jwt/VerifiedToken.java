@@ -0,0 +1,32 @@
+package com.library.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Resultado de verificar un token: firma válida y claims ya extraídos.
+ * Los claims devueltos por jjwt son inmutables, por lo que la instancia
+ * puede compartirse entre peticiones desde la caché.
+ *
+ * @param subject   email del usuario (claim sub)
+ * @param role      rol del usuario (claim role), puede ser null
+ * @param userId    ID del usuario (claim userId), puede ser null
+ * @param expiresAt fecha de expiración (claim exp), null si el token no expira
+ * @param claims    todos los claims del token
+ */
+public record VerifiedToken(String subject, String role, Long userId, Instant expiresAt, Claims claims) {
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("userId", Long.class),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims);
+    }
+
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && now.isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,101 @@
+package com.library.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de autenticar una petición con un token válido:
+ * - anterior: réplica del filtro de book-catalog-service (clave reconstruida y
+ *   cuatro parseos: validateToken, isTokenExpired, extractEmail, extractRole)
+ * - sinCache: JwtVerifier con la clave construida una vez y un único parseo
+ * - conCache: JwtVerifier con el token ya presente en el LRU
+ *
+ * Ejecutar con: mvn test -Dtest=JwtVerificationBenchmark -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "library-secret-key-2024-very-secure-jwt-token-key-change-in-production";
+
+    private String token;
+    private JwtVerifier uncachedVerifier;
+    private JwtVerifier cachedVerifier;
+
+    @Setup
+    public void setUp() {
+        token = new JwtSigner(SECRET).sign(
+                Map.of("userId", 42L, "email", "lector@library.com", "role", "LECTOR", "sub", "lector@library.com"),
+                Duration.ofHours(24));
+        uncachedVerifier = new JwtVerifier(SECRET, 0);
+        cachedVerifier = new JwtVerifier(SECRET);
+        cachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public String anterior() {
+        if (legacyExtractAllClaims(token) == null
+                || legacyExtractAllClaims(token).getExpiration().before(new Date())) {
+            return null;
+        }
+        String email = legacyExtractAllClaims(token).getSubject();
+        String role = legacyExtractAllClaims(token).get("role", String.class);
+        return email + role;
+    }
+
+    @Benchmark
+    public String sinCache() {
+        VerifiedToken verified = uncachedVerifier.verify(token);
+        return verified.subject() + verified.role();
+    }
+
+    @Benchmark
+    public String conCache() {
+        VerifiedToken verified = cachedVerifier.verify(token);
+        return verified.subject() + verified.role();
+    }
+
+    private static Claims legacyExtractAllClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.library.security.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "library-secret-key-2024-very-secure-jwt-token-key-change-in-production";
+    private static final SecretKey KEY = JwtKeys.hmacKey(SECRET);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+
+    @Test
+    void testVerifyExtractsClaimsAndCachesResult() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 10, clock);
+        String token = sign(7L, "ana@library.com", "LECTOR", Duration.ofHours(1));
+
+        VerifiedToken first = verifier.verify(token);
+        VerifiedToken second = verifier.verify(token);
+
+        assertEquals("ana@library.com", first.subject());
+        assertEquals("LECTOR", first.role());
+        assertEquals(7L, first.userId());
+        assertSame(first, second);
+        assertEquals(1, verifier.missCount());
+        assertEquals(1, verifier.hitCount());
+    }
+
+    @Test
+    void testCachedTokenIsRejectedAfterExpiration() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 10, clock);
+        String token = sign(1L, "luis@library.com", "ADMINISTRADOR", Duration.ofMinutes(5));
+        verifier.verify(token);
+
+        clock.advance(Duration.ofMinutes(6));
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+        assertEquals(0, verifier.size());
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void testInvalidSignatureIsNeverCached() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 10, clock);
+        SecretKey otherKey = JwtKeys.hmacKey(SECRET + "-otra-clave");
+        String forged = new JwtSigner(otherKey, clock).sign(Map.of("sub", "intruso@library.com"), Duration.ofHours(1));
+
+        assertThrows(SignatureException.class, () -> verifier.verify(forged));
+        assertThrows(SignatureException.class, () -> verifier.verify(forged));
+        assertThrows(JwtException.class, () -> verifier.verify("no-es-un-token"));
+        assertThrows(JwtException.class, () -> verifier.verify(" "));
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenFull() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 2, clock);
+        String first = sign(1L, "a@library.com", "LECTOR", Duration.ofHours(1));
+        String second = sign(2L, "b@library.com", "LECTOR", Duration.ofHours(1));
+        String third = sign(3L, "c@library.com", "LECTOR", Duration.ofHours(1));
+
+        verifier.verify(first);
+        verifier.verify(second);
+        verifier.verify(first);
+        verifier.verify(third);
+        assertEquals(2, verifier.size());
+
+        long missesBefore = verifier.missCount();
+        verifier.verify(first);
+        assertEquals(missesBefore, verifier.missCount());
+        verifier.verify(second);
+        assertEquals(missesBefore + 1, verifier.missCount());
+    }
+
+    @Test
+    void testDisabledCacheParsesEveryTime() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 0, clock);
+        String token = sign(1L, "a@library.com", "LECTOR", Duration.ofHours(1));
+
+        verifier.verify(token);
+        verifier.verify(token);
+
+        assertEquals(2, verifier.missCount());
+        assertEquals(0, verifier.size());
+    }
+
+    private String sign(Long userId, String email, String role, Duration validity) {
+        return new JwtSigner(KEY, clock).sign(Map.of("userId", userId, "email", email, "role", role, "sub", email),
+                validity);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.library.http;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker por servicio remoto, con ventana de las últimas N llamadas.
+ * - CLOSED: todas las llamadas pasan; si el porcentaje de fallos de la ventana supera el
+ *   umbral (con un mínimo de llamadas), se abre.
+ * - OPEN: las llamadas se rechazan sin contactar al servicio hasta que vence circuitOpenMs.
+ * - HALF_OPEN: pasan unas pocas llamadas de prueba; si todas tienen éxito se cierra y
+ *   si alguna falla vuelve a abrirse.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final DownstreamProperties properties;
+    private final LongSupplier clockMillis;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, DownstreamProperties properties) {
+        this(name, properties, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, DownstreamProperties properties, LongSupplier clockMillis) {
+        this.name = name;
+        this.properties = properties;
+        this.clockMillis = clockMillis;
+        this.window = new boolean[Math.max(1, properties.getCircuitWindowSize())];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && openExpired()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Pedir permiso para una llamada. Si se concede, debe informarse el resultado con
+     * {@link #onSuccess()}, {@link #onFailure()} o {@link #onCancel()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (!openExpired()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= properties.getCircuitHalfOpenCalls()) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= properties.getCircuitHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED
+                && windowCalls >= properties.getCircuitMinimumCalls()
+                && windowFailures * 100 >= properties.getCircuitFailureRateThreshold() * windowCalls) {
+            open();
+        }
+    }
+
+    /**
+     * Llamada cancelada antes de terminar: no cuenta como éxito ni como fallo
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private boolean openExpired() {
+        return clockMillis.getAsLong() - openedAt >= properties.getCircuitOpenMs();
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clockMillis.getAsLong();
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+    }
+}
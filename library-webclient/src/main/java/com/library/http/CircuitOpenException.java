@@ -0,0 +1,11 @@
+package com.library.http;
+
+/**
+ * Llamada rechazada sin contactar al servicio remoto porque su circuito está abierto
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String downstream) {
+        super("Circuito abierto: el servicio " + downstream + " no está respondiendo, se reintentará más tarde");
+    }
+}
@@ -0,0 +1,185 @@
+package com.library.http;
+
+/**
+ * Configuración de la conexión con un servicio remoto. Cada microservicio la extiende en
+ * las clases de su MicroservicesConfig, de modo que se configura junto con la URL:
+ * microservices.book-catalog.response-timeout-ms, microservices.book-catalog.max-connections, etc.
+ */
+public class DownstreamProperties {
+
+    private String url;
+
+    /**
+     * Tiempo máximo para establecer la conexión TCP
+     */
+    private long connectTimeoutMs = 2000;
+
+    /**
+     * Tiempo máximo desde el envío de la petición hasta recibir la respuesta
+     */
+    private long responseTimeoutMs = 5000;
+
+    /**
+     * Conexiones simultáneas del pool dedicado a este servicio
+     */
+    private int maxConnections = 50;
+
+    /**
+     * Espera máxima por una conexión libre cuando el pool está lleno
+     */
+    private long pendingAcquireTimeoutMs = 2000;
+
+    /**
+     * Tiempo tras el cual se cierra una conexión inactiva del pool
+     */
+    private long maxIdleTimeMs = 30000;
+
+    /**
+     * Reintentos de las peticiones GET ante errores de conexión, tiempos agotados o respuestas 5xx
+     */
+    private int retryMaxAttempts = 2;
+
+    /**
+     * Espera antes del primer reintento; crece exponencialmente con variación aleatoria del 50 %
+     */
+    private long retryInitialBackoffMs = 100;
+
+    private long retryMaxBackoffMs = 1000;
+
+    /**
+     * Porcentaje de fallos en la ventana de llamadas a partir del cual se abre el circuito
+     */
+    private int circuitFailureRateThreshold = 50;
+
+    /**
+     * Llamadas recientes que se consideran para calcular el porcentaje de fallos
+     */
+    private int circuitWindowSize = 20;
+
+    /**
+     * Llamadas mínimas en la ventana antes de poder abrir el circuito
+     */
+    private int circuitMinimumCalls = 10;
+
+    /**
+     * Tiempo que el circuito permanece abierto antes de dejar pasar llamadas de prueba
+     */
+    private long circuitOpenMs = 30000;
+
+    /**
+     * Llamadas de prueba con el circuito medio abierto; si todas tienen éxito se cierra
+     */
+    private int circuitHalfOpenCalls = 3;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public long getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(long connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public long getResponseTimeoutMs() {
+        return responseTimeoutMs;
+    }
+
+    public void setResponseTimeoutMs(long responseTimeoutMs) {
+        this.responseTimeoutMs = responseTimeoutMs;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public long getPendingAcquireTimeoutMs() {
+        return pendingAcquireTimeoutMs;
+    }
+
+    public void setPendingAcquireTimeoutMs(long pendingAcquireTimeoutMs) {
+        this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs;
+    }
+
+    public long getMaxIdleTimeMs() {
+        return maxIdleTimeMs;
+    }
+
+    public void setMaxIdleTimeMs(long maxIdleTimeMs) {
+        this.maxIdleTimeMs = maxIdleTimeMs;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public void setRetryMaxAttempts(int retryMaxAttempts) {
+        this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    public long getRetryInitialBackoffMs() {
+        return retryInitialBackoffMs;
+    }
+
+    public void setRetryInitialBackoffMs(long retryInitialBackoffMs) {
+        this.retryInitialBackoffMs = retryInitialBackoffMs;
+    }
+
+    public long getRetryMaxBackoffMs() {
+        return retryMaxBackoffMs;
+    }
+
+    public void setRetryMaxBackoffMs(long retryMaxBackoffMs) {
+        this.retryMaxBackoffMs = retryMaxBackoffMs;
+    }
+
+    public int getCircuitFailureRateThreshold() {
+        return circuitFailureRateThreshold;
+    }
+
+    public void setCircuitFailureRateThreshold(int circuitFailureRateThreshold) {
+        this.circuitFailureRateThreshold = circuitFailureRateThreshold;
+    }
+
+    public int getCircuitWindowSize() {
+        return circuitWindowSize;
+    }
+
+    public void setCircuitWindowSize(int circuitWindowSize) {
+        this.circuitWindowSize = circuitWindowSize;
+    }
+
+    public int getCircuitMinimumCalls() {
+        return circuitMinimumCalls;
+    }
+
+    public void setCircuitMinimumCalls(int circuitMinimumCalls) {
+        this.circuitMinimumCalls = circuitMinimumCalls;
+    }
+
+    public long getCircuitOpenMs() {
+        return circuitOpenMs;
+    }
+
+    public void setCircuitOpenMs(long circuitOpenMs) {
+        this.circuitOpenMs = circuitOpenMs;
+    }
+
+    public int getCircuitHalfOpenCalls() {
+        return circuitHalfOpenCalls;
+    }
+
+    public void setCircuitHalfOpenCalls(int circuitHalfOpenCalls) {
+        this.circuitHalfOpenCalls = circuitHalfOpenCalls;
+    }
+}
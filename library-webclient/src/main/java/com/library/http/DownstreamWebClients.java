@@ -0,0 +1,75 @@
+package com.library.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fábrica de WebClient por servicio remoto. Cada cliente se construye una sola vez, con:
+ * - un pool de conexiones Reactor Netty propio (un servicio lento no agota las conexiones
+ *   de los demás), con métricas reactor.netty.connection.provider.* etiquetadas con el nombre
+ * - tiempo máximo de conexión y de respuesta
+ * - reintentos de GET y circuit breaker (ver {@link ResilienceFilter}); el estado del circuito
+ *   se publica en la métrica http.client.circuit.state (0 cerrado, 1 abierto, 2 medio abierto)
+ * El WebClient.Builder recibido debe ser el de Spring Boot, que ya registra la latencia de
+ * cada llamada en http.client.requests.
+ */
+public class DownstreamWebClients implements AutoCloseable {
+
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    public DownstreamWebClients(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Construir el WebClient del servicio, con la URL del servicio como base
+     * @param name nombre del servicio en métricas y registros (por ejemplo "book-catalog")
+     */
+    public WebClient create(String name, DownstreamProperties properties) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(properties.getMaxIdleTimeMs()))
+                .evictInBackground(Duration.ofMillis(properties.getMaxIdleTimeMs()))
+                .metrics(true)
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeoutMs())
+                .responseTimeout(Duration.ofMillis(properties.getResponseTimeoutMs()));
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, properties);
+        Gauge.builder("http.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Estado del circuit breaker: 0 cerrado, 1 abierto, 2 medio abierto")
+                .tag("client", name)
+                .register(meterRegistry);
+
+        return webClientBuilder.clone()
+                .baseUrl(properties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new ResilienceFilter(name, properties, circuitBreaker, meterRegistry))
+                .build();
+    }
+
+    /**
+     * Cerrar los pools de conexiones al detener el servicio
+     */
+    @Override
+    public void close() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+        connectionProviders.clear();
+    }
+}
@@ -0,0 +1,92 @@
+package com.library.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtro de un WebClient dedicado a un servicio remoto:
+ * - cada intento pasa por el circuit breaker del servicio; con el circuito abierto falla
+ *   de inmediato con {@link CircuitOpenException}
+ * - las respuestas 5xx y los errores de conexión cuentan como fallos y se convierten en error
+ * - las peticiones GET se reintentan ante fallos transitorios con espera exponencial y
+ *   variación aleatoria, para que los clientes no reintenten todos a la vez
+ * Las demás peticiones no se reintentan: no son idempotentes y quien llama decide.
+ */
+public class ResilienceFilter implements ExchangeFilterFunction {
+
+    private static final double JITTER = 0.5;
+
+    private final String name;
+    private final DownstreamProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter retries;
+    private final Counter rejected;
+
+    public ResilienceFilter(String name, DownstreamProperties properties, CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.properties = properties;
+        this.circuitBreaker = circuitBreaker;
+        this.retries = Counter.builder("http.client.retries")
+                .description("Reintentos de peticiones GET a servicios remotos")
+                .tag("client", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("http.client.circuit.rejected")
+                .description("Peticiones rechazadas con el circuito abierto")
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Mono<ClientResponse> call = Mono.defer(() -> guarded(request, next));
+        if (request.method() != HttpMethod.GET || properties.getRetryMaxAttempts() <= 0) {
+            return call;
+        }
+        return call.retryWhen(Retry.backoff(properties.getRetryMaxAttempts(), Duration.ofMillis(properties.getRetryInitialBackoffMs()))
+                .maxBackoff(Duration.ofMillis(properties.getRetryMaxBackoffMs()))
+                .jitter(JITTER)
+                .filter(ResilienceFilter::isTransient)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<ClientResponse> guarded(ClientRequest request, ExchangeFunction next) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.increment();
+            return Mono.error(new CircuitOpenException(name));
+        }
+        return next.exchange(request)
+                .onErrorResume(error -> {
+                    circuitBreaker.onFailure();
+                    return Mono.error(error);
+                })
+                .flatMap(response -> {
+                    if (response.statusCode().is5xxServerError()) {
+                        circuitBreaker.onFailure();
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    circuitBreaker.onSuccess();
+                    return Mono.just(response);
+                })
+                .doOnCancel(circuitBreaker::onCancel);
+    }
+
+    static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,85 @@
+package com.library.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        DownstreamProperties properties = new DownstreamProperties();
+        properties.setCircuitWindowSize(10);
+        properties.setCircuitMinimumCalls(4);
+        properties.setCircuitFailureRateThreshold(50);
+        properties.setCircuitOpenMs(1000);
+        properties.setCircuitHalfOpenCalls(2);
+        circuitBreaker = new CircuitBreaker("test", properties, now::get);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        call(true);
+        call(false);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        call(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulProbesAndReopensOnFailure() {
+        openCircuit();
+        now.addAndGet(1000);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire(), "Solo pasan las llamadas de prueba");
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        openCircuit();
+        now.addAndGet(1000);
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void cancelledProbeReleasesItsPermit() {
+        openCircuit();
+        now.addAndGet(1000);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onCancel();
+
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void call(boolean success) {
+        assertTrue(circuitBreaker.tryAcquire());
+        if (success) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+}
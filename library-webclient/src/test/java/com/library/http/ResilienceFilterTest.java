@@ -0,0 +1,84 @@
+package com.library.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Queue<HttpStatus> responses = new ArrayDeque<>();
+    private DownstreamProperties properties;
+    private CircuitBreaker circuitBreaker;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DownstreamProperties();
+        properties.setRetryInitialBackoffMs(1);
+        properties.setRetryMaxBackoffMs(5);
+        circuitBreaker = new CircuitBreaker("books", properties);
+        webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    HttpStatus status = responses.isEmpty() ? HttpStatus.OK : responses.poll();
+                    return Mono.just(ClientResponse.create(status).body("ok").build());
+                })
+                .filter(new ResilienceFilter("books", properties, circuitBreaker, meterRegistry))
+                .build();
+    }
+
+    @Test
+    void retriesTransientGetFailures() {
+        responses.addAll(List.of(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.BAD_GATEWAY));
+
+        String body = webClient.get().uri("http://books/api/books/1").retrieve().bodyToMono(String.class).block();
+
+        assertEquals("ok", body);
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.counter("http.client.retries", "client", "books").count());
+    }
+
+    @Test
+    void doesNotRetryClientErrorsOrNonIdempotentRequests() {
+        responses.addAll(List.of(HttpStatus.NOT_FOUND, HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(WebClientResponseException.NotFound.class,
+                () -> webClient.get().uri("http://books/api/books/1").retrieve().bodyToMono(String.class).block());
+        assertThrows(WebClientResponseException.ServiceUnavailable.class,
+                () -> webClient.patch().uri("http://books/api/books/copies").retrieve().bodyToMono(String.class).block());
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCallingTheService() {
+        properties.setRetryMaxAttempts(0);
+        properties.setCircuitMinimumCalls(2);
+        responses.addAll(List.of(HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(WebClientResponseException.class,
+                    () -> webClient.get().uri("http://books/api/books/1").retrieve().bodyToMono(String.class).block());
+        }
+
+        assertThrows(CircuitOpenException.class,
+                () -> webClient.get().uri("http://books/api/books/1").retrieve().bodyToMono(String.class).block());
+
+        assertEquals(2, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1, meterRegistry.counter("http.client.circuit.rejected", "client", "books").count());
+    }
+}
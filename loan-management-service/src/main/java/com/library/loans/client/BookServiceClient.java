@@ -1,28 +1,34 @@
 package com.library.loans.client;
 
+import com.library.http.DownstreamWebClients;
 import com.library.loans.config.MicroservicesConfig;
-import lombok.RequiredArgsConstructor;
+import com.library.loans.dto.BookAvailabilityDTO;
+import com.library.loans.dto.CopyAdjustmentDTO;
+import com.library.loans.dto.CopyAdjustmentResultDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class BookServiceClient {
 
-    private final WebClient.Builder webClientBuilder;
-    private final MicroservicesConfig microservicesConfig;
+    private final WebClient webClient;
 
-    public Mono<Boolean> checkBookAvailability(Long bookId) {
-        String url = microservicesConfig.getBookCatalog().getUrl() + "/api/books/" + bookId + "/availability";
+    public BookServiceClient(DownstreamWebClients downstreamWebClients, MicroservicesConfig microservicesConfig) {
+        this.webClient = downstreamWebClients.create("book-catalog", microservicesConfig.getBookCatalog());
+    }
 
-        return webClientBuilder.build()
+    public Mono<Boolean> checkBookAvailability(Long bookId) {
+        return webClient
                 .get()
-                .uri(url)
+                .uri("/api/books/{bookId}/availability", bookId)
                 .retrieve()
                 .bodyToMono(Map.class)
                 .map(response -> {
@@ -35,12 +41,23 @@ public class BookServiceClient {
                 });
     }
 
-    public Mono<Void> updateBookCopies(Long bookId, Integer change) {
-        String url = microservicesConfig.getBookCatalog().getUrl() + "/api/books/" + bookId + "/copies?change=" + change;
+    /**
+     * Disponibilidad de varios libros en una sola llamada; los inexistentes vienen como no disponibles.
+     * Los errores se propagan: quien llama decide cómo tratarlos.
+     */
+    public Mono<List<BookAvailabilityDTO>> checkBooksAvailability(Collection<Long> bookIds) {
+        return webClient
+                .get()
+                .uri("/api/books/availability?ids={ids}", joinIds(bookIds))
+                .retrieve()
+                .bodyToFlux(BookAvailabilityDTO.class)
+                .collectList();
+    }
 
-        return webClientBuilder.build()
+    public Mono<Void> updateBookCopies(Long bookId, Integer change) {
+        return webClient
                 .patch()
-                .uri(url)
+                .uri("/api/books/{bookId}/copies?change={change}", bookId, change)
                 .retrieve()
                 .bodyToMono(Void.class)
                 .onErrorResume(error -> {
@@ -48,9 +65,22 @@ public class BookServiceClient {
                     return Mono.empty();
                 });
     }
-}
-
-
-
 
+    /**
+     * Aplicar varios ajustes de copias en una sola llamada. Cada ajuste se acepta o rechaza por separado.
+     * Los errores se propagan: quien llama decide si reintentar.
+     */
+    public Mono<List<CopyAdjustmentResultDTO>> updateBookCopiesBatch(List<CopyAdjustmentDTO> adjustments) {
+        return webClient
+                .patch()
+                .uri("/api/books/copies?allOrNothing=false")
+                .bodyValue(adjustments)
+                .retrieve()
+                .bodyToFlux(CopyAdjustmentResultDTO.class)
+                .collectList();
+    }
 
+    private static String joinIds(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -1,25 +1,27 @@
 package com.library.loans.client;
 
+import com.library.http.DownstreamWebClients;
 import com.library.loans.config.MicroservicesConfig;
-import lombok.RequiredArgsConstructor;
+import com.library.loans.dto.NotificationBatchResponseDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceClient {
 
-    private final WebClient.Builder webClientBuilder;
-    private final MicroservicesConfig microservicesConfig;
+    private final WebClient webClient;
 
-    public Mono<Void> createNotification(Long userId, String type, String title, String message, String priority) {
-        String url = microservicesConfig.getNotifications().getUrl() + "/api/notifications";
+    public NotificationServiceClient(DownstreamWebClients downstreamWebClients, MicroservicesConfig microservicesConfig) {
+        this.webClient = downstreamWebClients.create("notifications", microservicesConfig.getNotifications());
+    }
 
+    public Mono<Void> createNotification(Long userId, String type, String title, String message, String priority) {
         Map<String, Object> notificationData = Map.of(
                 "userId", userId,
                 "type", type,
@@ -28,17 +30,36 @@ public class NotificationServiceClient {
                 "priority", priority != null ? priority : "MEDIUM"
         );
 
-        return webClientBuilder.build()
-                .post()
-                .uri(url)
-                .bodyValue(notificationData)
-                .retrieve()
-                .bodyToMono(Void.class)
+        return sendNotification(notificationData)
                 .onErrorResume(error -> {
                     log.error("Error creando notificación para usuario {}: {}", userId, error.getMessage());
                     return Mono.empty(); // No fallar el flujo principal si falla la notificación
                 });
     }
-}
 
+    /**
+     * Enviar una notificación ya armada (userId, type, title, message, priority).
+     * Los errores se propagan: quien llama decide si reintentar.
+     */
+    public Mono<Void> sendNotification(Map<String, Object> notificationData) {
+        return webClient
+                .post()
+                .uri("/api/notifications")
+                .bodyValue(notificationData)
+                .retrieve()
+                .bodyToMono(Void.class);
+    }
 
+    /**
+     * Crear varias notificaciones en una sola llamada (POST /api/notifications/batch).
+     * Las notificaciones no válidas se rechazan por separado y la respuesta trae el resultado de cada una.
+     */
+    public Mono<NotificationBatchResponseDTO> sendNotificationsBatch(List<Map<String, Object>> notifications) {
+        return webClient
+                .post()
+                .uri("/api/notifications/batch")
+                .bodyValue(notifications)
+                .retrieve()
+                .bodyToMono(NotificationBatchResponseDTO.class);
+    }
+}
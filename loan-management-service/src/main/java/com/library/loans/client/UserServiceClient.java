@@ -1,35 +1,112 @@
 package com.library.loans.client;
 
+import com.library.http.DownstreamWebClients;
 import com.library.loans.config.MicroservicesConfig;
-import lombok.RequiredArgsConstructor;
+import com.library.loans.dto.UserStatusDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceClient {
 
-    private final WebClient.Builder webClientBuilder;
-    private final MicroservicesConfig microservicesConfig;
+    private final WebClient webClient;
+    private final UserStatusCache userStatusCache;
+
+    public UserServiceClient(DownstreamWebClients downstreamWebClients, MicroservicesConfig microservicesConfig,
+                             UserStatusCache userStatusCache) {
+        this.webClient = downstreamWebClients.create("user-management", microservicesConfig.getUserManagement());
+        this.userStatusCache = userStatusCache;
+    }
 
+    /**
+     * Verificar que el usuario existe y no está bloqueado.
+     * Consulta /api/users/{id}/status (sin datos de perfil) a través de la caché de estados.
+     */
     public Mono<Boolean> validateUser(Long userId, String token) {
-        String url = microservicesConfig.getUserManagement().getUrl() + "/api/users/" + userId;
-
-        return webClientBuilder.build()
-                .get()
-                .uri(url)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> true)
+        return getUserStatus(userId, token)
+                .map(status -> status.map(UserStatusDTO::isActive).orElse(false))
                 .onErrorResume(error -> {
                     log.error("Error validando usuario {}: {}", userId, error.getMessage());
                     return Mono.just(false);
                 });
     }
-}
 
+    /**
+     * Estado de varios usuarios, por ID; los inexistentes no se incluyen. Los que no están en caché
+     * se consultan con una sola llamada. Los errores del servicio se propagan.
+     */
+    public Mono<Map<Long, UserStatusDTO>> getUserStatuses(Collection<Long> userIds, String token) {
+        return Mono.defer(() -> {
+            Map<Long, UserStatusDTO> statuses = new HashMap<>();
+            List<Long> missing = new ArrayList<>();
+            for (Long userId : userIds) {
+                userStatusCache.get(userId).ifPresentOrElse(entry -> {
+                    if (entry.found()) {
+                        statuses.put(userId, entry.status());
+                    }
+                }, () -> missing.add(userId));
+            }
+            if (missing.isEmpty()) {
+                return Mono.just(statuses);
+            }
+            return webClient
+                    .get()
+                    .uri("/api/users/status?ids={ids}", joinIds(missing))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .retrieve()
+                    .bodyToFlux(UserStatusDTO.class)
+                    .collectList()
+                    .map(found -> {
+                        found.forEach(status -> {
+                            userStatusCache.putFound(status.getId(), status);
+                            statuses.put(status.getId(), status);
+                        });
+                        missing.stream()
+                                .filter(userId -> !statuses.containsKey(userId))
+                                .forEach(userStatusCache::putNotFound);
+                        return statuses;
+                    });
+        });
+    }
+
+    /**
+     * Estado del usuario, vacío si no existe. Los errores del servicio se propagan.
+     */
+    public Mono<Optional<UserStatusDTO>> getUserStatus(Long userId, String token) {
+        return Mono.defer(() -> {
+            Optional<UserStatusCache.Entry> cached = userStatusCache.get(userId);
+            if (cached.isPresent()) {
+                return Mono.just(Optional.ofNullable(cached.get().status()));
+            }
+            return webClient
+                    .get()
+                    .uri("/api/users/{userId}/status", userId)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .retrieve()
+                    .bodyToMono(UserStatusDTO.class)
+                    .doOnNext(status -> userStatusCache.putFound(userId, status))
+                    .map(Optional::of)
+                    .onErrorResume(WebClientResponseException.NotFound.class, error -> {
+                        userStatusCache.putNotFound(userId);
+                        return Mono.just(Optional.empty());
+                    });
+        });
+    }
+
+    private static String joinIds(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
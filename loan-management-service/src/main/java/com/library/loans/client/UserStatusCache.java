@@ -0,0 +1,73 @@
+package com.library.loans.client;
+
+import com.library.loans.config.UserStatusCacheConfig;
+import com.library.loans.dto.UserStatusDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché acotada (LRU) del estado de cada usuario, con vencimiento.
+ * También guarda los usuarios que no existen (caché negativa), con un vencimiento más corto,
+ * para que un ID inválido repetido no llegue cada vez a user-management-service.
+ * Los errores del servicio (caída, 5xx, circuito abierto) no se guardan.
+ */
+@Component
+class UserStatusCache {
+
+    /**
+     * Estado guardado; status es null si el usuario no existe
+     */
+    record Entry(UserStatusDTO status, long expiresAtMillis) {
+
+        boolean found() {
+            return status != null;
+        }
+    }
+
+    private final UserStatusCacheConfig cacheConfig;
+    private final LongSupplier clockMillis;
+    private final Map<Long, Entry> entries;
+
+    @Autowired
+    UserStatusCache(UserStatusCacheConfig cacheConfig) {
+        this(cacheConfig, System::currentTimeMillis);
+    }
+
+    UserStatusCache(UserStatusCacheConfig cacheConfig, LongSupplier clockMillis) {
+        this.cacheConfig = cacheConfig;
+        this.clockMillis = clockMillis;
+        int maxSize = cacheConfig.getMaxSize();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized Optional<Entry> get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null && clockMillis.getAsLong() >= entry.expiresAtMillis()) {
+            entries.remove(userId);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    synchronized void putFound(Long userId, UserStatusDTO status) {
+        entries.put(userId, new Entry(status, clockMillis.getAsLong() + cacheConfig.getTtlMs()));
+    }
+
+    synchronized void putNotFound(Long userId) {
+        entries.put(userId, new Entry(null, clockMillis.getAsLong() + cacheConfig.getNotFoundTtlMs()));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
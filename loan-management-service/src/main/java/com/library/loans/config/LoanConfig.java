@@ -12,6 +12,16 @@ public class LoanConfig {
     private Integer defaultDays = 14;
     private Integer maxExtensions = 2;
     private Double finePerDay = 5.0;
+
+    /**
+     * Máximo de préstamos abiertos (activos o vencidos) por usuario
+     */
+    private Integer maxActiveLoans = 5;
+
+    /**
+     * Máximo de ítems por solicitud de préstamo o devolución en lote
+     */
+    private Integer bulkMaxItems = 100;
 }
 
 
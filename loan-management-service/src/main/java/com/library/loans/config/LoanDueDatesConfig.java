@@ -0,0 +1,42 @@
+package com.library.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del planificador de vencimientos: aviso de vencimiento próximo y aviso de
+ * préstamo vencido, cada uno a su hora dentro de la franja diaria de avisos
+ */
+@Configuration
+@ConfigurationProperties(prefix = "loan.due-dates")
+@Data
+public class LoanDueDatesConfig {
+
+    /**
+     * Días antes de la fecha de devolución en que se envía el aviso de vencimiento próximo
+     */
+    private Integer reminderDaysBefore = 2;
+
+    /**
+     * Franja diaria de avisos [inicio, fin): la hora de cada préstamo se reparte en ella según su ID
+     */
+    private Integer windowStartHour = 8;
+
+    private Integer windowEndHour = 20;
+
+    /**
+     * Resolución de la rueda de tiempo y pausa entre pasadas del planificador
+     */
+    private Long tickMs = 60000L;
+
+    /**
+     * Casillas por nivel de la rueda de tiempo
+     */
+    private Integer wheelSize = 64;
+
+    /**
+     * Préstamos procesados por transacción al vencer sus avisos (y por bloque al reconstruir la rueda)
+     */
+    private Integer batchSize = 500;
+}
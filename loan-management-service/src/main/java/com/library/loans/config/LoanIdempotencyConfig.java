@@ -0,0 +1,31 @@
+package com.library.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las claves de idempotencia (cabecera Idempotency-Key) de las
+ * operaciones que crean o modifican préstamos
+ */
+@Configuration
+@ConfigurationProperties(prefix = "loan.idempotency")
+@Data
+public class LoanIdempotencyConfig {
+
+    /**
+     * Tiempo durante el que se conserva la respuesta de una clave para repetirla
+     */
+    private Long ttlMs = 86400000L;
+
+    /**
+     * Respuestas recientes que se mantienen en memoria; las demás se leen de la base de datos
+     */
+    private Integer memoryMaxEntries = 10000;
+
+    /**
+     * Tiempo máximo de una solicitud en curso. Un duplicado espera como mucho este plazo
+     * y, si la instancia que la atendía cayó, la clave se puede volver a usar al vencer.
+     */
+    private Long inFlightLeaseMs = 30000L;
+}
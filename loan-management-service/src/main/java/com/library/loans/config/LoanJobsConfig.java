@@ -0,0 +1,29 @@
+package com.library.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los procesos programados por bloques (p. ej. préstamos vencidos)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "loan.jobs")
+@Data
+public class LoanJobsConfig {
+
+    /**
+     * Filas por bloque; cada bloque se confirma en su propia transacción
+     */
+    private Integer chunkSize = 1000;
+
+    /**
+     * Una ejecución RUNNING sin avance durante este tiempo se considera interrumpida y se reanuda
+     */
+    private Long staleRunMs = 600000L;
+
+    /**
+     * Reanudar al iniciar el servicio las ejecuciones interrumpidas por una caída
+     */
+    private Boolean resumeOnStartup = true;
+}
@@ -0,0 +1,63 @@
+package com.library.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del outbox de préstamos: entrega en segundo plano de los ajustes
+ * de copias y las notificaciones registrados junto con cada préstamo
+ */
+@Configuration
+@ConfigurationProperties(prefix = "loan.outbox")
+@Data
+public class LoanOutboxConfig {
+
+    /**
+     * Pausa entre pasadas del relay cuando no quedan eventos pendientes
+     */
+    private Long pollIntervalMs = 1000L;
+
+    /**
+     * Eventos reclamados por pasada
+     */
+    private Integer batchSize = 200;
+
+    /**
+     * Tiempo durante el que un evento reclamado no se vuelve a entregar. Si la instancia
+     * cae durante la entrega, el evento se reintenta al vencer este plazo.
+     */
+    private Long leaseMs = 60000L;
+
+    /**
+     * Intentos antes de marcar el evento como FAILED
+     */
+    private Integer maxAttempts = 10;
+
+    /**
+     * Espera antes del primer reintento; se duplica en cada intento hasta maxBackoffMs
+     */
+    private Long initialBackoffMs = 1000L;
+
+    private Long maxBackoffMs = 300000L;
+
+    /**
+     * Espera máxima de cada llamada a los servicios remotos
+     */
+    private Long deliveryTimeoutMs = 5000L;
+
+    /**
+     * Notificaciones por llamada a POST /api/notifications/batch
+     */
+    private Integer notificationBatchSize = 500;
+
+    /**
+     * Llamadas a notifications-service en paralelo
+     */
+    private Integer notificationConcurrency = 8;
+
+    /**
+     * Días que se conservan los eventos entregados antes de borrarlos
+     */
+    private Integer retentionDays = 7;
+}
@@ -0,0 +1,30 @@
+package com.library.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tiempos máximos de espera de las verificaciones que se hacen al validar un préstamo.
+ * Las tres verificaciones se ejecutan en paralelo, cada una con su propio límite.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "loan.validation")
+@Data
+public class LoanValidationConfig {
+
+    /**
+     * Espera máxima de la verificación del usuario (user-management-service)
+     */
+    private Long userTimeoutMs = 2000L;
+
+    /**
+     * Espera máxima de la verificación de disponibilidad del libro (book-catalog-service)
+     */
+    private Long bookTimeoutMs = 2000L;
+
+    /**
+     * Espera máxima de la consulta de préstamos activos del usuario
+     */
+    private Long activeLoansTimeoutMs = 2000L;
+}
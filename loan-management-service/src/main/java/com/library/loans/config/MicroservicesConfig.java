@@ -1,9 +1,15 @@
 package com.library.loans.config;
 
+import com.library.http.DownstreamProperties;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * URL y ajustes del WebClient de cada servicio remoto: pool de conexiones, tiempos máximos,
+ * reintentos de GET y circuit breaker (valores por defecto en {@link DownstreamProperties})
+ */
 @Configuration
 @ConfigurationProperties(prefix = "microservices")
 @Data
@@ -15,28 +21,22 @@ public class MicroservicesConfig {
     private Notifications notifications = new Notifications();
 
     @Data
-    public static class UserManagement {
-        private String url;
+    @EqualsAndHashCode(callSuper = true)
+    public static class UserManagement extends DownstreamProperties {
     }
 
     @Data
-    public static class BookCatalog {
-        private String url;
+    @EqualsAndHashCode(callSuper = true)
+    public static class BookCatalog extends DownstreamProperties {
     }
 
     @Data
-    public static class Reports {
-        private String url;
+    @EqualsAndHashCode(callSuper = true)
+    public static class Reports extends DownstreamProperties {
     }
 
     @Data
-    public static class Notifications {
-        private String url;
+    @EqualsAndHashCode(callSuper = true)
+    public static class Notifications extends DownstreamProperties {
     }
 }
-
-
-
-
-
-
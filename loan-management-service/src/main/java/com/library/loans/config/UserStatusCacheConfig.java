@@ -0,0 +1,32 @@
+package com.library.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la caché del estado de los usuarios (GET /api/users/{id}/status)
+ * usada al validar préstamos
+ */
+@Configuration
+@ConfigurationProperties(prefix = "loan.user-status-cache")
+@Data
+public class UserStatusCacheConfig {
+
+    /**
+     * Máximo de usuarios en caché; al superarlo se descarta el menos usado
+     */
+    private Integer maxSize = 10000;
+
+    /**
+     * Vida de un estado conocido. Un bloqueo hecho en user-management-service puede
+     * tardar hasta este plazo en impedir nuevos préstamos.
+     */
+    private Long ttlMs = 60000L;
+
+    /**
+     * Vida de un "usuario no encontrado", más corta para que un usuario recién
+     * registrado pueda pedir préstamos enseguida
+     */
+    private Long notFoundTtlMs = 10000L;
+}
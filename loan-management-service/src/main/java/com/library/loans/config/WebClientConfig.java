@@ -1,5 +1,7 @@
 package com.library.loans.config;
 
+import com.library.http.DownstreamWebClients;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -7,14 +9,12 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Cada cliente construye su WebClient una sola vez a partir del WebClient.Builder de
+     * Spring Boot, que registra la latencia de las llamadas en http.client.requests
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public DownstreamWebClients downstreamWebClients(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        return new DownstreamWebClients(webClientBuilder, meterRegistry);
     }
 }
-
-
-
-
-
-
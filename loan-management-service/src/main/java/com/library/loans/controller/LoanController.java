@@ -2,6 +2,8 @@ package com.library.loans.controller;
 
 import com.library.loans.dto.*;
 import com.library.loans.model.Loan;
+import com.library.loans.service.IdempotencyService;
+import com.library.loans.service.LoanBulkService;
 import com.library.loans.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,6 +11,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,13 +24,15 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
+    private final LoanBulkService loanBulkService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(
         summary = "Crear préstamo", 
         description = "Crea un nuevo préstamo de libro. Valida las siguientes reglas de negocio: " +
                      "1) El usuario debe existir y estar activo en la BD, 2) El libro debe tener copias disponibles (disponibles > 0), " +
-                     "3) El usuario no puede tener más de 5 préstamos activos, 4) El usuario no puede tener un préstamo activo del mismo libro, " +
+                     "3) El usuario no puede tener más préstamos activos que el límite configurado (5 por defecto), 4) El usuario no puede tener un préstamo activo del mismo libro, " +
                      "5) Los días de préstamo deben estar entre 7 y 30 días. Si todo es válido, reduce las copias disponibles del libro en 1 " +
                      "y crea una notificación. Requiere autenticación.",
         responses = {
@@ -48,10 +53,67 @@ public class LoanController {
     public ResponseEntity<LoanResponseDTO> createLoan(
             @Parameter(description = "Datos del préstamo a crear (userId, bookId, loanDays opcional)", required = true)
             @Valid @RequestBody LoanCreateDTO createDTO,
+            @Parameter(description = "Clave única de la operación; los reintentos con la misma clave devuelven la respuesta original sin repetirla")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest request) {
         String token = extractToken(request);
-        LoanResponseDTO loan = loanService.createLoan(createDTO, token);
-        return ResponseEntity.ok(loan);
+        return idempotent(idempotencyService.execute(idempotencyKey, "POST /api/loans", createDTO,
+                LoanResponseDTO.class, () -> loanService.createLoan(createDTO, token)));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(
+        summary = "Crear préstamos en lote",
+        description = "Crea varios préstamos en una sola solicitud (máximo 100 por defecto) con las mismas reglas que la creación individual. " +
+                     "Usuarios y libros se verifican con una sola llamada a cada servicio y los préstamos aceptados se guardan en una sola transacción. " +
+                     "Cada ítem se acepta o rechaza por separado; la respuesta trae el resultado de cada uno en el orden de la solicitud. " +
+                     "Un reintento no duplica préstamos: los ítems ya creados se rechazan por préstamo activo del mismo libro. Requiere autenticación.",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200",
+                description = "Solicitud procesada; ver el resultado de cada ítem",
+                content = @io.swagger.v3.oas.annotations.media.Content(
+                    mediaType = "application/json",
+                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = BulkLoanResultDTO.class)
+                )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "400",
+                description = "Solicitud vacía o con más ítems que el máximo permitido"
+            )
+        }
+    )
+    public ResponseEntity<BulkLoanResultDTO> createLoans(
+            @Parameter(description = "Préstamos a crear (userId, bookId, loanDays opcional)", required = true)
+            @RequestBody List<LoanCreateDTO> items,
+            HttpServletRequest request) {
+        return ResponseEntity.ok(loanBulkService.createLoans(items, extractToken(request)));
+    }
+
+    @PostMapping("/bulk/return")
+    @Operation(
+        summary = "Registrar devoluciones en lote",
+        description = "Registra la devolución de varios préstamos en una sola transacción (máximo 100 por defecto), con las mismas reglas " +
+                     "que la devolución individual. Cada préstamo se acepta o rechaza por separado; la respuesta trae el resultado de cada uno " +
+                     "en el orden de la solicitud. Un reintento no repite devoluciones: los préstamos ya devueltos se rechazan. Requiere autenticación.",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200",
+                description = "Solicitud procesada; ver el resultado de cada ítem",
+                content = @io.swagger.v3.oas.annotations.media.Content(
+                    mediaType = "application/json",
+                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = BulkLoanResultDTO.class)
+                )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "400",
+                description = "Solicitud vacía o con más ítems que el máximo permitido"
+            )
+        }
+    )
+    public ResponseEntity<BulkLoanResultDTO> returnLoans(
+            @Parameter(description = "IDs de los préstamos a devolver", required = true) @RequestBody List<Long> loanIds) {
+        return ResponseEntity.ok(loanBulkService.returnLoans(loanIds));
     }
 
     @GetMapping("/{loanId}")
@@ -129,9 +191,11 @@ public class LoanController {
         }
     )
     public ResponseEntity<LoanResponseDTO> returnLoan(
-            @Parameter(description = "ID del préstamo a devolver", example = "1", required = true) @PathVariable Long loanId) {
-        LoanResponseDTO loan = loanService.returnLoan(loanId);
-        return ResponseEntity.ok(loan);
+            @Parameter(description = "ID del préstamo a devolver", example = "1", required = true) @PathVariable Long loanId,
+            @Parameter(description = "Clave única de la operación; los reintentos con la misma clave devuelven la respuesta original sin repetirla")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotent(idempotencyService.execute(idempotencyKey, "POST /api/loans/" + loanId + "/return", null,
+                LoanResponseDTO.class, () -> loanService.returnLoan(loanId)));
     }
 
     @PatchMapping("/{loanId}/extend")
@@ -153,25 +217,30 @@ public class LoanController {
         }
     )
     public ResponseEntity<LoanResponseDTO> extendLoan(
-            @Parameter(description = "ID del préstamo a extender", example = "1", required = true) @PathVariable Long loanId) {
-        LoanResponseDTO loan = loanService.extendLoan(loanId);
-        return ResponseEntity.ok(loan);
+            @Parameter(description = "ID del préstamo a extender", example = "1", required = true) @PathVariable Long loanId,
+            @Parameter(description = "Clave única de la operación; los reintentos con la misma clave devuelven la respuesta original sin repetirla")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotent(idempotencyService.execute(idempotencyKey, "PATCH /api/loans/" + loanId + "/extend", null,
+                LoanResponseDTO.class, () -> loanService.extendLoan(loanId)));
     }
 
     @PatchMapping("/{loanId}/cancel")
     @Operation(summary = "Cancelar préstamo", description = "Cancela un préstamo activo")
     public ResponseEntity<LoanResponseDTO> cancelLoan(
-            @Parameter(description = "ID del préstamo") @PathVariable Long loanId) {
-        LoanResponseDTO loan = loanService.cancelLoan(loanId);
-        return ResponseEntity.ok(loan);
+            @Parameter(description = "ID del préstamo") @PathVariable Long loanId,
+            @Parameter(description = "Clave única de la operación; los reintentos con la misma clave devuelven la respuesta original sin repetirla")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotent(idempotencyService.execute(idempotencyKey, "PATCH /api/loans/" + loanId + "/cancel", null,
+                LoanResponseDTO.class, () -> loanService.cancelLoan(loanId)));
     }
 
     @GetMapping("/overdue")
     @Operation(
         summary = "Préstamos vencidos", 
-        description = "Obtiene la lista de todos los préstamos vencidos (fecha de vencimiento anterior a hoy y estado ACTIVE). " +
-                     "Automáticamente marca los préstamos como OVERDUE y calcula las multas correspondientes. " +
-                     "Requiere autenticación.",
+        description = "Obtiene una página de préstamos vencidos (fecha de vencimiento anterior a hoy y estado ACTIVE u OVERDUE), " +
+                     "del vencimiento más antiguo al más reciente, con la multa calculada a la fecha de hoy. " +
+                     "No modifica los préstamos: el estado OVERDUE y las multas se guardan en un proceso diario. " +
+                     "El total de préstamos vencidos se devuelve en la cabecera X-Total-Count. Requiere autenticación.",
         responses = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                 responseCode = "200", 
@@ -179,9 +248,13 @@ public class LoanController {
             )
         }
     )
-    public ResponseEntity<List<LoanResponseDTO>> getOverdueLoans() {
-        List<LoanResponseDTO> loans = loanService.getOverdueLoans();
-        return ResponseEntity.ok(loans);
+    public ResponseEntity<List<LoanResponseDTO>> getOverdueLoans(
+            @Parameter(description = "Número de página (desde 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página (máximo 500)") @RequestParam(defaultValue = "100") int size) {
+        Page<LoanResponseDTO> loans = loanService.getOverdueLoans(page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(loans.getTotalElements()))
+                .body(loans.getContent());
     }
 
     @GetMapping("/{loanId}/fine")
@@ -251,6 +324,17 @@ public class LoanController {
         return ResponseEntity.ok(validation);
     }
 
+    /**
+     * Respuesta de una operación con Idempotency-Key; las repetidas se marcan con Idempotent-Replayed
+     */
+    private ResponseEntity<LoanResponseDTO> idempotent(IdempotencyService.Result<LoanResponseDTO> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
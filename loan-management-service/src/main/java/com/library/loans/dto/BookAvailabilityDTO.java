@@ -0,0 +1,26 @@
+package com.library.loans.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Disponibilidad de un libro devuelta por book-catalog-service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookAvailabilityDTO {
+
+    private Long bookId;
+
+    private Boolean available;
+
+    private Integer availableCopies;
+
+    private Integer totalCopies;
+
+    private String message;
+}
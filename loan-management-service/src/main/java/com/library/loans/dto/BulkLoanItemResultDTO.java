@@ -0,0 +1,36 @@
+package com.library.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de un ítem de un préstamo o devolución en lote")
+public class BulkLoanItemResultDTO {
+
+    @Schema(description = "Posición del ítem en la solicitud (desde 0)", example = "0", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer index;
+
+    @Schema(description = "ID del préstamo creado o devuelto", example = "1")
+    private Long loanId;
+
+    @Schema(description = "ID del usuario", example = "5")
+    private Long userId;
+
+    @Schema(description = "ID del libro", example = "10")
+    private Long bookId;
+
+    @Schema(description = "Indica si el ítem se procesó", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Boolean success;
+
+    @Schema(description = "Motivo del rechazo, o confirmación si se procesó", example = "El libro no tiene copias disponibles", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String message;
+
+    @Schema(description = "Préstamo resultante (solo si se procesó)")
+    private LoanResponseDTO loan;
+}
@@ -0,0 +1,29 @@
+package com.library.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de un préstamo o devolución en lote, con el detalle de cada ítem en el orden de la solicitud")
+public class BulkLoanResultDTO {
+
+    @Schema(description = "Ítems recibidos", example = "12", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer total;
+
+    @Schema(description = "Ítems procesados", example = "11", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer succeeded;
+
+    @Schema(description = "Ítems rechazados", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer failed;
+
+    @Schema(description = "Resultado de cada ítem", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<BulkLoanItemResultDTO> results;
+}
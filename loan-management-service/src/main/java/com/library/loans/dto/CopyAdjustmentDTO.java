@@ -0,0 +1,27 @@
+package com.library.loans.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ajuste de copias enviado a PATCH /api/books/copies de book-catalog-service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CopyAdjustmentDTO {
+
+    private Long bookId;
+
+    private Integer change;
+
+    /**
+     * Eventos del outbox que combina el ajuste: book-catalog-service no aplica dos veces un evento
+     */
+    private List<Long> eventIds;
+}
@@ -0,0 +1,28 @@
+package com.library.loans.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un ajuste de copias devuelto por book-catalog-service, en el mismo orden del lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CopyAdjustmentResultDTO {
+
+    private Long bookId;
+
+    private Integer change;
+
+    private Boolean success;
+
+    private Integer availableCopies;
+
+    private Integer totalCopies;
+
+    private String message;
+}
@@ -31,8 +31,8 @@ public class LoanValidationDTO {
     @Schema(description = "Indica si el libro tiene copias disponibles para préstamo", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
     private Boolean bookAvailable;
 
-    @Schema(description = "Indica si el usuario tiene menos de 5 préstamos activos (dentro del límite)", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
-    private Boolean withinLoanLimit; // Usuario tiene menos de 5 préstamos activos
+    @Schema(description = "Indica si el usuario tiene menos préstamos activos que el límite configurado (loan.max-active-loans)", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Boolean withinLoanLimit; // Usuario está por debajo del límite de préstamos activos
 
     @Schema(description = "Indica si el usuario NO tiene un préstamo activo del mismo libro", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
     private Boolean noActiveLoanForBook; // Usuario no tiene préstamo activo del mismo libro
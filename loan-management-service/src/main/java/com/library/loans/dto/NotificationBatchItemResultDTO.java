@@ -0,0 +1,24 @@
+package com.library.loans.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una notificación de un lote devuelto por notifications-service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationBatchItemResultDTO {
+
+    private Integer index;
+
+    private Boolean success;
+
+    private Long id;
+
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.library.loans.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Respuesta de notifications-service a un lote de notificaciones, con el resultado de cada una
+ * en el orden del lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationBatchResponseDTO {
+
+    private Integer total;
+
+    private Integer created;
+
+    private Integer failed;
+
+    private List<NotificationBatchItemResultDTO> results;
+}
@@ -0,0 +1,26 @@
+package com.library.loans.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado y rol de un usuario devueltos por user-management-service, sin datos de perfil
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatusDTO {
+
+    public static final String ACTIVE = "ACTIVO";
+
+    private Long id;
+
+    private String status;
+
+    private String role;
+
+    public boolean isActive() {
+        return ACTIVE.equals(status);
+    }
+}
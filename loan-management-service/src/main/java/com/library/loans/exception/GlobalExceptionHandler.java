@@ -32,6 +32,9 @@ public class GlobalExceptionHandler {
         if (ex.getMessage() != null && ex.getMessage().contains("no encontrado")) {
             status = HttpStatus.NOT_FOUND;
             errorType = "Not Found";
+        } else if (ex.getMessage() != null && ex.getMessage().contains("solicitud en curso")) {
+            status = HttpStatus.CONFLICT;
+            errorType = "Conflict";
         } else if (ex.getMessage() != null && ex.getMessage().contains("no está disponible")) {
             status = HttpStatus.BAD_REQUEST;
             errorType = "Bad Request";
@@ -0,0 +1,86 @@
+package com.library.loans.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ejecución de un proceso por bloques (ver ChunkedJobRunner).
+ * Guarda el punto de avance (último ID procesado) junto con cada bloque, de modo que
+ * una ejecución interrumpida continúa donde se detuvo, y las métricas de la ejecución.
+ */
+@Entity
+@Table(name = "job_runs", indexes = {
+        @Index(name = "idx_job_runs_job_status", columnList = "job_name, status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    /**
+     * Fecha de referencia de la ejecución; se conserva al reanudar
+     */
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.RUNNING;
+
+    @Column(name = "last_id", nullable = false)
+    @Builder.Default
+    private Long lastId = 0L;
+
+    @Column(name = "rows_processed", nullable = false)
+    @Builder.Default
+    private Long rowsProcessed = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer chunks = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer failures = 0;
+
+    /**
+     * Tiempo de trabajo acumulado (sin contar el tiempo en que estuvo interrumpida)
+     */
+    @Column(name = "duration_ms", nullable = false)
+    @Builder.Default
+    private Long durationMs = 0L;
+
+    @Column(name = "rows_per_second")
+    private Double rowsPerSecond;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
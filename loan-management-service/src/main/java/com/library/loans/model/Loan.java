@@ -14,7 +14,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_status_due_date", columnList = "status, due_date"),
+        @Index(name = "idx_loans_user_status", columnList = "user_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -58,6 +61,12 @@ public class Loan {
     @Builder.Default
     private Integer extensionsCount = 0;
 
+    /**
+     * Envío del aviso de vencimiento próximo para la fecha de devolución actual; se borra al extender
+     */
+    @Column(name = "due_reminder_sent_at")
+    private LocalDateTime dueReminderSentAt;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -70,8 +79,11 @@ public class Loan {
         ACTIVE, RETURNED, OVERDUE, CANCELLED
     }
 
+    /**
+     * Vencido: sin devolver (ACTIVE, o ya marcado como OVERDUE) y con la fecha de vencimiento pasada
+     */
     public boolean isOverdue() {
-        return LocalDate.now().isAfter(dueDate) && status == Status.ACTIVE;
+        return LocalDate.now().isAfter(dueDate) && (status == Status.ACTIVE || status == Status.OVERDUE);
     }
 
     public void markAsReturned() {
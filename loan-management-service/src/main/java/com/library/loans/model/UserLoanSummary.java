@@ -0,0 +1,82 @@
+package com.library.loans.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Resumen de los préstamos abiertos (ACTIVE u OVERDUE) de un usuario: cantidad y libros.
+ * Se mantiene en la misma transacción que crea, devuelve o cancela un préstamo, de modo que
+ * el límite de préstamos se verifica con una sola lectura por clave primaria.
+ */
+@Entity
+@Table(name = "user_loan_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLoanSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "open_loans", nullable = false)
+    @Builder.Default
+    private Integer openLoans = 0;
+
+    /**
+     * IDs de los libros de los préstamos abiertos, separados por comas
+     */
+    @Column(name = "book_ids", nullable = false, length = 1000)
+    @Builder.Default
+    private String bookIds = "";
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static UserLoanSummary of(Long userId, List<Long> bookIds) {
+        UserLoanSummary summary = UserLoanSummary.builder().userId(userId).build();
+        summary.replaceBookIds(bookIds);
+        return summary;
+    }
+
+    public List<Long> bookIdList() {
+        if (bookIds == null || bookIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(bookIds.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    public boolean holdsBook(Long bookId) {
+        return bookIdList().contains(bookId);
+    }
+
+    public void addLoan(Long bookId) {
+        List<Long> ids = bookIdList();
+        ids.add(bookId);
+        replaceBookIds(ids);
+    }
+
+    public void removeLoan(Long bookId) {
+        List<Long> ids = bookIdList();
+        ids.remove(bookId);
+        replaceBookIds(ids);
+    }
+
+    private void replaceBookIds(List<Long> ids) {
+        this.bookIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        this.openLoans = ids.size();
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.loans.repository;
+
+import com.library.loans.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Reclamar una clave nueva; si ya existe no hace nada y devuelve 0
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (idempotency_key, fingerprint, status, created_at, expires_at) " +
+                   "VALUES (:key, :fingerprint, 'IN_PROGRESS', :now, :leaseUntil)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Volver a reclamar una clave vencida: respuesta fuera de retención o reclamo abandonado
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.fingerprint = :fingerprint, r.status = 'IN_PROGRESS', r.responseBody = null, " +
+           "r.createdAt = :now, r.expiresAt = :leaseUntil WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int reclaimExpired(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                       @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+           "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("responseBody") String responseBody, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Liberar el reclamo de una operación fallida para que el cliente pueda reintentarla
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.status = 'IN_PROGRESS'")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
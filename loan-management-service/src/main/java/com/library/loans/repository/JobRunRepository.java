@@ -0,0 +1,17 @@
+package com.library.loans.repository;
+
+import com.library.loans.model.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    Optional<JobRun> findFirstByJobNameAndStatusInOrderByIdDesc(String jobName, Collection<JobRun.Status> statuses);
+
+    List<JobRun> findTop20ByJobNameOrderByIdDesc(String jobName);
+}
@@ -0,0 +1,111 @@
+package com.library.loans.repository;
+
+import com.library.loans.model.Loan;
+import com.library.loans.model.LoanHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Escrituras masivas en las tablas loans y loan_history con lotes JDBC, sin cargar las entidades.
+ * Loan y LoanHistory usan IDENTITY, por lo que Hibernate no puede agrupar sus INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanBatchRepository {
+
+    // Un préstamo devuelto o cancelado entre la lectura y el UPDATE conserva su multa final
+    private static final String UPDATE_FINE_SQL =
+            "UPDATE loans SET fine_amount = ?, updated_at = ? WHERE id = ? AND status IN ('ACTIVE', 'OVERDUE')";
+
+    private static final String INSERT_LOAN_SQL =
+            "INSERT INTO loans (user_id, book_id, loan_date, due_date, status, loan_days, fine_amount, " +
+            "extensions_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO loan_history (loan_id, action, notes, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insertar préstamos nuevos en un solo lote y asignarles el ID generado, en el mismo orden
+     */
+    public void insertLoans(List<Loan> loans) {
+        if (loans.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_LOAN_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Loan loan : loans) {
+                    ps.setLong(1, loan.getUserId());
+                    ps.setLong(2, loan.getBookId());
+                    ps.setDate(3, Date.valueOf(loan.getLoanDate()));
+                    ps.setDate(4, Date.valueOf(loan.getDueDate()));
+                    ps.setString(5, loan.getStatus().name());
+                    ps.setInt(6, loan.getLoanDays());
+                    ps.setBigDecimal(7, loan.getFineAmount());
+                    ps.setInt(8, loan.getExtensionsCount());
+                    ps.setTimestamp(9, Timestamp.valueOf(now));
+                    ps.setTimestamp(10, Timestamp.valueOf(now));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Loan loan : loans) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("La base de datos no devolvió el ID de todos los préstamos insertados");
+                        }
+                        loan.setId(keys.getLong(1));
+                        loan.setCreatedAt(now);
+                        loan.setUpdatedAt(now);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Registrar entradas de historial en un solo lote
+     */
+    public void insertHistory(List<LoanHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getLoanId());
+            ps.setString(2, entry.getAction().name());
+            ps.setString(3, entry.getNotes());
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    /**
+     * Guardar la multa acumulada de cada préstamo en un solo lote
+     */
+    public void updateFines(List<FineUpdate> fines) {
+        if (fines.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_FINE_SQL, fines, fines.size(), (ps, fine) -> {
+            ps.setBigDecimal(1, fine.fineAmount());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, fine.loanId());
+        });
+    }
+
+    public record FineUpdate(Long loanId, BigDecimal fineAmount) { }
+}
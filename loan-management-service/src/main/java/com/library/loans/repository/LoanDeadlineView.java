@@ -0,0 +1,16 @@
+package com.library.loans.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Datos mínimos de un préstamo activo para programar sus avisos de vencimiento
+ */
+public interface LoanDeadlineView {
+
+    Long getId();
+
+    LocalDate getDueDate();
+
+    LocalDateTime getDueReminderSentAt();
+}
@@ -1,12 +1,19 @@
 package com.library.loans.repository;
 
 import com.library.loans.model.Loan;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,14 +26,73 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     List<Loan> findByBookId(Long bookId);
 
-    @Query("SELECT l FROM Loan l WHERE l.status = 'ACTIVE' AND l.dueDate < :today")
-    List<Loan> findOverdueLoans(@Param("today") LocalDate today);
+    /**
+     * Préstamos vencidos (activos o ya marcados como OVERDUE) sin cargar las entidades.
+     * Solo lectura: el estado y la multa se materializan en los procesos programados.
+     */
+    @Query(value = "SELECT l.id AS id, l.userId AS userId, l.bookId AS bookId, l.loanDate AS loanDate, " +
+                   "l.dueDate AS dueDate, l.loanDays AS loanDays, l.extensionsCount AS extensionsCount, " +
+                   "l.createdAt AS createdAt, l.updatedAt AS updatedAt FROM Loan l " +
+                   "WHERE l.status IN ('ACTIVE', 'OVERDUE') AND l.dueDate < :today",
+           countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.status IN ('ACTIVE', 'OVERDUE') AND l.dueDate < :today")
+    Page<OverdueLoanSummary> findOverdueSummaries(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Siguiente bloque de préstamos vencidos (activos o OVERDUE) por ID ascendente, para actualizar su multa
+     */
+    @Query("SELECT l.id AS id, l.userId AS userId, l.dueDate AS dueDate FROM Loan l " +
+           "WHERE l.status IN ('ACTIVE', 'OVERDUE') AND l.dueDate < :today AND l.id > :afterId ORDER BY l.id")
+    List<OverdueLoanView> findFineViewsAfter(@Param("today") LocalDate today, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Siguiente bloque de préstamos que vencieron antes de {@code today}, por ID ascendente.
+     * Solo delimita el bloque: las notificaciones se construyen con findMarkedOverdueBetween.
+     */
+    @Query("SELECT l.id AS id, l.userId AS userId, l.dueDate AS dueDate FROM Loan l " +
+           "WHERE l.status = 'ACTIVE' AND l.dueDate < :today AND l.id > :afterId ORDER BY l.id")
+    List<OverdueLoanView> findOverdueViewsAfter(@Param("today") LocalDate today, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Marcar como vencidos, en una sola sentencia, los préstamos del rango de IDs (afterId, lastId]
+     */
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = 'OVERDUE', l.updatedAt = :now " +
+           "WHERE l.status = 'ACTIVE' AND l.dueDate < :today AND l.id > :afterId AND l.id <= :lastId")
+    int markOverdueBetween(@Param("today") LocalDate today, @Param("afterId") Long afterId,
+                           @Param("lastId") Long lastId, @Param("now") LocalDateTime now);
+
+    /**
+     * Préstamos del rango (afterId, lastId] que markOverdueBetween marcó con {@code now} en esta
+     * transacción; un préstamo devuelto o marcado por otra transacción entre la lectura del bloque
+     * y el UPDATE no aparece
+     */
+    @Query("SELECT l.id AS id, l.userId AS userId, l.dueDate AS dueDate FROM Loan l " +
+           "WHERE l.status = 'OVERDUE' AND l.updatedAt = :now AND l.id > :afterId AND l.id <= :lastId ORDER BY l.id")
+    List<OverdueLoanView> findMarkedOverdueBetween(@Param("afterId") Long afterId, @Param("lastId") Long lastId,
+                                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Siguiente bloque de préstamos activos por ID ascendente, para reconstruir el planificador de vencimientos
+     */
+    @Query("SELECT l.id AS id, l.dueDate AS dueDate, l.dueReminderSentAt AS dueReminderSentAt FROM Loan l " +
+           "WHERE l.status = 'ACTIVE' AND l.id > :afterId ORDER BY l.id")
+    List<LoanDeadlineView> findDeadlineViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     @Query("SELECT l FROM Loan l WHERE l.userId = :userId AND l.status = 'ACTIVE'")
     List<Loan> findActiveLoansByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT l FROM Loan l WHERE l.dueDate = :dueDate AND l.status = :status")
-    List<Loan> findByDueDateAndStatus(@Param("dueDate") LocalDate dueDate, @Param("status") Loan.Status status);
+    /**
+     * Libros de los préstamos abiertos (ACTIVE u OVERDUE) del usuario, para inicializar su resumen
+     */
+    @Query("SELECT l.bookId FROM Loan l WHERE l.userId = :userId AND l.status IN ('ACTIVE', 'OVERDUE') ORDER BY l.id")
+    List<Long> findOpenLoanBookIds(@Param("userId") Long userId);
+
+    /**
+     * Préstamos de una devolución en lote, bloqueados en orden de ID hasta el fin de la transacción
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Loan l WHERE l.id IN :ids ORDER BY l.id")
+    List<Loan> findAllForUpdate(@Param("ids") Collection<Long> ids);
 
     Optional<Loan> findByIdAndUserId(Long id, Long userId);
 
@@ -0,0 +1,46 @@
+package com.library.loans.repository;
+
+import com.library.loans.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserción masiva de eventos en loan_outbox con lotes JDBC.
+ * OutboxEvent usa IDENTITY, por lo que Hibernate no puede agrupar los INSERT;
+ * los procesos por bloques registran aquí sus notificaciones.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO loan_outbox (type, aggregate_id, payload, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insertar los eventos pendientes del tipo indicado en un solo lote
+     * @param events pares (aggregateId, payload JSON)
+     */
+    public void insertPending(OutboxEvent.Type type, List<PendingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, type.name());
+            ps.setLong(2, event.aggregateId());
+            ps.setString(3, event.payload());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    public record PendingEvent(Long aggregateId, String payload) { }
+}
@@ -0,0 +1,29 @@
+package com.library.loans.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de un préstamo vencido para la consulta paginada de vencidos.
+ * La multa no se lee de la tabla: se calcula al vuelo con la fecha de vencimiento.
+ */
+public interface OverdueLoanSummary {
+
+    Long getId();
+
+    Long getUserId();
+
+    Long getBookId();
+
+    LocalDate getLoanDate();
+
+    LocalDate getDueDate();
+
+    Integer getLoanDays();
+
+    Integer getExtensionsCount();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,15 @@
+package com.library.loans.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Datos mínimos de un préstamo vencido para notificar al usuario
+ */
+public interface OverdueLoanView {
+
+    Long getId();
+
+    Long getUserId();
+
+    LocalDate getDueDate();
+}
@@ -0,0 +1,34 @@
+package com.library.loans.repository;
+
+import com.library.loans.model.UserLoanSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserLoanSummaryRepository extends JpaRepository<UserLoanSummary, Long> {
+
+    /**
+     * Resumen del usuario bloqueado hasta el fin de la transacción: los préstamos
+     * concurrentes de un mismo usuario se verifican y registran de uno en uno
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserLoanSummary s WHERE s.userId = :userId")
+    Optional<UserLoanSummary> findForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Crear el resumen inicial del usuario; si otra transacción ya lo creó no hace nada
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_loan_summaries (user_id, open_loans, book_ids, updated_at) " +
+                   "VALUES (:userId, :openLoans, :bookIds, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("openLoans") int openLoans,
+                       @Param("bookIds") String bookIds, @Param("now") LocalDateTime now);
+}
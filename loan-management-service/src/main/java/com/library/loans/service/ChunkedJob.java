@@ -0,0 +1,25 @@
+package com.library.loans.service;
+
+import java.time.LocalDate;
+
+/**
+ * Proceso que recorre filas por ID ascendente en bloques (ver ChunkedJobRunner).
+ */
+interface ChunkedJob {
+
+    String name();
+
+    /**
+     * Procesar el siguiente bloque de como máximo {@code chunkSize} filas con ID mayor a {@code afterId}.
+     * Se ejecuta dentro de la transacción que guarda el punto de avance.
+     * @return filas procesadas y último ID del bloque; 0 filas indica que no quedan más
+     */
+    ChunkResult processChunk(LocalDate runDate, long afterId, int chunkSize);
+
+    record ChunkResult(int rows, long lastId) {
+
+        static ChunkResult empty(long afterId) {
+            return new ChunkResult(0, afterId);
+        }
+    }
+}
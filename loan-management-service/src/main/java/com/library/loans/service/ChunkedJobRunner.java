@@ -0,0 +1,175 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanJobsConfig;
+import com.library.loans.model.JobRun;
+import com.library.loans.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Motor de procesos por bloques.
+ * Cada bloque se procesa y confirma en su propia transacción junto con el punto de avance
+ * de la ejecución (job_runs.last_id): si el servicio cae, la siguiente ejecución continúa
+ * desde el último bloque confirmado en lugar de empezar de nuevo o repetir trabajo.
+ * Al terminar registra duración, filas por segundo y bloques fallidos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class ChunkedJobRunner {
+
+    private final JobRunRepository jobRunRepository;
+    private final LoanJobsConfig jobsConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Ejecutar el proceso para hoy. Si hay una ejecución anterior sin terminar, primero la completa.
+     * @return la última ejecución, o vacío si el proceso ya se está ejecutando
+     */
+    Optional<JobRun> run(ChunkedJob job) {
+        return exclusive(job, () -> {
+            LocalDate today = LocalDate.now();
+            Optional<JobRun> unfinished = findUnfinished(job.name(), false);
+            if (unfinished.isPresent()) {
+                JobRun resumed = execute(job, unfinished.get());
+                if (resumed.getStatus() != JobRun.Status.COMPLETED || resumed.getRunDate().equals(today)) {
+                    return resumed;
+                }
+            } else if (isRunningElsewhere(job.name())) {
+                log.info("El proceso {} ya está en ejecución; se omite esta ejecución", job.name());
+                return null;
+            }
+            return execute(job, start(job.name(), today));
+        });
+    }
+
+    /**
+     * Reanudar una ejecución interrumpida por una caída del servicio, sin iniciar una nueva.
+     * Al iniciar, cualquier ejecución RUNNING quedó huérfana (un solo proceso por servicio).
+     */
+    Optional<JobRun> resumeInterrupted(ChunkedJob job) {
+        return exclusive(job, () -> findUnfinished(job.name(), true)
+                .map(run -> execute(job, run))
+                .orElse(null));
+    }
+
+    private Optional<JobRun> exclusive(ChunkedJob job, Supplier<JobRun> action) {
+        if (!runningJobs.add(job.name())) {
+            log.info("El proceso {} ya está en ejecución en este servicio", job.name());
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(action.get());
+        } finally {
+            runningJobs.remove(job.name());
+        }
+    }
+
+    /**
+     * Ejecución FAILED, o RUNNING sin avance reciente (o cualquiera, al iniciar el servicio)
+     */
+    private Optional<JobRun> findUnfinished(String jobName, boolean ignoreHeartbeat) {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(jobsConfig.getStaleRunMs()));
+        return jobRunRepository.findFirstByJobNameAndStatusInOrderByIdDesc(jobName,
+                        List.of(JobRun.Status.RUNNING, JobRun.Status.FAILED))
+                .filter(run -> run.getStatus() == JobRun.Status.FAILED
+                        || ignoreHeartbeat
+                        || run.getHeartbeatAt().isBefore(staleBefore));
+    }
+
+    private boolean isRunningElsewhere(String jobName) {
+        return jobRunRepository.findFirstByJobNameAndStatusInOrderByIdDesc(jobName, List.of(JobRun.Status.RUNNING))
+                .isPresent();
+    }
+
+    private JobRun start(String jobName, LocalDate runDate) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRunRepository.save(JobRun.builder()
+                .jobName(jobName)
+                .runDate(runDate)
+                .startedAt(now)
+                .heartbeatAt(now)
+                .build());
+    }
+
+    private JobRun execute(ChunkedJob job, JobRun run) {
+        boolean resuming = run.getChunks() > 0 || run.getStatus() == JobRun.Status.FAILED;
+        log.info("{} proceso {} del {} desde el ID {}", resuming ? "Reanudando" : "Iniciando",
+                job.name(), run.getRunDate(), run.getLastId());
+
+        int chunkSize = jobsConfig.getChunkSize();
+        long previousDurationMs = run.getDurationMs();
+        long sessionStart = System.nanoTime();
+        JobRun current = run;
+        current.setStatus(JobRun.Status.RUNNING);
+        try {
+            while (true) {
+                JobRun before = current;
+                JobRun[] saved = new JobRun[1];
+                ChunkedJob.ChunkResult result = transactionTemplate.execute(status -> {
+                    ChunkedJob.ChunkResult chunk = job.processChunk(before.getRunDate(), before.getLastId(), chunkSize);
+                    if (chunk.rows() > 0) {
+                        before.setLastId(chunk.lastId());
+                        before.setRowsProcessed(before.getRowsProcessed() + chunk.rows());
+                        before.setChunks(before.getChunks() + 1);
+                    }
+                    before.setHeartbeatAt(LocalDateTime.now());
+                    before.setDurationMs(previousDurationMs + elapsedMillis(sessionStart));
+                    saved[0] = jobRunRepository.save(before);
+                    return chunk;
+                });
+                current = saved[0];
+                if (result == null || result.rows() < chunkSize) {
+                    break;
+                }
+            }
+            current.setStatus(JobRun.Status.COMPLETED);
+            current.setFinishedAt(LocalDateTime.now());
+            current.setLastError(null);
+        } catch (RuntimeException e) {
+            // El bloque fallido se revirtió: se parte del último punto de avance confirmado
+            log.error("Falló un bloque del proceso {} después del ID {}: {}", job.name(), current.getLastId(), e.getMessage(), e);
+            current = jobRunRepository.findById(current.getId()).orElse(current);
+            current.setStatus(JobRun.Status.FAILED);
+            current.setFailures(current.getFailures() + 1);
+            current.setLastError(truncate(e.getMessage()));
+        }
+
+        current.setDurationMs(previousDurationMs + elapsedMillis(sessionStart));
+        current.setRowsPerSecond(current.getDurationMs() > 0
+                ? current.getRowsProcessed() * 1000.0 / current.getDurationMs()
+                : null);
+        current = jobRunRepository.save(current);
+
+        log.info("Proceso {} del {}: {} en {} ms, {} filas en {} bloques ({} filas/s), {} bloques fallidos",
+                job.name(), current.getRunDate(), current.getStatus(), current.getDurationMs(),
+                current.getRowsProcessed(), current.getChunks(),
+                current.getRowsPerSecond() != null ? String.format("%.0f", current.getRowsPerSecond()) : "-",
+                current.getFailures());
+        return current;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
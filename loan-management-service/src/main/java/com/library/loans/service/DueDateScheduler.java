@@ -0,0 +1,277 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanDueDatesConfig;
+import com.library.loans.model.Loan;
+import com.library.loans.repository.LoanDeadlineView;
+import com.library.loans.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Planificador de vencimientos de préstamos.
+ * Cada préstamo activo tiene dos avisos en una rueda de tiempo en memoria (ver TimingWheel):
+ * - vencimiento próximo: reminderDaysBefore días antes de la fecha de devolución
+ * - vencido: el día siguiente a la fecha de devolución; además marca el préstamo como OVERDUE
+ * La hora de cada aviso se reparte dentro de la franja diaria según el ID del préstamo, de modo
+ * que la carga se distribuye a lo largo del día en lugar de llegar en una sola ráfaga.
+ * La rueda se reconstruye desde la base de datos al iniciar el servicio y se actualiza al crear,
+ * extender, devolver o cancelar préstamos, una vez confirmada la transacción: si se revierte, los
+ * avisos anteriores se conservan. Los avisos cuya hora pasó con el servicio detenido vencen en la
+ * primera pasada.
+ * La rueda solo indica cuándo mirar: al vencer un aviso se vuelve a leer el préstamo bloqueado y se
+ * comprueba que el aviso siga correspondiendo. due_reminder_sent_at evita repetir el aviso de
+ * vencimiento próximo entre reinicios o entre instancias.
+ */
+@Component
+@Slf4j
+class DueDateScheduler {
+
+    enum Kind {
+        REMINDER, OVERDUE
+    }
+
+    record Deadline(Long loanId, Kind kind) {
+    }
+
+    private final LoanRepository loanRepository;
+    private final LoanOutbox loanOutbox;
+    private final LoanDueDatesConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final LongSupplier clock;
+
+    private final TimingWheel<Deadline> wheel;
+    private final Map<Deadline, TimingWheel.Timeout<Deadline>> scheduled = new HashMap<>();
+
+    @Autowired
+    DueDateScheduler(LoanRepository loanRepository, LoanOutbox loanOutbox, LoanDueDatesConfig config,
+                     TransactionTemplate transactionTemplate) {
+        this(loanRepository, loanOutbox, config, transactionTemplate, System::currentTimeMillis);
+    }
+
+    DueDateScheduler(LoanRepository loanRepository, LoanOutbox loanOutbox, LoanDueDatesConfig config,
+                     TransactionTemplate transactionTemplate, LongSupplier clock) {
+        this.loanRepository = loanRepository;
+        this.loanOutbox = loanOutbox;
+        this.config = config;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(config.getTickMs(), config.getWheelSize(), clock.getAsLong());
+    }
+
+    /**
+     * Cargar los avisos de todos los préstamos activos, por bloques de ID
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        int loans = 0;
+        while (true) {
+            List<LoanDeadlineView> views = loanRepository.findDeadlineViewsAfter(afterId, PageRequest.of(0, config.getBatchSize()));
+            for (LoanDeadlineView view : views) {
+                schedule(view.getId(), view.getDueDate(), view.getDueReminderSentAt() != null);
+            }
+            loans += views.size();
+            if (views.size() < config.getBatchSize()) {
+                break;
+            }
+            afterId = views.get(views.size() - 1).getId();
+        }
+        log.info("Planificador de vencimientos reconstruido: {} préstamos activos, {} avisos pendientes, {} ms",
+                loans, pending(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Programar (o reprogramar, p. ej. al extender) los avisos de un préstamo activo,
+     * una vez confirmada la transacción
+     */
+    void schedule(Loan loan) {
+        Long loanId = loan.getId();
+        LocalDate dueDate = loan.getDueDate();
+        boolean reminderSent = loan.getDueReminderSentAt() != null;
+        TransactionCallbacks.afterCommit(() -> schedule(loanId, dueDate, reminderSent));
+    }
+
+    /**
+     * Quitar los avisos de un préstamo devuelto o cancelado, una vez confirmada la transacción
+     */
+    void unschedule(Long loanId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (wheel) {
+                for (Kind kind : Kind.values()) {
+                    cancel(new Deadline(loanId, kind));
+                }
+            }
+        });
+    }
+
+    /**
+     * Procesar los avisos vencidos, por lotes de batchSize préstamos en su propia transacción.
+     * Un lote fallido se vuelve a intentar en la siguiente pasada.
+     */
+    @Scheduled(fixedDelayString = "${loan.due-dates.tick-ms:60000}")
+    public void tick() {
+        List<Deadline> due;
+        synchronized (wheel) {
+            due = wheel.advance(clock.getAsLong());
+            due.forEach(scheduled::remove);
+        }
+        for (int from = 0; from < due.size(); from += config.getBatchSize()) {
+            List<Deadline> batch = due.subList(from, Math.min(from + config.getBatchSize(), due.size()));
+            try {
+                List<Loan> notYetDue = transactionTemplate.execute(status -> fire(batch));
+                if (notYetDue != null) {
+                    notYetDue.forEach(this::schedule);
+                }
+            } catch (RuntimeException e) {
+                log.error("Error procesando {} avisos de vencimiento; se reintentan en la siguiente pasada: {}",
+                        batch.size(), e.getMessage(), e);
+                synchronized (wheel) {
+                    batch.forEach(deadline -> put(deadline, clock.getAsLong()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Hora del aviso de vencimiento próximo
+     */
+    LocalDateTime reminderAt(Long loanId, LocalDate dueDate) {
+        return inWindow(loanId, dueDate.minusDays(config.getReminderDaysBefore()));
+    }
+
+    /**
+     * Hora del aviso de préstamo vencido: el día siguiente a la fecha de devolución
+     */
+    LocalDateTime overdueAt(Long loanId, LocalDate dueDate) {
+        return inWindow(loanId, dueDate.plusDays(1));
+    }
+
+    /**
+     * Avisos programados pendientes de vencer
+     */
+    int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Enviar los avisos que siguen correspondiendo
+     * @return préstamos cuyo aviso aún no corresponde (p. ej. extendidos), para reprogramarlos
+     */
+    private List<Loan> fire(List<Deadline> batch) {
+        LocalDateTime now = toDateTime(clock.getAsLong());
+        LocalDateTime horizon = now.plusNanos(config.getTickMs() * 1_000_000);
+        LocalDate today = now.toLocalDate();
+        Map<Long, Loan> loans = loanRepository.findAllForUpdate(batch.stream().map(Deadline::loanId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+
+        List<Loan> changed = new ArrayList<>();
+        List<Loan> notYetDue = new ArrayList<>();
+        List<LoanOutbox.PendingNotification> notifications = new ArrayList<>();
+        for (Deadline deadline : batch) {
+            Loan loan = loans.get(deadline.loanId());
+            if (loan == null || loan.getStatus() != Loan.Status.ACTIVE) {
+                continue;
+            }
+            if (deadline.kind() == Kind.REMINDER) {
+                if (loan.getDueReminderSentAt() != null || loan.getDueDate().isBefore(today)) {
+                    continue;
+                }
+                if (reminderAt(loan.getId(), loan.getDueDate()).isAfter(horizon)) {
+                    notYetDue.add(loan);
+                    continue;
+                }
+                loan.setDueReminderSentAt(now);
+                notifications.add(reminderNotification(loan, today));
+            } else {
+                if (!loan.getDueDate().isBefore(today)) {
+                    notYetDue.add(loan);
+                    continue;
+                }
+                loan.setStatus(Loan.Status.OVERDUE);
+                notifications.add(OverdueLoanJob.overdueNotification(loan.getUserId(), loan.getDueDate(), today));
+            }
+            changed.add(loan);
+        }
+
+        loanRepository.saveAll(changed);
+        loanOutbox.enqueueNotifications(notifications);
+        log.info("Avisos de vencimiento: {} enviados, {} reprogramados", notifications.size(), notYetDue.size());
+        return notYetDue;
+    }
+
+    private void schedule(Long loanId, LocalDate dueDate, boolean reminderSent) {
+        LocalDate today = toDateTime(clock.getAsLong()).toLocalDate();
+        synchronized (wheel) {
+            Deadline reminder = new Deadline(loanId, Kind.REMINDER);
+            if (reminderSent || dueDate.isBefore(today)) {
+                cancel(reminder);
+            } else {
+                put(reminder, toMillis(reminderAt(loanId, dueDate)));
+            }
+            put(new Deadline(loanId, Kind.OVERDUE), toMillis(overdueAt(loanId, dueDate)));
+        }
+    }
+
+    private void put(Deadline deadline, long fireAtMs) {
+        cancel(deadline);
+        scheduled.put(deadline, wheel.schedule(deadline, fireAtMs));
+    }
+
+    private void cancel(Deadline deadline) {
+        TimingWheel.Timeout<Deadline> timeout = scheduled.remove(deadline);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+    }
+
+    /**
+     * Hora de la franja diaria que le toca al préstamo en la fecha indicada. El ID se mezcla con una
+     * multiplicación de Fibonacci para que préstamos con IDs consecutivos queden repartidos en la franja.
+     */
+    private LocalDateTime inWindow(Long loanId, LocalDate date) {
+        int windowSeconds = Math.max(1, (config.getWindowEndHour() - config.getWindowStartHour()) * 3600);
+        long spread = (loanId * 0x9E3779B97F4A7C15L) >>> 32;
+        return date.atTime(config.getWindowStartHour(), 0).plusSeconds(spread % windowSeconds);
+    }
+
+    private static LoanOutbox.PendingNotification reminderNotification(Loan loan, LocalDate today) {
+        long days = loan.getDueDate().toEpochDay() - today.toEpochDay();
+        String when = days == 0 ? "hoy" : days == 1 ? "mañana" : "en " + days + " días";
+        return new LoanOutbox.PendingNotification(
+                loan.getUserId(),
+                "LOAN_DUE",
+                "Préstamo próximo a vencer",
+                "Tu préstamo vence " + when + ". Fecha de devolución: " + loan.getDueDate(),
+                "HIGH");
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
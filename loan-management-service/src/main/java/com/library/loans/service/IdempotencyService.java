@@ -0,0 +1,211 @@
+package com.library.loans.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loans.config.LoanIdempotencyConfig;
+import com.library.loans.model.IdempotencyRecord;
+import com.library.loans.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecución idempotente de las operaciones sobre préstamos (cabecera Idempotency-Key).
+ * - La primera solicitud con una clave se ejecuta y su respuesta se guarda en la misma
+ *   transacción que el cambio del préstamo.
+ * - Los reintentos con la misma clave reciben la respuesta guardada sin volver a validar
+ *   ni llamar a otros servicios: desde memoria las recientes y desde idempotency_keys el resto.
+ * - Los duplicados simultáneos en esta instancia esperan a la primera solicitud y reciben su
+ *   resultado; en otra instancia, el reclamo de la clave en la base de datos los rechaza.
+ * Las operaciones fallidas no se guardan: su transacción se revirtió y el cliente puede reintentar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final LoanIdempotencyConfig idempotencyConfig;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    // Respuestas recientes por clave, las menos usadas se descartan al superar memoryMaxEntries
+    private final Map<String, StoredResponse> recent = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                    return size() > idempotencyConfig.getMemoryMaxEntries();
+                }
+            });
+
+    record StoredResponse(String fingerprint, String body, LocalDateTime expiresAt) {
+
+        boolean expired(LocalDateTime now) {
+            return expiresAt.isBefore(now);
+        }
+    }
+
+    private record Execution<T>(T body, StoredResponse stored) { }
+
+    /**
+     * Respuesta de la operación e indicador de si se repitió una respuesta guardada
+     */
+    public record Result<T>(T body, boolean replayed) { }
+
+    /**
+     * Ejecutar la operación una sola vez por clave
+     * @param key valor de la cabecera Idempotency-Key; sin clave la operación se ejecuta siempre
+     * @param operation método y ruta de la solicitud, forma parte de la huella junto con el cuerpo
+     * @param request cuerpo de la solicitud (o null)
+     */
+    public <T> Result<T> execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("La cabecera " + HEADER + " no puede superar " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String fingerprint = fingerprint(operation, request);
+
+        StoredResponse cached = recent.get(key);
+        if (cached != null && !cached.expired(LocalDateTime.now())) {
+            return replay(cached, fingerprint, responseType);
+        }
+
+        CompletableFuture<StoredResponse> flight = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return replay(await(leader), fingerprint, responseType);
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plus(Duration.ofMillis(idempotencyConfig.getInFlightLeaseMs()));
+            boolean claimed = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    recordRepository.claim(key, fingerprint, now, leaseUntil) > 0
+                            || recordRepository.reclaimExpired(key, fingerprint, now, leaseUntil) > 0));
+            if (!claimed) {
+                StoredResponse stored = load(key);
+                flight.complete(stored);
+                return replay(stored, fingerprint, responseType);
+            }
+
+            Execution<T> execution;
+            try {
+                execution = transactionTemplate.execute(status -> {
+                    T body = action.get();
+                    StoredResponse stored = new StoredResponse(fingerprint, toJson(body),
+                            LocalDateTime.now().plus(Duration.ofMillis(idempotencyConfig.getTtlMs())));
+                    recordRepository.complete(key, stored.body(), stored.expiresAt());
+                    return new Execution<>(body, stored);
+                });
+            } catch (RuntimeException e) {
+                transactionTemplate.executeWithoutResult(status -> recordRepository.release(key));
+                throw e;
+            }
+
+            recent.put(key, execution.stored());
+            flight.complete(execution.stored());
+            return new Result<>(execution.body(), false);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Borrar las claves vencidas
+     */
+    @Scheduled(cron = "0 15 * * * ?") // Cada hora, al minuto 15
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            recent.values().removeIf(stored -> stored.expired(now));
+        }
+        Integer deleted = transactionTemplate.execute(status -> recordRepository.deleteExpired(now));
+        log.info("Eliminadas {} claves de idempotencia vencidas", deleted);
+    }
+
+    private StoredResponse load(String key) {
+        IdempotencyRecord record = recordRepository.findById(key).orElse(null);
+        if (record == null || record.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            throw new RuntimeException("Hay una solicitud en curso con la misma " + HEADER + ". Reintente más tarde.");
+        }
+        StoredResponse stored = new StoredResponse(record.getFingerprint(), record.getResponseBody(), record.getExpiresAt());
+        recent.put(key, stored);
+        return stored;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> leader) {
+        try {
+            return leader.get(idempotencyConfig.getInFlightLeaseMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Hay una solicitud en curso con la misma " + HEADER + ". Reintente más tarde.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Solicitud interrumpida");
+        }
+    }
+
+    private <T> Result<T> replay(StoredResponse stored, String fingerprint, Class<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new RuntimeException("La " + HEADER + " ya se usó con una solicitud distinta");
+        }
+        try {
+            return new Result<>(objectMapper.readValue(stored.body(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo leer la respuesta guardada: " + e.getOriginalMessage());
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("No se pudo calcular la huella de la solicitud: " + e.getMessage());
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo guardar la respuesta: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanConfig;
+import com.library.loans.dto.BulkLoanItemResultDTO;
+import com.library.loans.dto.BulkLoanResultDTO;
+import com.library.loans.dto.LoanCreateDTO;
+import com.library.loans.dto.LoanResponseDTO;
+import com.library.loans.dto.LoanValidationDTO;
+import com.library.loans.model.Loan;
+import com.library.loans.model.LoanHistory;
+import com.library.loans.repository.LoanBatchRepository;
+import com.library.loans.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Préstamos y devoluciones en lote para el mostrador de circulación.
+ * Cada ítem se acepta o rechaza por separado y la respuesta trae el resultado de cada uno.
+ * - Préstamos: usuarios y libros se verifican con una sola llamada a cada servicio, fuera de
+ *   la transacción; después, en una sola transacción, se reserva el cupo de cada usuario y se
+ *   insertan préstamos, historial y eventos del outbox con lotes JDBC.
+ * - Devoluciones: los préstamos se leen y bloquean con una sola consulta y se actualizan con
+ *   los lotes de Hibernate; historial y eventos del outbox van en lotes JDBC.
+ * Los ajustes de copias se entregan a book-catalog-service por el outbox, agrupados en una llamada.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoanBulkService {
+
+    private final LoanRepository loanRepository;
+    private final LoanBatchRepository loanBatchRepository;
+    private final LoanValidationEngine loanValidationEngine;
+    private final UserLoanSummaries userLoanSummaries;
+    private final LoanOutbox loanOutbox;
+    private final LoanFines loanFines;
+    private final DueDateScheduler dueDateScheduler;
+    private final LoanConfig loanConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkLoanResultDTO createLoans(List<LoanCreateDTO> items, String token) {
+        checkSize(items);
+        log.info("Creando {} préstamos en lote", items.size());
+
+        BulkLoanItemResultDTO[] results = new BulkLoanItemResultDTO[items.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            LoanCreateDTO item = items.get(i);
+            if (item == null || item.getUserId() == null || item.getBookId() == null) {
+                results[i] = rejected(i, null, item, "El ID del usuario y el ID del libro son obligatorios");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        List<Integer> accepted = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            List<LoanValidationDTO> validations = loanValidationEngine.validateBatch(
+                    candidates.stream().map(items::get).toList(), token);
+            for (int c = 0; c < candidates.size(); c++) {
+                int index = candidates.get(c);
+                if (validations.get(c).getValid()) {
+                    accepted.add(index);
+                } else {
+                    results[index] = rejected(index, null, items.get(index), validations.get(c).getMessage());
+                }
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> saveLoans(items, accepted, results));
+        }
+        return summarize(results);
+    }
+
+    public BulkLoanResultDTO returnLoans(List<Long> loanIds) {
+        checkSize(loanIds);
+        log.info("Registrando {} devoluciones en lote", loanIds.size());
+
+        BulkLoanItemResultDTO[] results = new BulkLoanItemResultDTO[loanIds.size()];
+        transactionTemplate.executeWithoutResult(status -> saveReturns(loanIds, results));
+        return summarize(results);
+    }
+
+    private void saveLoans(List<LoanCreateDTO> items, List<Integer> accepted, BulkLoanItemResultDTO[] results) {
+        // Reservar el cupo de cada usuario en orden de ID para no cruzar bloqueos con otras transacciones
+        List<Integer> byUser = accepted.stream()
+                .sorted(Comparator.comparing(index -> items.get(index).getUserId()))
+                .toList();
+        LocalDate loanDate = LocalDate.now();
+        List<Integer> created = new ArrayList<>();
+        List<Loan> loans = new ArrayList<>();
+        for (int index : byUser) {
+            LoanCreateDTO item = items.get(index);
+            Optional<String> rejection = userLoanSummaries.tryReserve(item.getUserId(), item.getBookId());
+            if (rejection.isPresent()) {
+                results[index] = rejected(index, null, item, rejection.get());
+                continue;
+            }
+            int loanDays = item.getLoanDays() != null ? item.getLoanDays() : loanConfig.getDefaultDays();
+            created.add(index);
+            loans.add(Loan.builder()
+                    .userId(item.getUserId())
+                    .bookId(item.getBookId())
+                    .loanDate(loanDate)
+                    .dueDate(loanDate.plusDays(loanDays))
+                    .status(Loan.Status.ACTIVE)
+                    .loanDays(loanDays)
+                    .fineAmount(BigDecimal.ZERO)
+                    .extensionsCount(0)
+                    .build());
+        }
+
+        loanBatchRepository.insertLoans(loans);
+        loans.forEach(dueDateScheduler::schedule);
+        loanBatchRepository.insertHistory(loans.stream()
+                .map(loan -> history(loan, LoanHistory.Action.CREATED, "Préstamo creado"))
+                .toList());
+        loanOutbox.enqueueCopyChanges(loans.stream().map(Loan::getBookId).toList(), -1);
+        loanOutbox.enqueueNotifications(loans.stream()
+                .map(loan -> new LoanOutbox.PendingNotification(
+                        loan.getUserId(),
+                        "LOAN_CREATED",
+                        "Préstamo creado",
+                        "Has solicitado el préstamo del libro. Fecha de devolución: " + loan.getDueDate(),
+                        "MEDIUM"))
+                .toList());
+
+        for (int i = 0; i < loans.size(); i++) {
+            results[created.get(i)] = processed(created.get(i), loans.get(i), "Préstamo creado");
+        }
+    }
+
+    private void saveReturns(List<Long> loanIds, BulkLoanItemResultDTO[] results) {
+        Map<Long, Loan> loans = loanRepository.findAllForUpdate(
+                        loanIds.stream().filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+
+        Set<Long> seen = new HashSet<>();
+        List<Integer> returning = new ArrayList<>();
+        for (int i = 0; i < loanIds.size(); i++) {
+            Long loanId = loanIds.get(i);
+            Loan loan = loanId != null ? loans.get(loanId) : null;
+            if (loan == null) {
+                results[i] = returnRejected(i, loanId, loanId == null ? "El ID del préstamo es obligatorio" : "Préstamo no encontrado");
+            } else if (!seen.add(loanId)) {
+                results[i] = returnRejected(i, loanId, "Préstamo repetido en la solicitud");
+            } else if (loan.getStatus() != Loan.Status.ACTIVE && loan.getStatus() != Loan.Status.OVERDUE) {
+                results[i] = returnRejected(i, loanId, "El préstamo no está activo");
+            } else {
+                returning.add(i);
+            }
+        }
+
+        // Liberar el cupo de cada usuario en orden de ID para no cruzar bloqueos con otras transacciones
+        returning.sort(Comparator.comparing(index -> loans.get(loanIds.get(index)).getUserId()));
+        LocalDate today = LocalDate.now();
+        List<Loan> returned = new ArrayList<>();
+        for (int index : returning) {
+            Loan loan = loans.get(loanIds.get(index));
+            userLoanSummaries.release(loan.getUserId(), loan.getBookId());
+            // La multa se calcula antes de marcar como devuelto (isOverdue() solo aplica a préstamos abiertos)
+            loan.setFineAmount(loan.isOverdue() ? loanFines.fineFor(loan.getDueDate(), today) : BigDecimal.ZERO);
+            loan.markAsReturned();
+            returned.add(loan);
+        }
+        loanRepository.saveAll(returned);
+        returned.forEach(loan -> dueDateScheduler.unschedule(loan.getId()));
+
+        loanBatchRepository.insertHistory(returned.stream()
+                .map(loan -> history(loan, LoanHistory.Action.RETURNED,
+                        "Libro devuelto" + (hasFine(loan) ? ". Multa: $" + loan.getFineAmount() : "")))
+                .toList());
+        loanOutbox.enqueueCopyChanges(returned.stream().map(Loan::getBookId).toList(), 1);
+        loanOutbox.enqueueNotifications(returned.stream()
+                .map(loan -> new LoanOutbox.PendingNotification(
+                        loan.getUserId(),
+                        "LOAN_RETURNED",
+                        "Libro devuelto",
+                        "Has devuelto el libro correctamente." + (hasFine(loan) ? " Multa aplicada: $" + loan.getFineAmount() : ""),
+                        hasFine(loan) ? "HIGH" : "MEDIUM"))
+                .toList());
+
+        for (int i = 0; i < returning.size(); i++) {
+            results[returning.get(i)] = processed(returning.get(i), returned.get(i), "Libro devuelto");
+        }
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("La solicitud no contiene ítems");
+        }
+        if (items.size() > loanConfig.getBulkMaxItems()) {
+            throw new RuntimeException("Se pueden procesar como máximo " + loanConfig.getBulkMaxItems() + " ítems por solicitud");
+        }
+    }
+
+    private static boolean hasFine(Loan loan) {
+        return loan.getFineAmount().compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    private static LoanHistory history(Loan loan, LoanHistory.Action action, String notes) {
+        return LoanHistory.builder()
+                .loanId(loan.getId())
+                .action(action)
+                .notes(notes)
+                .build();
+    }
+
+    private static BulkLoanItemResultDTO processed(int index, Loan loan, String message) {
+        return BulkLoanItemResultDTO.builder()
+                .index(index)
+                .loanId(loan.getId())
+                .userId(loan.getUserId())
+                .bookId(loan.getBookId())
+                .success(true)
+                .message(message)
+                .loan(LoanResponseDTO.fromEntity(loan))
+                .build();
+    }
+
+    private static BulkLoanItemResultDTO rejected(int index, Long loanId, LoanCreateDTO item, String message) {
+        return BulkLoanItemResultDTO.builder()
+                .index(index)
+                .loanId(loanId)
+                .userId(item != null ? item.getUserId() : null)
+                .bookId(item != null ? item.getBookId() : null)
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static BulkLoanItemResultDTO returnRejected(int index, Long loanId, String message) {
+        return rejected(index, loanId, null, message);
+    }
+
+    private static BulkLoanResultDTO summarize(BulkLoanItemResultDTO[] results) {
+        int succeeded = (int) Arrays.stream(results).filter(BulkLoanItemResultDTO::getSuccess).count();
+        return BulkLoanResultDTO.builder()
+                .total(results.length)
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(List.of(results))
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cálculo de multas por retraso a partir de la fecha de vencimiento y la tarifa diaria
+ * (loan.fine-per-day). No modifica ni guarda el préstamo: las lecturas calculan la multa
+ * al vuelo y solo OverdueFineJob y la devolución la persisten.
+ */
+@Component
+@RequiredArgsConstructor
+class LoanFines {
+
+    private final LoanConfig loanConfig;
+
+    long daysOverdue(LocalDate dueDate, LocalDate today) {
+        return Math.max(0, today.toEpochDay() - dueDate.toEpochDay());
+    }
+
+    BigDecimal fineFor(LocalDate dueDate, LocalDate today) {
+        return BigDecimal.valueOf(daysOverdue(dueDate, today) * loanConfig.getFinePerDay());
+    }
+
+    BigDecimal dailyRate() {
+        return BigDecimal.valueOf(loanConfig.getFinePerDay());
+    }
+}
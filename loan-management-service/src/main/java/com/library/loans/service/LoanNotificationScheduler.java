@@ -1,89 +1,47 @@
 package com.library.loans.service;
 
-import com.library.loans.client.NotificationServiceClient;
-import com.library.loans.model.Loan;
-import com.library.loans.repository.LoanRepository;
+import com.library.loans.config.LoanJobsConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.LocalDate;
-import java.util.List;
 
 /**
- * Scheduler para crear notificaciones automáticas de préstamos
- * - Préstamos próximos a vencer (2 días antes)
- * - Préstamos vencidos
+ * Procesos diarios de préstamos vencidos.
+ * Los avisos de vencimiento próximo y de vencido se envían a la hora de cada préstamo (ver DueDateScheduler).
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class LoanNotificationScheduler {
 
-    private final LoanRepository loanRepository;
-    private final NotificationServiceClient notificationServiceClient;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final OverdueLoanJob overdueLoanJob;
+    private final OverdueFineJob overdueFineJob;
+    private final LoanJobsConfig loanJobsConfig;
 
     /**
-     * Verificar préstamos próximos a vencer (2 días antes)
-     * Se ejecuta diariamente a las 9:00 AM
+     * Verificar préstamos vencidos y actualizar sus multas
+     * Se ejecuta diariamente después de la franja de avisos, por bloques (ver OverdueLoanJob, OverdueFineJob y ChunkedJobRunner):
+     * solo marca los préstamos vencidos que DueDateScheduler no alcanzó
      */
-    @Scheduled(cron = "0 0 9 * * ?") // Diario a las 9:00 AM
-    @Transactional
-    public void checkLoansDueSoon() {
-        log.info("Verificando préstamos próximos a vencer...");
-        
-        LocalDate twoDaysFromNow = LocalDate.now().plusDays(2);
-        List<Loan> loansDueSoon = loanRepository.findByDueDateAndStatus(twoDaysFromNow, Loan.Status.ACTIVE);
-        
-        for (Loan loan : loansDueSoon) {
-            notificationServiceClient.createNotification(
-                    loan.getUserId(),
-                    "LOAN_DUE",
-                    "Préstamo próximo a vencer",
-                    "Tu préstamo vence en 2 días. Fecha de devolución: " + loan.getDueDate(),
-                    "HIGH"
-            ).subscribe();
-            
-            log.info("Notificación de vencimiento próximo enviada para préstamo {}", loan.getId());
-        }
-        
-        log.info("Procesados {} préstamos próximos a vencer", loansDueSoon.size());
+    @Scheduled(cron = "0 30 23 * * ?") // Diario a las 11:30 PM
+    public void checkOverdueLoans() {
+        log.info("Verificando préstamos vencidos...");
+        chunkedJobRunner.run(overdueLoanJob);
+        chunkedJobRunner.run(overdueFineJob);
     }
 
     /**
-     * Verificar préstamos vencidos
-     * Se ejecuta diariamente a las 10:00 AM
+     * Continuar al iniciar el servicio los procesos de vencidos si una caída los interrumpió
      */
-    @Scheduled(cron = "0 0 10 * * ?") // Diario a las 10:00 AM
-    @Transactional
-    public void checkOverdueLoans() {
-        log.info("Verificando préstamos vencidos...");
-        
-        List<Loan> overdueLoans = loanRepository.findOverdueLoans(LocalDate.now());
-        
-        for (Loan loan : overdueLoans) {
-            // Marcar como vencido si aún no lo está
-            if (loan.getStatus() != Loan.Status.OVERDUE) {
-                loan.markAsOverdue();
-                loanRepository.save(loan);
-            }
-            
-            // Crear notificación
-            long daysOverdue = LocalDate.now().toEpochDay() - loan.getDueDate().toEpochDay();
-            notificationServiceClient.createNotification(
-                    loan.getUserId(),
-                    "LOAN_OVERDUE",
-                    "Préstamo vencido",
-                    "Tu préstamo está vencido hace " + daysOverdue + " días. Por favor, devuelve el libro lo antes posible.",
-                    "HIGH"
-            ).subscribe();
-            
-            log.info("Notificación de préstamo vencido enviada para préstamo {}", loan.getId());
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (Boolean.TRUE.equals(loanJobsConfig.getResumeOnStartup())) {
+            chunkedJobRunner.resumeInterrupted(overdueLoanJob);
+            chunkedJobRunner.resumeInterrupted(overdueFineJob);
         }
-        
-        log.info("Procesados {} préstamos vencidos", overdueLoans.size());
     }
 }
-
@@ -0,0 +1,94 @@
+package com.library.loans.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loans.model.OutboxEvent;
+import com.library.loans.repository.OutboxBatchRepository;
+import com.library.loans.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de los efectos secundarios de un préstamo en la tabla loan_outbox.
+ * Debe llamarse dentro de la transacción que guarda el préstamo: si la transacción
+ * se revierte, el ajuste de copias y la notificación tampoco se envían.
+ */
+@Component
+@RequiredArgsConstructor
+class LoanOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxBatchRepository outboxBatchRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Notificación a registrar en el outbox
+     */
+    record PendingNotification(Long userId, String type, String title, String message, String priority) {
+
+        Map<String, Object> toPayload() {
+            Map<String, Object> notificationData = new LinkedHashMap<>();
+            notificationData.put("userId", userId);
+            notificationData.put("type", type);
+            notificationData.put("title", title);
+            notificationData.put("message", message);
+            notificationData.put("priority", priority != null ? priority : "MEDIUM");
+            return notificationData;
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCopyChange(Long bookId, int change) {
+        save(OutboxEvent.Type.BOOK_COPIES, bookId, Map.of("change", change));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNotification(Long userId, String type, String title, String message, String priority) {
+        PendingNotification notification = new PendingNotification(userId, type, title, message, priority);
+        save(OutboxEvent.Type.NOTIFICATION, userId, notification.toPayload());
+    }
+
+    /**
+     * Registrar un ajuste de copias por cada libro indicado (con repetidos) en un solo lote JDBC
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCopyChanges(List<Long> bookIds, int change) {
+        String payload = toJson(OutboxEvent.Type.BOOK_COPIES, Map.of("change", change));
+        outboxBatchRepository.insertPending(OutboxEvent.Type.BOOK_COPIES, bookIds.stream()
+                .map(bookId -> new OutboxBatchRepository.PendingEvent(bookId, payload))
+                .toList());
+    }
+
+    /**
+     * Registrar varias notificaciones con un solo lote JDBC (procesos programados y operaciones en lote)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNotifications(List<PendingNotification> notifications) {
+        outboxBatchRepository.insertPending(OutboxEvent.Type.NOTIFICATION, notifications.stream()
+                .map(notification -> new OutboxBatchRepository.PendingEvent(
+                        notification.userId(), toJson(OutboxEvent.Type.NOTIFICATION, notification.toPayload())))
+                .toList());
+    }
+
+    private void save(OutboxEvent.Type type, Long aggregateId, Map<String, Object> payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(toJson(type, payload))
+                .build());
+    }
+
+    private String toJson(OutboxEvent.Type type, Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo registrar el evento " + type + ": " + e.getOriginalMessage());
+        }
+    }
+}
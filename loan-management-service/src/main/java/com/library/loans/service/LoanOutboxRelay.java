@@ -0,0 +1,363 @@
+package com.library.loans.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loans.client.BookServiceClient;
+import com.library.loans.client.NotificationServiceClient;
+import com.library.loans.config.LoanOutboxConfig;
+import com.library.loans.dto.CopyAdjustmentDTO;
+import com.library.loans.dto.CopyAdjustmentResultDTO;
+import com.library.loans.dto.NotificationBatchItemResultDTO;
+import com.library.loans.dto.NotificationBatchResponseDTO;
+import com.library.loans.model.OutboxEvent;
+import com.library.loans.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Entrega en segundo plano de los eventos de loan_outbox.
+ * En cada pasada reclama un lote de eventos pendientes, los entrega y registra el resultado:
+ * - Ajustes de copias: se suman por libro y se envían en una sola llamada al lote de
+ *   book-catalog-service, con los IDs de los eventos que combina cada ajuste. Si el ajuste
+ *   combinado de un libro se rechaza, sus eventos se reenvían uno por uno para aplicar los
+ *   que sí caben.
+ * - Notificaciones: una por evento, aunque su contenido coincida con el de otro, agrupadas
+ *   en llamadas a POST /api/notifications/batch.
+ * Los errores transitorios se reintentan con espera exponencial; los rechazos de negocio
+ * (libro inexistente, sin copias) quedan en FAILED con el motivo.
+ * La entrega es al menos una vez: si la instancia cae o la llamada vence después de entregar
+ * y antes de registrar el resultado, el evento se vuelve a entregar. book-catalog-service
+ * registra los IDs de eventos aplicados y no repite un ajuste de copias; las notificaciones
+ * pueden llegar duplicadas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class LoanOutboxRelay {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() { };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final BookServiceClient bookServiceClient;
+    private final NotificationServiceClient notificationServiceClient;
+    private final LoanOutboxConfig outboxConfig;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Resultado de la entrega de un evento
+     */
+    record Delivery(Long eventId, boolean delivered, boolean retryable, String error) {
+
+        static Delivery sent(Long eventId) {
+            return new Delivery(eventId, true, false, null);
+        }
+
+        static Delivery retry(Long eventId, String error) {
+            return new Delivery(eventId, false, true, error);
+        }
+
+        static Delivery rejected(Long eventId, String error) {
+            return new Delivery(eventId, false, false, error);
+        }
+    }
+
+    /**
+     * Vaciar el outbox: pasadas sucesivas mientras se reclamen lotes completos
+     */
+    @Scheduled(fixedDelayString = "${loan.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        int claimed;
+        do {
+            List<OutboxEvent> events = claimBatch();
+            claimed = events.size();
+            if (claimed > 0) {
+                complete(events, deliver(events));
+            }
+        } while (claimed == outboxConfig.getBatchSize());
+    }
+
+    /**
+     * Borrar los eventos entregados que superan el período de retención
+     */
+    @Scheduled(cron = "0 30 3 * * ?") // Diario a las 3:30 AM
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(outboxConfig.getRetentionDays());
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(cutoff));
+        log.info("Eliminados {} eventos entregados del outbox anteriores a {}", deleted, cutoff);
+    }
+
+    /**
+     * Reclamar eventos vencidos: se cuenta el intento y se aplaza el siguiente hasta que vence el reclamo
+     */
+    List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(outboxConfig.getLeaseMs()));
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(now, PageRequest.of(0, outboxConfig.getBatchSize()));
+            for (OutboxEvent event : due) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(leaseUntil);
+            }
+            return due;
+        });
+        return events != null ? events : List.of();
+    }
+
+    List<Delivery> deliver(List<OutboxEvent> events) {
+        Map<OutboxEvent.Type, List<OutboxEvent>> byType = events.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getType));
+        List<Delivery> deliveries = new ArrayList<>(events.size());
+        deliveries.addAll(deliverCopyChanges(byType.getOrDefault(OutboxEvent.Type.BOOK_COPIES, List.of())));
+        deliveries.addAll(deliverNotifications(byType.getOrDefault(OutboxEvent.Type.NOTIFICATION, List.of())));
+        return deliveries;
+    }
+
+    private List<Delivery> deliverCopyChanges(List<OutboxEvent> events) {
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<Long, List<CopyChange>> changesByBook = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            Object change = readPayload(event).get("change");
+            if (change instanceof Number number) {
+                changesByBook.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>())
+                        .add(new CopyChange(event.getId(), number.intValue()));
+            } else {
+                deliveries.add(Delivery.rejected(event.getId(), "Evento de copias sin cambio válido"));
+            }
+        }
+
+        // Un cambio neto de cero (préstamo y devolución en el mismo lote) no necesita llamada
+        List<Long> bookIds = new ArrayList<>();
+        List<CopyAdjustmentDTO> combined = new ArrayList<>();
+        changesByBook.forEach((bookId, changes) -> {
+            int net = changes.stream().mapToInt(CopyChange::change).sum();
+            if (net == 0) {
+                changes.forEach(change -> deliveries.add(Delivery.sent(change.eventId())));
+            } else {
+                bookIds.add(bookId);
+                combined.add(new CopyAdjustmentDTO(bookId, net, changes.stream().map(CopyChange::eventId).toList()));
+            }
+        });
+        if (combined.isEmpty()) {
+            return deliveries;
+        }
+
+        List<CopyAdjustmentResultDTO> results;
+        try {
+            results = sendCopyAdjustments(combined);
+        } catch (RuntimeException e) {
+            bookIds.forEach(bookId -> changesByBook.get(bookId)
+                    .forEach(change -> deliveries.add(failure(change.eventId(), e))));
+            return deliveries;
+        }
+
+        // Los libros con ajuste combinado rechazado se reintentan evento por evento
+        List<CopyChange> individual = new ArrayList<>();
+        List<CopyAdjustmentDTO> individualAdjustments = new ArrayList<>();
+        for (int i = 0; i < combined.size(); i++) {
+            List<CopyChange> changes = changesByBook.get(bookIds.get(i));
+            CopyAdjustmentResultDTO result = results.get(i);
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                changes.forEach(change -> deliveries.add(Delivery.sent(change.eventId())));
+            } else if (changes.size() == 1) {
+                deliveries.add(Delivery.rejected(changes.get(0).eventId(), result.getMessage()));
+            } else {
+                for (CopyChange change : changes) {
+                    individual.add(change);
+                    individualAdjustments.add(new CopyAdjustmentDTO(bookIds.get(i), change.change(), List.of(change.eventId())));
+                }
+            }
+        }
+        if (individual.isEmpty()) {
+            return deliveries;
+        }
+
+        try {
+            List<CopyAdjustmentResultDTO> individualResults = sendCopyAdjustments(individualAdjustments);
+            for (int i = 0; i < individual.size(); i++) {
+                CopyAdjustmentResultDTO result = individualResults.get(i);
+                deliveries.add(Boolean.TRUE.equals(result.getSuccess())
+                        ? Delivery.sent(individual.get(i).eventId())
+                        : Delivery.rejected(individual.get(i).eventId(), result.getMessage()));
+            }
+        } catch (RuntimeException e) {
+            individual.forEach(change -> deliveries.add(failure(change.eventId(), e)));
+        }
+        return deliveries;
+    }
+
+    private List<CopyAdjustmentResultDTO> sendCopyAdjustments(List<CopyAdjustmentDTO> adjustments) {
+        List<CopyAdjustmentResultDTO> results = bookServiceClient.updateBookCopiesBatch(adjustments)
+                .timeout(Duration.ofMillis(outboxConfig.getDeliveryTimeoutMs()))
+                .block();
+        if (results == null || results.size() != adjustments.size()) {
+            throw new IllegalStateException("Respuesta incompleta del lote de copias");
+        }
+        return results;
+    }
+
+    private List<Delivery> deliverNotifications(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        // Cada evento es una notificación distinta aunque su contenido coincida con otro
+        // (p. ej. varios préstamos del mismo usuario en un lote): se envían todas
+        int batchSize = outboxConfig.getNotificationBatchSize();
+        List<List<OutboxEvent>> batches = new ArrayList<>();
+        for (int start = 0; start < events.size(); start += batchSize) {
+            batches.add(events.subList(start, Math.min(start + batchSize, events.size())));
+        }
+
+        List<List<Delivery>> deliveries = Flux.fromIterable(batches)
+                .flatMap(this::sendNotificationBatch, outboxConfig.getNotificationConcurrency())
+                .collectList()
+                .block();
+        return deliveries.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Enviar un lote de notificaciones. El servicio responde el resultado de cada notificación:
+     * las rechazadas se marcan como fallidas sin reintento y las demás como entregadas.
+     * Si el servicio rechaza el lote completo (versiones que no informan por notificación),
+     * se envían una por una para entregar las demás y aislar la inválida.
+     */
+    private Mono<List<Delivery>> sendNotificationBatch(List<OutboxEvent> events) {
+        List<Map<String, Object>> payloads = events.stream().map(this::readPayload).toList();
+        return notificationServiceClient.sendNotificationsBatch(payloads)
+                .timeout(Duration.ofMillis(outboxConfig.getDeliveryTimeoutMs()))
+                .map(response -> notificationDeliveries(events, response))
+                .switchIfEmpty(Mono.fromSupplier(() -> notificationDeliveries(events, null)))
+                .onErrorResume(e -> {
+                    List<Delivery> failed = events.stream()
+                            .map(event -> failure(event.getId(), e))
+                            .toList();
+                    if (failed.get(0).retryable() || events.size() == 1) {
+                        return Mono.just(failed);
+                    }
+                    return Flux.fromIterable(events)
+                            .flatMap(this::sendNotification, outboxConfig.getNotificationConcurrency())
+                            .collectList();
+                });
+    }
+
+    /**
+     * Entregas de un lote según el resultado de cada notificación. Sin resultados (respuesta vacía)
+     * el lote se da por entregado completo.
+     */
+    private static List<Delivery> notificationDeliveries(List<OutboxEvent> events, NotificationBatchResponseDTO response) {
+        Map<Integer, NotificationBatchItemResultDTO> results = response == null || response.getResults() == null
+                ? Map.of()
+                : response.getResults().stream()
+                        .filter(result -> result.getIndex() != null)
+                        .collect(Collectors.toMap(NotificationBatchItemResultDTO::getIndex, Function.identity(), (a, b) -> a));
+        List<Delivery> deliveries = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            NotificationBatchItemResultDTO result = results.get(i);
+            boolean rejected = result != null && !Boolean.TRUE.equals(result.getSuccess());
+            deliveries.add(rejected
+                    ? Delivery.rejected(events.get(i).getId(), result.getMessage())
+                    : Delivery.sent(events.get(i).getId()));
+        }
+        return deliveries;
+    }
+
+    private Mono<Delivery> sendNotification(OutboxEvent event) {
+        return notificationServiceClient.sendNotification(readPayload(event))
+                .timeout(Duration.ofMillis(outboxConfig.getDeliveryTimeoutMs()))
+                .then(Mono.fromSupplier(() -> Delivery.sent(event.getId())))
+                .onErrorResume(e -> Mono.just(failure(event.getId(), e)));
+    }
+
+    /**
+     * Registrar el resultado de la entrega: entregados, reprogramados o fallidos
+     */
+    void complete(List<OutboxEvent> events, List<Delivery> deliveries) {
+        Map<Long, Integer> attemptsById = events.stream()
+                .collect(Collectors.toMap(OutboxEvent::getId, OutboxEvent::getAttempts));
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = deliveries.stream().filter(Delivery::delivered).map(Delivery::eventId).toList();
+
+        int[] counts = new int[2];
+        transactionTemplate.execute(status -> {
+            if (!sent.isEmpty()) {
+                outboxEventRepository.markSent(sent, now);
+            }
+            for (Delivery delivery : deliveries) {
+                if (delivery.delivered()) {
+                    continue;
+                }
+                int attempts = attemptsById.getOrDefault(delivery.eventId(), 1);
+                if (delivery.retryable() && attempts < outboxConfig.getMaxAttempts()) {
+                    outboxEventRepository.reschedule(delivery.eventId(), now.plus(backoff(attempts)),
+                            truncate(delivery.error()));
+                    counts[0]++;
+                } else {
+                    String error = delivery.retryable() ? "Reintentos agotados: " + delivery.error() : delivery.error();
+                    outboxEventRepository.markFailed(delivery.eventId(), now, truncate(error));
+                    counts[1]++;
+                }
+            }
+            return null;
+        });
+
+        if (counts[0] > 0 || counts[1] > 0) {
+            log.warn("Outbox: {} eventos entregados, {} reprogramados, {} fallidos", sent.size(), counts[0], counts[1]);
+        } else {
+            log.debug("Outbox: {} eventos entregados", sent.size());
+        }
+    }
+
+    Duration backoff(int attempts) {
+        long delay = outboxConfig.getInitialBackoffMs() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, outboxConfig.getMaxBackoffMs()));
+    }
+
+    private Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            log.error("Evento {} del outbox con contenido inválido: {}", event.getId(), e.getOriginalMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Los errores 4xx (salvo 408 y 429) no se resuelven reintentando
+     */
+    private static Delivery failure(Long eventId, Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            if (status < 500 && status != 408 && status != 429) {
+                return Delivery.rejected(eventId, status + " " + response.getStatusText());
+            }
+        }
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return Delivery.retry(eventId, message);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private record CopyChange(Long eventId, int change) { }
+}
@@ -1,16 +1,17 @@
 package com.library.loans.service;
 
-import com.library.loans.client.BookServiceClient;
-import com.library.loans.client.NotificationServiceClient;
-import com.library.loans.client.UserServiceClient;
 import com.library.loans.config.LoanConfig;
 import com.library.loans.dto.*;
 import com.library.loans.model.Loan;
 import com.library.loans.model.LoanHistory;
 import com.library.loans.repository.LoanHistoryRepository;
 import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.OverdueLoanSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,47 +25,38 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LoanService {
 
+    private static final int MAX_OVERDUE_PAGE_SIZE = 500;
+
     private final LoanRepository loanRepository;
     private final LoanHistoryRepository loanHistoryRepository;
-    private final UserServiceClient userServiceClient;
-    private final BookServiceClient bookServiceClient;
-    private final NotificationServiceClient notificationServiceClient;
     private final LoanConfig loanConfig;
+    private final LoanValidationEngine loanValidationEngine;
+    private final LoanOutbox loanOutbox;
+    private final LoanFines loanFines;
+    private final UserLoanSummaries userLoanSummaries;
+    private final DueDateScheduler dueDateScheduler;
 
     @Transactional
     public LoanResponseDTO createLoan(LoanCreateDTO createDTO, String token) {
         log.info("Creando préstamo para usuario {} y libro {}", createDTO.getUserId(), createDTO.getBookId());
 
-        // Validar usuario
-        Boolean userValid = userServiceClient.validateUser(createDTO.getUserId(), token).block();
-        if (userValid == null || !userValid) {
+        // Validar usuario, libro y préstamos activos en paralelo
+        LoanValidationDTO validation = loanValidationEngine.validate(createDTO, token);
+        if (!validation.getUserExists()) {
             throw new RuntimeException("Usuario no válido o no encontrado");
         }
-
-        // Validar disponibilidad del libro
-        Boolean bookAvailable = bookServiceClient.checkBookAvailability(createDTO.getBookId()).block();
-        if (bookAvailable == null || !bookAvailable) {
+        if (!validation.getBookAvailable()) {
             throw new RuntimeException("El libro no está disponible");
         }
-
-        // Verificar préstamos activos del usuario
-        List<Loan> activeLoans = loanRepository.findActiveLoansByUserId(createDTO.getUserId());
-        if (activeLoans.size() >= 5) { // Límite de 5 préstamos activos
-            throw new RuntimeException("El usuario ya tiene 5 préstamos activos. No se pueden crear más préstamos.");
+        if (!validation.getValid()) {
+            throw new RuntimeException(validation.getMessage());
         }
 
-        // Verificar que el usuario no tenga un préstamo activo del mismo libro
-        boolean hasActiveLoanForBook = activeLoans.stream()
-                .anyMatch(loan -> loan.getBookId().equals(createDTO.getBookId()));
-        if (hasActiveLoanForBook) {
-            throw new RuntimeException("El usuario ya tiene un préstamo activo de este libro");
-        }
+        // Repetir el límite y el préstamo duplicado con el resumen del usuario bloqueado:
+        // dos solicitudes simultáneas no pueden superar el límite
+        userLoanSummaries.reserve(createDTO.getUserId(), createDTO.getBookId());
 
-        // Validar días de préstamo (mínimo 7, máximo 30)
         int loanDays = createDTO.getLoanDays() != null ? createDTO.getLoanDays() : loanConfig.getDefaultDays();
-        if (loanDays < 7 || loanDays > 30) {
-            throw new RuntimeException("Los días de préstamo deben estar entre 7 y 30 días");
-        }
         LocalDate loanDate = LocalDate.now();
         LocalDate dueDate = loanDate.plusDays(loanDays);
 
@@ -80,9 +72,10 @@ public class LoanService {
                 .build();
 
         loan = loanRepository.save(loan);
+        dueDateScheduler.schedule(loan);
 
-        // Actualizar copias disponibles del libro
-        bookServiceClient.updateBookCopies(createDTO.getBookId(), -1).block();
+        // Actualizar copias disponibles del libro (se entrega después del commit, ver LoanOutboxRelay)
+        loanOutbox.enqueueCopyChange(createDTO.getBookId(), -1);
 
         // Registrar en historial
         LoanHistory history = LoanHistory.builder()
@@ -93,13 +86,13 @@ public class LoanService {
         loanHistoryRepository.save(history);
 
         // Crear notificación de préstamo creado
-        notificationServiceClient.createNotification(
+        loanOutbox.enqueueNotification(
                 createDTO.getUserId(),
                 "LOAN_CREATED",
                 "Préstamo creado",
                 "Has solicitado el préstamo del libro. Fecha de devolución: " + dueDate,
                 "MEDIUM"
-        ).subscribe();
+        );
 
         log.info("Préstamo creado exitosamente con ID: {}", loan.getId());
 
@@ -146,30 +139,21 @@ public class LoanService {
         if (loan.getStatus() != Loan.Status.ACTIVE && loan.getStatus() != Loan.Status.OVERDUE) {
             throw new RuntimeException("El préstamo no está activo");
         }
+        userLoanSummaries.release(loan.getUserId(), loan.getBookId());
 
-        // Calcular multa ANTES de marcar como devuelto (porque isOverdue() verifica estado ACTIVE)
-        boolean wasOverdue = loan.isOverdue();
+        // Calcular la multa final ANTES de marcar como devuelto (isOverdue() solo aplica a préstamos abiertos)
         BigDecimal fineAmount = BigDecimal.ZERO;
-        if (wasOverdue) {
-            fineAmount = calculateFine(loan);
+        if (loan.isOverdue()) {
+            fineAmount = loanFines.fineFor(loan.getDueDate(), LocalDate.now());
         }
+        loan.setFineAmount(fineAmount);
 
         loan.markAsReturned();
         loan = loanRepository.save(loan);
+        dueDateScheduler.unschedule(loan.getId());
 
-        // Verificar que el libro existe antes de actualizar copias
-        try {
-            Boolean bookExists = bookServiceClient.checkBookAvailability(loan.getBookId()).block();
-            if (bookExists != null && bookExists) {
-                // Actualizar copias disponibles del libro
-                bookServiceClient.updateBookCopies(loan.getBookId(), 1).block();
-            } else {
-                log.warn("Libro {} no encontrado al devolver préstamo {}", loan.getBookId(), loanId);
-            }
-        } catch (Exception e) {
-            log.error("Error actualizando copias del libro {} al devolver préstamo {}: {}", 
-                    loan.getBookId(), loanId, e.getMessage());
-        }
+        // Actualizar copias disponibles del libro (si el libro ya no existe, el evento queda en FAILED)
+        loanOutbox.enqueueCopyChange(loan.getBookId(), 1);
 
         // Registrar en historial
         LoanHistory history = LoanHistory.builder()
@@ -184,17 +168,13 @@ public class LoanService {
         if (fineAmount.compareTo(BigDecimal.ZERO) > 0) {
             message += " Multa aplicada: $" + fineAmount;
         }
-        try {
-            notificationServiceClient.createNotification(
-                    loan.getUserId(),
-                    "LOAN_RETURNED",
-                    "Libro devuelto",
-                    message,
-                    fineAmount.compareTo(BigDecimal.ZERO) > 0 ? "HIGH" : "MEDIUM"
-            ).subscribe();
-        } catch (Exception e) {
-            log.warn("Error creando notificación de devolución: {}", e.getMessage());
-        }
+        loanOutbox.enqueueNotification(
+                loan.getUserId(),
+                "LOAN_RETURNED",
+                "Libro devuelto",
+                message,
+                fineAmount.compareTo(BigDecimal.ZERO) > 0 ? "HIGH" : "MEDIUM"
+        );
 
         log.info("Préstamo {} devuelto exitosamente. Multa: {}", loanId, fineAmount);
 
@@ -224,7 +204,10 @@ public class LoanService {
         int extensionDays = 7;
         loan.setDueDate(loan.getDueDate().plusDays(extensionDays));
         loan.setExtensionsCount(loan.getExtensionsCount() + 1);
+        // La nueva fecha de devolución tiene su propio aviso de vencimiento próximo
+        loan.setDueReminderSentAt(null);
         loan = loanRepository.save(loan);
+        dueDateScheduler.schedule(loan);
 
         // Registrar en historial
         LoanHistory history = LoanHistory.builder()
@@ -235,13 +218,13 @@ public class LoanService {
         loanHistoryRepository.save(history);
 
         // Crear notificación de extensión
-        notificationServiceClient.createNotification(
+        loanOutbox.enqueueNotification(
                 loan.getUserId(),
                 "LOAN_EXTENDED",
                 "Préstamo extendido",
                 "Tu préstamo ha sido extendido " + extensionDays + " días. Nueva fecha de devolución: " + loan.getDueDate(),
                 "LOW"
-        ).subscribe();
+        );
         
         log.info("Préstamo {} extendido exitosamente. Nueva fecha de vencimiento: {}", loanId, loan.getDueDate());
 
@@ -258,12 +241,14 @@ public class LoanService {
         if (loan.getStatus() != Loan.Status.ACTIVE) {
             throw new RuntimeException("Solo se pueden cancelar préstamos activos");
         }
+        userLoanSummaries.release(loan.getUserId(), loan.getBookId());
 
         loan.setStatus(Loan.Status.CANCELLED);
         loan = loanRepository.save(loan);
+        dueDateScheduler.unschedule(loan.getId());
 
         // Actualizar copias disponibles del libro
-        bookServiceClient.updateBookCopies(loan.getBookId(), 1).block();
+        loanOutbox.enqueueCopyChange(loan.getBookId(), 1);
 
         // Registrar en historial
         LoanHistory history = LoanHistory.builder()
@@ -274,68 +259,75 @@ public class LoanService {
         loanHistoryRepository.save(history);
 
         // Crear notificación de cancelación
-        notificationServiceClient.createNotification(
+        loanOutbox.enqueueNotification(
                 loan.getUserId(),
                 "LOAN_CANCELLED",
                 "Préstamo cancelado",
                 "Tu préstamo ha sido cancelado exitosamente.",
                 "MEDIUM"
-        ).subscribe();
+        );
 
         log.info("Préstamo {} cancelado exitosamente", loanId);
 
         return LoanResponseDTO.fromEntity(loan);
     }
 
-    public List<LoanResponseDTO> getOverdueLoans() {
-        return loanRepository.findOverdueLoans(LocalDate.now()).stream()
-                .map(loan -> {
-                    loan.markAsOverdue();
-                    calculateFine(loan);
-                    loanRepository.save(loan);
-                    return LoanResponseDTO.fromEntity(loan);
-                })
-                .collect(Collectors.toList());
+    /**
+     * Préstamos vencidos, del más antiguo al más reciente, con la multa calculada al vuelo.
+     * Solo lectura: el estado OVERDUE y la multa se guardan en los procesos programados
+     * (OverdueLoanJob y OverdueFineJob), de modo que consultar no genera escrituras.
+     */
+    public Page<LoanResponseDTO> getOverdueLoans(int page, int size) {
+        LocalDate today = LocalDate.now();
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_OVERDUE_PAGE_SIZE),
+                Sort.by("dueDate", "id"));
+        return loanRepository.findOverdueSummaries(today, pageRequest)
+                .map(loan -> toOverdueResponse(loan, today));
     }
 
+    /**
+     * Multa de un préstamo a la fecha de hoy. Solo lectura: no guarda el préstamo.
+     */
     public FineCalculationDTO calculateFine(Long loanId) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new RuntimeException("Préstamo no encontrado"));
-        
-        BigDecimal fine = calculateFine(loan);
-        
+
         if (!loan.isOverdue()) {
             return FineCalculationDTO.builder()
                     .loanId(loanId)
                     .daysOverdue(0)
-                    .dailyFineRate(BigDecimal.valueOf(loanConfig.getFinePerDay()))
+                    .dailyFineRate(loanFines.dailyRate())
                     .totalFine(BigDecimal.ZERO)
                     .message("El préstamo no está vencido")
                     .build();
         }
-        
-        long daysOverdue = LocalDate.now().toEpochDay() - loan.getDueDate().toEpochDay();
-        
+
+        LocalDate today = LocalDate.now();
+        long daysOverdue = loanFines.daysOverdue(loan.getDueDate(), today);
+
         return FineCalculationDTO.builder()
                 .loanId(loanId)
                 .daysOverdue((int) daysOverdue)
-                .dailyFineRate(BigDecimal.valueOf(loanConfig.getFinePerDay()))
-                .totalFine(fine)
+                .dailyFineRate(loanFines.dailyRate())
+                .totalFine(loanFines.fineFor(loan.getDueDate(), today))
                 .message("Préstamo vencido hace " + daysOverdue + " días")
                 .build();
     }
 
-    private BigDecimal calculateFine(Loan loan) {
-        if (!loan.isOverdue()) {
-            loan.setFineAmount(BigDecimal.ZERO);
-            return BigDecimal.ZERO;
-        }
-
-        long daysOverdue = LocalDate.now().toEpochDay() - loan.getDueDate().toEpochDay();
-        BigDecimal fine = BigDecimal.valueOf(daysOverdue * loanConfig.getFinePerDay());
-        loan.setFineAmount(fine);
-        loanRepository.save(loan);
-        return fine;
+    private LoanResponseDTO toOverdueResponse(OverdueLoanSummary loan, LocalDate today) {
+        return LoanResponseDTO.builder()
+                .id(loan.getId())
+                .userId(loan.getUserId())
+                .bookId(loan.getBookId())
+                .loanDate(loan.getLoanDate())
+                .dueDate(loan.getDueDate())
+                .status(Loan.Status.OVERDUE)
+                .loanDays(loan.getLoanDays())
+                .fineAmount(loanFines.fineFor(loan.getDueDate(), today))
+                .extensionsCount(loan.getExtensionsCount())
+                .createdAt(loan.getCreatedAt())
+                .updatedAt(loan.getUpdatedAt())
+                .build();
     }
 
     public List<LoanHistoryResponseDTO> getLoanHistory(Long loanId) {
@@ -345,59 +337,7 @@ public class LoanService {
     }
 
     public LoanValidationDTO validateLoanCreation(LoanCreateDTO createDTO, String token) {
-        LoanValidationDTO validation = LoanValidationDTO.builder()
-                .userId(createDTO.getUserId())
-                .bookId(createDTO.getBookId())
-                .build();
-
-        // Validar usuario
-        Boolean userValid = userServiceClient.validateUser(createDTO.getUserId(), token).block();
-        validation.setUserExists(userValid != null && userValid);
-
-        // Validar disponibilidad del libro
-        Boolean bookAvailable = bookServiceClient.checkBookAvailability(createDTO.getBookId()).block();
-        validation.setBookAvailable(bookAvailable != null && bookAvailable);
-
-        // Validar límite de préstamos activos
-        List<Loan> activeLoans = loanRepository.findActiveLoansByUserId(createDTO.getUserId());
-        boolean withinLoanLimit = activeLoans.size() < 5;
-        validation.setWithinLoanLimit(withinLoanLimit);
-
-        // Validar que no tenga préstamo activo del mismo libro
-        boolean hasActiveLoanForBook = activeLoans.stream()
-                .anyMatch(loan -> loan.getBookId().equals(createDTO.getBookId()));
-        validation.setNoActiveLoanForBook(!hasActiveLoanForBook);
-
-        // Validar días de préstamo
-        int loanDays = createDTO.getLoanDays() != null ? createDTO.getLoanDays() : loanConfig.getDefaultDays();
-        boolean validLoanDays = loanDays >= 7 && loanDays <= 30;
-        validation.setValidLoanDays(validLoanDays);
-
-        // Validación general
-        validation.setValid(validation.getUserExists() 
-                && validation.getBookAvailable() 
-                && validation.getWithinLoanLimit()
-                && validation.getNoActiveLoanForBook()
-                && validation.getValidLoanDays());
-
-        // Mensaje de error específico
-        if (!validation.getValid()) {
-            if (!validation.getUserExists()) {
-                validation.setMessage("Usuario no válido o no encontrado");
-            } else if (!validation.getBookAvailable()) {
-                validation.setMessage("El libro no tiene copias disponibles");
-            } else if (!validation.getWithinLoanLimit()) {
-                validation.setMessage("El usuario ya tiene 5 préstamos activos. No se pueden crear más préstamos.");
-            } else if (!validation.getNoActiveLoanForBook()) {
-                validation.setMessage("El usuario ya tiene un préstamo activo de este libro");
-            } else if (!validation.getValidLoanDays()) {
-                validation.setMessage("Los días de préstamo deben estar entre 7 y 30 días");
-            }
-        } else {
-            validation.setMessage("Validación exitosa");
-        }
-
-        return validation;
+        return loanValidationEngine.validate(createDTO, token);
     }
 
     /**
@@ -407,12 +347,12 @@ public class LoanService {
     public BusinessRulesValidationDTO validateAllBusinessRules() {
         List<BusinessRulesValidationDTO.RuleValidation> rules = new java.util.ArrayList<>();
 
-        // Regla 1: Límite de préstamos activos por usuario (máximo 5)
+        // Regla 1: Límite de préstamos activos por usuario (loan.max-active-loans)
         rules.add(BusinessRulesValidationDTO.RuleValidation.builder()
                 .ruleName("Límite de préstamos activos")
-                .description("Un usuario no puede tener más de 5 préstamos activos simultáneamente")
+                .description("Un usuario no puede tener más de " + loanConfig.getMaxActiveLoans() + " préstamos activos simultáneamente")
                 .valid(true)
-                .message("Regla implementada: máximo 5 préstamos activos por usuario")
+                .message("Regla implementada: máximo " + loanConfig.getMaxActiveLoans() + " préstamos activos por usuario")
                 .build());
 
         // Regla 2: No se puede prestar el mismo libro dos veces al mismo usuario
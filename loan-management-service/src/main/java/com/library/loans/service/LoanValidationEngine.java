@@ -0,0 +1,189 @@
+package com.library.loans.service;
+
+import com.library.loans.client.BookServiceClient;
+import com.library.loans.client.UserServiceClient;
+import com.library.loans.config.LoanConfig;
+import com.library.loans.config.LoanValidationConfig;
+import com.library.loans.dto.BookAvailabilityDTO;
+import com.library.loans.dto.LoanCreateDTO;
+import com.library.loans.dto.LoanValidationDTO;
+import com.library.loans.dto.UserStatusDTO;
+import com.library.loans.model.UserLoanSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Validación de creación de préstamos.
+ * La verificación del usuario, la disponibilidad del libro y la lectura del resumen de
+ * préstamos abiertos del usuario se lanzan a la vez y se espera una sola vez por las tres, de modo que la
+ * latencia es la de la verificación más lenta y no la suma de todas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class LoanValidationEngine {
+
+    static final int MIN_LOAN_DAYS = 7;
+    static final int MAX_LOAN_DAYS = 30;
+
+    private final UserServiceClient userServiceClient;
+    private final BookServiceClient bookServiceClient;
+    private final UserLoanSummaries userLoanSummaries;
+    private final LoanConfig loanConfig;
+    private final LoanValidationConfig validationConfig;
+
+    /**
+     * Ejecutar todas las validaciones y combinarlas en el resultado de {@code /api/loans/validate}
+     */
+    LoanValidationDTO validate(LoanCreateDTO createDTO, String token) {
+        Long userId = createDTO.getUserId();
+        Long bookId = createDTO.getBookId();
+
+        // Si el servicio no responde a tiempo la verificación se considera fallida,
+        // igual que cualquier otro error del cliente
+        Mono<Boolean> userCheck = userServiceClient.validateUser(userId, token)
+                .timeout(Duration.ofMillis(validationConfig.getUserTimeoutMs()))
+                .onErrorResume(TimeoutException.class, e -> {
+                    log.warn("Tiempo de espera agotado validando usuario {}", userId);
+                    return Mono.just(false);
+                })
+                .defaultIfEmpty(false);
+
+        Mono<Boolean> bookCheck = bookServiceClient.checkBookAvailability(bookId)
+                .timeout(Duration.ofMillis(validationConfig.getBookTimeoutMs()))
+                .onErrorResume(TimeoutException.class, e -> {
+                    log.warn("Tiempo de espera agotado verificando disponibilidad del libro {}", bookId);
+                    return Mono.just(false);
+                })
+                .defaultIfEmpty(false);
+
+        // La consulta es bloqueante: se ejecuta fuera del hilo de la petición para solaparla con las llamadas remotas
+        Mono<UserLoanSummary> activeLoansQuery = Mono.fromCallable(() -> userLoanSummaries.find(userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(Duration.ofMillis(validationConfig.getActiveLoansTimeoutMs()))
+                .onErrorMap(TimeoutException.class,
+                        e -> new RuntimeException("No se pudieron consultar los préstamos activos del usuario a tiempo"));
+
+        var checks = Mono.zip(userCheck, bookCheck, activeLoansQuery).block();
+
+        UserLoanSummary activeLoans = checks.getT3();
+
+        return toValidation(createDTO, checks.getT1(), checks.getT2(),
+                userLoanSummaries.withinLimit(activeLoans), !activeLoans.holdsBook(bookId));
+    }
+
+    /**
+     * Validar varios préstamos (mostrador de circulación) con una sola consulta a cada servicio:
+     * un lote de estados de usuario, un lote de disponibilidad de libros y los resúmenes de préstamos
+     * abiertos de todos los usuarios. Las copias disponibles y los cupos de cada usuario se descuentan
+     * a medida que se aceptan los ítems del mismo lote, en orden.
+     * Si un servicio no responde, sus verificaciones se consideran fallidas, como en {@link #validate}.
+     */
+    List<LoanValidationDTO> validateBatch(List<LoanCreateDTO> items, String token) {
+        Set<Long> userIds = items.stream().map(LoanCreateDTO::getUserId).collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> bookIds = items.stream().map(LoanCreateDTO::getBookId).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Mono<Map<Long, UserStatusDTO>> usersLookup = userServiceClient.getUserStatuses(userIds, token)
+                .timeout(Duration.ofMillis(validationConfig.getUserTimeoutMs()))
+                .onErrorResume(e -> {
+                    log.warn("No se pudo verificar el estado de {} usuarios: {}", userIds.size(), e.getMessage());
+                    return Mono.just(Map.of());
+                });
+
+        Mono<Map<Long, Integer>> booksLookup = bookServiceClient.checkBooksAvailability(bookIds)
+                .map(availabilities -> availabilities.stream().collect(Collectors.toMap(
+                        BookAvailabilityDTO::getBookId, BookAvailabilityDTO::getAvailableCopies, (first, second) -> first)))
+                .timeout(Duration.ofMillis(validationConfig.getBookTimeoutMs()))
+                .onErrorResume(e -> {
+                    log.warn("No se pudo verificar la disponibilidad de {} libros: {}", bookIds.size(), e.getMessage());
+                    return Mono.just(Map.of());
+                });
+
+        Mono<Map<Long, UserLoanSummary>> summariesQuery = Mono.fromCallable(() -> userLoanSummaries.findAll(userIds))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(Duration.ofMillis(validationConfig.getActiveLoansTimeoutMs()))
+                .onErrorMap(TimeoutException.class,
+                        e -> new RuntimeException("No se pudieron consultar los préstamos activos de los usuarios a tiempo"));
+
+        var lookups = Mono.zip(usersLookup, booksLookup, summariesQuery).block();
+        Map<Long, UserStatusDTO> users = lookups.getT1();
+        Map<Long, Integer> remainingCopies = new HashMap<>(lookups.getT2());
+        Map<Long, Integer> openLoans = new HashMap<>();
+        Map<Long, Set<Long>> heldBooks = new HashMap<>();
+
+        List<LoanValidationDTO> validations = new ArrayList<>(items.size());
+        for (LoanCreateDTO item : items) {
+            Long userId = item.getUserId();
+            Long bookId = item.getBookId();
+            UserLoanSummary summary = lookups.getT3().get(userId);
+            int open = openLoans.computeIfAbsent(userId, id -> summary.getOpenLoans());
+            Set<Long> held = heldBooks.computeIfAbsent(userId, id -> new HashSet<>(summary.bookIdList()));
+            UserStatusDTO user = users.get(userId);
+            int copies = remainingCopies.getOrDefault(bookId, 0);
+
+            LoanValidationDTO validation = toValidation(item, user != null && user.isActive(), copies > 0,
+                    userLoanSummaries.withinLimit(open), !held.contains(bookId));
+            if (validation.getValid()) {
+                remainingCopies.put(bookId, copies - 1);
+                openLoans.put(userId, open + 1);
+                held.add(bookId);
+            }
+            validations.add(validation);
+        }
+        return validations;
+    }
+
+    private LoanValidationDTO toValidation(LoanCreateDTO createDTO, boolean userExists, boolean bookAvailable,
+                                           boolean withinLoanLimit, boolean noActiveLoanForBook) {
+        int loanDays = createDTO.getLoanDays() != null ? createDTO.getLoanDays() : loanConfig.getDefaultDays();
+
+        LoanValidationDTO validation = LoanValidationDTO.builder()
+                .userId(createDTO.getUserId())
+                .bookId(createDTO.getBookId())
+                .userExists(userExists)
+                .bookAvailable(bookAvailable)
+                .withinLoanLimit(withinLoanLimit)
+                .noActiveLoanForBook(noActiveLoanForBook)
+                .validLoanDays(loanDays >= MIN_LOAN_DAYS && loanDays <= MAX_LOAN_DAYS)
+                .build();
+
+        validation.setValid(validation.getUserExists()
+                && validation.getBookAvailable()
+                && validation.getWithinLoanLimit()
+                && validation.getNoActiveLoanForBook()
+                && validation.getValidLoanDays());
+
+        // Mensaje de error específico
+        if (!validation.getValid()) {
+            if (!validation.getUserExists()) {
+                validation.setMessage("Usuario no válido o no encontrado");
+            } else if (!validation.getBookAvailable()) {
+                validation.setMessage("El libro no tiene copias disponibles");
+            } else if (!validation.getWithinLoanLimit()) {
+                validation.setMessage(userLoanSummaries.limitReachedMessage());
+            } else if (!validation.getNoActiveLoanForBook()) {
+                validation.setMessage("El usuario ya tiene un préstamo activo de este libro");
+            } else {
+                validation.setMessage("Los días de préstamo deben estar entre 7 y 30 días");
+            }
+        } else {
+            validation.setMessage("Validación exitosa");
+        }
+
+        return validation;
+    }
+}
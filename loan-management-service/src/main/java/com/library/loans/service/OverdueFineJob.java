@@ -0,0 +1,44 @@
+package com.library.loans.service;
+
+import com.library.loans.repository.LoanBatchRepository;
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.OverdueLoanView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Multas de préstamos vencidos: en cada bloque guarda, con un lote JDBC, la multa acumulada
+ * a la fecha de la ejecución de los préstamos vencidos sin devolver. Es el único proceso que
+ * persiste multas de préstamos abiertos; las consultas las calculan al vuelo (ver LoanFines).
+ */
+@Component
+@RequiredArgsConstructor
+class OverdueFineJob implements ChunkedJob {
+
+    static final String NAME = "overdue-fines";
+
+    private final LoanRepository loanRepository;
+    private final LoanBatchRepository loanBatchRepository;
+    private final LoanFines loanFines;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public ChunkResult processChunk(LocalDate runDate, long afterId, int chunkSize) {
+        List<OverdueLoanView> loans = loanRepository.findFineViewsAfter(runDate, afterId, PageRequest.of(0, chunkSize));
+        if (loans.isEmpty()) {
+            return ChunkResult.empty(afterId);
+        }
+        loanBatchRepository.updateFines(loans.stream()
+                .map(loan -> new LoanBatchRepository.FineUpdate(loan.getId(), loanFines.fineFor(loan.getDueDate(), runDate)))
+                .toList());
+        return new ChunkResult(loans.size(), loans.get(loans.size() - 1).getId());
+    }
+}
@@ -0,0 +1,67 @@
+package com.library.loans.service;
+
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.OverdueLoanView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Préstamos vencidos: en cada bloque marca como OVERDUE, con un solo UPDATE, los préstamos
+ * activos que vencieron antes de la fecha de la ejecución y registra una notificación por
+ * préstamo en el outbox, que las entrega en lote a notifications-service. Las notificaciones
+ * salen de las filas que el UPDATE marcó de verdad, no de la lectura previa del bloque.
+ * DueDateScheduler ya marca cada préstamo a su hora; este proceso solo recoge los que quedaron sin marcar.
+ */
+@Component
+@RequiredArgsConstructor
+class OverdueLoanJob implements ChunkedJob {
+
+    static final String NAME = "overdue-loans";
+
+    private final LoanRepository loanRepository;
+    private final LoanOutbox loanOutbox;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public ChunkResult processChunk(LocalDate runDate, long afterId, int chunkSize) {
+        List<OverdueLoanView> loans = loanRepository.findOverdueViewsAfter(runDate, afterId, PageRequest.of(0, chunkSize));
+        if (loans.isEmpty()) {
+            return ChunkResult.empty(afterId);
+        }
+        long lastId = loans.get(loans.size() - 1).getId();
+        // Truncada a microsegundos, la precisión de updated_at, para poder releer las filas marcadas
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (loanRepository.markOverdueBetween(runDate, afterId, lastId, now) == 0) {
+            return new ChunkResult(loans.size(), lastId);
+        }
+
+        LocalDate today = LocalDate.now();
+        loanOutbox.enqueueNotifications(loanRepository.findMarkedOverdueBetween(afterId, lastId, now).stream()
+                .map(loan -> overdueNotification(loan.getUserId(), loan.getDueDate(), today))
+                .toList());
+        return new ChunkResult(loans.size(), lastId);
+    }
+
+    /**
+     * Aviso de préstamo vencido (también lo envía DueDateScheduler al vencer cada préstamo)
+     */
+    static LoanOutbox.PendingNotification overdueNotification(Long userId, LocalDate dueDate, LocalDate today) {
+        return new LoanOutbox.PendingNotification(
+                userId,
+                "LOAN_OVERDUE",
+                "Préstamo vencido",
+                "Tu préstamo está vencido hace " + (today.toEpochDay() - dueDate.toEpochDay())
+                        + " días. Por favor, devuelve el libro lo antes posible.",
+                "HIGH");
+    }
+}
@@ -0,0 +1,192 @@
+package com.library.loans.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Rueda de tiempo jerárquica: cada nivel tiene {@code wheelSize} casillas y cada casilla de un
+ * nivel abarca una vuelta completa del nivel inferior (p. ej. minutos, ~1 hora, ~3 días...).
+ * Un elemento se guarda en la casilla del nivel más bajo que alcanza su hora; al llegar la casilla
+ * de un nivel superior, sus elementos bajan a casillas más finas hasta vencer.
+ * Programar y cancelar cuestan O(1) y avanzar el reloj solo recorre casillas con elementos,
+ * aunque el salto de tiempo sea grande (p. ej. tras una pausa del proceso).
+ * No es segura para hilos: quien la usa debe sincronizar el acceso.
+ */
+class TimingWheel<T> {
+
+    private final int wheelSize;
+    private final Level root;
+    private final PriorityQueue<Bucket> pending = new PriorityQueue<>(Comparator.comparingLong(bucket -> bucket.expiration));
+    private final List<Timeout<T>> expired = new ArrayList<>();
+    private int size;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("La rueda necesita un tick positivo y al menos 2 casillas");
+        }
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMs, startMs);
+    }
+
+    /**
+     * Programar un elemento. Si su hora ya pasó (o cae en el tick actual) vence en el próximo {@link #advance}.
+     * @return el registro que permite cancelarlo
+     */
+    Timeout<T> schedule(T item, long fireAtMs) {
+        Timeout<T> timeout = new Timeout<>(item, fireAtMs);
+        if (!root.add(timeout)) {
+            expired.add(timeout);
+        }
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Quitar un elemento programado; no hace nada si ya venció o ya se canceló
+     */
+    void cancel(Timeout<T> timeout) {
+        if (timeout.done) {
+            return;
+        }
+        timeout.done = true;
+        if (timeout.bucket != null) {
+            timeout.bucket.timeouts.remove(timeout);
+            timeout.bucket = null;
+        } else {
+            expired.remove(timeout);
+        }
+        size--;
+    }
+
+    /**
+     * Avanzar el reloj hasta {@code nowMs}
+     * @return los elementos vencidos, en orden de vencimiento por casilla
+     */
+    List<T> advance(long nowMs) {
+        List<T> fired = new ArrayList<>();
+        for (Timeout<T> timeout : expired) {
+            fire(timeout, fired);
+        }
+        expired.clear();
+
+        while (!pending.isEmpty() && pending.peek().expiration <= nowMs) {
+            Bucket bucket = pending.poll();
+            root.advanceClock(bucket.expiration);
+            for (Timeout<T> timeout : bucket.flush()) {
+                if (!root.add(timeout)) {
+                    fire(timeout, fired);
+                }
+            }
+        }
+        root.advanceClock(nowMs);
+        return fired;
+    }
+
+    /**
+     * Elementos programados pendientes de vencer
+     */
+    int size() {
+        return size;
+    }
+
+    private void fire(Timeout<T> timeout, List<T> fired) {
+        timeout.done = true;
+        size--;
+        fired.add(timeout.item);
+    }
+
+    static final class Timeout<T> {
+
+        private final T item;
+        private final long fireAtMs;
+        private TimingWheel<T>.Bucket bucket;
+        private boolean done;
+
+        private Timeout(T item, long fireAtMs) {
+            this.item = item;
+            this.fireAtMs = fireAtMs;
+        }
+
+        T item() {
+            return item;
+        }
+
+        long fireAtMs() {
+            return fireAtMs;
+        }
+    }
+
+    private final class Bucket {
+
+        private final Set<Timeout<T>> timeouts = new LinkedHashSet<>();
+        private long expiration = -1;
+
+        void add(Timeout<T> timeout, long bucketExpiration) {
+            timeouts.add(timeout);
+            timeout.bucket = this;
+            // Una casilla vacía se reutiliza en una vuelta posterior: se vuelve a encolar con su nueva hora
+            if (expiration != bucketExpiration) {
+                expiration = bucketExpiration;
+                pending.add(this);
+            }
+        }
+
+        List<Timeout<T>> flush() {
+            List<Timeout<T>> flushed = new ArrayList<>(timeouts);
+            timeouts.clear();
+            flushed.forEach(timeout -> timeout.bucket = null);
+            expiration = -1;
+            return flushed;
+        }
+    }
+
+    private final class Level {
+
+        private final long tickMs;
+        private final long interval;
+        private final List<Bucket> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        Level(long tickMs, long startMs) {
+            this.tickMs = tickMs;
+            this.interval = tickMs * wheelSize;
+            this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket());
+            }
+        }
+
+        /**
+         * @return false si el elemento ya venció para este nivel
+         */
+        boolean add(Timeout<T> timeout) {
+            if (timeout.fireAtMs < currentTime + tickMs) {
+                return false;
+            }
+            if (timeout.fireAtMs < currentTime + interval) {
+                long virtualId = timeout.fireAtMs / tickMs;
+                buckets.get((int) Math.floorMod(virtualId, (long) wheelSize)).add(timeout, virtualId * tickMs);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime);
+            }
+            return overflow.add(timeout);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - Math.floorMod(timeMs, tickMs);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+}
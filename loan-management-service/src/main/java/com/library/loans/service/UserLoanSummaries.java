@@ -0,0 +1,111 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanConfig;
+import com.library.loans.model.UserLoanSummary;
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.UserLoanSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Préstamos abiertos por usuario (ver UserLoanSummary).
+ * Los usuarios sin resumen, por ejemplo con préstamos anteriores a la tabla, se inicializan
+ * a partir de sus préstamos abiertos la primera vez que se registra un cambio.
+ */
+@Component
+@RequiredArgsConstructor
+class UserLoanSummaries {
+
+    private final UserLoanSummaryRepository summaryRepository;
+    private final LoanRepository loanRepository;
+    private final LoanConfig loanConfig;
+
+    /**
+     * Resumen actual del usuario, sin bloquearlo (validación previa a crear el préstamo)
+     */
+    UserLoanSummary find(Long userId) {
+        return summaryRepository.findById(userId)
+                .orElseGet(() -> UserLoanSummary.of(userId, loanRepository.findOpenLoanBookIds(userId)));
+    }
+
+    /**
+     * Resúmenes actuales de varios usuarios, sin bloquearlos (validación de operaciones en lote)
+     */
+    Map<Long, UserLoanSummary> findAll(Collection<Long> userIds) {
+        Map<Long, UserLoanSummary> summaries = new HashMap<>();
+        summaryRepository.findAllById(userIds).forEach(summary -> summaries.put(summary.getUserId(), summary));
+        for (Long userId : userIds) {
+            summaries.computeIfAbsent(userId, id -> UserLoanSummary.of(id, loanRepository.findOpenLoanBookIds(id)));
+        }
+        return summaries;
+    }
+
+    boolean withinLimit(UserLoanSummary summary) {
+        return withinLimit(summary.getOpenLoans());
+    }
+
+    boolean withinLimit(int openLoans) {
+        return openLoans < loanConfig.getMaxActiveLoans();
+    }
+
+    String limitReachedMessage() {
+        return "El usuario ya tiene " + loanConfig.getMaxActiveLoans() + " préstamos activos. No se pueden crear más préstamos.";
+    }
+
+    /**
+     * Verificar el límite y el préstamo duplicado con el resumen bloqueado y registrar el nuevo libro
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Long userId, Long bookId) {
+        tryReserve(userId, bookId).ifPresent(rejection -> {
+            throw new RuntimeException(rejection);
+        });
+    }
+
+    /**
+     * Igual que {@link #reserve}, pero sin lanzar excepción: devuelve el motivo del rechazo.
+     * Las operaciones en lote lo usan para rechazar un ítem sin revertir la transacción de los demás.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<String> tryReserve(Long userId, Long bookId) {
+        UserLoanSummary summary = lock(userId);
+        if (!withinLimit(summary)) {
+            return Optional.of(limitReachedMessage());
+        }
+        if (summary.holdsBook(bookId)) {
+            return Optional.of("El usuario ya tiene un préstamo activo de este libro");
+        }
+        summary.addLoan(bookId);
+        summaryRepository.save(summary);
+        return Optional.empty();
+    }
+
+    /**
+     * Quitar del resumen un préstamo devuelto o cancelado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long userId, Long bookId) {
+        UserLoanSummary summary = lock(userId);
+        summary.removeLoan(bookId);
+        summaryRepository.save(summary);
+    }
+
+    private UserLoanSummary lock(Long userId) {
+        // Comprobar sin bloqueo antes de insertar: un SELECT ... FOR UPDATE sobre una fila
+        // inexistente toma un bloqueo de rango que puede provocar interbloqueos entre altas concurrentes
+        if (!summaryRepository.existsById(userId)) {
+            UserLoanSummary initial = UserLoanSummary.of(userId, loanRepository.findOpenLoanBookIds(userId));
+            summaryRepository.insertIfAbsent(userId, initial.getOpenLoans(), initial.getBookIds(), LocalDateTime.now());
+        }
+        return summaryRepository.findForUpdate(userId)
+                .orElseThrow(() -> new RuntimeException("No se pudo registrar el préstamo del usuario " + userId));
+    }
+}
@@ -0,0 +1,94 @@
+package com.library.loans.client;
+
+import com.library.http.DownstreamWebClients;
+import com.library.loans.config.MicroservicesConfig;
+import com.library.loans.config.UserStatusCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceClientTest {
+
+    private final List<String> requests = new ArrayList<>();
+    private final Map<String, ClientResponse> responses = Map.of(
+            "/api/users/1/status", json("{\"id\":1,\"status\":\"ACTIVO\",\"role\":\"USUARIO\"}"),
+            "/api/users/2/status", json("{\"id\":2,\"status\":\"BLOQUEADO\",\"role\":\"USUARIO\"}"),
+            "/api/users/3/status", ClientResponse.create(HttpStatus.NOT_FOUND).build(),
+            "/api/users/4/status", ClientResponse.create(HttpStatus.UNAUTHORIZED).build());
+
+    private final AtomicLong now = new AtomicLong();
+    private UserStatusCacheConfig cacheConfig;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request.url().getPath());
+                    return Mono.just(responses.get(request.url().getPath()));
+                })
+                .build();
+        DownstreamWebClients downstreamWebClients = mock(DownstreamWebClients.class);
+        when(downstreamWebClients.create(eq("user-management"), any())).thenReturn(webClient);
+        cacheConfig = new UserStatusCacheConfig();
+        client = new UserServiceClient(downstreamWebClients, new MicroservicesConfig(),
+                new UserStatusCache(cacheConfig, now::get));
+    }
+
+    @Test
+    void testValidateUser_CachesStatusAndRejectsBlockedUsers() {
+        assertTrue(client.validateUser(1L, "token").block());
+        assertTrue(client.validateUser(1L, "token").block());
+        assertFalse(client.validateUser(2L, "token").block());
+        assertFalse(client.validateUser(2L, "token").block());
+
+        assertEquals(List.of("/api/users/1/status", "/api/users/2/status"), requests);
+
+        now.addAndGet(cacheConfig.getTtlMs());
+        assertTrue(client.validateUser(1L, "token").block());
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void testValidateUser_CachesMissingUsersForShorterTime() {
+        assertFalse(client.validateUser(3L, "token").block());
+        now.addAndGet(cacheConfig.getNotFoundTtlMs() - 1);
+        assertFalse(client.validateUser(3L, "token").block());
+        assertEquals(1, requests.size());
+
+        now.addAndGet(1);
+        assertFalse(client.validateUser(3L, "token").block());
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void testValidateUser_DoesNotCacheErrors() {
+        assertFalse(client.validateUser(4L, "token").block());
+        assertFalse(client.validateUser(4L, "token").block());
+
+        assertEquals(2, requests.size());
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanJobsConfig;
+import com.library.loans.model.JobRun;
+import com.library.loans.repository.JobRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedJobRunnerTest {
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LoanJobsConfig jobsConfig;
+    private ChunkedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        jobsConfig = new LoanJobsConfig();
+        jobsConfig.setChunkSize(10);
+        runner = new ChunkedJobRunner(jobRunRepository, jobsConfig, transactionTemplate);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jobRunRepository.save(any(JobRun.class))).thenAnswer(invocation -> {
+            JobRun run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(1L);
+            }
+            return run;
+        });
+    }
+
+    @Test
+    void testRun_ProcessesChunksAndRecordsMetrics() {
+        when(jobRunRepository.findFirstByJobNameAndStatusInOrderByIdDesc(eq("test"), anyCollection()))
+                .thenReturn(Optional.empty());
+        RangeJob job = new RangeJob(25, -1);
+
+        JobRun run = runner.run(job).orElseThrow();
+
+        assertEquals(JobRun.Status.COMPLETED, run.getStatus());
+        assertEquals(25L, run.getRowsProcessed());
+        assertEquals(3, run.getChunks());
+        assertEquals(25L, run.getLastId());
+        assertEquals(0, run.getFailures());
+        assertEquals(List.of(0L, 10L, 20L), job.afterIds);
+    }
+
+    @Test
+    void testRun_ResumesFailedRunFromCheckpoint() {
+        JobRun failed = JobRun.builder()
+                .id(7L)
+                .jobName("test")
+                .runDate(LocalDate.now())
+                .status(JobRun.Status.FAILED)
+                .lastId(20L)
+                .rowsProcessed(20L)
+                .chunks(2)
+                .failures(1)
+                .startedAt(LocalDateTime.now().minusHours(1))
+                .heartbeatAt(LocalDateTime.now().minusHours(1))
+                .build();
+        when(jobRunRepository.findFirstByJobNameAndStatusInOrderByIdDesc(eq("test"), anyCollection()))
+                .thenReturn(Optional.of(failed));
+        RangeJob job = new RangeJob(25, -1);
+
+        JobRun run = runner.run(job).orElseThrow();
+
+        assertEquals(List.of(20L), job.afterIds);
+        assertEquals(JobRun.Status.COMPLETED, run.getStatus());
+        assertEquals(25L, run.getRowsProcessed());
+        assertEquals(1, run.getFailures());
+    }
+
+    @Test
+    void testRun_FailedChunkKeepsLastCommittedCheckpoint() {
+        when(jobRunRepository.findFirstByJobNameAndStatusInOrderByIdDesc(eq("test"), anyCollection()))
+                .thenReturn(Optional.empty());
+        JobRun committed = JobRun.builder()
+                .id(1L)
+                .jobName("test")
+                .runDate(LocalDate.now())
+                .lastId(10L)
+                .rowsProcessed(10L)
+                .chunks(1)
+                .startedAt(LocalDateTime.now())
+                .heartbeatAt(LocalDateTime.now())
+                .build();
+        when(jobRunRepository.findById(1L)).thenReturn(Optional.of(committed));
+
+        JobRun run = runner.run(new RangeJob(25, 10)).orElseThrow();
+
+        assertEquals(JobRun.Status.FAILED, run.getStatus());
+        assertEquals(10L, run.getLastId());
+        assertEquals(1, run.getFailures());
+        assertEquals("Bloque inválido", run.getLastError());
+    }
+
+    /**
+     * Proceso de prueba sobre los IDs 1..total, que falla al procesar el bloque posterior a {@code failAfterId}
+     */
+    private static class RangeJob implements ChunkedJob {
+
+        private final int total;
+        private final long failAfterId;
+        private final List<Long> afterIds = new ArrayList<>();
+
+        RangeJob(int total, long failAfterId) {
+            this.total = total;
+            this.failAfterId = failAfterId;
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public ChunkResult processChunk(LocalDate runDate, long afterId, int chunkSize) {
+            afterIds.add(afterId);
+            if (afterId == failAfterId) {
+                throw new IllegalStateException("Bloque inválido");
+            }
+            long lastId = Math.min(afterId + chunkSize, total);
+            return lastId > afterId ? new ChunkResult((int) (lastId - afterId), lastId) : ChunkResult.empty(afterId);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanDueDatesConfig;
+import com.library.loans.model.Loan;
+import com.library.loans.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DueDateSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong clock = new AtomicLong(millis(TODAY.atTime(21, 0)));
+    private LoanDueDatesConfig config;
+    private DueDateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoanDueDatesConfig();
+        scheduler = new DueDateScheduler(loanRepository, loanOutbox, config, transactionTemplate, clock::get);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReminderAt_SpreadsLoansDueSameDayAcrossWindow() {
+        LocalDate dueDate = TODAY.plusDays(14);
+
+        var perHour = LongStream.rangeClosed(5000, 6199)
+                .mapToObj(id -> scheduler.reminderAt(id, dueDate))
+                .peek(at -> assertEquals(dueDate.minusDays(2), at.toLocalDate()))
+                .collect(Collectors.groupingBy(LocalDateTime::getHour, Collectors.counting()));
+
+        assertEquals(12, perHour.size());
+        assertTrue(perHour.keySet().stream().allMatch(hour -> hour >= 8 && hour < 20));
+        assertTrue(perHour.values().stream().allMatch(count -> count >= 70 && count <= 130),
+                "Reparto por hora desigual: " + perHour);
+    }
+
+    @Test
+    void testTick_CatchesUpMissedDeadlinesAndReschedulesExtendedLoans() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Loan dueSoon = loan(1L, TODAY.plusDays(2));
+        Loan overdue = loan(2L, TODAY.minusDays(1));
+        Loan extended = loan(3L, TODAY.plusDays(9));
+        when(loanRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(dueSoon, overdue, extended));
+        // La rueda conserva la fecha anterior a la extensión del préstamo 3
+        scheduler.schedule(dueSoon);
+        scheduler.schedule(overdue);
+        scheduler.schedule(loan(3L, TODAY.plusDays(2)));
+
+        scheduler.tick();
+
+        assertNotNull(dueSoon.getDueReminderSentAt());
+        assertEquals(Loan.Status.OVERDUE, overdue.getStatus());
+        assertNull(extended.getDueReminderSentAt());
+        verify(loanOutbox).enqueueNotifications(argThat(notifications -> notifications.size() == 2
+                && notifications.get(0).type().equals("LOAN_DUE")
+                && notifications.get(0).message().startsWith("Tu préstamo vence en 2 días")
+                && notifications.get(1).type().equals("LOAN_OVERDUE")));
+        // Quedan el aviso de vencido del préstamo 1 y los dos avisos reprogramados del préstamo 3
+        assertEquals(3, scheduler.pending());
+
+        clock.set(millis(scheduler.reminderAt(3L, TODAY.plusDays(9))));
+        scheduler.tick();
+
+        assertNotNull(extended.getDueReminderSentAt());
+    }
+
+    @Test
+    void testScheduleAndUnschedule_ApplyOnlyAfterCommit() {
+        Loan loan = loan(1L, TODAY.plusDays(14));
+
+        TransactionSynchronizationManager.initSynchronization();
+        scheduler.schedule(loan);
+        assertEquals(0, scheduler.pending());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(2, scheduler.pending());
+
+        // Una devolución revertida conserva los avisos
+        TransactionSynchronizationManager.initSynchronization();
+        scheduler.unschedule(loan.getId());
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(2, scheduler.pending());
+
+        TransactionSynchronizationManager.initSynchronization();
+        scheduler.unschedule(loan.getId());
+        assertEquals(2, scheduler.pending());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void testSchedule_RolledBackExtensionKeepsPreviousDeadlines() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Loan loan = loan(1L, TODAY.plusDays(2));
+        scheduler.schedule(loan);
+
+        TransactionSynchronizationManager.initSynchronization();
+        scheduler.schedule(loan(1L, TODAY.plusDays(9)));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        when(loanRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(loan));
+        scheduler.tick();
+
+        // El aviso de vencimiento próximo sigue en la fecha anterior a la extensión revertida
+        assertNotNull(loan.getDueReminderSentAt());
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private static Loan loan(Long id, LocalDate dueDate) {
+        return Loan.builder()
+                .id(id)
+                .userId(10L + id)
+                .bookId(20L + id)
+                .loanDate(dueDate.minusDays(14))
+                .dueDate(dueDate)
+                .status(Loan.Status.ACTIVE)
+                .build();
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
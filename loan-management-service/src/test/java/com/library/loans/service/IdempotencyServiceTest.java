@@ -0,0 +1,164 @@
+package com.library.loans.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.loans.config.LoanIdempotencyConfig;
+import com.library.loans.dto.LoanResponseDTO;
+import com.library.loans.model.IdempotencyRecord;
+import com.library.loans.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(recordRepository, new LoanIdempotencyConfig(), objectMapper, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testExecute_ReplaysStoredResponseWithoutRunningAgain() {
+        when(recordRepository.claim(eq("key-1"), anyString(), any(), any())).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotencyService.Result<LoanResponseDTO> first = idempotencyService.execute("key-1", "POST /api/loans", "body",
+                LoanResponseDTO.class, () -> loan(runs.incrementAndGet()));
+        IdempotencyService.Result<LoanResponseDTO> retry = idempotencyService.execute("key-1", "POST /api/loans", "body",
+                LoanResponseDTO.class, () -> loan(runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.body(), retry.body());
+        verify(recordRepository).complete(eq("key-1"), contains("\"id\":1"), any());
+    }
+
+    @Test
+    void testExecute_OtherInstanceReplaysFromDatabaseAndRejectsDifferentRequest() {
+        when(recordRepository.claim(eq("key-2"), anyString(), any(), any())).thenReturn(1).thenReturn(0);
+        when(recordRepository.reclaimExpired(eq("key-2"), anyString(), any(), any())).thenReturn(0);
+        idempotencyService.execute("key-2", "POST /api/loans/7/return", null, LoanResponseDTO.class, () -> loan(7));
+
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(recordRepository).claim(eq("key-2"), fingerprint.capture(), any(), any());
+        verify(recordRepository).complete(eq("key-2"), body.capture(), any());
+        when(recordRepository.findById("key-2")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .idempotencyKey("key-2")
+                .fingerprint(fingerprint.getValue())
+                .status(IdempotencyRecord.Status.COMPLETED)
+                .responseBody(body.getValue())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build()));
+        IdempotencyService otherInstance = new IdempotencyService(recordRepository, new LoanIdempotencyConfig(),
+                objectMapper, transactionTemplate);
+
+        IdempotencyService.Result<LoanResponseDTO> replay = otherInstance.execute("key-2", "POST /api/loans/7/return", null,
+                LoanResponseDTO.class, () -> fail("No debería ejecutarse"));
+        RuntimeException reused = assertThrows(RuntimeException.class, () -> otherInstance.execute("key-2",
+                "POST /api/loans/8/return", null, LoanResponseDTO.class, () -> fail("No debería ejecutarse")));
+
+        assertTrue(replay.replayed());
+        assertEquals(7L, replay.body().getId());
+        assertEquals("La Idempotency-Key ya se usó con una solicitud distinta", reused.getMessage());
+    }
+
+    @Test
+    void testExecute_CollapsesConcurrentDuplicates() throws Exception {
+        when(recordRepository.claim(eq("key-3"), anyString(), any(), any())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<IdempotencyService.Result<LoanResponseDTO>> leader = pool.submit(() -> idempotencyService.execute(
+                    "key-3", "POST /api/loans", "body", LoanResponseDTO.class, () -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                        return loan(runs.incrementAndGet());
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<IdempotencyService.Result<LoanResponseDTO>>> duplicates = List.of(
+                    pool.submit(() -> idempotencyService.execute("key-3", "POST /api/loans", "body",
+                            LoanResponseDTO.class, () -> loan(runs.incrementAndGet()))),
+                    pool.submit(() -> idempotencyService.execute("key-3", "POST /api/loans", "body",
+                            LoanResponseDTO.class, () -> loan(runs.incrementAndGet()))));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertFalse(leader.get(5, TimeUnit.SECONDS).replayed());
+            for (Future<IdempotencyService.Result<LoanResponseDTO>> duplicate : duplicates) {
+                assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+            }
+            assertEquals(1, runs.get());
+            verify(recordRepository, times(1)).claim(eq("key-3"), anyString(), any(), any());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_FailedOperationReleasesKey() {
+        when(recordRepository.claim(eq("key-4"), anyString(), any(), any())).thenReturn(1);
+
+        assertThrows(RuntimeException.class, () -> idempotencyService.execute("key-4", "POST /api/loans", "body",
+                LoanResponseDTO.class, () -> {
+                    throw new RuntimeException("El libro no está disponible");
+                }));
+
+        verify(recordRepository).release("key-4");
+        verify(recordRepository, never()).complete(any(), any(), any());
+    }
+
+    private static LoanResponseDTO loan(long id) {
+        return LoanResponseDTO.builder().id(id).userId(1L).bookId(2L).dueDate(LocalDate.of(2024, 1, 29)).build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanConfig;
+import com.library.loans.dto.BulkLoanItemResultDTO;
+import com.library.loans.dto.BulkLoanResultDTO;
+import com.library.loans.dto.LoanCreateDTO;
+import com.library.loans.dto.LoanValidationDTO;
+import com.library.loans.model.Loan;
+import com.library.loans.repository.LoanBatchRepository;
+import com.library.loans.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanBulkServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanBatchRepository loanBatchRepository;
+
+    @Mock
+    private LoanValidationEngine loanValidationEngine;
+
+    @Mock
+    private UserLoanSummaries userLoanSummaries;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private DueDateScheduler dueDateScheduler;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LoanConfig loanConfig;
+    private LoanBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        loanConfig = new LoanConfig();
+        bulkService = new LoanBulkService(loanRepository, loanBatchRepository, loanValidationEngine, userLoanSummaries,
+                loanOutbox, new LoanFines(loanConfig), dueDateScheduler, loanConfig, transactionTemplate);
+    }
+
+    @Test
+    void testCreateLoans_ReportsEachItemAndWritesAcceptedInOneBatch() {
+        mockTransaction();
+        List<LoanCreateDTO> items = new ArrayList<>(List.of(item(2L, 10L), item(1L, 11L), item(3L, 12L)));
+        items.add(1, item(null, 13L));
+        when(loanValidationEngine.validateBatch(anyList(), eq("token"))).thenReturn(List.of(
+                validation(true, "Validación exitosa"),
+                validation(true, "Validación exitosa"),
+                validation(false, "El libro no tiene copias disponibles")));
+        when(userLoanSummaries.tryReserve(anyLong(), anyLong())).thenReturn(Optional.empty());
+        when(userLoanSummaries.tryReserve(2L, 10L)).thenReturn(Optional.of("El usuario ya tiene un préstamo activo de este libro"));
+        doAnswer(invocation -> {
+            List<Loan> loans = invocation.getArgument(0);
+            loans.forEach(loan -> loan.setId(100L + loan.getUserId()));
+            return null;
+        }).when(loanBatchRepository).insertLoans(anyList());
+
+        BulkLoanResultDTO result = bulkService.createLoans(items, "token");
+
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(3, result.getFailed());
+        assertEquals("El usuario ya tiene un préstamo activo de este libro", result.getResults().get(0).getMessage());
+        assertEquals("El ID del usuario y el ID del libro son obligatorios", result.getResults().get(1).getMessage());
+        assertTrue(result.getResults().get(2).getSuccess());
+        assertEquals(101L, result.getResults().get(2).getLoanId());
+        assertEquals("El libro no tiene copias disponibles", result.getResults().get(3).getMessage());
+        // Los cupos se reservan en orden de usuario
+        var inOrder = inOrder(userLoanSummaries);
+        inOrder.verify(userLoanSummaries).tryReserve(1L, 11L);
+        inOrder.verify(userLoanSummaries).tryReserve(2L, 10L);
+        verify(loanBatchRepository).insertLoans(argThat(loans -> loans.size() == 1));
+        verify(loanOutbox).enqueueCopyChanges(List.of(11L), -1);
+        verify(loanOutbox).enqueueNotifications(argThat(notifications -> notifications.size() == 1));
+    }
+
+    @Test
+    void testReturnLoans_RejectsMissingRepeatedAndClosedLoans() {
+        mockTransaction();
+        Loan overdue = loan(1L, 5L, 20L, Loan.Status.ACTIVE, LocalDate.now().minusDays(2));
+        Loan onTime = loan(2L, 4L, 21L, Loan.Status.ACTIVE, LocalDate.now().plusDays(3));
+        Loan returned = loan(3L, 4L, 22L, Loan.Status.RETURNED, LocalDate.now().plusDays(3));
+        when(loanRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(overdue, onTime, returned));
+
+        BulkLoanResultDTO result = bulkService.returnLoans(Arrays.asList(1L, 2L, 1L, 3L, 99L, null));
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(List.of("Libro devuelto", "Libro devuelto", "Préstamo repetido en la solicitud",
+                        "El préstamo no está activo", "Préstamo no encontrado", "El ID del préstamo es obligatorio"),
+                result.getResults().stream().map(BulkLoanItemResultDTO::getMessage).toList());
+        assertEquals(Loan.Status.RETURNED, overdue.getStatus());
+        assertEquals(0, new BigDecimal("10.00").compareTo(overdue.getFineAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(onTime.getFineAmount()));
+        verify(userLoanSummaries, never()).release(eq(4L), eq(22L));
+        verify(loanRepository).saveAll(List.of(onTime, overdue));
+        verify(loanOutbox).enqueueCopyChanges(List.of(21L, 20L), 1);
+    }
+
+    @Test
+    void testCreateLoans_RejectsOversizedRequest() {
+        loanConfig.setBulkMaxItems(2);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> bulkService.createLoans(
+                Collections.nCopies(3, item(1L, 1L)), "token"));
+
+        assertEquals("Se pueden procesar como máximo 2 ítems por solicitud", error.getMessage());
+        verifyNoInteractions(loanValidationEngine, transactionTemplate);
+    }
+
+    private void mockTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static LoanCreateDTO item(Long userId, Long bookId) {
+        LoanCreateDTO item = new LoanCreateDTO();
+        item.setUserId(userId);
+        item.setBookId(bookId);
+        return item;
+    }
+
+    private static LoanValidationDTO validation(boolean valid, String message) {
+        return LoanValidationDTO.builder().valid(valid).message(message).build();
+    }
+
+    private static Loan loan(Long id, Long userId, Long bookId, Loan.Status status, LocalDate dueDate) {
+        return Loan.builder()
+                .id(id)
+                .userId(userId)
+                .bookId(bookId)
+                .loanDate(dueDate.minusDays(14))
+                .dueDate(dueDate)
+                .status(status)
+                .loanDays(14)
+                .fineAmount(BigDecimal.ZERO)
+                .extensionsCount(0)
+                .build();
+    }
+}
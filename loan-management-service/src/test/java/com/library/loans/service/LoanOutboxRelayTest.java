@@ -0,0 +1,203 @@
+package com.library.loans.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loans.client.BookServiceClient;
+import com.library.loans.client.NotificationServiceClient;
+import com.library.loans.config.LoanOutboxConfig;
+import com.library.loans.dto.CopyAdjustmentDTO;
+import com.library.loans.dto.CopyAdjustmentResultDTO;
+import com.library.loans.dto.NotificationBatchItemResultDTO;
+import com.library.loans.dto.NotificationBatchResponseDTO;
+import com.library.loans.model.OutboxEvent;
+import com.library.loans.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanOutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private BookServiceClient bookServiceClient;
+
+    @Mock
+    private NotificationServiceClient notificationServiceClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LoanOutboxConfig outboxConfig;
+    private LoanOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxConfig = new LoanOutboxConfig();
+        relay = new LoanOutboxRelay(outboxEventRepository, bookServiceClient, notificationServiceClient,
+                outboxConfig, new ObjectMapper(), transactionTemplate);
+    }
+
+    @Test
+    void testDeliver_CoalescesCopyChangesPerBook() {
+        when(bookServiceClient.updateBookCopiesBatch(List.of(new CopyAdjustmentDTO(1L, -2, List.of(1L, 2L)))))
+                .thenReturn(Mono.just(List.of(result(1L, -2, true))));
+
+        List<LoanOutboxRelay.Delivery> deliveries = relay.deliver(List.of(
+                copies(1L, 1L, -1), copies(2L, 1L, -1), copies(3L, 2L, -1), copies(4L, 2L, 1)));
+
+        assertEquals(4, deliveries.size());
+        assertTrue(deliveries.stream().allMatch(LoanOutboxRelay.Delivery::delivered));
+        verify(bookServiceClient, times(1)).updateBookCopiesBatch(anyList());
+    }
+
+    @Test
+    void testDeliver_RejectedCombinedChangeFallsBackToSingleChanges() {
+        when(bookServiceClient.updateBookCopiesBatch(List.of(new CopyAdjustmentDTO(1L, -2, List.of(1L, 2L)))))
+                .thenReturn(Mono.just(List.of(result(1L, -2, false))));
+        when(bookServiceClient.updateBookCopiesBatch(List.of(
+                new CopyAdjustmentDTO(1L, -1, List.of(1L)), new CopyAdjustmentDTO(1L, -1, List.of(2L)))))
+                .thenReturn(Mono.just(List.of(result(1L, -1, true), result(1L, -1, false))));
+
+        List<LoanOutboxRelay.Delivery> deliveries = relay.deliver(List.of(copies(1L, 1L, -1), copies(2L, 1L, -1)));
+
+        assertEquals(List.of(
+                LoanOutboxRelay.Delivery.sent(1L),
+                LoanOutboxRelay.Delivery.rejected(2L, "No hay copias disponibles suficientes")), deliveries);
+    }
+
+    @Test
+    void testDeliver_RetriesTimedOutCopyBatchWithSameEventIds() {
+        outboxConfig.setDeliveryTimeoutMs(50L);
+        List<CopyAdjustmentDTO> adjustment = List.of(new CopyAdjustmentDTO(1L, -2, List.of(1L, 2L)));
+        // book-catalog aplicó el ajuste pero la respuesta no llegó a tiempo; en el reintento lo reconoce
+        when(bookServiceClient.updateBookCopiesBatch(adjustment))
+                .thenReturn(Mono.never())
+                .thenReturn(Mono.just(List.of(CopyAdjustmentResultDTO.builder()
+                        .bookId(1L).change(-2).success(true).message("Ajuste ya aplicado").build())));
+        List<OutboxEvent> events = List.of(copies(1L, 1L, -1), copies(2L, 1L, -1));
+
+        List<LoanOutboxRelay.Delivery> timedOut = relay.deliver(events);
+        List<LoanOutboxRelay.Delivery> retried = relay.deliver(events);
+
+        assertTrue(timedOut.stream().allMatch(LoanOutboxRelay.Delivery::retryable));
+        assertEquals(List.of(LoanOutboxRelay.Delivery.sent(1L), LoanOutboxRelay.Delivery.sent(2L)), retried);
+        verify(bookServiceClient, times(2)).updateBookCopiesBatch(adjustment);
+    }
+
+    @Test
+    void testDeliver_SendsOneNotificationPerEventEvenWithIdenticalPayloads() {
+        when(notificationServiceClient.sendNotificationsBatch(anyList())).thenReturn(Mono.empty());
+
+        // Préstamo en lote de tres libros para el mismo usuario: tres notificaciones con el mismo contenido
+        List<LoanOutboxRelay.Delivery> deliveries = relay.deliver(List.of(
+                notification(1L, "{\"userId\":5,\"title\":\"Préstamo creado\"}"),
+                notification(2L, "{\"userId\":5,\"title\":\"Préstamo creado\"}"),
+                notification(3L, "{\"userId\":5,\"title\":\"Préstamo creado\"}")));
+
+        assertEquals(List.of(LoanOutboxRelay.Delivery.sent(1L), LoanOutboxRelay.Delivery.sent(2L),
+                LoanOutboxRelay.Delivery.sent(3L)), deliveries);
+        verify(notificationServiceClient).sendNotificationsBatch(argThat(batch -> batch.size() == 3));
+    }
+
+    @Test
+    void testDeliver_RejectsOnlyNotificationsRejectedInBatch() {
+        when(notificationServiceClient.sendNotificationsBatch(anyList())).thenReturn(Mono.just(NotificationBatchResponseDTO.builder()
+                .results(List.of(
+                        NotificationBatchItemResultDTO.builder().index(0).success(false).message("El título es obligatorio").build(),
+                        NotificationBatchItemResultDTO.builder().index(1).success(true).id(7L).build(),
+                        NotificationBatchItemResultDTO.builder().index(2).success(true).id(8L).build()))
+                .build()));
+
+        List<LoanOutboxRelay.Delivery> deliveries = relay.deliver(List.of(
+                notification(1L, "{\"userId\":5,\"title\":\"\"}"),
+                notification(2L, "{\"userId\":5,\"title\":\"Válida\"}"),
+                notification(3L, "{\"userId\":5,\"title\":\"Válida\"}")));
+
+        assertEquals(List.of(LoanOutboxRelay.Delivery.rejected(1L, "El título es obligatorio"),
+                LoanOutboxRelay.Delivery.sent(2L),
+                LoanOutboxRelay.Delivery.sent(3L)), deliveries);
+        verify(notificationServiceClient, never()).sendNotification(anyMap());
+    }
+
+    @Test
+    void testDeliver_RejectedNotificationBatchFallsBackToSingleSends() {
+        when(notificationServiceClient.sendNotificationsBatch(anyList())).thenReturn(Mono.error(
+                WebClientResponseException.create(400, "Bad Request", null, null, null)));
+        when(notificationServiceClient.sendNotification(anyMap())).thenAnswer(invocation ->
+                "".equals(invocation.<Map<String, Object>>getArgument(0).get("title"))
+                        ? Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null))
+                        : Mono.empty());
+
+        List<LoanOutboxRelay.Delivery> deliveries = relay.deliver(List.of(
+                notification(1L, "{\"userId\":5,\"title\":\"Válida\"}"),
+                notification(2L, "{\"userId\":5,\"title\":\"\"}")));
+
+        assertTrue(deliveries.contains(LoanOutboxRelay.Delivery.sent(1L)));
+        assertTrue(deliveries.contains(LoanOutboxRelay.Delivery.rejected(2L, "400 Bad Request")));
+    }
+
+    @Test
+    void testComplete_ReschedulesTransientFailuresUntilMaxAttempts() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(bookServiceClient.updateBookCopiesBatch(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("Connection refused")));
+        OutboxEvent firstTry = copies(1L, 1L, -1);
+        OutboxEvent lastTry = copies(2L, 2L, -1);
+        firstTry.setAttempts(1);
+        lastTry.setAttempts(outboxConfig.getMaxAttempts());
+
+        relay.complete(List.of(firstTry, lastTry), relay.deliver(List.of(firstTry, lastTry)));
+
+        verify(outboxEventRepository).reschedule(eq(1L), any(), contains("Connection refused"));
+        verify(outboxEventRepository).markFailed(eq(2L), any(), startsWith("Reintentos agotados"));
+        verify(outboxEventRepository, never()).markSent(anyCollection(), any());
+        assertEquals(Duration.ofSeconds(4), relay.backoff(3));
+        assertEquals(Duration.ofMillis(outboxConfig.getMaxBackoffMs()), relay.backoff(30));
+    }
+
+    private static OutboxEvent copies(Long id, Long bookId, int change) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEvent.Type.BOOK_COPIES)
+                .aggregateId(bookId)
+                .payload("{\"change\":" + change + "}")
+                .attempts(1)
+                .build();
+    }
+
+    private static OutboxEvent notification(Long id, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEvent.Type.NOTIFICATION)
+                .aggregateId(5L)
+                .payload(payload)
+                .attempts(1)
+                .build();
+    }
+
+    private static CopyAdjustmentResultDTO result(Long bookId, int change, boolean success) {
+        return CopyAdjustmentResultDTO.builder()
+                .bookId(bookId)
+                .change(change)
+                .success(success)
+                .message(success ? null : "No hay copias disponibles suficientes")
+                .build();
+    }
+}
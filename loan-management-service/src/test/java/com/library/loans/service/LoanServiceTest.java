@@ -3,24 +3,32 @@ package com.library.loans.service;
 import com.library.loans.client.BookServiceClient;
 import com.library.loans.client.UserServiceClient;
 import com.library.loans.config.LoanConfig;
+import com.library.loans.dto.FineCalculationDTO;
 import com.library.loans.dto.LoanCreateDTO;
 import com.library.loans.dto.LoanResponseDTO;
 import com.library.loans.model.Loan;
 import com.library.loans.repository.LoanHistoryRepository;
 import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.OverdueLoanSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +49,9 @@ class LoanServiceTest {
     @Mock
     private LoanConfig loanConfig;
 
+    @Spy
+    private LoanFines loanFines = new LoanFines(new LoanConfig());
+
     @InjectMocks
     private LoanService loanService;
 
@@ -91,5 +102,35 @@ class LoanServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
 
+    @Test
+    void testGetOverdueLoans_ComputesFinesWithoutWrites() {
+        OverdueLoanSummary overdue = mock(OverdueLoanSummary.class);
+        when(overdue.getId()).thenReturn(1L);
+        when(overdue.getDueDate()).thenReturn(LocalDate.now().minusDays(3));
+        when(loanRepository.findOverdueSummaries(any(LocalDate.class), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(overdue), invocation.getArgument(1), 1200));
+
+        Page<LoanResponseDTO> result = loanService.getOverdueLoans(0, 10_000);
+
+        assertEquals(1200, result.getTotalElements());
+        assertEquals(500, result.getSize());
+        assertEquals(Loan.Status.OVERDUE, result.getContent().get(0).getStatus());
+        assertEquals(0, new BigDecimal("15.0").compareTo(result.getContent().get(0).getFineAmount()));
+        verify(loanRepository, never()).save(any());
+    }
+
+    @Test
+    void testCalculateFine_ReadOnlyForMaterializedOverdueLoan() {
+        testLoan.setDueDate(LocalDate.now().minusDays(4));
+        testLoan.setStatus(Loan.Status.OVERDUE);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(testLoan));
+
+        FineCalculationDTO result = loanService.calculateFine(1L);
+
+        assertEquals(4, result.getDaysOverdue());
+        assertEquals(0, new BigDecimal("20.0").compareTo(result.getTotalFine()));
+        assertEquals(BigDecimal.ZERO, testLoan.getFineAmount());
+        verify(loanRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,136 @@
+package com.library.loans.service;
+
+import com.library.loans.client.BookServiceClient;
+import com.library.loans.client.UserServiceClient;
+import com.library.loans.config.LoanConfig;
+import com.library.loans.config.LoanValidationConfig;
+import com.library.loans.dto.LoanCreateDTO;
+import com.library.loans.dto.LoanValidationDTO;
+import com.library.loans.model.UserLoanSummary;
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.UserLoanSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanValidationEngineTest {
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private BookServiceClient bookServiceClient;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private UserLoanSummaryRepository summaryRepository;
+
+    private LoanConfig loanConfig;
+    private LoanValidationConfig validationConfig;
+    private LoanValidationEngine engine;
+    private LoanCreateDTO createDTO;
+
+    @BeforeEach
+    void setUp() {
+        loanConfig = new LoanConfig();
+        validationConfig = new LoanValidationConfig();
+        engine = new LoanValidationEngine(userServiceClient, bookServiceClient,
+                new UserLoanSummaries(summaryRepository, loanRepository, loanConfig), loanConfig, validationConfig);
+
+        createDTO = new LoanCreateDTO();
+        createDTO.setUserId(1L);
+        createDTO.setBookId(7L);
+        createDTO.setLoanDays(14);
+    }
+
+    @Test
+    void testValidate_RunsChecksConcurrently() {
+        when(userServiceClient.validateUser(1L, "token")).thenReturn(Mono.just(true).delayElement(Duration.ofMillis(300)));
+        when(bookServiceClient.checkBookAvailability(7L)).thenReturn(Mono.just(true).delayElement(Duration.ofMillis(300)));
+        when(loanRepository.findOpenLoanBookIds(1L)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        LoanValidationDTO result = engine.validate(createDTO, "token");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.getValid());
+        assertEquals("Validación exitosa", result.getMessage());
+        assertTrue(elapsedMillis < 800, "Las verificaciones deberían solaparse, tardó " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testValidate_KeepsMessagePriority() {
+        when(userServiceClient.validateUser(1L, "token")).thenReturn(Mono.just(true));
+        when(bookServiceClient.checkBookAvailability(7L)).thenReturn(Mono.just(true));
+        when(loanRepository.findOpenLoanBookIds(1L)).thenReturn(List.of(7L));
+        createDTO.setLoanDays(40);
+
+        LoanValidationDTO result = engine.validate(createDTO, "token");
+
+        assertFalse(result.getValid());
+        assertTrue(result.getWithinLoanLimit());
+        assertFalse(result.getNoActiveLoanForBook());
+        assertFalse(result.getValidLoanDays());
+        assertEquals("El usuario ya tiene un préstamo activo de este libro", result.getMessage());
+    }
+
+    @Test
+    void testValidate_UsesConfiguredLoanLimit() {
+        loanConfig.setMaxActiveLoans(2);
+        when(userServiceClient.validateUser(1L, "token")).thenReturn(Mono.just(true));
+        when(bookServiceClient.checkBookAvailability(7L)).thenReturn(Mono.just(true));
+        when(summaryRepository.findById(1L)).thenReturn(Optional.of(UserLoanSummary.of(1L, List.of(3L, 4L))));
+
+        LoanValidationDTO result = engine.validate(createDTO, "token");
+
+        assertFalse(result.getWithinLoanLimit());
+        assertEquals("El usuario ya tiene 2 préstamos activos. No se pueden crear más préstamos.", result.getMessage());
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    void testValidate_SlowDownstreamCountsAsFailedCheck() {
+        validationConfig.setUserTimeoutMs(100L);
+        when(userServiceClient.validateUser(1L, "token")).thenReturn(Mono.just(true).delayElement(Duration.ofSeconds(5)));
+        when(bookServiceClient.checkBookAvailability(7L)).thenReturn(Mono.just(true));
+        when(loanRepository.findOpenLoanBookIds(1L)).thenReturn(List.of());
+
+        long start = System.nanoTime();
+        LoanValidationDTO result = engine.validate(createDTO, "token");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(result.getUserExists());
+        assertTrue(result.getBookAvailable());
+        assertEquals("Usuario no válido o no encontrado", result.getMessage());
+        assertTrue(elapsedMillis < 2000, "El tiempo de espera no se respetó, tardó " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testValidate_ActiveLoansTimeoutFails() {
+        validationConfig.setActiveLoansTimeoutMs(100L);
+        when(userServiceClient.validateUser(1L, "token")).thenReturn(Mono.just(true));
+        when(bookServiceClient.checkBookAvailability(7L)).thenReturn(Mono.just(true));
+        when(loanRepository.findOpenLoanBookIds(1L)).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return List.of();
+        });
+
+        assertThrows(RuntimeException.class, () -> engine.validate(createDTO, "token"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.library.loans.service;
+
+import com.library.loans.client.BookServiceClient;
+import com.library.loans.client.UserServiceClient;
+import com.library.loans.config.LoanConfig;
+import com.library.loans.config.LoanValidationConfig;
+import com.library.loans.dto.LoanCreateDTO;
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.UserLoanSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latencia de la validación de un préstamo con servicios simulados:
+ * usuario 40 ms, libro 60 ms y consulta de préstamos activos 15 ms.
+ * - secuencial: réplica del flujo anterior (block() de cada verificación, una tras otra)
+ * - paralelo: LoanValidationEngine
+ *
+ * Ejecutar con: mvn test -Dtest=LoanValidationLatencyBenchmark -Dbenchmark=true
+ */
+class LoanValidationLatencyBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final BookServiceClient bookServiceClient = mock(BookServiceClient.class);
+    private final LoanRepository loanRepository = mock(LoanRepository.class);
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareSequentialAndConcurrentValidation() {
+        when(userServiceClient.validateUser(anyLong(), any()))
+                .thenAnswer(invocation -> Mono.just(true).delayElement(Duration.ofMillis(40)));
+        when(bookServiceClient.checkBookAvailability(anyLong()))
+                .thenAnswer(invocation -> Mono.just(true).delayElement(Duration.ofMillis(60)));
+        when(loanRepository.findActiveLoansByUserId(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(15);
+            return List.of();
+        });
+
+        LoanValidationEngine engine = new LoanValidationEngine(userServiceClient, bookServiceClient,
+                new UserLoanSummaries(mock(UserLoanSummaryRepository.class), loanRepository, new LoanConfig()),
+                new LoanConfig(), new LoanValidationConfig());
+        when(loanRepository.findOpenLoanBookIds(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(15);
+            return List.of();
+        });
+        LoanCreateDTO createDTO = new LoanCreateDTO();
+        createDTO.setUserId(1L);
+        createDTO.setBookId(1L);
+
+        report("secuencial", () -> sequential(createDTO));
+        report("paralelo", () -> engine.validate(createDTO, "token").getValid());
+    }
+
+    private boolean sequential(LoanCreateDTO createDTO) {
+        Boolean userValid = userServiceClient.validateUser(createDTO.getUserId(), "token").block();
+        Boolean bookAvailable = bookServiceClient.checkBookAvailability(createDTO.getBookId()).block();
+        int activeLoans = loanRepository.findActiveLoansByUserId(createDTO.getUserId()).size();
+        return Boolean.TRUE.equals(userValid) && Boolean.TRUE.equals(bookAvailable) && activeLoans < 5;
+    }
+
+    private static void report(String name, Supplier<Boolean> validation) {
+        for (int i = 0; i < WARMUP; i++) {
+            validation.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            validation.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        System.out.printf("%-10s p50=%6.1f ms  p99=%6.1f ms  media=%6.1f ms%n", name,
+                samples[ITERATIONS / 2] / 1e6,
+                samples[ITERATIONS * 99 / 100] / 1e6,
+                Arrays.stream(samples).average().orElse(0) / 1e6);
+    }
+}
@@ -0,0 +1,112 @@
+package com.library.loans.service;
+
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.OverdueLoanView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueLoanJobTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2024, 5, 10);
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Captor
+    private ArgumentCaptor<List<LoanOutbox.PendingNotification>> notifications;
+
+    private OverdueLoanJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new OverdueLoanJob(loanRepository, loanOutbox);
+    }
+
+    @Test
+    void testProcessChunk_NotifiesOnlyLoansMarkedByTheUpdate() {
+        when(loanRepository.findOverdueViewsAfter(RUN_DATE, 0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(view(1L, 11L), view(2L, 12L), view(3L, 13L)));
+        // El préstamo 2 se devolvió entre la lectura del bloque y el UPDATE: no se marca
+        when(loanRepository.markOverdueBetween(eq(RUN_DATE), eq(0L), eq(3L), any())).thenReturn(2);
+        when(loanRepository.findMarkedOverdueBetween(eq(0L), eq(3L), any()))
+                .thenReturn(List.of(view(1L, 11L), view(3L, 13L)));
+
+        ChunkedJob.ChunkResult result = job.processChunk(RUN_DATE, 0L, 3);
+
+        verify(loanOutbox).enqueueNotifications(notifications.capture());
+        assertEquals(List.of(11L, 13L), notifications.getValue().stream()
+                .map(LoanOutbox.PendingNotification::userId).toList());
+        assertTrue(notifications.getValue().stream().allMatch(n -> "LOAN_OVERDUE".equals(n.type())));
+        assertEquals(3L, result.lastId());
+    }
+
+    @Test
+    void testProcessChunk_RereadsWithTheStampWrittenByTheUpdate() {
+        when(loanRepository.findOverdueViewsAfter(RUN_DATE, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(view(1L, 11L), view(2L, 12L)));
+        when(loanRepository.markOverdueBetween(eq(RUN_DATE), eq(0L), eq(2L), any())).thenReturn(2);
+        when(loanRepository.findMarkedOverdueBetween(eq(0L), eq(2L), any()))
+                .thenReturn(List.of(view(1L, 11L), view(2L, 12L)));
+
+        job.processChunk(RUN_DATE, 0L, 2);
+
+        ArgumentCaptor<LocalDateTime> marked = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> reread = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(loanRepository).markOverdueBetween(eq(RUN_DATE), eq(0L), eq(2L), marked.capture());
+        verify(loanRepository).findMarkedOverdueBetween(eq(0L), eq(2L), reread.capture());
+        assertEquals(marked.getValue(), reread.getValue());
+        // Truncada a la precisión de updated_at para que la comparación de igualdad encuentre las filas
+        assertEquals(0, marked.getValue().getNano() % 1_000);
+        verify(loanOutbox).enqueueNotifications(argThat(notifications -> notifications.size() == 2));
+    }
+
+    @Test
+    void testProcessChunk_NothingMarkedEnqueuesNothing() {
+        when(loanRepository.findOverdueViewsAfter(RUN_DATE, 5L, PageRequest.of(0, 10)))
+                .thenReturn(List.of(view(6L, 16L)));
+        when(loanRepository.markOverdueBetween(eq(RUN_DATE), eq(5L), eq(6L), any())).thenReturn(0);
+
+        ChunkedJob.ChunkResult result = job.processChunk(RUN_DATE, 5L, 10);
+
+        assertEquals(6L, result.lastId());
+        verify(loanRepository, never()).findMarkedOverdueBetween(anyLong(), anyLong(), any());
+        verifyNoInteractions(loanOutbox);
+    }
+
+    private static OverdueLoanView view(Long id, Long userId) {
+        return new OverdueLoanView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return RUN_DATE.minusDays(3);
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.loans.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @Test
+    void testAdvance_FiresAcrossLevelsInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(MINUTE, 8, 0);
+        wheel.schedule("30 días", 30 * DAY);
+        wheel.schedule("5 minutos", 5 * MINUTE);
+        wheel.schedule("3 horas", 180 * MINUTE);
+        wheel.schedule("2 días", 2 * DAY + 7 * MINUTE);
+
+        assertEquals(List.of(), wheel.advance(4 * MINUTE));
+        assertEquals(List.of("5 minutos"), wheel.advance(5 * MINUTE));
+        assertEquals(List.of(), wheel.advance(179 * MINUTE));
+        assertEquals(List.of("3 horas"), wheel.advance(180 * MINUTE));
+        assertEquals(List.of(), wheel.advance(2 * DAY + 6 * MINUTE));
+        assertEquals(List.of("2 días"), wheel.advance(2 * DAY + 7 * MINUTE));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("30 días"), wheel.advance(30 * DAY));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_LargeJumpFiresEverythingMissed() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(MINUTE, 8, 0);
+        for (int i = 1; i <= 1000; i++) {
+            wheel.schedule(i, i * 7 * MINUTE);
+        }
+
+        List<Integer> fired = wheel.advance(10 * DAY);
+
+        assertEquals(1000, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancel_RemovesScheduledAndExpiredTimeouts() {
+        TimingWheel<String> wheel = new TimingWheel<>(MINUTE, 8, 10 * MINUTE);
+        TimingWheel.Timeout<String> later = wheel.schedule("más tarde", 3 * DAY);
+        TimingWheel.Timeout<String> missed = wheel.schedule("atrasado", MINUTE);
+        wheel.schedule("pendiente", 20 * MINUTE);
+
+        wheel.cancel(later);
+        wheel.cancel(missed);
+        wheel.cancel(missed);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("pendiente"), wheel.advance(4 * DAY));
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.loans.service;
+
+import com.library.loans.config.LoanConfig;
+import com.library.loans.model.UserLoanSummary;
+import com.library.loans.repository.LoanRepository;
+import com.library.loans.repository.UserLoanSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLoanSummariesTest {
+
+    @Mock
+    private UserLoanSummaryRepository summaryRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    private LoanConfig loanConfig;
+    private UserLoanSummaries summaries;
+
+    @BeforeEach
+    void setUp() {
+        loanConfig = new LoanConfig();
+        summaries = new UserLoanSummaries(summaryRepository, loanRepository, loanConfig);
+    }
+
+    @Test
+    void testReserve_InitializesMissingSummaryFromOpenLoans() {
+        when(summaryRepository.existsById(1L)).thenReturn(false);
+        when(loanRepository.findOpenLoanBookIds(1L)).thenReturn(List.of(3L, 4L));
+        when(summaryRepository.findForUpdate(1L)).thenReturn(Optional.of(UserLoanSummary.of(1L, List.of(3L, 4L))));
+
+        summaries.reserve(1L, 7L);
+
+        verify(summaryRepository).insertIfAbsent(eq(1L), eq(2), eq("3,4"), any());
+        verify(summaryRepository).save(argThat(summary ->
+                summary.getOpenLoans() == 3 && summary.bookIdList().equals(List.of(3L, 4L, 7L))));
+    }
+
+    @Test
+    void testReserve_RejectsWhenLimitReachedOrBookAlreadyHeld() {
+        loanConfig.setMaxActiveLoans(2);
+        when(summaryRepository.existsById(1L)).thenReturn(true);
+        when(summaryRepository.findForUpdate(1L))
+                .thenReturn(Optional.of(UserLoanSummary.of(1L, List.of(3L, 4L))))
+                .thenReturn(Optional.of(UserLoanSummary.of(1L, List.of(3L))));
+
+        RuntimeException limit = assertThrows(RuntimeException.class, () -> summaries.reserve(1L, 7L));
+        RuntimeException duplicate = assertThrows(RuntimeException.class, () -> summaries.reserve(1L, 3L));
+
+        assertEquals("El usuario ya tiene 2 préstamos activos. No se pueden crear más préstamos.", limit.getMessage());
+        assertEquals("El usuario ya tiene un préstamo activo de este libro", duplicate.getMessage());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void testRelease_RemovesOneLoanOfTheBook() {
+        when(summaryRepository.existsById(1L)).thenReturn(true);
+        when(summaryRepository.findForUpdate(1L)).thenReturn(Optional.of(UserLoanSummary.of(1L, List.of(3L, 4L, 3L))));
+
+        summaries.release(1L, 3L);
+
+        verify(summaryRepository).save(argThat(summary ->
+                summary.getOpenLoans() == 2 && summary.getBookIds().equals("4,3")));
+    }
+}
@@ -3,9 +3,11 @@ package com.library.notifications;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "notificationClock")
+@EnableScheduling
 public class NotificationsServiceApplication {
 
     public static void main(String[] args) {
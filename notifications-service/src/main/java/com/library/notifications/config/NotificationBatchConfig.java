@@ -0,0 +1,25 @@
+package com.library.notifications.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la creación de notificaciones en lote (POST /api/notifications/batch)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notifications.batch")
+@Data
+public class NotificationBatchConfig {
+
+    /**
+     * Notificaciones por bloque: cada bloque se inserta con lotes JDBC y se libera de memoria
+     * antes del siguiente. Conviene que coincida con spring.jpa.properties.hibernate.jdbc.batch_size.
+     */
+    private Integer chunkSize = 500;
+
+    /**
+     * Notificaciones como máximo por solicitud
+     */
+    private Integer maxItems = 10000;
+}
@@ -0,0 +1,33 @@
+package com.library.notifications.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Los IDs de notifications salen de la tabla notifications_seq (ver Notification) en lugar de
+ * AUTO_INCREMENT. Al iniciar, y antes de atender peticiones, se adelanta la secuencia más allá
+ * del mayor ID existente, de modo que una base creada con AUTO_INCREMENT no repita IDs.
+ * Se ejecuta después de que Hibernate cree o actualice las tablas.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+class NotificationIdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequence() {
+        int updated = jdbcTemplate.update("UPDATE notifications_seq SET next_val = " +
+                "(SELECT COALESCE(MAX(id), 0) + 1 FROM notifications) " +
+                "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM notifications)");
+        if (updated > 0) {
+            log.info("Secuencia de notificaciones adelantada al mayor ID existente");
+        }
+    }
+}
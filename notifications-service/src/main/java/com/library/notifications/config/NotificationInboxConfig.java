@@ -0,0 +1,22 @@
+package com.library.notifications.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la bandeja de notificaciones por cursor
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notifications.inbox")
+@Data
+public class NotificationInboxConfig {
+
+    /**
+     * Margen hacia atrás del cursor de novedades (sinceCursor): created_at se asigna antes del commit,
+     * así que una notificación reciente puede confirmarse después de otra más nueva; las creadas
+     * dentro del margen se entregan en la siguiente consulta. Las transacciones abiertas más largas
+     * que el margen (lotes) las retiene NotificationClock
+     */
+    private Long safetyLagMs = 2000L;
+}
@@ -0,0 +1,47 @@
+package com.library.notifications.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las conexiones SSE de notificaciones (GET /api/notifications/user/{userId}/stream)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notifications.stream")
+@Data
+public class NotificationStreamConfig {
+
+    /**
+     * Notificaciones pendientes de envío por conexión. Si un cliente lento llena su cola, las
+     * pendientes se descartan y se le envía un evento resync para que vuelva a consultar la lista.
+     */
+    private Integer bufferSize = 64;
+
+    /**
+     * Intervalo del latido (comentario SSE) que mantiene viva la conexión y detecta clientes caídos
+     */
+    private Long heartbeatMs = 15000L;
+
+    /**
+     * Duración máxima de una conexión; al vencer se cierra y el cliente se vuelve a conectar
+     */
+    private Long timeoutMs = 1800000L;
+
+    /**
+     * Conexiones abiertas como máximo por usuario; una conexión nueva cierra la más antigua
+     */
+    private Integer maxPerUser = 5;
+
+    /**
+     * Hilos que escriben los eventos en las conexiones
+     */
+    private Integer dispatchThreads = 4;
+
+    /**
+     * Espera máxima de una escritura en una conexión. Si un cliente no lee y la escritura sigue
+     * bloqueada al vencer, la conexión se cierra y el grupo de envío recibe un hilo de reemplazo
+     * mientras la escritura no termina (la termina el timeout de socket del servidor web).
+     */
+    private Long writeTimeoutMs = 10000L;
+}
@@ -0,0 +1,24 @@
+package com.library.notifications.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los contadores de no leídas en memoria
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notifications.unread-counters")
+@Data
+public class UnreadCountersConfig {
+
+    /**
+     * Franjas en que se reparten los usuarios, cada una con su propio candado (se redondea a potencia de 2)
+     */
+    private Integer stripes = 64;
+
+    /**
+     * Intervalo de la reconciliación con la base de datos
+     */
+    private Long reconcileIntervalMs = 300000L;
+}
@@ -1,7 +1,10 @@
 package com.library.notifications.controller;
 
+import com.library.notifications.dto.NotificationBatchResponseDTO;
+import com.library.notifications.dto.NotificationBulkResultDTO;
 import com.library.notifications.dto.NotificationCreateDTO;
 import com.library.notifications.dto.NotificationResponseDTO;
+import com.library.notifications.dto.NotificationSliceDTO;
 import com.library.notifications.dto.UnreadCountResponseDTO;
 import com.library.notifications.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,8 +13,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -31,8 +36,21 @@ public class NotificationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(notification);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Crear notificaciones en lote",
+               description = "Crea varias notificaciones en una sola petición (usado por los procesos programados de préstamos). " +
+                            "Cada notificación se valida por separado: las no válidas se rechazan sin afectar al resto " +
+                            "y la respuesta trae el resultado de cada una en el orden de la solicitud. " +
+                            "Un lote vacío o con más notificaciones de las permitidas se responde con 400.")
+    public ResponseEntity<NotificationBatchResponseDTO> createNotifications(
+            @RequestBody List<NotificationCreateDTO> createDTOs) {
+        NotificationBatchResponseDTO response = notificationService.createNotifications(createDTOs);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Notificaciones de usuario", description = "Obtiene las notificaciones de un usuario")
+    @Operation(summary = "Notificaciones de usuario",
+               description = "Obtiene todas las notificaciones de un usuario, sin límite. Para bandejas grandes usar /user/{userId}/inbox.")
     public ResponseEntity<List<NotificationResponseDTO>> getUserNotifications(
             @Parameter(description = "ID del usuario") @PathVariable Long userId,
             @Parameter(description = "Solo no leídas") @RequestParam(required = false) Boolean unreadOnly) {
@@ -40,6 +58,32 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/user/{userId}/inbox")
+    @Operation(summary = "Bandeja de notificaciones por cursor",
+               description = "Obtiene las notificaciones de un usuario por páginas, de la más reciente a la más antigua, sin calcular el total. " +
+                            "Sin cursor devuelve las más recientes; con before (nextCursor de la página anterior) las más antiguas; " +
+                            "con after (sinceCursor de una consulta previa) solo las nuevas desde entonces. " +
+                            "Las novedades llegan con un margen de unos segundos y pueden repetir notificaciones ya recibidas: deduplicar por ID.")
+    public ResponseEntity<NotificationSliceDTO> getInbox(
+            @Parameter(description = "ID del usuario") @PathVariable Long userId,
+            @Parameter(description = "Cantidad de notificaciones por página (máximo 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor devuelto en nextCursor: notificaciones más antiguas") @RequestParam(required = false) String before,
+            @Parameter(description = "Cursor devuelto en sinceCursor: notificaciones nuevas") @RequestParam(required = false) String after,
+            @Parameter(description = "Solo no leídas") @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        return ResponseEntity.ok(notificationService.getInbox(userId, limit, before, after, unreadOnly));
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream de notificaciones",
+               description = "Abre una conexión Server-Sent Events con las novedades del usuario a medida que se confirman. " +
+                            "Eventos: unread-count (contador de no leídas, el primero al conectar), notification (notificación nueva) " +
+                            "y resync (se descartaron notificaciones por un cliente lento: volver a consultar la lista). " +
+                            "Se envía un comentario de latido periódico; al cerrarse la conexión el cliente debe volver a conectar.")
+    public SseEmitter streamNotifications(
+            @Parameter(description = "ID del usuario") @PathVariable Long userId) {
+        return notificationService.streamNotifications(userId);
+    }
+
     @PatchMapping("/{notificationId}/read")
     @Operation(summary = "Marcar como leída", description = "Marca una notificación como leída")
     public ResponseEntity<NotificationResponseDTO> markAsRead(
@@ -49,11 +93,20 @@ public class NotificationController {
     }
 
     @PatchMapping("/user/{userId}/read-all")
-    @Operation(summary = "Marcar todas como leídas", description = "Marca todas las notificaciones de un usuario como leídas")
-    public ResponseEntity<Void> markAllAsRead(
+    @Operation(summary = "Marcar todas como leídas", description = "Marca todas las notificaciones de un usuario como leídas y devuelve cuántas se marcaron")
+    public ResponseEntity<NotificationBulkResultDTO> markAllAsRead(
             @Parameter(description = "ID del usuario") @PathVariable Long userId) {
-        notificationService.markAllAsRead(userId);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(notificationService.markAllAsRead(userId));
+    }
+
+    @PatchMapping("/user/{userId}/read-up-to/{notificationId}")
+    @Operation(summary = "Marcar como leídas hasta una notificación",
+               description = "Marca como leídas las notificaciones del usuario hasta la indicada, inclusive, en el orden de la bandeja " +
+                            "(las más recientes que ella no se modifican) y devuelve cuántas se marcaron")
+    public ResponseEntity<NotificationBulkResultDTO> markAsReadUpTo(
+            @Parameter(description = "ID del usuario") @PathVariable Long userId,
+            @Parameter(description = "ID de la notificación más reciente que vio el usuario") @PathVariable Long notificationId) {
+        return ResponseEntity.ok(notificationService.markAsReadUpTo(userId, notificationId));
     }
 
     @DeleteMapping("/{notificationId}")
@@ -65,11 +118,10 @@ public class NotificationController {
     }
 
     @DeleteMapping("/user/{userId}/delete-all")
-    @Operation(summary = "Eliminar todas las notificaciones", description = "Elimina todas las notificaciones de un usuario")
-    public ResponseEntity<Void> deleteAllNotifications(
+    @Operation(summary = "Eliminar todas las notificaciones", description = "Elimina todas las notificaciones de un usuario y devuelve cuántas se eliminaron")
+    public ResponseEntity<NotificationBulkResultDTO> deleteAllNotifications(
             @Parameter(description = "ID del usuario") @PathVariable Long userId) {
-        notificationService.deleteAllNotifications(userId);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(notificationService.deleteAllNotifications(userId));
     }
 
     @GetMapping("/user/{userId}/unread-count")
@@ -0,0 +1,27 @@
+package com.library.notifications.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de una notificación de un lote")
+public class NotificationBatchItemResultDTO {
+
+    @Schema(description = "Posición de la notificación en la solicitud (desde 0)", example = "0", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer index;
+
+    @Schema(description = "Indica si la notificación se creó", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Boolean success;
+
+    @Schema(description = "ID de la notificación creada", example = "1")
+    private Long id;
+
+    @Schema(description = "Motivo del rechazo", example = "El título es obligatorio")
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.library.notifications.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "DTO de respuesta de la creación de notificaciones en lote")
+public class NotificationBatchResponseDTO {
+
+    @Schema(description = "Número de notificaciones recibidas", example = "250", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
+    private Integer total;
+
+    @Schema(description = "Número de notificaciones creadas", example = "249", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
+    private Integer created;
+
+    @Schema(description = "Número de notificaciones rechazadas", example = "1", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
+    private Integer failed;
+
+    @Schema(description = "Resultado de cada notificación, en el orden de la solicitud")
+    private List<NotificationBatchItemResultDTO> results;
+}
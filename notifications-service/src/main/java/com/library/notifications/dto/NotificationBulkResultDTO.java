@@ -0,0 +1,21 @@
+package com.library.notifications.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "DTO de respuesta de una operación sobre varias notificaciones de un usuario")
+public class NotificationBulkResultDTO {
+
+    @Schema(description = "ID del usuario", example = "5", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long userId;
+
+    @Schema(description = "Número de notificaciones afectadas", example = "12", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
+    private Integer affected;
+}
@@ -0,0 +1,32 @@
+package com.library.notifications.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de la bandeja de notificaciones obtenida por cursor, de la más reciente a la más antigua")
+public class NotificationSliceDTO {
+
+    @Schema(description = "Notificaciones de la página, de la más reciente a la más antigua")
+    private List<NotificationResponseDTO> content;
+
+    @Schema(description = "Cantidad de notificaciones en la página", example = "20")
+    private Integer size;
+
+    @Schema(description = "Indica si quedan más notificaciones en la dirección pedida: más antiguas (before) o más nuevas (after)", example = "true")
+    private Boolean hasMore;
+
+    @Schema(description = "Cursor para pedir las notificaciones más antiguas que esta página (parámetro before); null si no hay más")
+    private String nextCursor;
+
+    @Schema(description = "Cursor para pedir solo las notificaciones nuevas (parámetro after); null en páginas pedidas con before")
+    private String sinceCursor;
+}
@@ -11,7 +11,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Bandeja por cursor (ver NotificationInboxRepository); InnoDB agrega el id al final de cada índice
+        @Index(name = "idx_notifications_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notifications_user_read_created_at", columnList = "user_id, is_read, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,8 +23,13 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class Notification {
 
+    /**
+     * Secuencia con bloques de 500 IDs (optimizador pooled-lo): Hibernate asigna el ID antes del INSERT
+     * y puede agrupar las inserciones en lotes JDBC, cosa que IDENTITY impide
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 500)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,70 @@
+package com.library.notifications.repository;
+
+import com.library.notifications.model.Notification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bandeja de notificaciones por cursor (keyset) sobre la posición (createdAt, id).
+ * Cada página continúa desde la posición del cursor con {@code (createdAt, id) < (valor, id)} o
+ * {@code >}, de modo que la base de datos recorre los índices (user_id, created_at, id) o
+ * (user_id, is_read, created_at) sin OFFSET ni COUNT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationInboxRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Obtener hasta {@code limit} notificaciones anteriores a la posición ({@code createdAt}, {@code id}),
+     * de la más reciente a la más antigua. Con {@code createdAt} null se devuelven las más recientes.
+     */
+    public List<Notification> findOlder(Long userId, boolean unreadOnly, LocalDateTime createdAt, Long id, int limit) {
+        StringBuilder jpql = select(unreadOnly);
+        if (createdAt != null) {
+            jpql.append(" AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))");
+        }
+        jpql.append(" ORDER BY n.createdAt DESC, n.id DESC");
+
+        TypedQuery<Notification> query = entityManager.createQuery(jpql.toString(), Notification.class)
+                .setParameter("userId", userId);
+        if (createdAt != null) {
+            query.setParameter("createdAt", createdAt).setParameter("id", id);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Obtener hasta {@code limit} notificaciones posteriores a la posición ({@code createdAt}, {@code id})
+     * y creadas hasta {@code until}, de la más antigua a la más reciente
+     */
+    public List<Notification> findNewer(Long userId, boolean unreadOnly, LocalDateTime createdAt, Long id,
+                                        LocalDateTime until, int limit) {
+        StringBuilder jpql = select(unreadOnly)
+                .append(" AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id))")
+                .append(" AND n.createdAt <= :until")
+                .append(" ORDER BY n.createdAt ASC, n.id ASC");
+
+        return entityManager.createQuery(jpql.toString(), Notification.class)
+                .setParameter("userId", userId)
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id)
+                .setParameter("until", until)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static StringBuilder select(boolean unreadOnly) {
+        StringBuilder jpql = new StringBuilder("SELECT n FROM Notification n WHERE n.userId = :userId");
+        if (unreadOnly) {
+            jpql.append(" AND n.read = false");
+        }
+        return jpql;
+    }
+}
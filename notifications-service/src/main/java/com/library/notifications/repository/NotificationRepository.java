@@ -2,8 +2,12 @@ package com.library.notifications.repository;
 
 import com.library.notifications.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,7 +19,52 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByUserIdAndReadFalse(Long userId);
 
-    void deleteByUserId(Long userId);
+    @Query("SELECT n.userId AS userId, COUNT(n) AS unreadCount FROM Notification n WHERE n.read = false GROUP BY n.userId")
+    List<UnreadCountView> countUnreadGroupedByUser();
+
+    /**
+     * Marcar como leída la notificación solo si seguía sin leer; la fila queda bloqueada hasta el
+     * commit, así que de dos peticiones concurrentes solo una la marca
+     * @return 1 si esta llamada la marcó, 0 si ya estaba leída
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markAsReadIfUnread(@Param("id") Long id);
+
+    /**
+     * Marcar como leídas todas las no leídas del usuario con una sola sentencia
+     * @return notificaciones marcadas
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.read = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    /**
+     * Marcar como leídas las no leídas del usuario hasta una posición de la bandeja, inclusive:
+     * creadas antes de createdAt, o en el mismo instante con ID menor o igual
+     * @return notificaciones marcadas
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.read = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id <= :id))")
+    int markAsReadUpTo(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id);
+
+    /**
+     * Eliminar las notificaciones del usuario con el estado de lectura indicado, con una sola sentencia
+     * @return notificaciones eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.userId = :userId AND n.read = :read")
+    int deleteByUserIdAndRead(@Param("userId") Long userId, @Param("read") Boolean read);
+
+    /**
+     * Eliminar la notificación solo si tiene el estado de lectura indicado. La condición se evalúa
+     * sobre la fila bloqueada, así que una lectura concurrente no cuenta dos veces como no leída
+     * @return 1 si se eliminó, 0 si no existe o su estado es otro
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.read = :read")
+    int deleteByIdAndRead(@Param("id") Long id, @Param("read") Boolean read);
 }
 
 
@@ -0,0 +1,11 @@
+package com.library.notifications.repository;
+
+/**
+ * Proyección del conteo de notificaciones no leídas de un usuario
+ */
+public interface UnreadCountView {
+
+    Long getUserId();
+
+    Long getUnreadCount();
+}
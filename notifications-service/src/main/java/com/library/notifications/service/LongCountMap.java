@@ -0,0 +1,97 @@
+package com.library.notifications.service;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de ID a contador con direccionamiento abierto sobre arreglos de longs primitivos:
+ * no crea objetos por entrada. Los contadores nunca son negativos; una casilla libre se marca
+ * con {@link #MISSING}. No admite borrados y no es segura para hilos.
+ */
+final class LongCountMap {
+
+    static final long MISSING = -1L;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, MISSING);
+    }
+
+    long get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != MISSING; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("El contador no puede ser negativo");
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        // Carga máxima del 50 %
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (values[slot] != MISSING) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        Arrays.fill(values, MISSING);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != MISSING) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    /**
+     * Mezcla de Fibonacci: IDs consecutivos quedan repartidos por la tabla
+     */
+    static long mix(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) (mix(key) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,80 @@
+package com.library.notifications.service;
+
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reloj de created_at de las notificaciones (vía auditoría de JPA), la marca que recorre el cursor
+ * de novedades de la bandeja.
+ * La marca se asigna antes del commit, y un lote de createNotifications inserta hasta maxItems filas
+ * en una sola transacción: sus primeras filas pueden confirmarse mucho después que notificaciones
+ * más nuevas que el cursor ya entregó. Por eso el reloj recuerda la primera marca de cada transacción
+ * abierta y el cursor nunca avanza más allá de la más antigua (ver {@link #visibleUntil}).
+ * Solo conoce las transacciones de esta instancia; las notificaciones se escriben únicamente desde
+ * notifications-service.
+ */
+@Component("notificationClock")
+class NotificationClock implements DateTimeProvider {
+
+    private record Pending(LocalDateTime stamp, long sequence) implements Comparable<Pending> {
+
+        @Override
+        public int compareTo(Pending other) {
+            int compare = stamp.compareTo(other.stamp);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final ConcurrentSkipListSet<Pending> inFlight = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Marca de creación de una notificación. Se trunca a microsegundos, la precisión de la columna.
+     */
+    LocalDateTime now() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            Pending pending = new Pending(now, sequence.incrementAndGet());
+            inFlight.add(pending);
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(pending);
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NotificationClock.this);
+                }
+            });
+        }
+        return now;
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    /**
+     * Límite hasta el que puede llegar el cursor de novedades: {@code limit}, o justo antes de la
+     * primera marca de la transacción abierta más antigua si es anterior
+     */
+    LocalDateTime visibleUntil(LocalDateTime limit) {
+        Iterator<Pending> pending = inFlight.iterator();
+        if (!pending.hasNext()) {
+            return limit;
+        }
+        Pending oldest = pending.next();
+        LocalDateTime beforeOldest = oldest.stamp().minus(1, ChronoUnit.MICROS);
+        return beforeOldest.isBefore(limit) ? beforeOldest : limit;
+    }
+}
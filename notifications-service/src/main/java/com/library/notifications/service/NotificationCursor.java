@@ -0,0 +1,48 @@
+package com.library.notifications.service;
+
+import com.library.notifications.dto.NotificationResponseDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de la bandeja de notificaciones: posición (createdAt, id) de una notificación,
+ * o un instante con id máximo cuando marca "todo lo creado hasta ese momento"
+ */
+record NotificationCursor(LocalDateTime createdAt, long id) {
+
+    private static final String VERSION = "n1";
+
+    static NotificationCursor at(NotificationResponseDTO notification) {
+        return new NotificationCursor(notification.getCreatedAt(), notification.getId());
+    }
+
+    static NotificationCursor upTo(LocalDateTime instant) {
+        return new NotificationCursor(instant, Long.MAX_VALUE);
+    }
+
+    boolean isAfter(NotificationCursor other) {
+        int compare = createdAt.compareTo(other.createdAt);
+        return compare > 0 || (compare == 0 && id > other.id);
+    }
+
+    String encode() {
+        String raw = String.join("|", VERSION, createdAt.toString(), Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static NotificationCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("formato desconocido");
+            }
+            return new NotificationCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Cursor de paginación inválido: " + e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.library.notifications.service;
 
+import com.library.notifications.config.NotificationBatchConfig;
+import com.library.notifications.config.NotificationInboxConfig;
+import com.library.notifications.dto.NotificationBatchItemResultDTO;
+import com.library.notifications.dto.NotificationBatchResponseDTO;
+import com.library.notifications.dto.NotificationBulkResultDTO;
 import com.library.notifications.dto.NotificationCreateDTO;
 import com.library.notifications.dto.NotificationResponseDTO;
+import com.library.notifications.dto.NotificationSliceDTO;
 import com.library.notifications.model.Notification;
+import com.library.notifications.repository.NotificationInboxRepository;
 import com.library.notifications.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,13 +35,113 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NotificationService {
 
+    private static final int MAX_INBOX_LIMIT = 100;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationInboxRepository notificationInboxRepository;
+    private final NotificationInboxConfig inboxConfig;
+    private final Validator validator;
+    private final NotificationBatchConfig batchConfig;
+    private final EntityManager entityManager;
+    private final NotificationStreams notificationStreams;
+    private final UnreadCounters unreadCounters;
+    private final NotificationClock notificationClock;
 
     @Transactional
     public NotificationResponseDTO createNotification(NotificationCreateDTO createDTO) {
         log.info("Creando notificación para usuario: {}", createDTO.getUserId());
 
-        Notification notification = Notification.builder()
+        Notification notification = notificationRepository.save(toEntity(createDTO));
+        NotificationResponseDTO response = NotificationResponseDTO.fromEntity(notification);
+        recordCreated(List.of(response), Map.of(notification.getUserId(), 1L));
+        return response;
+    }
+
+    /**
+     * Crear varias notificaciones en una sola transacción.
+     * Cada notificación se valida por separado: las no válidas se rechazan sin afectar al resto
+     * y la respuesta trae el resultado de cada una. Las válidas se insertan por bloques de chunkSize
+     * con lotes JDBC; tras cada bloque se vacía el contexto de persistencia para no acumular
+     * entidades en memoria.
+     */
+    @Transactional
+    public NotificationBatchResponseDTO createNotifications(List<NotificationCreateDTO> createDTOs) {
+        if (createDTOs == null || createDTOs.isEmpty()) {
+            throw new RuntimeException("El lote no contiene notificaciones");
+        }
+        if (createDTOs.size() > batchConfig.getMaxItems()) {
+            throw new RuntimeException("Se pueden crear como máximo " + batchConfig.getMaxItems() + " notificaciones por lote");
+        }
+        log.info("Creando lote de {} notificaciones", createDTOs.size());
+
+        NotificationBatchItemResultDTO[] results = new NotificationBatchItemResultDTO[createDTOs.size()];
+        List<NotificationResponseDTO> streamed = new ArrayList<>();
+        Map<Long, Long> createdByUser = new HashMap<>();
+        List<Integer> pending = new ArrayList<>(batchConfig.getChunkSize());
+        List<Notification> chunk = new ArrayList<>(batchConfig.getChunkSize());
+        for (int i = 0; i < createDTOs.size(); i++) {
+            NotificationCreateDTO createDTO = createDTOs.get(i);
+            String rejection = validate(createDTO);
+            if (rejection != null) {
+                results[i] = NotificationBatchItemResultDTO.builder().index(i).success(false).message(rejection).build();
+                continue;
+            }
+            pending.add(i);
+            chunk.add(toEntity(createDTO));
+            if (chunk.size() == batchConfig.getChunkSize()) {
+                saveChunk(pending, chunk, results, streamed, createdByUser);
+                pending = new ArrayList<>(batchConfig.getChunkSize());
+                chunk = new ArrayList<>(batchConfig.getChunkSize());
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(pending, chunk, results, streamed, createdByUser);
+        }
+        recordCreated(streamed, createdByUser);
+
+        int created = (int) Arrays.stream(results).filter(NotificationBatchItemResultDTO::getSuccess).count();
+        return NotificationBatchResponseDTO.builder()
+                .total(results.length)
+                .created(created)
+                .failed(results.length - created)
+                .results(List.of(results))
+                .build();
+    }
+
+    private String validate(NotificationCreateDTO createDTO) {
+        if (createDTO == null) {
+            return "La notificación está vacía";
+        }
+        Set<ConstraintViolation<NotificationCreateDTO>> violations = validator.validate(createDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void saveChunk(List<Integer> indexes, List<Notification> chunk, NotificationBatchItemResultDTO[] results,
+                           List<NotificationResponseDTO> streamed, Map<Long, Long> createdByUser) {
+        notificationRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        for (int i = 0; i < chunk.size(); i++) {
+            createdByUser.merge(chunk.get(i).getUserId(), 1L, Long::sum);
+            if (notificationStreams.hasSubscribers(chunk.get(i).getUserId())) {
+                streamed.add(NotificationResponseDTO.fromEntity(chunk.get(i)));
+            }
+            results[indexes.get(i)] = NotificationBatchItemResultDTO.builder()
+                    .index(indexes.get(i))
+                    .success(true)
+                    .id(chunk.get(i).getId())
+                    .build();
+        }
+    }
+
+    private Notification toEntity(NotificationCreateDTO createDTO) {
+        return Notification.builder()
                 .userId(createDTO.getUserId())
                 .type(createDTO.getType())
                 .title(createDTO.getTitle())
@@ -31,9 +149,6 @@ public class NotificationService {
                 .priority(createDTO.getPriority() != null ? createDTO.getPriority() : Notification.Priority.MEDIUM)
                 .read(false)
                 .build();
-
-        notification = notificationRepository.save(notification);
-        return NotificationResponseDTO.fromEntity(notification);
     }
 
     public List<NotificationResponseDTO> getUserNotifications(Long userId, Boolean unreadOnly) {
@@ -48,39 +163,201 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Bandeja del usuario por cursor, de la más reciente a la más antigua.
+     * - Sin cursor: las limit más recientes; nextCursor sigue con las más antiguas y sinceCursor
+     *   permite pedir después solo las nuevas.
+     * - before: las limit anteriores al cursor (nextCursor de la página previa).
+     * - after: las nuevas desde el cursor (sinceCursor de la consulta previa), empezando por las más
+     *   cercanas al cursor; si hasMore, se vuelve a pedir con el nuevo sinceCursor.
+     * Las novedades se entregan con un margen de safetyLagMs (ver NotificationInboxConfig) y nunca pasan
+     * de la transacción de creación abierta más antigua (ver NotificationClock), así que una
+     * notificación puede llegar también en la página inicial: el cliente debe deduplicar por ID.
+     */
+    @Transactional(readOnly = true)
+    public NotificationSliceDTO getInbox(Long userId, int limit, String before, String after, boolean unreadOnly) {
+        if (limit < 1 || limit > MAX_INBOX_LIMIT) {
+            throw new RuntimeException("El tamaño de página debe estar entre 1 y " + MAX_INBOX_LIMIT);
+        }
+        boolean hasBefore = before != null && !before.isBlank();
+        boolean hasAfter = after != null && !after.isBlank();
+        if (hasBefore && hasAfter) {
+            throw new RuntimeException("Indique solo uno de los cursores before o after");
+        }
+        // Nunca más allá de la transacción abierta más antigua: un lote largo confirma tarde filas con marcas antiguas
+        LocalDateTime until = notificationClock.visibleUntil(
+                LocalDateTime.now().minusNanos(inboxConfig.getSafetyLagMs() * 1_000_000));
+
+        if (hasAfter) {
+            NotificationCursor since = NotificationCursor.decode(after);
+            // Se pide una fila extra para saber si quedan más novedades
+            List<NotificationResponseDTO> rows = toResponses(notificationInboxRepository.findNewer(
+                    userId, unreadOnly, since.createdAt(), since.id(), until, limit + 1));
+            boolean hasMore = rows.size() > limit;
+            List<NotificationResponseDTO> content = new ArrayList<>(hasMore ? rows.subList(0, limit) : rows);
+            if (!content.isEmpty()) {
+                since = NotificationCursor.at(content.get(content.size() - 1));
+            }
+            Collections.reverse(content);
+            return slice(content, hasMore, null, since.encode());
+        }
+
+        NotificationCursor position = hasBefore ? NotificationCursor.decode(before) : null;
+        List<NotificationResponseDTO> rows = toResponses(notificationInboxRepository.findOlder(
+                userId, unreadOnly,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<NotificationResponseDTO> content = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? NotificationCursor.at(content.get(content.size() - 1)).encode() : null;
+        String sinceCursor = null;
+        if (position == null) {
+            // Las novedades continúan desde la más reciente entregada, pero nunca después del margen
+            NotificationCursor boundary = NotificationCursor.upTo(until);
+            NotificationCursor newest = content.isEmpty() ? boundary : NotificationCursor.at(content.get(0));
+            sinceCursor = (newest.isAfter(boundary) ? boundary : newest).encode();
+        }
+        return slice(content, hasMore, nextCursor, sinceCursor);
+    }
+
+    private static List<NotificationResponseDTO> toResponses(List<Notification> notifications) {
+        return notifications.stream()
+                .map(NotificationResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    private static NotificationSliceDTO slice(List<NotificationResponseDTO> content, boolean hasMore,
+                                              String nextCursor, String sinceCursor) {
+        return NotificationSliceDTO.builder()
+                .content(content)
+                .size(content.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .sinceCursor(sinceCursor)
+                .build();
+    }
+
+    /**
+     * Marcar una notificación como leída. El contador solo baja si el UPDATE condicional la marcó:
+     * con dos peticiones concurrentes sobre la misma notificación, la segunda no afecta filas
+     */
     @Transactional
     public NotificationResponseDTO markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
-        notification.setRead(true);
-        notification = notificationRepository.save(notification);
-        return NotificationResponseDTO.fromEntity(notification);
+        int marked = notificationRepository.markAsReadIfUnread(notificationId);
+        recordUnreadChange(notification.getUserId(), -marked);
+        NotificationResponseDTO response = NotificationResponseDTO.fromEntity(notification);
+        response.setRead(true);
+        return response;
     }
 
+    /**
+     * Marcar como leídas todas las no leídas del usuario con una sola sentencia UPDATE
+     */
     @Transactional
-    public void markAllAsRead(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(userId);
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+    public NotificationBulkResultDTO markAllAsRead(Long userId) {
+        int marked = notificationRepository.markAllAsRead(userId);
+        recordUnreadChange(userId, -marked);
+        return bulkResult(userId, marked);
     }
 
+    /**
+     * Marcar como leídas las no leídas del usuario hasta la notificación indicada, inclusive, en el
+     * orden de la bandeja (fecha de creación e ID). Así el cliente confirma solo lo que llegó a ver,
+     * aunque mientras tanto hayan llegado notificaciones nuevas.
+     */
+    @Transactional
+    public NotificationBulkResultDTO markAsReadUpTo(Long userId, Long notificationId) {
+        Notification last = notificationRepository.findById(notificationId)
+                .filter(notification -> notification.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
+        int marked = notificationRepository.markAsReadUpTo(userId, last.getCreatedAt(), last.getId());
+        recordUnreadChange(userId, -marked);
+        return bulkResult(userId, marked);
+    }
+
+    /**
+     * Eliminar una notificación. El contador solo baja si el DELETE condicional eliminó una no leída:
+     * si un markAsRead concurrente la marca antes, ese es el que descuenta
+     */
     @Transactional
     public void deleteNotification(Long notificationId) {
         log.info("Eliminando notificación: {}", notificationId);
-        if (!notificationRepository.existsById(notificationId)) {
-            throw new RuntimeException("Notificación no encontrada");
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
+        int unreadDeleted = notificationRepository.deleteByIdAndRead(notificationId, false);
+        if (unreadDeleted == 0) {
+            notificationRepository.deleteByIdAndRead(notificationId, true);
         }
-        notificationRepository.deleteById(notificationId);
+        recordUnreadChange(notification.getUserId(), -unreadDeleted);
     }
 
+    /**
+     * Eliminar todas las notificaciones del usuario con sentencias DELETE (no leídas y leídas por
+     * separado, para descontar del contador exactamente las no leídas)
+     */
     @Transactional
-    public void deleteAllNotifications(Long userId) {
+    public NotificationBulkResultDTO deleteAllNotifications(Long userId) {
         log.info("Eliminando todas las notificaciones del usuario: {}", userId);
-        notificationRepository.deleteByUserId(userId);
+        int unread = notificationRepository.deleteByUserIdAndRead(userId, false);
+        int read = notificationRepository.deleteByUserIdAndRead(userId, true);
+        recordUnreadChange(userId, -unread);
+        return bulkResult(userId, unread + read);
     }
 
+    /**
+     * Contador de no leídas desde memoria (ver UnreadCounters)
+     */
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndReadFalse(userId);
+        return unreadCounters.get(userId);
+    }
+
+    /**
+     * Abrir la conexión SSE del usuario; recibe las notificaciones nuevas y los cambios del contador
+     * de no leídas a medida que se confirman
+     */
+    public SseEmitter streamNotifications(Long userId) {
+        return notificationStreams.subscribe(userId, getUnreadCount(userId));
+    }
+
+    /**
+     * Después del commit: sumar las notificaciones creadas a los contadores de no leídas y
+     * avisar por SSE de las notificaciones y de los nuevos contadores
+     * @param streamed notificaciones de usuarios con alguna conexión abierta
+     */
+    private void recordCreated(List<NotificationResponseDTO> streamed, Map<Long, Long> createdByUser) {
+        TransactionCallbacks.afterCommit(() -> {
+            createdByUser.forEach(unreadCounters::add);
+            streamed.forEach(notificationStreams::publishNotification);
+            createdByUser.keySet().forEach(this::publishUnreadCount);
+        });
+    }
+
+    /**
+     * Después del commit: aplicar el cambio al contador de no leídas del usuario y avisarlo por SSE
+     */
+    private void recordUnreadChange(Long userId, long delta) {
+        TransactionCallbacks.afterCommit(() -> {
+            if (delta != 0) {
+                unreadCounters.add(userId, delta);
+            }
+            publishUnreadCount(userId);
+        });
+    }
+
+    private static NotificationBulkResultDTO bulkResult(Long userId, int affected) {
+        return NotificationBulkResultDTO.builder()
+                .userId(userId)
+                .affected(affected)
+                .build();
+    }
+
+    private void publishUnreadCount(Long userId) {
+        if (notificationStreams.hasSubscribers(userId)) {
+            unreadCounters.peek(userId).ifPresent(count -> notificationStreams.publishUnreadCount(userId, count));
+        }
     }
 }
 
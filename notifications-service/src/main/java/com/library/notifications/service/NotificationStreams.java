@@ -0,0 +1,338 @@
+package com.library.notifications.service;
+
+import com.library.notifications.config.NotificationStreamConfig;
+import com.library.notifications.dto.NotificationResponseDTO;
+import com.library.notifications.dto.UnreadCountResponseDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Conexiones SSE abiertas (GET /api/notifications/user/{userId}/stream), agrupadas por usuario.
+ * Publicar solo deja el evento en la cola de cada conexión del usuario; un grupo de dispatchThreads
+ * hilos escribe en las conexiones, con un solo hilo a la vez por conexión, de modo que un cliente
+ * lento no frena la publicación.
+ * La escritura en la conexión es bloqueante: un cliente que no lee ocupa su hilo hasta que se llena
+ * el buffer del socket y el servidor web corta la escritura. Para que unos pocos clientes así no
+ * detengan la entrega a los demás, una escritura que supera writeTimeoutMs cierra la conexión y el
+ * grupo recibe un hilo de reemplazo hasta que la escritura bloqueada termina (ver checkStalledWrites).
+ * Cada conexión tiene una cola acotada (ver Buffer):
+ * - notificaciones nuevas: hasta bufferSize; si se llena, se descartan y se envía un evento
+ *   resync para que el cliente vuelva a consultar la lista
+ * - contador de no leídas: solo se guarda el último valor
+ * - latido: un comentario cada heartbeatMs mantiene viva la conexión y detecta clientes caídos
+ * Una conexión abierta no ocupa ningún hilo mientras no tiene eventos pendientes.
+ */
+@Component
+@Slf4j
+public class NotificationStreams {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+    static final String RESYNC_EVENT = "resync";
+
+    record Event(String name, Object data) {
+    }
+
+    private final NotificationStreamConfig config;
+    private final ThreadPoolExecutor dispatcher;
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public NotificationStreams(NotificationStreamConfig config) {
+        this.config = config;
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(config.getDispatchThreads(), config.getDispatchThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abrir una conexión para el usuario; el primer evento es su contador de no leídas
+     */
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        return subscribe(userId, unreadCount, new SseEmitter(config.getTimeoutMs()));
+    }
+
+    SseEmitter subscribe(Long userId, long unreadCount, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, new Buffer(userId, config.getBufferSize()));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscriber));
+
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(subscriber);
+            while (updated.size() > config.getMaxPerUser()) {
+                evicted.add(updated.remove(0));
+            }
+            return updated;
+        });
+        connections.incrementAndGet();
+        // Cerrar fuera de compute: el cierre vuelve a tocar el mapa
+        evicted.forEach(this::close);
+
+        subscriber.buffer.offerUnreadCount(unreadCount);
+        dispatch(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Indica si el usuario tiene alguna conexión abierta
+     */
+    public boolean hasSubscribers(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public void publishNotification(NotificationResponseDTO notification) {
+        forEach(notification.getUserId(), subscriber -> subscriber.buffer.offerNotification(notification));
+    }
+
+    public void publishUnreadCount(Long userId, long unreadCount) {
+        forEach(userId, subscriber -> subscriber.buffer.offerUnreadCount(unreadCount));
+    }
+
+    /**
+     * Conexiones abiertas
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            subscriber.buffer.offerHeartbeat();
+            dispatch(subscriber);
+        }));
+    }
+
+    /**
+     * Cerrar las conexiones con una escritura bloqueada más de writeTimeoutMs. El hilo bloqueado
+     * no se puede recuperar hasta que la escritura termine, así que se suma un hilo al grupo de
+     * envío; drain lo devuelve cuando la escritura termina.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void checkStalledWrites() {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(config.getWriteTimeoutMs());
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            long started = subscriber.sendStartedAt.get();
+            if (started != 0 && now - started > timeout && subscriber.stalled.compareAndSet(false, true)) {
+                log.warn("Conexión SSE del usuario {} sin leer durante más de {} ms: se cierra",
+                        subscriber.userId, config.getWriteTimeoutMs());
+                // Solo se quita del registro: completar el emitter esperaría a la escritura bloqueada
+                remove(subscriber);
+                resizeDispatcher(1);
+            }
+        }));
+    }
+
+    /**
+     * Hilos del grupo de envío, incluidos los de reemplazo de escrituras bloqueadas
+     */
+    int dispatchThreads() {
+        return dispatcher.getCorePoolSize();
+    }
+
+    private synchronized void resizeDispatcher(int delta) {
+        int size = dispatcher.getCorePoolSize() + delta;
+        if (delta > 0) {
+            dispatcher.setMaximumPoolSize(size);
+            dispatcher.setCorePoolSize(size);
+        } else {
+            dispatcher.setCorePoolSize(size);
+            dispatcher.setMaximumPoolSize(size);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(this::close));
+    }
+
+    private void forEach(Long userId, Consumer<Subscriber> offer) {
+        List<Subscriber> list = subscribers.get(userId);
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            offer.accept(subscriber);
+            dispatch(subscriber);
+        }
+    }
+
+    private void dispatch(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    /**
+     * Escribir los eventos pendientes de una conexión. Si mientras tanto llegan eventos nuevos,
+     * el mismo hilo los envía antes de liberar la conexión.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            Event event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                if (subscriber.closed.get()) {
+                    return;
+                }
+                subscriber.sendStartedAt.set(System.nanoTime());
+                try {
+                    subscriber.emitter.send(toSse(event));
+                } catch (Exception e) {
+                    log.debug("Conexión SSE del usuario {} cerrada al enviar: {}", subscriber.userId, e.getMessage());
+                    close(subscriber);
+                    return;
+                } finally {
+                    subscriber.sendStartedAt.set(0);
+                    if (subscriber.stalled.get()) {
+                        resizeDispatcher(-1);
+                    }
+                }
+                if (subscriber.stalled.get()) {
+                    close(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (subscriber.buffer.hasPending() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception e) {
+            log.debug("Error cerrando conexión SSE del usuario {}: {}", subscriber.userId, e.getMessage());
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connections.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(Event event) {
+        if (event.name() == null) {
+            return SseEmitter.event().comment(String.valueOf(event.data()));
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name());
+        if (event.data() instanceof NotificationResponseDTO notification) {
+            builder.id(String.valueOf(notification.getId()));
+        }
+        return builder.data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * @param sendStartedAt inicio (System.nanoTime) de la escritura en curso, 0 si no hay ninguna
+     * @param stalled la escritura en curso superó writeTimeoutMs y la conexión ya se quitó
+     */
+    private record Subscriber(Long userId, SseEmitter emitter, Buffer buffer, AtomicBoolean draining, AtomicBoolean closed,
+                              AtomicLong sendStartedAt, AtomicBoolean stalled) {
+
+        Subscriber(Long userId, SseEmitter emitter, Buffer buffer) {
+            this(userId, emitter, buffer, new AtomicBoolean(), new AtomicBoolean(), new AtomicLong(), new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Cola acotada de eventos pendientes de una conexión. El orden de envío es: resync,
+     * notificaciones, contador de no leídas y latido.
+     */
+    static final class Buffer {
+
+        private final Long userId;
+        private final int capacity;
+        private final ArrayDeque<NotificationResponseDTO> notifications = new ArrayDeque<>();
+        private Long unreadCount;
+        private boolean resync;
+        private boolean heartbeat;
+
+        Buffer(Long userId, int capacity) {
+            this.userId = userId;
+            this.capacity = capacity;
+        }
+
+        synchronized void offerNotification(NotificationResponseDTO notification) {
+            if (resync) {
+                return;
+            }
+            if (notifications.size() >= capacity) {
+                notifications.clear();
+                resync = true;
+                return;
+            }
+            notifications.add(notification);
+        }
+
+        synchronized void offerUnreadCount(long count) {
+            unreadCount = count;
+        }
+
+        synchronized void offerHeartbeat() {
+            heartbeat = true;
+        }
+
+        synchronized Event poll() {
+            if (resync) {
+                resync = false;
+                return new Event(RESYNC_EVENT, Map.of("userId", userId));
+            }
+            NotificationResponseDTO notification = notifications.poll();
+            if (notification != null) {
+                return new Event(NOTIFICATION_EVENT, notification);
+            }
+            if (unreadCount != null) {
+                Event event = new Event(UNREAD_COUNT_EVENT, new UnreadCountResponseDTO(userId, unreadCount));
+                unreadCount = null;
+                return event;
+            }
+            if (heartbeat) {
+                heartbeat = false;
+                return new Event(null, "latido");
+            }
+            return null;
+        }
+
+        synchronized boolean hasPending() {
+            return resync || !notifications.isEmpty() || unreadCount != null || heartbeat;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.library.notifications.service;
+
+import com.library.notifications.config.UnreadCountersConfig;
+import com.library.notifications.repository.NotificationRepository;
+import com.library.notifications.repository.UnreadCountView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Contadores de notificaciones no leídas por usuario, mantenidos en memoria.
+ * Los usuarios se reparten en franjas según su ID; cada franja es una tabla de longs primitivos
+ * (ver LongCountMap) con su propio candado, de modo que usuarios distintos rara vez compiten.
+ * - Un usuario se carga desde la base de datos la primera vez que se consulta su contador.
+ * - NotificationService informa cada alta, lectura y baja después del commit.
+ * - Una tarea periódica reconcilia los contadores con un conteo agrupado por usuario; así también
+ *   se cargan los usuarios con no leídas que aún no se consultaron.
+ * Cada franja lleva una versión que cambia con cada actualización: una carga o reconciliación solo
+ * se instala si la franja no cambió mientras se consultaba la base de datos, para no perder los
+ * cambios confirmados entretanto.
+ */
+@Component
+@Slf4j
+class UnreadCounters {
+
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private final NotificationRepository notificationRepository;
+    private final Stripe[] stripes;
+
+    UnreadCounters(NotificationRepository notificationRepository, UnreadCountersConfig config) {
+        this.notificationRepository = notificationRepository;
+        int count = Integer.highestOneBit(Math.max(1, config.getStripes() * 2 - 1));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Contador del usuario; solo consulta la base de datos si aún no está cargado.
+     * Si la franja cambia en cada intento de carga, se responde con la base de datos sin guardar el valor.
+     */
+    long get(Long userId) {
+        Stripe stripe = stripeFor(userId);
+        for (int attempt = 1; attempt <= LOAD_ATTEMPTS; attempt++) {
+            long version;
+            synchronized (stripe) {
+                long count = stripe.counts.get(userId);
+                if (count != LongCountMap.MISSING) {
+                    return count;
+                }
+                version = stripe.version;
+            }
+            long loaded = notificationRepository.countByUserIdAndReadFalse(userId);
+            synchronized (stripe) {
+                if (stripe.version == version) {
+                    stripe.counts.put(userId, loaded);
+                    return loaded;
+                }
+            }
+        }
+        return notificationRepository.countByUserIdAndReadFalse(userId);
+    }
+
+    /**
+     * Contador del usuario si ya está cargado, sin consultar la base de datos
+     */
+    OptionalLong peek(Long userId) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            long count = stripe.counts.get(userId);
+            return count != LongCountMap.MISSING ? OptionalLong.of(count) : OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Sumar (o restar) al contador del usuario un cambio ya confirmado. Si el usuario no está
+     * cargado solo se marca la franja, para que una carga en curso no instale un valor anterior.
+     */
+    void add(Long userId, long delta) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            stripe.version++;
+            long count = stripe.counts.get(userId);
+            if (count != LongCountMap.MISSING) {
+                stripe.counts.put(userId, Math.max(0, count + delta));
+            }
+        }
+    }
+
+    /**
+     * Reconciliar con la base de datos. Las franjas que cambian durante la consulta se dejan
+     * para la próxima ejecución.
+     */
+    @Scheduled(initialDelayString = "${notifications.unread-counters.reconcile-interval-ms:300000}",
+               fixedDelayString = "${notifications.unread-counters.reconcile-interval-ms:300000}")
+    void reconcile() {
+        long[] versions = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            synchronized (stripes[i]) {
+                versions[i] = stripes[i].version;
+            }
+        }
+
+        List<UnreadCountView> rows = notificationRepository.countUnreadGroupedByUser();
+        LongCountMap[] loaded = new LongCountMap[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            loaded[i] = new LongCountMap(rows.size() / stripes.length + 1);
+        }
+        for (UnreadCountView row : rows) {
+            loaded[stripeIndex(row.getUserId())].put(row.getUserId(), row.getUnreadCount());
+        }
+
+        int corrected = 0;
+        int skipped = 0;
+        int users = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            synchronized (stripe) {
+                if (stripe.version != versions[i]) {
+                    skipped++;
+                    users += stripe.counts.size();
+                    continue;
+                }
+                LongCountMap fresh = loaded[i];
+                int[] changes = new int[1];
+                // Los usuarios cargados que no aparecen en el conteo no tienen no leídas
+                stripe.counts.forEach((userId, count) -> {
+                    long actual = Math.max(0, fresh.get(userId));
+                    if (actual != count) {
+                        changes[0]++;
+                    }
+                    if (actual == 0) {
+                        fresh.put(userId, 0);
+                    }
+                });
+                corrected += changes[0];
+                stripe.counts = fresh;
+                users += fresh.size();
+            }
+        }
+        if (corrected > 0) {
+            log.warn("Contadores de no leídas corregidos en la reconciliación: {} usuarios", corrected);
+        }
+        log.debug("Contadores de no leídas reconciliados: {} usuarios en memoria, {} franjas pospuestas", users, skipped);
+    }
+
+    private Stripe stripeFor(Long userId) {
+        return stripes[stripeIndex(userId)];
+    }
+
+    private int stripeIndex(long userId) {
+        return (int) LongCountMap.mix(userId) & (stripes.length - 1);
+    }
+
+    private static final class Stripe {
+
+        private LongCountMap counts = new LongCountMap(16);
+        private long version;
+    }
+}
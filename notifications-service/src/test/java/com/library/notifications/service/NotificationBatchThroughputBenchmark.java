@@ -0,0 +1,55 @@
+package com.library.notifications.service;
+
+import com.library.notifications.dto.NotificationCreateDTO;
+import com.library.notifications.model.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Rendimiento de la creación de notificaciones contra la base de datos configurada (MySQL local):
+ * - uno a uno: una llamada a createNotification por notificación (un INSERT y un commit cada una)
+ * - lote: createNotifications con secuencia pooled-lo, lotes JDBC y rewriteBatchedStatements
+ * Las notificaciones se crean para un usuario reservado y se eliminan al terminar.
+ *
+ * Ejecutar con: mvn test -Dtest=NotificationBatchThroughputBenchmark -Dbenchmark=true
+ */
+@SpringBootTest(properties = "notifications.batch.max-items=100000")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationBatchThroughputBenchmark {
+
+    private static final long USER_ID = -1L;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @AfterEach
+    void cleanUp() {
+        notificationService.deleteAllNotifications(USER_ID);
+    }
+
+    @Test
+    void compareSingleAndBatchInserts() {
+        report("uno a uno", 10_000, notifications -> notifications.forEach(notificationService::createNotification));
+        report("lote", 10_000, notificationService::createNotifications);
+        report("lote", 100_000, notificationService::createNotifications);
+    }
+
+    private void report(String name, int count, Consumer<List<NotificationCreateDTO>> insert) {
+        List<NotificationCreateDTO> notifications = IntStream.range(0, count)
+                .mapToObj(i -> new NotificationCreateDTO(USER_ID, Notification.Type.SYSTEM, "Benchmark",
+                        "Notificación " + i, Notification.Priority.LOW))
+                .toList();
+        long start = System.nanoTime();
+        insert.accept(notifications);
+        long ms = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("%-10s %,7d notificaciones: %,6d ms, %,8d notificaciones/s%n", name, count, ms, count * 1000L / ms);
+        notificationService.deleteAllNotifications(USER_ID);
+    }
+}
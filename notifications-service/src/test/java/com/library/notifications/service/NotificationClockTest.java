@@ -0,0 +1,51 @@
+package com.library.notifications.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotificationClockTest {
+
+    private final NotificationClock clock = new NotificationClock();
+
+    @AfterEach
+    void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(clock);
+    }
+
+    @Test
+    void testVisibleUntil_HoldsBackUntilOpenTransactionCompletes() {
+        LocalDateTime limit = LocalDateTime.now().plusHours(1);
+        assertEquals(limit, clock.visibleUntil(limit));
+
+        TransactionSynchronizationManager.initSynchronization();
+        LocalDateTime first = clock.now();
+        clock.now();
+
+        // Un lote largo: su primera marca queda detrás del límite hasta que se confirma
+        assertEquals(first.minus(1, ChronoUnit.MICROS), clock.visibleUntil(limit));
+        LocalDateTime earlier = first.minusHours(1);
+        assertEquals(earlier, clock.visibleUntil(earlier));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(limit, clock.visibleUntil(limit));
+    }
+
+    @Test
+    void testNow_WithoutTransactionDoesNotHoldBack() {
+        clock.now();
+
+        LocalDateTime limit = LocalDateTime.now().plusHours(1);
+        assertEquals(limit, clock.visibleUntil(limit));
+    }
+}
@@ -1,22 +1,44 @@
 package com.library.notifications.service;
 
+import com.library.notifications.config.NotificationBatchConfig;
+import com.library.notifications.config.NotificationInboxConfig;
+import com.library.notifications.dto.NotificationBatchItemResultDTO;
 import com.library.notifications.dto.NotificationCreateDTO;
 import com.library.notifications.dto.NotificationResponseDTO;
+import com.library.notifications.dto.NotificationSliceDTO;
 import com.library.notifications.model.Notification;
+import com.library.notifications.repository.NotificationInboxRepository;
 import com.library.notifications.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +47,30 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private NotificationBatchConfig batchConfig = new NotificationBatchConfig();
+
+    @Mock
+    private NotificationInboxRepository notificationInboxRepository;
+
+    @Spy
+    private NotificationInboxConfig inboxConfig = new NotificationInboxConfig();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private NotificationStreams notificationStreams;
+
+    @Mock
+    private UnreadCounters unreadCounters;
+
+    @Spy
+    private NotificationClock notificationClock = new NotificationClock();
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -63,6 +109,33 @@ class NotificationServiceTest {
         verify(notificationRepository, times(1)).save(any(Notification.class));
     }
 
+    @Test
+    void testCreateNotification_PublishesToOpenStreams() {
+        when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
+        when(notificationStreams.hasSubscribers(1L)).thenReturn(true);
+        when(unreadCounters.peek(1L)).thenReturn(OptionalLong.of(4L));
+
+        notificationService.createNotification(createDTO);
+
+        verify(unreadCounters).add(1L, 1L);
+        verify(notificationStreams).publishNotification(argThat(notification -> notification.getId().equals(1L)));
+        verify(notificationStreams).publishUnreadCount(1L, 4L);
+    }
+
+    @Test
+    void testMarkAsRead_DecrementsUnreadCounterOnlyWhenMarked() {
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
+        // Dos peticiones concurrentes: ambas leyeron la notificación sin leer, pero solo una la marca
+        when(notificationRepository.markAsReadIfUnread(1L)).thenReturn(1, 0);
+
+        notificationService.markAsRead(1L);
+        notificationService.markAsRead(1L);
+
+        verify(unreadCounters, times(1)).add(1L, -1L);
+        verify(unreadCounters, never()).add(1L, -2L);
+        verify(notificationStreams, never()).publishUnreadCount(anyLong(), anyLong());
+    }
+
     @Test
     void testGetUserNotifications_Success() {
         List<Notification> notifications = new ArrayList<>();
@@ -79,13 +152,14 @@ class NotificationServiceTest {
     @Test
     void testMarkAsRead_Success() {
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
-        when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
+        when(notificationRepository.markAsReadIfUnread(1L)).thenReturn(1);
 
         NotificationResponseDTO result = notificationService.markAsRead(1L);
 
         assertNotNull(result);
-        assertTrue(testNotification.getRead());
-        verify(notificationRepository, times(1)).save(any(Notification.class));
+        assertTrue(result.getRead());
+        verify(notificationRepository, times(1)).markAsReadIfUnread(1L);
+        verify(notificationRepository, never()).save(any(Notification.class));
     }
 
     @Test
@@ -93,17 +167,238 @@ class NotificationServiceTest {
         when(notificationRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> notificationService.markAsRead(1L));
+        verify(notificationRepository, never()).markAsReadIfUnread(anyLong());
+    }
+
+    @Test
+    void testMarkAllAsRead_ReturnsMarkedCount() {
+        when(notificationRepository.markAllAsRead(1L)).thenReturn(12);
+
+        var result = notificationService.markAllAsRead(1L);
+
+        assertEquals(12, result.getAffected());
+        verify(unreadCounters).add(1L, -12L);
+        verify(notificationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testMarkAsReadUpTo_UsesInboxPositionOfNotification() {
+        testNotification.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
+        when(notificationRepository.markAsReadUpTo(1L, testNotification.getCreatedAt(), 1L)).thenReturn(3);
+
+        var result = notificationService.markAsReadUpTo(1L, 1L);
+
+        assertEquals(3, result.getAffected());
+        verify(unreadCounters).add(1L, -3L);
+    }
+
+    @Test
+    void testMarkAsReadUpTo_RejectsNotificationOfAnotherUser() {
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> notificationService.markAsReadUpTo(2L, 1L));
+
+        assertEquals("Notificación no encontrada", error.getMessage());
+        verify(notificationRepository, never()).markAsReadUpTo(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void testDeleteNotification_DiscountsOnlyWhenUnreadRowDeleted() {
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
+        // La instantánea dice no leída, pero un markAsRead concurrente la marcó antes del DELETE
+        when(notificationRepository.deleteByIdAndRead(1L, false)).thenReturn(0);
+        when(notificationRepository.deleteByIdAndRead(1L, true)).thenReturn(1);
+
+        notificationService.deleteNotification(1L);
+
+        verify(notificationRepository).deleteByIdAndRead(1L, true);
+        verify(unreadCounters, never()).add(eq(1L), anyLong());
+
+        when(notificationRepository.deleteByIdAndRead(1L, false)).thenReturn(1);
+
+        notificationService.deleteNotification(1L);
+
+        verify(unreadCounters).add(1L, -1L);
+        verify(notificationRepository, times(1)).deleteByIdAndRead(1L, true);
+    }
+
+    @Test
+    void testDeleteAllNotifications_DiscountsOnlyUnread() {
+        when(notificationRepository.deleteByUserIdAndRead(1L, false)).thenReturn(2);
+        when(notificationRepository.deleteByUserIdAndRead(1L, true)).thenReturn(5);
+
+        var result = notificationService.deleteAllNotifications(1L);
+
+        assertEquals(7, result.getAffected());
+        verify(unreadCounters).add(1L, -2L);
     }
 
     @Test
     void testGetUnreadCount_Success() {
-        when(notificationRepository.countByUserIdAndReadFalse(1L)).thenReturn(5L);
+        when(unreadCounters.get(1L)).thenReturn(5L);
 
         Long result = notificationService.getUnreadCount(1L);
 
         assertNotNull(result);
         assertEquals(5L, result);
+        verify(notificationRepository, never()).countByUserIdAndReadFalse(anyLong());
     }
-}
 
+    @Test
+    void testCreateNotifications_Batch() {
+        NotificationCreateDTO second = new NotificationCreateDTO(2L, Notification.Type.LOAN_OVERDUE, "Préstamo vencido", "Devuelve el libro", null);
+
+        var result = notificationService.createNotifications(List.of(createDTO, second));
+
+        assertEquals(2, result.getCreated());
+        verify(notificationRepository, times(1)).saveAll(argThat(list ->
+                ((List<Notification>) list).get(1).getPriority() == Notification.Priority.MEDIUM));
+    }
+
+    @Test
+    void testCreateNotifications_InvalidItemIsRejectedAlone() {
+        NotificationCreateDTO invalid = new NotificationCreateDTO(2L, Notification.Type.SYSTEM, "", "Mensaje", null);
+        doAnswer(invocation -> {
+            List<Notification> notifications = invocation.getArgument(0);
+            notifications.forEach(notification -> notification.setId(10L + notification.getUserId()));
+            return notifications;
+        }).when(notificationRepository).saveAll(anyList());
+
+        var result = notificationService.createNotifications(Arrays.asList(createDTO, invalid, null));
+
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(11L, result.getResults().get(0).getId());
+        assertFalse(result.getResults().get(1).getSuccess());
+        assertNotNull(result.getResults().get(1).getMessage());
+        assertEquals("La notificación está vacía", result.getResults().get(2).getMessage());
+        verify(notificationRepository).saveAll(argThat(list -> ((List<Notification>) list).size() == 1));
+    }
+
+    @Test
+    void testCreateNotifications_SavesInChunks() {
+        batchConfig.setChunkSize(2);
+
+        var result = notificationService.createNotifications(Collections.nCopies(5, createDTO));
+
+        assertEquals(5, result.getCreated());
+        assertEquals(List.of(0, 1, 2, 3, 4), result.getResults().stream().map(NotificationBatchItemResultDTO::getIndex).toList());
+        verify(notificationRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void testCreateNotifications_RejectsOversizedBatch() {
+        batchConfig.setMaxItems(2);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> notificationService.createNotifications(Collections.nCopies(3, createDTO)));
+
+        assertEquals("Se pueden crear como máximo 2 notificaciones por lote", error.getMessage());
+        verify(notificationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testGetInbox_FirstPageReturnsCursorsForOlderAndNewItems() {
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        when(notificationInboxRepository.findOlder(eq(1L), eq(false), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(notification(9L, base.plusMinutes(3)), notification(7L, base.plusMinutes(2)),
+                        notification(8L, base.plusMinutes(1))));
+
+        NotificationSliceDTO slice = notificationService.getInbox(1L, 2, null, null, false);
+
+        assertEquals(List.of(9L, 7L), slice.getContent().stream().map(NotificationResponseDTO::getId).toList());
+        assertTrue(slice.getHasMore());
+        assertEquals(new NotificationCursor(base.plusMinutes(2), 7L), NotificationCursor.decode(slice.getNextCursor()));
+        assertEquals(new NotificationCursor(base.plusMinutes(3), 9L), NotificationCursor.decode(slice.getSinceCursor()));
+
+        when(notificationInboxRepository.findOlder(1L, false, base.plusMinutes(2), 7L, 3))
+                .thenReturn(List.of(notification(8L, base.plusMinutes(1))));
 
+        NotificationSliceDTO older = notificationService.getInbox(1L, 2, slice.getNextCursor(), null, false);
+
+        assertEquals(1, older.getSize());
+        assertFalse(older.getHasMore());
+        assertNull(older.getNextCursor());
+        assertNull(older.getSinceCursor());
+    }
+
+    @Test
+    void testGetInbox_SinceCursorStopsBeforeSafetyLag() {
+        LocalDateTime justNow = LocalDateTime.now();
+        when(notificationInboxRepository.findOlder(eq(1L), eq(true), isNull(), isNull(), eq(21)))
+                .thenReturn(List.of(notification(5L, justNow)));
+
+        NotificationSliceDTO slice = notificationService.getInbox(1L, 20, null, null, true);
+
+        NotificationCursor since = NotificationCursor.decode(slice.getSinceCursor());
+        assertTrue(since.createdAt().isBefore(justNow.minusSeconds(1)));
+        assertEquals(Long.MAX_VALUE, since.id());
+    }
+
+    @Test
+    void testGetInbox_SinceCursorWaitsForOpenBatch() {
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        NotificationCursor since = new NotificationCursor(base, 4L);
+        inboxConfig.setSafetyLagMs(0L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Un lote abierto: sus filas se confirmarán con marcas que el margen ya dejó atrás
+            LocalDateTime batchStart = notificationClock.now();
+            when(notificationInboxRepository.findNewer(eq(1L), eq(false), eq(base), eq(4L), any(LocalDateTime.class), eq(21)))
+                    .thenReturn(List.of());
+
+            notificationService.getInbox(1L, 20, null, since.encode(), false);
+
+            verify(notificationInboxRepository).findNewer(1L, false, base, 4L, batchStart.minus(1, ChronoUnit.MICROS), 21);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetInbox_AfterReturnsNewItemsNewestFirst() {
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        NotificationCursor since = new NotificationCursor(base, 4L);
+        when(notificationInboxRepository.findNewer(eq(1L), eq(false), eq(base), eq(4L), any(LocalDateTime.class), eq(3)))
+                .thenReturn(List.of(notification(6L, base.plusMinutes(1)), notification(5L, base.plusMinutes(2)),
+                        notification(9L, base.plusMinutes(3))));
+
+        NotificationSliceDTO slice = notificationService.getInbox(1L, 2, null, since.encode(), false);
+
+        assertEquals(List.of(5L, 6L), slice.getContent().stream().map(NotificationResponseDTO::getId).toList());
+        assertTrue(slice.getHasMore());
+        assertNull(slice.getNextCursor());
+        assertEquals(new NotificationCursor(base.plusMinutes(2), 5L), NotificationCursor.decode(slice.getSinceCursor()));
+    }
+
+    @Test
+    void testGetInbox_RejectsInvalidRequests() {
+        String cursor = new NotificationCursor(LocalDateTime.now(), 1L).encode();
+
+        assertEquals("El tamaño de página debe estar entre 1 y 100", assertThrows(RuntimeException.class,
+                () -> notificationService.getInbox(1L, 101, null, null, false)).getMessage());
+        assertEquals("Indique solo uno de los cursores before o after", assertThrows(RuntimeException.class,
+                () -> notificationService.getInbox(1L, 20, cursor, cursor, false)).getMessage());
+        assertTrue(assertThrows(RuntimeException.class,
+                () -> notificationService.getInbox(1L, 20, "no-es-un-cursor", null, false))
+                .getMessage().startsWith("Cursor de paginación inválido"));
+        verify(notificationInboxRepository, never()).findOlder(any(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    private static Notification notification(Long id, LocalDateTime createdAt) {
+        return Notification.builder()
+                .id(id)
+                .userId(1L)
+                .type(Notification.Type.SYSTEM)
+                .title("Notificación " + id)
+                .message("Mensaje")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.library.notifications.service;
+
+import com.library.notifications.dto.NotificationCreateDTO;
+import com.library.notifications.model.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga de conexiones SSE en un solo nodo contra la base de datos configurada (MySQL local):
+ * abre SUBSCRIBERS conexiones inactivas (un usuario reservado por conexión) y mide
+ * - tiempo hasta recibir el contador inicial en todas las conexiones
+ * - memoria usada por conexión (incluye el lado del cliente, que corre en la misma JVM)
+ * - tiempo de un latido a todas las conexiones
+ * - latencia de una notificación nueva hasta su conexión
+ * Cliente y servidor corren en la misma JVM: el límite de archivos abiertos debe admitir
+ * dos descriptores por conexión (p. ej. ulimit -n 65536).
+ *
+ * Ejecutar con: mvn test -Dtest=NotificationStreamLoadTest -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"notifications.stream.heartbeat-ms=3600000", "spring.jpa.show-sql=false"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationStreamLoadTest {
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final long FIRST_USER_ID = -100_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationStreams notificationStreams;
+
+    private final List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        responses.forEach(response -> response.cancel(true));
+        notificationService.deleteAllNotifications(FIRST_USER_ID);
+    }
+
+    @Test
+    void holdTenThousandIdleSubscribers() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+        CountDownLatch heartbeats = new CountDownLatch(SUBSCRIBERS);
+        CountDownLatch notified = new CountDownLatch(1);
+        long heapBefore = usedHeap();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + port + "/api/notifications/user/" + (FIRST_USER_ID + i) + "/stream"))
+                    .header("Accept", "text/event-stream")
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
+                    new EventCounter(connected, heartbeats, notified))));
+        }
+        assertTrue(connected.await(5, TimeUnit.MINUTES), "No se conectaron todas las conexiones");
+        long connectMs = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(SUBSCRIBERS, notificationStreams.connections());
+        long heapPerSubscriber = Math.max(0, usedHeap() - heapBefore) / SUBSCRIBERS;
+
+        start = System.nanoTime();
+        notificationStreams.heartbeat();
+        assertTrue(heartbeats.await(1, TimeUnit.MINUTES), "No llegó el latido a todas las conexiones");
+        long heartbeatMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        notificationService.createNotification(new NotificationCreateDTO(FIRST_USER_ID, Notification.Type.SYSTEM,
+                "Carga", "Notificación de prueba", Notification.Priority.LOW));
+        assertTrue(notified.await(10, TimeUnit.SECONDS), "No llegó la notificación");
+        long notifyMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%,d conexiones: conexión %,d ms, ~%,d bytes de heap por conexión, latido a todas %,d ms, " +
+                "notificación %,d ms%n", SUBSCRIBERS, connectMs, heapPerSubscriber, heartbeatMs, notifyMs);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        System.gc();
+        Thread.sleep(Duration.ofMillis(500));
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Cuenta, por conexión, el primer contador recibido, el primer latido y la primera notificación
+     */
+    private static final class EventCounter implements Flow.Subscriber<String> {
+
+        private final CountDownLatch connected;
+        private final CountDownLatch heartbeats;
+        private final CountDownLatch notified;
+        private final AtomicInteger seen = new AtomicInteger();
+
+        EventCounter(CountDownLatch connected, CountDownLatch heartbeats, CountDownLatch notified) {
+            this.connected = connected;
+            this.heartbeats = heartbeats;
+            this.notified = notified;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.equals("event:" + NotificationStreams.UNREAD_COUNT_EVENT) && seen.compareAndSet(0, 1)) {
+                connected.countDown();
+            } else if (line.startsWith(":") && seen.compareAndSet(1, 2)) {
+                heartbeats.countDown();
+            } else if (line.equals("event:" + NotificationStreams.NOTIFICATION_EVENT)) {
+                notified.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
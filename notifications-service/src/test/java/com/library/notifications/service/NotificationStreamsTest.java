@@ -0,0 +1,116 @@
+package com.library.notifications.service;
+
+import com.library.notifications.config.NotificationStreamConfig;
+import com.library.notifications.dto.NotificationResponseDTO;
+import com.library.notifications.dto.UnreadCountResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationStreamsTest {
+
+    @Test
+    void testBuffer_KeepsOnlyLatestUnreadCountAfterNotifications() {
+        NotificationStreams.Buffer buffer = new NotificationStreams.Buffer(5L, 4);
+
+        buffer.offerUnreadCount(1);
+        buffer.offerNotification(notification(10L));
+        buffer.offerUnreadCount(2);
+        buffer.offerHeartbeat();
+
+        assertEquals(List.of(
+                new NotificationStreams.Event(NotificationStreams.NOTIFICATION_EVENT, notification(10L)),
+                new NotificationStreams.Event(NotificationStreams.UNREAD_COUNT_EVENT, new UnreadCountResponseDTO(5L, 2L)),
+                new NotificationStreams.Event(null, "latido")), drain(buffer));
+        assertFalse(buffer.hasPending());
+    }
+
+    @Test
+    void testBuffer_OverflowDropsNotificationsAndAsksForResync() {
+        NotificationStreams.Buffer buffer = new NotificationStreams.Buffer(5L, 2);
+
+        for (long id = 1; id <= 4; id++) {
+            buffer.offerNotification(notification(id));
+        }
+
+        assertEquals(List.of(new NotificationStreams.Event(NotificationStreams.RESYNC_EVENT, Map.of("userId", 5L))), drain(buffer));
+
+        // Tras el resync se vuelven a encolar notificaciones
+        buffer.offerNotification(notification(5L));
+        assertEquals(List.of(new NotificationStreams.Event(NotificationStreams.NOTIFICATION_EVENT, notification(5L))), drain(buffer));
+    }
+
+    @Test
+    void testStalledWrite_ClosesConnectionWithoutBlockingOtherClients() throws Exception {
+        NotificationStreamConfig config = new NotificationStreamConfig();
+        config.setDispatchThreads(1);
+        config.setWriteTimeoutMs(100L);
+        NotificationStreams streams = new NotificationStreams(config);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        try {
+            // Cliente que no lee: su primera escritura queda bloqueada y ocupa el único hilo
+            streams.subscribe(1L, 0, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("Broken pipe");
+                }
+            });
+            streams.subscribe(2L, 0, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    delivered.countDown();
+                }
+            });
+
+            Thread.sleep(200);
+            assertEquals(1, delivered.getCount());
+            streams.checkStalledWrites();
+
+            assertTrue(delivered.await(2, TimeUnit.SECONDS));
+            assertFalse(streams.hasSubscribers(1L));
+            assertEquals(1, streams.connections());
+            assertEquals(2, streams.dispatchThreads());
+
+            // Al terminar la escritura bloqueada el grupo vuelve a su tamaño
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (streams.dispatchThreads() != 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, streams.dispatchThreads());
+        } finally {
+            release.countDown();
+            streams.shutdown();
+        }
+    }
+
+    private static List<NotificationStreams.Event> drain(NotificationStreams.Buffer buffer) {
+        List<NotificationStreams.Event> events = new ArrayList<>();
+        NotificationStreams.Event event;
+        while ((event = buffer.poll()) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static NotificationResponseDTO notification(Long id) {
+        NotificationResponseDTO notification = new NotificationResponseDTO();
+        notification.setId(id);
+        notification.setUserId(5L);
+        return notification;
+    }
+}
@@ -0,0 +1,90 @@
+package com.library.notifications.service;
+
+import com.library.notifications.config.UnreadCountersConfig;
+import com.library.notifications.repository.NotificationRepository;
+import com.library.notifications.repository.UnreadCountView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCountersTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private UnreadCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        UnreadCountersConfig config = new UnreadCountersConfig();
+        config.setStripes(4);
+        counters = new UnreadCounters(notificationRepository, config);
+    }
+
+    @Test
+    void testGet_LoadsOnceAndAppliesChanges() {
+        when(notificationRepository.countByUserIdAndReadFalse(7L)).thenReturn(3L);
+
+        assertEquals(3L, counters.get(7L));
+        counters.add(7L, 2);
+        counters.add(7L, -10);
+        counters.add(8L, 1);
+
+        assertEquals(0L, counters.get(7L));
+        assertEquals(OptionalLong.empty(), counters.peek(8L));
+        verify(notificationRepository, times(1)).countByUserIdAndReadFalse(7L);
+    }
+
+    @Test
+    void testGet_DiscardsLoadOverlappingAConfirmedChange() {
+        // Una notificación se confirma mientras se consulta: el primer valor leído ya no vale
+        when(notificationRepository.countByUserIdAndReadFalse(7L))
+                .thenAnswer(invocation -> {
+                    counters.add(7L, 1);
+                    return 3L;
+                })
+                .thenReturn(4L);
+
+        assertEquals(4L, counters.get(7L));
+        assertEquals(OptionalLong.of(4L), counters.peek(7L));
+    }
+
+    @Test
+    void testReconcile_CorrectsLoadedUsersAndLoadsNewOnes() {
+        for (long userId = 1; userId <= 1000; userId++) {
+            when(notificationRepository.countByUserIdAndReadFalse(userId)).thenReturn(2L);
+            counters.get(userId);
+        }
+        when(notificationRepository.countUnreadGroupedByUser()).thenReturn(List.of(row(1L, 5L), row(5000L, 1L)));
+
+        counters.reconcile();
+
+        assertEquals(OptionalLong.of(5L), counters.peek(1L));
+        assertEquals(OptionalLong.of(0L), counters.peek(2L));
+        assertEquals(OptionalLong.of(0L), counters.peek(1000L));
+        assertEquals(OptionalLong.of(1L), counters.peek(5000L));
+    }
+
+    private static UnreadCountView row(Long userId, Long unreadCount) {
+        return new UnreadCountView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getUnreadCount() {
+                return unreadCount;
+            }
+        };
+    }
+}
@@ -1,9 +1,10 @@
 package com.library.reports.service;
 
+import com.library.http.DownstreamWebClients;
 import com.library.reports.config.MicroservicesConfig;
 import com.library.reports.dto.DashboardStatisticsDTO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
@@ -12,12 +13,18 @@ import java.util.List;
 import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ReportsService {
 
-    private final WebClient.Builder webClientBuilder;
-    private final MicroservicesConfig microservicesConfig;
+    private final WebClient userClient;
+    private final WebClient bookClient;
+    private final WebClient loanClient;
+
+    public ReportsService(DownstreamWebClients downstreamWebClients, MicroservicesConfig microservicesConfig) {
+        this.userClient = downstreamWebClients.create("user-management", microservicesConfig.getUserManagement());
+        this.bookClient = downstreamWebClients.create("book-catalog", microservicesConfig.getBookCatalog());
+        this.loanClient = downstreamWebClients.create("loan-management", microservicesConfig.getLoanManagement());
+    }
 
     public DashboardStatisticsDTO getDashboardStatistics() {
         log.info("Generando estadísticas del dashboard");
@@ -48,11 +55,10 @@ public class ReportsService {
 
     private Long getTotalBooks() {
         try {
-            String url = microservicesConfig.getBookCatalog().getUrl() + "/api/books?size=1";
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = webClientBuilder.build()
+            Map<String, Object> response = bookClient
                     .get()
-                    .uri(url)
+                    .uri("/api/books?size=1")
                     .retrieve()
                     .bodyToMono(Map.class)
                     .block();
@@ -67,10 +73,9 @@ public class ReportsService {
 
     private Long getTotalUsers() {
         try {
-            String url = microservicesConfig.getUserManagement().getUrl() + "/api/users";
-            List<?> users = webClientBuilder.build()
+            List<?> users = userClient
                     .get()
-                    .uri(url)
+                    .uri("/api/users")
                     .retrieve()
                     .bodyToFlux(Object.class)
                     .collectList()
@@ -87,10 +92,9 @@ public class ReportsService {
             // Obtener todos los préstamos de todos los usuarios
             // Nota: En producción, sería mejor tener un endpoint específico para esto
             // Por ahora, intentamos obtener de un usuario conocido o usamos un endpoint de admin
-            String url = microservicesConfig.getLoanManagement().getUrl() + "/api/loans/user/1";
-            List<?> loans = webClientBuilder.build()
+            List<?> loans = loanClient
                     .get()
-                    .uri(url)
+                    .uri("/api/loans/user/1")
                     .retrieve()
                     .bodyToFlux(Object.class)
                     .collectList()
@@ -107,10 +111,9 @@ public class ReportsService {
         try {
             // Obtener préstamos activos de un usuario de ejemplo
             // En producción, necesitarías un endpoint que retorne todos los préstamos activos
-            String url = microservicesConfig.getLoanManagement().getUrl() + "/api/loans/user/1/active";
-            List<?> loans = webClientBuilder.build()
+            List<?> loans = loanClient
                     .get()
-                    .uri(url)
+                    .uri("/api/loans/user/1/active")
                     .retrieve()
                     .bodyToFlux(Object.class)
                     .collectList()
@@ -124,15 +127,15 @@ public class ReportsService {
 
     private Long getOverdueLoans() {
         try {
-            String url = microservicesConfig.getLoanManagement().getUrl() + "/api/loans/overdue";
-            List<?> loans = webClientBuilder.build()
+            // La consulta de vencidos es paginada: basta una página mínima para leer el total
+            ResponseEntity<Void> response = loanClient
                     .get()
-                    .uri(url)
+                    .uri("/api/loans/overdue?size=1")
                     .retrieve()
-                    .bodyToFlux(Object.class)
-                    .collectList()
+                    .toBodilessEntity()
                     .block();
-            return loans != null ? (long) loans.size() : 0L;
+            String total = response != null ? response.getHeaders().getFirst("X-Total-Count") : null;
+            return total != null ? Long.parseLong(total) : 0L;
         } catch (Exception e) {
             log.error("Error obteniendo préstamos vencidos: {}", e.getMessage());
         }
@@ -141,11 +144,10 @@ public class ReportsService {
 
     private Long getAvailableBooks() {
         try {
-            String url = microservicesConfig.getBookCatalog().getUrl() + "/api/books?size=1000";
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = webClientBuilder.build()
+            Map<String, Object> response = bookClient
                     .get()
-                    .uri(url)
+                    .uri("/api/books?size=1000")
                     .retrieve()
                     .bodyToMono(Map.class)
                     .block();
@@ -1,14 +1,13 @@
 package com.library.reports.service;
 
+import com.library.http.DownstreamWebClients;
 import com.library.reports.config.MicroservicesConfig;
 import com.library.reports.dto.DashboardStatisticsDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -17,12 +16,11 @@ import static org.mockito.Mockito.when;
 class ReportsServiceTest {
 
     @Mock
-    private WebClient.Builder webClientBuilder;
+    private DownstreamWebClients downstreamWebClients;
 
     @Mock
     private MicroservicesConfig microservicesConfig;
 
-    @InjectMocks
     private ReportsService reportsService;
 
     @BeforeEach
@@ -40,6 +38,8 @@ class ReportsServiceTest {
         when(microservicesConfig.getBookCatalog()).thenReturn(bookCatalog);
         when(microservicesConfig.getUserManagement()).thenReturn(userManagement);
         when(microservicesConfig.getLoanManagement()).thenReturn(loanManagement);
+
+        reportsService = new ReportsService(downstreamWebClients, microservicesConfig);
     }
 
     @Test
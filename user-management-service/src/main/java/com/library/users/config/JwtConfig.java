@@ -1,7 +1,10 @@
 package com.library.users.config;
 
+import com.library.security.jwt.JwtSigner;
+import com.library.security.jwt.JwtVerifier;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
@@ -11,10 +14,19 @@ public class JwtConfig {
 
     private String secret;
     private Long expiration;
-}
-
-
-
 
+    /**
+     * Cantidad máxima de tokens verificados que se conservan hasta su expiración (0 = sin caché)
+     */
+    private int cacheSize = JwtVerifier.DEFAULT_CACHE_SIZE;
 
+    @Bean
+    public JwtVerifier jwtVerifier() {
+        return new JwtVerifier(secret, cacheSize);
+    }
 
+    @Bean
+    public JwtSigner jwtSigner() {
+        return new JwtSigner(secret);
+    }
+}
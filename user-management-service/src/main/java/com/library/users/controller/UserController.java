@@ -135,6 +135,42 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    @GetMapping("/status")
+    @Operation(
+        summary = "Obtener estado de varios usuarios", 
+        description = "Devuelve el ID, el estado y el rol de varios usuarios (máximo 500) en una sola llamada. " +
+                     "Los usuarios inexistentes no se incluyen en la respuesta. Requiere autenticación."
+    )
+    public ResponseEntity<List<UserStatusDTO>> getUserStatuses(
+            @Parameter(description = "IDs de los usuarios, separados por coma", example = "1,2,3", required = true) @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUserStatuses(ids));
+    }
+
+    @GetMapping("/{userId}/status")
+    @Operation(
+        summary = "Obtener estado del usuario", 
+        description = "Devuelve solo el ID, el estado y el rol del usuario, sin datos de perfil ni imagen. " +
+                     "Lo usan otros servicios para verificar que el usuario existe y no está bloqueado. Requiere autenticación.",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200", 
+                description = "Usuario encontrado",
+                content = @io.swagger.v3.oas.annotations.media.Content(
+                    mediaType = "application/json",
+                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = UserStatusDTO.class)
+                )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "404", 
+                description = "Usuario no encontrado"
+            )
+        }
+    )
+    public ResponseEntity<UserStatusDTO> getUserStatus(
+            @Parameter(description = "ID único del usuario", example = "1", required = true) @PathVariable Long userId) {
+        return ResponseEntity.ok(userService.getUserStatus(userId));
+    }
+
     @PutMapping("/{userId}")
     @Operation(
         summary = "Actualizar usuario", 
@@ -0,0 +1,23 @@
+package com.library.users.dto;
+
+import com.library.users.model.User;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado y rol de un usuario, sin datos de perfil. Pensado para las verificaciones de otros servicios.")
+public class UserStatusDTO {
+
+    @Schema(description = "ID único del usuario", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long id;
+
+    @Schema(description = "Estado del usuario", example = "ACTIVO", allowableValues = {"ACTIVO", "BLOQUEADO"}, requiredMode = Schema.RequiredMode.REQUIRED)
+    private User.Status status;
+
+    @Schema(description = "Rol del usuario en el sistema", example = "USUARIO", allowableValues = {"USUARIO", "ADMINISTRADOR"}, requiredMode = Schema.RequiredMode.REQUIRED)
+    private User.Role role;
+}
@@ -1,9 +1,14 @@
 package com.library.users.repository;
 
+import com.library.users.dto.UserStatusDTO;
 import com.library.users.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,6 +19,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     long countByStatus(User.Status status);
+
+    /**
+     * Estado y rol de un usuario sin cargar la imagen de perfil
+     */
+    @Query("SELECT new com.library.users.dto.UserStatusDTO(u.id, u.status, u.role) FROM User u WHERE u.id = :userId")
+    Optional<UserStatusDTO> findStatusById(@Param("userId") Long userId);
+
+    @Query("SELECT new com.library.users.dto.UserStatusDTO(u.id, u.status, u.role) FROM User u WHERE u.id IN :userIds")
+    List<UserStatusDTO> findStatusByIdIn(@Param("userIds") Collection<Long> userIds);
 }
 
 
@@ -1,5 +1,7 @@
 package com.library.users.security;
 
+import com.library.security.jwt.JwtVerifier;
+import com.library.security.jwt.VerifiedToken;
 import com.library.users.model.User;
 import com.library.users.repository.UserRepository;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -26,7 +28,7 @@ import java.util.Collections;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtVerifier jwtVerifier;
     private final UserRepository userRepository;
 
     @Override
@@ -43,37 +45,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String jwt = authHeader.substring(7);
 
         try {
-            // Validar el token antes de extraer información
-            if (jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
-                String role = jwtUtil.extractRole(jwt);
+            // Una sola verificación por petición (firma y expiración), con caché de tokens ya verificados
+            VerifiedToken token = jwtVerifier.verify(jwt);
+            String email = token.subject();
+            String role = token.role();
 
-                // Validar que el usuario existe en la base de datos
-                if (email != null) {
-                    User user = userRepository.findByEmail(email).orElse(null);
-                    if (user == null) {
-                        log.warn("Token válido pero usuario no encontrado en BD: {}", email);
-                        filterChain.doFilter(request, response);
-                        return;
-                    }
-                    
-                    // Verificar que el usuario no esté bloqueado
-                    if (user.getStatus() == User.Status.BLOQUEADO) {
-                        log.warn("Intento de acceso con usuario bloqueado: {}", email);
-                        filterChain.doFilter(request, response);
-                        return;
-                    }
+            // Validar que el usuario existe en la base de datos
+            if (email != null) {
+                User user = userRepository.findByEmail(email).orElse(null);
+                if (user == null) {
+                    log.warn("Token válido pero usuario no encontrado en BD: {}", email);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                
+                // Verificar que el usuario no esté bloqueado
+                if (user.getStatus() == User.Status.BLOQUEADO) {
+                    log.warn("Intento de acceso con usuario bloqueado: {}", email);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                    // Solo establecer autenticación si no existe una ya establecida
-                    if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                email,
-                                null,
-                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                        );
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                // Solo establecer autenticación si no existe una ya establecida
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            email,
+                            null,
+                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
         } catch (ExpiredJwtException e) {
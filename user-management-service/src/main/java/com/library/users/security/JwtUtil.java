@@ -1,28 +1,30 @@
 package com.library.users.security;
 
+import com.library.security.jwt.JwtSigner;
+import com.library.security.jwt.JwtVerifier;
+import com.library.security.jwt.VerifiedToken;
 import com.library.users.config.JwtConfig;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Emisión y lectura de tokens. La verificación se delega en el JwtVerifier compartido,
+ * que construye la clave una sola vez y guarda los tokens ya verificados.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtUtil {
 
     private final JwtConfig jwtConfig;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
-    }
+    private final JwtSigner jwtSigner;
+    private final JwtVerifier jwtVerifier;
 
     public String generateToken(Long userId, String email, String role) {
         Map<String, Object> claims = new HashMap<>();
@@ -31,26 +33,19 @@ public class JwtUtil {
         claims.put("role", role);
         claims.put("sub", email); // subject
 
-        return Jwts.builder()
-                .claims(claims)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtConfig.getExpiration()))
-                .signWith(getSigningKey())
-                .compact();
+        return jwtSigner.sign(claims, Duration.ofMillis(jwtConfig.getExpiration()));
     }
 
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", Long.class);
+        return verify(token).userId();
     }
 
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
+        return verify(token).role();
     }
 
     public Date extractExpiration(String token) {
@@ -58,17 +53,12 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token).claims());
     }
 
-    private Claims extractAllClaims(String token) {
+    private VerifiedToken verify(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtVerifier.verify(token);
         } catch (Exception e) {
             throw new RuntimeException("Error al extraer claims del token: " + e.getMessage(), e);
         }
@@ -84,7 +74,7 @@ public class JwtUtil {
                 return false;
             }
             final String tokenEmail = extractEmail(token);
-            return tokenEmail != null && tokenEmail.equals(email) && !isTokenExpired(token);
+            return tokenEmail != null && tokenEmail.equals(email);
         } catch (Exception e) {
             return false;
         }
@@ -95,12 +85,10 @@ public class JwtUtil {
             if (token == null || token.isEmpty()) {
                 return false;
             }
-            Claims claims = extractAllClaims(token);
-            return claims != null && !isTokenExpired(token);
+            verify(token);
+            return true;
         } catch (Exception e) {
             return false;
         }
     }
 }
-
-
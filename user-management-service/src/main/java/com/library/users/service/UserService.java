@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +24,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserService {
 
+    private static final int MAX_STATUS_BATCH = 500;
+
     private final UserRepository userRepository;
     private final SessionRepository sessionRepository;
     private final PasswordEncoder passwordEncoder;
@@ -147,6 +150,24 @@ public class UserService {
         return UserResponseDTO.fromEntity(user);
     }
 
+    @Transactional(readOnly = true)
+    public UserStatusDTO getUserStatus(Long userId) {
+        return userRepository.findStatusById(userId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    }
+
+    /**
+     * Estado de varios usuarios con una sola consulta; los inexistentes no se incluyen
+     */
+    @Transactional(readOnly = true)
+    public List<UserStatusDTO> getUserStatuses(List<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_STATUS_BATCH) {
+            throw new RuntimeException("Se puede consultar el estado de como máximo " + MAX_STATUS_BATCH + " usuarios a la vez");
+        }
+        return ids.isEmpty() ? List.of() : userRepository.findStatusByIdIn(ids);
+    }
+
     @Transactional
     public UserResponseDTO updateUser(Long userId, UserUpdateDTO updateDTO) {
         log.info("Actualizando usuario: {}", userId);
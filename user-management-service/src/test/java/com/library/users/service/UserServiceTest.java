@@ -4,6 +4,7 @@ import com.library.users.config.JwtConfig;
 import com.library.users.dto.UserLoginDTO;
 import com.library.users.dto.UserRegistrationDTO;
 import com.library.users.dto.UserResponseDTO;
+import com.library.users.dto.UserStatusDTO;
 import com.library.users.model.User;
 import com.library.users.repository.SessionRepository;
 import com.library.users.repository.UserRepository;
@@ -16,7 +17,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -117,6 +120,37 @@ class UserServiceTest {
 
         assertThrows(RuntimeException.class, () -> userService.login(loginDTO));
     }
+
+    @Test
+    void testGetUserStatus_DoesNotLoadProfile() {
+        when(userRepository.findStatusById(1L))
+                .thenReturn(Optional.of(new UserStatusDTO(1L, User.Status.BLOQUEADO, User.Role.USUARIO)));
+
+        UserStatusDTO result = userService.getUserStatus(1L);
+
+        assertEquals(User.Status.BLOQUEADO, result.getStatus());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGetUserStatus_NotFound() {
+        when(userRepository.findStatusById(99L)).thenReturn(Optional.empty());
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> userService.getUserStatus(99L));
+        assertEquals("Usuario no encontrado", ex.getMessage());
+    }
+
+    @Test
+    void testGetUserStatuses_OneQueryWithoutDuplicates() {
+        when(userRepository.findStatusByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new UserStatusDTO(1L, User.Status.ACTIVO, User.Role.USUARIO)));
+
+        List<UserStatusDTO> result = userService.getUserStatuses(List.of(1L, 2L, 1L));
+
+        assertEquals(1, result.size());
+        assertThrows(RuntimeException.class,
+                () -> userService.getUserStatuses(LongStream.rangeClosed(1, 501).boxed().toList()));
+    }
 }
 
 